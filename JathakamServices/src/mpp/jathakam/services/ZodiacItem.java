@@ -34,7 +34,7 @@ import java.io.Serializable;
 import java.util.Comparator;
 import java.util.Objects;
 import mpp.jathakam.services.types.CUSP_AND_PLANETS;
-import mpp.jathakam.services.types.Raasi;
+import mpp.jathakam.services.types.ZodiacResolver;
 import mpp.jathakam.services.util.Utils;
 
 /**
@@ -195,9 +195,8 @@ public class ZodiacItem
 
     private void initialize()
     {
-        // Get Raasi for the cusp/planet
-        // subtracting -1 because the first Raasi in Enum is None.
-        occupiedHouse = Raasi.getRaasi(position).ordinal()-1;
+        // Get Raasi for the cusp/planet, 0 for Aries
+        occupiedHouse = ZodiacResolver.getSignIndex(position);
         
         info.append(cuspOrPlanet).append("\n").append(info);
     }
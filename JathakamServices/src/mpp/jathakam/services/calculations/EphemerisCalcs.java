@@ -4,7 +4,6 @@
 package mpp.jathakam.services.calculations;
 
 import java.util.logging.Level;
-import mpp.jathakam.ephimeris.EphemerisResources;
 import mpp.jathakam.services.JathakamuException;
 import mpp.jathakam.services.Profile;
 import mpp.jathakam.services.ProfileSettings;
@@ -19,27 +18,55 @@ import static mpp.jathakam.services.JathakamLogger.LOGGER;
  * All the calculations related to Swiss EphemerisCalcs (or java package)goes
  * here
  *
+ * SwissEph instance is taken from the EphemerisEngine pool, close this to
+ * give it back.
+ *
  * @author Phani
  */
 public class EphemerisCalcs
+    implements AutoCloseable
 {
 
     private final Profile profile;
-    private final SwissEph swissEph;
+    private final EphemerisEngine engine;
+    private SwissEph swissEph;
     private final StringBuffer serr = new StringBuffer();
     private double ayanamsa;
     
     /* ascmc array is populated when calculating house/cusps */
     private final double []ascmc = new double[10];
 
+    /* Buffers reused by computeAll */
+    private final double[] xx = new double[6];
+    private final double[] cuspBuffer = new double[13];
+
     public EphemerisCalcs(Profile profile)
+    {
+        this(profile, EphemerisEngine.getInstance());
+    }
+
+    public EphemerisCalcs(Profile profile, EphemerisEngine engine)
     {
         this.profile = profile;
-        swissEph = new SwissEph(EphemerisResources.getEphemerisPath());
+        this.engine = engine;
+        swissEph = engine.checkout();
 
         initializeEphemeris();
     }
 
+    /**
+     * Return the SwissEph instance to the pool, this object should not be
+     * used after this.
+     */
+    @Override
+    public void close()
+    {
+        SwissEph instance = swissEph;
+
+        swissEph = null;
+        engine.release(instance);
+    }
+
     private void initializeEphemeris()
     {
         ProfileSettings settings = profile.getProfileSetting();
@@ -153,6 +180,115 @@ public class EphemerisCalcs
         return rtnCusp;
     }
 
+    /**
+     * Positions of all the grahas and cusps of the given profile, using a
+     * SwissEph instance from the shared EphemerisEngine.
+     *
+     * @param profile chart to compute
+     * @return positions of the chart
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public static ChartPositions computeAll(Profile profile)
+            throws JathakamuException
+    {
+        try (EphemerisCalcs ephCalc = new EphemerisCalcs(profile))
+        {
+            return ephCalc.computeAll(new ChartPositions());
+        }
+    }
+
+    /**
+     * Fill the positions of all the grahas (Sun to Pluto, Rahu and Ketu) and
+     * the cusps of the profile. Settings are read once and the ayanamsa is
+     * deducted from all the longitudes in one pass at the end.
+     *
+     * @param positions filled with the positions, can be reused
+     * @return the given positions
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public ChartPositions computeAll(ChartPositions positions)
+            throws JathakamuException
+    {
+        ProfileSettings settings = profile.getProfileSetting();
+        double tjd_ut = profile.getDateTime();
+        int ephFlags = settings.getEphemerisFlags();
+        int rahu = (settings.isTrueNode()) ? SweConst.SE_TRUE_NODE : SweConst.SE_MEAN_NODE;
+
+        printEphemerisFlags(ephFlags);
+        serr.setLength(0);
+
+        for (int graha = SweConst.SE_SUN; graha <= ChartPositions.RAHU; graha++)
+        {
+            int planet = (graha == ChartPositions.RAHU) ? rahu : graha;
+            int rtnFlag = swissEph.swe_calc_ut(tjd_ut, planet, ephFlags, xx, serr);
+
+            if (rtnFlag == SweConst.ERR)
+            {
+                throw new JathakamuException(
+                        "Error Occured while getting planet details for "
+                        + swissEph.swe_get_planet_name(planet) + "\nReturn status is "
+                        + rtnFlag + "\n Error is " + serr);
+            }
+
+            positions.longitudes[graha] = xx[0];
+            positions.speeds[graha] = xx[3];
+
+            if (positions.names[graha] == null)
+            {
+                positions.names[graha] = (graha == ChartPositions.RAHU)
+                        ? "Rahu" : swissEph.swe_get_planet_name(planet);
+            }
+        }
+
+        int rtnFlag = swissEph.swe_houses(tjd_ut, ephFlags, profile.getLatitude(),
+                profile.getLongitude(), settings.getHouseSystem(), cuspBuffer,
+                positions.ascmc);
+
+        if (rtnFlag == SweConst.ERR)
+        {
+            throw new JathakamuException(
+                    "Error Occured while getting cusp details. Return status is "
+                    + rtnFlag + "\n Error is " + serr);
+        }
+
+        System.arraycopy(cuspBuffer, 1, positions.cusps, 0, ChartPositions.HOUSES);
+        System.arraycopy(positions.ascmc, 0, ascmc, 0, ascmc.length);
+
+        if (settings.deductAyanamsa())
+        {
+            for (int graha = SweConst.SE_SUN; graha <= ChartPositions.RAHU; graha++)
+            {
+                positions.longitudes[graha] = SupportCalcs.degnorm(positions.longitudes[graha] - ayanamsa);
+            }
+
+            for (int house = 0; house < ChartPositions.HOUSES; house++)
+            {
+                positions.cusps[house] = SupportCalcs.degnorm(positions.cusps[house] - ayanamsa);
+            }
+        }
+        else
+        {
+            for (int graha = SweConst.SE_SUN; graha <= ChartPositions.RAHU; graha++)
+            {
+                positions.longitudes[graha] = SupportCalcs.degnorm(positions.longitudes[graha]);
+            }
+        }
+
+        // Ketu is always opposite to Rahu
+        positions.longitudes[ChartPositions.KETU] = SupportCalcs.degnorm(180 + positions.longitudes[ChartPositions.RAHU]);
+        positions.speeds[ChartPositions.KETU] = positions.speeds[ChartPositions.RAHU];
+        positions.names[ChartPositions.KETU] = "Ketu";
+
+        for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+        {
+            positions.retrogrades[graha] = positions.speeds[graha] < 0;
+        }
+
+        positions.ayanamsa = ayanamsa;
+
+        return positions;
+    }
+
     public double getAyanamsa()
     {
         return ayanamsa;
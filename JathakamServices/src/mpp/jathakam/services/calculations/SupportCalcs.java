@@ -12,30 +12,29 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.TimeZone;
-import java.util.function.Function;
+import java.util.TreeMap;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
 
-import static java.util.Comparator.comparing;
-
 import mpp.jathakam.services.Constants;
 import mpp.jathakam.services.JathakamuException;
 import mpp.jathakam.services.Profile;
+import mpp.jathakam.services.types.DoubleRange;
 import mpp.jathakam.services.types.LordNode;
 import mpp.jathakam.services.types.Place;
 import mpp.jathakam.services.types.Planet;
 import mpp.jathakam.services.types.Raasi;
 import mpp.jathakam.services.types.Range;
+import mpp.jathakam.services.types.ZodiacResolver;
 import mpp.jathakam.services.VDNode;
 import mpp.jathakam.services.util.Utils;
 import swisseph.SweDate;
@@ -55,11 +54,14 @@ public final class SupportCalcs
 {
     private final static SwissLib swephLib = new SwissLib();
     
-    private final static Map<Range, List<LordNode>> LORDS_TABLE = new HashMap<>();
+    private final static NavigableMap<DoubleRange, List<LordNode>> LORDS_TABLE = new TreeMap<>();
     private final static Map<Integer, List<Planet>> HORARY_249_TABLE = new HashMap<>();
     private final static Map<Integer, List<Planet>> HORARY_2193_TABLE = new HashMap<>();
-    private final static Map<Integer, Range> HORARY_249_RANGE_TABLE = new HashMap<>();
-    private final static Map<Integer, Range> HORARY_2193_RANGE_TABLE = new HashMap<>();
+    private final static Map<Integer, DoubleRange> HORARY_249_RANGE_TABLE = new HashMap<>();
+    private final static Map<Integer, DoubleRange> HORARY_2193_RANGE_TABLE = new HashMap<>();
+    
+    /* Sorted view of LORDS_TABLE used for lookups */
+    private final static LordsIndex LORDS_INDEX;
     
     // beginFor249 and endFor249 are used for populating horary tables 
     private static double beginFor249 = 0;
@@ -74,6 +76,7 @@ public final class SupportCalcs
     {
         LOGGER.log(Level.INFO, "Initializing Lords Table...");
         initializeLordsTable2();
+        LORDS_INDEX = LordsIndex.build(LORDS_TABLE);
         LOGGER.log(Level.INFO, "Initialized Lords Table !!");
         
         saveToFile();
@@ -309,9 +312,9 @@ public final class SupportCalcs
         
         boolean rtnValue;
         Raasi beginRaasi = Raasi.getRaasi(begin);
-        Range beginRaasiExtent = beginRaasi.getExtent();
+        DoubleRange beginRaasiExtent = beginRaasi.getExtent();
         
-        rtnValue = beginRaasiExtent.getMax().doubleValue() < end;
+        rtnValue = beginRaasiExtent.getMax() < end;
         
         return rtnValue;
     }
@@ -333,14 +336,14 @@ public final class SupportCalcs
     
     public static double getAscendent(int horaryNum)
     {
-        Range range = HORARY_249_RANGE_TABLE.get(horaryNum);
-        return range.getMin().doubleValue();
+        DoubleRange range = HORARY_249_RANGE_TABLE.get(horaryNum);
+        return range.getMin();
     }
     
     public static double getAscendent2193(int horaryNum)
     {
-        Range range = HORARY_2193_RANGE_TABLE.get(horaryNum);
-        return range.getMin().doubleValue();
+        DoubleRange range = HORARY_2193_RANGE_TABLE.get(horaryNum);
+        return range.getMin();
     }
     
     /**
@@ -353,9 +356,9 @@ public final class SupportCalcs
      */
     public static Range getRangeFor249Horary(int horaryNum)
     {
-        Range range = HORARY_249_RANGE_TABLE.get(horaryNum);
+        DoubleRange range = HORARY_249_RANGE_TABLE.get(horaryNum);
         
-        return range;
+        return (range == null) ? null : range.toRange();
     }
     
     /**
@@ -383,42 +386,73 @@ public final class SupportCalcs
      */
     public static Range getRangeFor2193Horary(int horaryNum)
     {
-        Range range = HORARY_2193_RANGE_TABLE.get(horaryNum);
+        DoubleRange range = HORARY_2193_RANGE_TABLE.get(horaryNum);
         
-        return range;
+        return (range == null) ? null : range.toRange();
+    }
+    
+    /**
+     * Sorted index of the lords table, for callers which need the division
+     * boundaries or the lords as planet ordinals.
+     * 
+     * @return lords index
+     */
+    public static LordsIndex getLordsIndex()
+    {
+        return LORDS_INDEX;
     }
     
     public static List<LordNode> getLords(double planetLongitude)
     {
-        Optional<Range> key = LORDS_TABLE.keySet().stream()
-                .filter(r -> r.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
-                .findFirst();
+        int index = LORDS_INDEX.indexOf(planetLongitude);
         
-        if (!key.isPresent())
+        if (index < 0)
         {
             return new ArrayList<>();
         }
         
-        List<LordNode> entry = LORDS_TABLE.get(key.get());
-        return entry;
+        return LORDS_INDEX.getLordNodes(index);
     }
     
     public static List<Planet> getLordsWithSignLord(double planetLongitude)
     {
-        List<LordNode> entry = getLords(planetLongitude);
+        Planet signLord = ZodiacResolver.getSignLord(planetLongitude);
+        List<Planet> rtnList = new ArrayList<>(LordsIndex.LEVELS + 1);
         
-        Raasi raasi = Raasi.getRaasi(planetLongitude);
-        Planet signLord = Planet.getSignLord(raasi);
+        rtnList.add(signLord);
         
-        List<Planet> rtnList = entry.stream()
-                .map((LordNode t) -> t.getPlanet())
-                .collect(Collectors.toList());
+        int index = LORDS_INDEX.indexOf(planetLongitude);
         
-        rtnList.add(0, signLord);
+        if (index >= 0)
+        {
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                rtnList.add(LORDS_INDEX.getLord(index, level));
+            }
+        }
 
         return rtnList;
     }
     
+    /*
+     * Linear scan of LORDS_TABLE, which is how getLords used to work. Kept
+     * only to compare against LordsIndex in tests and benchmarks.
+     */
+    static List<LordNode> scanLords(double planetLongitude)
+    {
+        Optional<DoubleRange> key = LORDS_TABLE.keySet().stream()
+                .filter(r -> r.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
+                .findFirst();
+        
+        if (!key.isPresent())
+        {
+            return new ArrayList<>();
+        }
+        
+        List<LordNode> entry = LORDS_TABLE.get(key.get());
+        return entry;
+    }
+    
     /**
      * 
      * @param dob date of birth or time for which Vimshottari dasa tree is needed
@@ -614,7 +648,7 @@ public final class SupportCalcs
             {
                 mahaDasaStart = mahaDasaEnd;
                 mahaDasaEnd += dasaduration;
-                Range mahaDasaRange = new Range.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
+                DoubleRange mahaDasaRange = new DoubleRange.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
                 double mahaDasaTimeFraction = mahaDasaPlanet.getDasaDuration(); 
                 LordNode mahaLordNode = new LordNode(mahaDasaPlanet, mahaDasaRange, mahaDasaTimeFraction);
                 double buktiStart;
@@ -626,7 +660,7 @@ public final class SupportCalcs
                     buktiEnd += dasaduration * (bukthiPlanet.getDasaDuration() / 120D);
                     double buktiStartRange = Utils.normalize(buktiStart/60D);
                     double buktiEndRange = Utils.normalize(buktiEnd/60D);
-                    Range buktiRange = new Range.Builder().values(buktiStartRange, buktiEndRange).build();
+                    DoubleRange buktiRange = new DoubleRange.Builder().values(buktiStartRange, buktiEndRange).build();
                     double buktiTimeFraction = mahaDasaTimeFraction * bukthiPlanet.getDasaDuration() / 120D;
                     LordNode buktiLordNode = new LordNode(bukthiPlanet, buktiRange, buktiTimeFraction);
                     double pratyantaraStart;
@@ -645,7 +679,7 @@ public final class SupportCalcs
                         pratyantaraEnd += buktiDuration * (pratyantaraPlanet.getDasaDuration() / 120D);
                         double pratyantaraStartRange = Utils.normalize(pratyantaraStart/60D);
                         double pratyantaraEndRange = Utils.normalize(pratyantaraEnd/60D);
-                        Range pratyantaraRange = new Range.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
+                        DoubleRange pratyantaraRange = new DoubleRange.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
                         double pratyantaraTimeFraction = buktiTimeFraction * pratyantaraPlanet.getDasaDuration() / 120D;
                         LordNode pratyantaraLordNode = new LordNode(pratyantaraPlanet, pratyantaraRange, pratyantaraTimeFraction);
                         double sookshmaStart;
@@ -665,7 +699,7 @@ public final class SupportCalcs
                             sookshmaEnd += pratyantaraDuration * (sookshmaPlanet.getDasaDuration() / 120D);
                             double sookshmaStartRange = Utils.normalize(sookshmaStart/60D);
                             double sookshmaEndRange = Utils.normalize(sookshmaEnd/60D);
-                            Range sookshmaRange = new Range.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
+                            DoubleRange sookshmaRange = new DoubleRange.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
                             double sookshmaTimeFraction = pratyantaraTimeFraction * sookshmaPlanet.getDasaDuration() / 120D;
                             LordNode sookshmaLordNode = new LordNode(sookshmaPlanet,sookshmaRange, sookshmaTimeFraction);
                             double pranaStart;
@@ -678,7 +712,7 @@ public final class SupportCalcs
                                 pranaEnd += sookshmaDuration * (pranaPlanet.getDasaDuration() / 120D);
                                 double pranaStartRange = Utils.normalize(pranaStart/60D);
                                 double pranaEndRange = Utils.normalize(pranaEnd/60D);
-                                Range pranaRange = new Range.Builder().values(pranaStartRange, pranaEndRange).build();
+                                DoubleRange pranaRange = new DoubleRange.Builder().values(pranaStartRange, pranaEndRange).build();
                                 double pranaTimeFraction = sookshmaTimeFraction * pranaPlanet.getDasaDuration() / 120D;
                                 LordNode pranaNode = new LordNode(pranaPlanet, pranaRange, pranaTimeFraction);
                                 
@@ -719,13 +753,13 @@ public final class SupportCalcs
              */
             double dasaduration = 800D;
             double mahaDasaStart;
-            double mahaDasaEnd = entry;
+            double mahaDasaEnd = entry * 60D; // segment start is in degrees
         
             for (Planet mahaDasaPlanet : Planet.getVDPlanetArray(Planet.KETU))
             {
                 mahaDasaStart = mahaDasaEnd;
                 mahaDasaEnd += dasaduration;
-                Range mahaDasaRange = new Range.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
+                DoubleRange mahaDasaRange = new DoubleRange.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
                 double mahaDasaTimeFraction = mahaDasaPlanet.getDasaDuration(); 
                 LordNode mahaLordNode = new LordNode(mahaDasaPlanet, mahaDasaRange, mahaDasaTimeFraction);
                 double buktiStart;
@@ -737,7 +771,7 @@ public final class SupportCalcs
                     buktiEnd += dasaduration * (bukthiPlanet.getDasaDuration() / 120D);
                     double buktiStartRange = Utils.normalize(buktiStart/60D);
                     double buktiEndRange = Utils.normalize(buktiEnd/60D);
-                    Range buktiRange = new Range.Builder().values(buktiStartRange, buktiEndRange).build();
+                    DoubleRange buktiRange = new DoubleRange.Builder().values(buktiStartRange, buktiEndRange).build();
                     double buktiTimeFraction = mahaDasaTimeFraction * bukthiPlanet.getDasaDuration() / 120D;
                     LordNode buktiLordNode = new LordNode(bukthiPlanet, buktiRange, buktiTimeFraction);
                     double pratyantaraStart;
@@ -756,7 +790,7 @@ public final class SupportCalcs
                         pratyantaraEnd += buktiDuration * (pratyantaraPlanet.getDasaDuration() / 120D);
                         double pratyantaraStartRange = Utils.normalize(pratyantaraStart/60D);
                         double pratyantaraEndRange = Utils.normalize(pratyantaraEnd/60D);
-                        Range pratyantaraRange = new Range.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
+                        DoubleRange pratyantaraRange = new DoubleRange.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
                         double pratyantaraTimeFraction = buktiTimeFraction * pratyantaraPlanet.getDasaDuration() / 120D;
                         LordNode pratyantaraLordNode = new LordNode(pratyantaraPlanet, pratyantaraRange, pratyantaraTimeFraction);
                         double sookshmaStart;
@@ -776,7 +810,7 @@ public final class SupportCalcs
                             sookshmaEnd += pratyantaraDuration * (sookshmaPlanet.getDasaDuration() / 120D);
                             double sookshmaStartRange = Utils.normalize(sookshmaStart/60D);
                             double sookshmaEndRange = Utils.normalize(sookshmaEnd/60D);
-                            Range sookshmaRange = new Range.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
+                            DoubleRange sookshmaRange = new DoubleRange.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
                             double sookshmaTimeFraction = pratyantaraTimeFraction * sookshmaPlanet.getDasaDuration() / 120D;
                             LordNode sookshmaLordNode = new LordNode(sookshmaPlanet,sookshmaRange, sookshmaTimeFraction);
                             double pranaStart;
@@ -789,7 +823,7 @@ public final class SupportCalcs
                                 pranaEnd += sookshmaDuration * (pranaPlanet.getDasaDuration() / 120D);
                                 double pranaStartRange = Utils.normalize(pranaStart/60D);
                                 double pranaEndRange = Utils.normalize(pranaEnd/60D);
-                                Range pranaRange = new Range.Builder().values(pranaStartRange, pranaEndRange).build();
+                                DoubleRange pranaRange = new DoubleRange.Builder().values(pranaStartRange, pranaEndRange).build();
                                 double pranaTimeFraction = sookshmaTimeFraction * pranaPlanet.getDasaDuration() / 120D;
                                 LordNode pranaNode = new LordNode(pranaPlanet, pranaRange, pranaTimeFraction);
                                 
@@ -881,7 +915,7 @@ public final class SupportCalcs
             horaryPlanetList.add(pratyantaraPlanet);
         }
         
-        Range range = new Range.Builder().values(begin, newEnd).build();
+        DoubleRange range = new DoubleRange.Builder().values(begin, newEnd).build();
         if (isHorary249)
         {
             horaryTable.put(++horary249Index, horaryPlanetList);
@@ -900,7 +934,7 @@ public final class SupportCalcs
             List<Planet> newPlanetList = new ArrayList<>(horaryPlanetList);
 
             newPlanetList.set(0, signStar);
-            range = new Range.Builder().values(newEnd, end).build();
+            range = new DoubleRange.Builder().values(newEnd, end).build();
             if (isHorary249)
             {
                 horaryTable.put(++horary249Index, newPlanetList);
@@ -969,7 +1003,7 @@ public final class SupportCalcs
         {
             for (Entry<Integer, List<Planet>> entry : HORARY_249_TABLE.entrySet())
             {
-                Range range = HORARY_249_RANGE_TABLE.get(entry.getKey());
+                DoubleRange range = HORARY_249_RANGE_TABLE.get(entry.getKey());
                 String str = entry.getKey() + "\t"+ range + " = "+ entry.getValue();
                 bw249.write(str);
                 bw249.newLine();
@@ -988,7 +1022,7 @@ public final class SupportCalcs
         {    
             for (Entry<Integer, List<Planet>> entry : HORARY_2193_TABLE.entrySet())
             {
-                Range range = HORARY_2193_RANGE_TABLE.get(entry.getKey());
+                DoubleRange range = HORARY_2193_RANGE_TABLE.get(entry.getKey());
                 String str = entry.getKey() + "\t" + range + " = "+ entry.getValue();
                 bw2193.write(str);
                 bw2193.newLine();
@@ -1006,12 +1040,8 @@ public final class SupportCalcs
                 BufferedWriter writer = new BufferedWriter(fw);
         )
         {            
-            Function<Entry<Range, List<LordNode>>, Double> keyComparator;
-            keyComparator = (r -> r.getKey().getMin().doubleValue());
-            Comparator<Entry<Range, List<LordNode>>> comp = comparing(keyComparator);
-            
+            // LORDS_TABLE is sorted on the range
             LORDS_TABLE.entrySet().stream()
-                    .sorted(comp)
                     .forEach(entry ->
             {
                 try
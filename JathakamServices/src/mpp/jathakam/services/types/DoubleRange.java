@@ -0,0 +1,151 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakam.services.types;
+
+import java.io.Serializable;
+
+/**
+ * Range of longitudes [min..max) with primitive bounds. Checking a value
+ * against the range does not box or allocate anything.
+ *
+ * Ranges are ordered by min and then by max, so they can be used as keys of
+ * a NavigableMap. To find the range holding a value use
+ * {@code map.floorKey(DoubleRange.lookupKey(value))}.
+ *
+ * @author phani
+ */
+public final class DoubleRange
+    implements Serializable, Comparable<DoubleRange>
+{
+    private static final long serialVersionUID = 1L;
+
+    public final static DoubleRange EMPTY = new DoubleRange(0, 0);
+
+    private final double min;
+    private final double max;
+
+    private DoubleRange(double min, double max)
+    {
+        this.min = min;
+        this.max = max;
+    }
+
+    public static class Builder
+    {
+
+        private double min = 0.0;
+        private double max = 0.0;
+
+        public DoubleRange.Builder values(double min, double max)
+        {
+            this.min = min;
+            this.max = max;
+            return this;
+        }
+
+        public DoubleRange.Builder min(double min)
+        {
+            this.min = min;
+            return this;
+        }
+
+        public DoubleRange.Builder max(double max)
+        {
+            this.max = max;
+            return this;
+        }
+
+        public DoubleRange build()
+        {
+            return new DoubleRange(min, max);
+        }
+    }
+
+    /**
+     * Key for NavigableMap.floorKey lookups. It sorts after every range
+     * starting at or before the value, so floorKey returns the range with the
+     * greatest min not above the value. Check the result with inRange, the
+     * value may be past its max.
+     *
+     * @param value value to look up
+     * @return range [value..+Infinity)
+     */
+    public static DoubleRange lookupKey(double value)
+    {
+        return new DoubleRange(value, Double.POSITIVE_INFINITY);
+    }
+
+    public double getMin()
+    {
+        return min;
+    }
+
+    public double getMax()
+    {
+        return max;
+    }
+
+    public boolean inRange(double value)
+    {
+        return (value >= min && value < max);
+    }
+
+    /**
+     * Boxed view of this range, for callers still using Range.
+     *
+     * @return Range with the same bounds
+     */
+    public Range toRange()
+    {
+        return new Range.Builder().values(min, max).build();
+    }
+
+    @Override
+    public int compareTo(DoubleRange other)
+    {
+        int rtnValue = Double.compare(min, other.min);
+
+        if (rtnValue == 0)
+        {
+            rtnValue = Double.compare(max, other.max);
+        }
+
+        return rtnValue;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = 3;
+        hash = 89 * hash + Double.hashCode(this.min);
+        hash = 89 * hash + Double.hashCode(this.max);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass())
+        {
+            return false;
+        }
+
+        final DoubleRange other = (DoubleRange) obj;
+
+        return Double.compare(this.min, other.min) == 0
+            && Double.compare(this.max, other.max) == 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[" + min + ".." + max + "]";
+    }
+
+}
@@ -38,10 +38,10 @@ public class LordNode
     implements Serializable
 {
     private final Planet planet;
-    private final Range value;
+    private final DoubleRange value;
     private final double timeFractionInYears;
 
-    public LordNode(Planet planet, Range value, double timeFraction)
+    public LordNode(Planet planet, DoubleRange value, double timeFraction)
     {
         this.planet = planet;
         this.value = value;
@@ -53,7 +53,7 @@ public class LordNode
         return planet;
     }
 
-    public Range getValue()
+    public DoubleRange getValue()
     {
         return value;
     }
@@ -65,8 +65,8 @@ public class LordNode
     
     public double getDurationInYears(double longitude)
     {
-    	double endValue = value.getMax().doubleValue();
-		double startValue = value.getMin().doubleValue();
+    	double endValue = value.getMax();
+		double startValue = value.getMin();
 		double diffLongitude = (endValue - longitude)/(endValue - startValue);
 		double durationInYears = (diffLongitude * timeFractionInYears);
 		
@@ -75,8 +75,8 @@ public class LordNode
     
     public double getRemainingDurationForLongitude(double longitude)
     {
-    	double endValue = value.getMax().doubleValue();
-		double startValue = value.getMin().doubleValue();
+    	double endValue = value.getMax();
+		double startValue = value.getMin();
 		double diffLongitude = (endValue - longitude)/(endValue - startValue);
 		
 		return diffLongitude;
@@ -25,11 +25,6 @@
  */
 package mpp.jathakam.services.types;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-
 /**
  *
  * @author phani
@@ -50,9 +45,6 @@ public enum Raasi
     AQUARIUS(CAPRICORN.end, TRIAD.Airy), /* Kumbha */
     PISCES(AQUARIUS.end, TRIAD.Watery); /* Meena *//* Meena */
 
-    private static Map<Range, Raasi> extents = null;
-    private static Set<Range> extentsKeySet = null;
-
     private int start = 0;
     private int end = 0;
     private enum TRIAD {None, Fiery, Earthy, Airy, Watery};
@@ -65,9 +57,9 @@ public enum Raasi
         triad = t;
     }
 
-    public Range getExtent()
+    public DoubleRange getExtent()
     {
-        return new Range.Builder().values(start, end).build();
+        return new DoubleRange.Builder().values(start, end).build();
     }
 
     public static Raasi getRaasiByOrdinal(int ordinal)
@@ -83,37 +75,16 @@ public enum Raasi
         return Raasi.NONE;
     }
 
-    public synchronized static Raasi getRaasi(double longitude)
+    /**
+     * Sign of the given longitude. Thread safe and lock free, see
+     * ZodiacResolver.
+     *
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return Raasi of the longitude, NONE if not between 0 and 360
+     */
+    public static Raasi getRaasi(double longitude)
     {
-        if (extents == null)
-        {
-            extents = new HashMap<>();
-
-            for (Raasi sign : Raasi.values())
-            {
-                extents.put(sign.getExtent(), sign);
-            }
-            extentsKeySet = extents.keySet();
-        }
-        
-        if (longitude == 0.0 || longitude == 360.0)
-        {
-            return ARIES;
-        }
-        
-        Optional<Range> key = extentsKeySet.parallelStream()
-                .filter(range -> range.inRange((longitude == 360.0) ? 0.0 : longitude))
-                .findFirst();
-        
-        if (!key.isPresent())
-        {
-            return Raasi.NONE;
-        }
-        key.get();
-        
-        Raasi rtnValue = extents.get(key.get());
-        
-        return rtnValue;
+        return ZodiacResolver.getRaasi(longitude);
     }
 
     public boolean isFiery()
@@ -80,7 +80,10 @@ public final class Range
        double maxValue = max.doubleValue();
        double givenValue = num.doubleValue();
        
-       LOGGER.log(Level.FINEST, "Range = [{0}-{1}], check number = {2}", new Object[]{minValue, maxValue, givenValue});
+       if (LOGGER.isLoggable(Level.FINEST))
+       {
+           LOGGER.log(Level.FINEST, "Range = [{0}-{1}], check number = {2}", new Object[]{minValue, maxValue, givenValue});
+       }
        
        boolean rtnValue = (givenValue >= minValue && givenValue < maxValue);
        
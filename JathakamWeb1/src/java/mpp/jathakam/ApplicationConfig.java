@@ -32,6 +32,7 @@ public class ApplicationConfig extends Application
     private void addRestResourceClasses(
             Set<Class<?>> resources)
     {
+        resources.add(mpp.jathakam.ChartBatchResource.class);
         resources.add(mpp.jathakam.JathakamService.class);
     }
     
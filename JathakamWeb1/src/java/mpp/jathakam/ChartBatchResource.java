@@ -0,0 +1,148 @@
+/*
+ * This software is provided AS IS without any warranty for any kind of use. Author is not liable for any loss for using
+ * this software.
+ */
+package mpp.jathakam;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import mpp.jathakam.model.NatalChartInfo;
+
+/**
+ * Charts of many births in one request. The body is a JSON array of charts
+ * as posted to JathakamService, the response a JSON array streamed (chunked)
+ * one element at a time as the charts are done, so in the order they finish:
+ *
+ * <pre>
+ * [{"index":1,"chart":{...}},{"index":0,"error":"Invalid Time Zone provided"},...]
+ * </pre>
+ *
+ * index is the position of the birth in the request. A birth that can not
+ * be computed gets an error element and does not stop the batch. Charts run
+ * on the batch threads of ChartExecutor.
+ *
+ * @author phani
+ */
+@Path("charts:batch")
+public class ChartBatchResource
+{
+    static final Logger LOGGER = Logger.getLogger("mpp.jathakam");
+    private final static Gson GSON = new Gson();
+
+    /**
+     * Creates a new instance of ChartBatchResource
+     */
+    public ChartBatchResource()
+    {
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public StreamingOutput postJson(String content)
+    {
+        final NatalChartInfo[] charts;
+
+        try
+        {
+            charts = NatalChartInfo.fromJSONArray(content);
+        }
+        catch (JsonParseException ex)
+        {
+            throw new WebApplicationException(ex, Response.Status.BAD_REQUEST);
+        }
+
+        return output ->
+        {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+
+            writer.write('[');
+            stream(charts, writer);
+            writer.write(']');
+            writer.flush();
+        };
+    }
+
+    /*
+     * Keep the window of the batch in flight, writing each chart as it is
+     * done. A client that goes away ends the batch, the charts in flight are
+     * left to finish.
+     */
+    private static void stream(NatalChartInfo[] charts, Writer writer)
+            throws IOException
+    {
+        ChartExecutor executor = ChartExecutor.getInstance();
+        CompletionService<String> batch = executor.newBatch();
+        int window = executor.getBatchWindow();
+        int submitted = 0;
+
+        try
+        {
+            for (int done = 0; done < charts.length; done++)
+            {
+                while (submitted < charts.length && submitted - done < window)
+                {
+                    final int index = submitted++;
+
+                    executor.submit(batch, () -> compute(index, charts[index]));
+                }
+
+                if (done > 0)
+                {
+                    writer.write(',');
+                }
+
+                writer.write(batch.take().get());
+                writer.flush();
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted after " + submitted + " charts", ex);
+        }
+        catch (ExecutionException ex)
+        {
+            // compute gives errors as elements, this is a bug
+            throw new IOException("Batch failed", ex.getCause());
+        }
+    }
+
+    private static String compute(int index, NatalChartInfo chart)
+    {
+        try
+        {
+            if (chart == null)
+            {
+                throw new IllegalArgumentException("No chart given");
+            }
+
+            chart.calculate();
+
+            return "{\"index\":" + index + ",\"chart\":" + chart.toJSON() + "}";
+        }
+        catch (Exception ex)
+        {
+            LOGGER.log(Level.FINE, "Chart " + index + " of the batch not computed", ex);
+
+            return "{\"index\":" + index + ",\"error\":" + GSON.toJson(String.valueOf(ex.getMessage()))
+                    + "}";
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * This software is provided AS IS without any warranty for any kind of use. Author is not liable for any loss for using
+ * this software.
+ */
+package mpp.jathakam;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads the REST resources compute charts on, shared by all the requests.
+ *
+ * Interactive requests and batches have separate pools so a large batch can
+ * not hold up a single chart. Interactive charts queue up to INTERACTIVE_QUEUE
+ * deep and are refused beyond that. Batch charts are admitted through a fair
+ * semaphore of twice the batch threads and each batch keeps at most
+ * getBatchWindow() charts in flight, so concurrent batches take turns and
+ * none of them queues its whole input.
+ *
+ * Thread counts are the processors for interactive charts and half of them
+ * for batches, unless set with the system properties THREADS_PROPERTY and
+ * BATCH_THREADS_PROPERTY. ChartExecutorListener shuts the shared instance
+ * down with the application.
+ *
+ * @author phani
+ */
+public final class ChartExecutor
+{
+    public final static String THREADS_PROPERTY = "mpp.jathakam.chartThreads";
+    public final static String BATCH_THREADS_PROPERTY = "mpp.jathakam.batchChartThreads";
+    public final static String TIMEOUT_PROPERTY = "mpp.jathakam.chartTimeoutSeconds";
+
+    private final static int INTERACTIVE_QUEUE = 64;
+
+    private final ThreadPoolExecutor interactive;
+    private final ThreadPoolExecutor batch;
+    private final Semaphore batchPermits;
+    private final int batchWindow;
+    private final long timeoutSeconds;
+
+    private static class ExecutorHolder
+    {
+        private final static int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+        private final static ChartExecutor EXECUTOR = new ChartExecutor(
+                Integer.getInteger(THREADS_PROPERTY, PROCESSORS),
+                Integer.getInteger(BATCH_THREADS_PROPERTY, Math.max(1, PROCESSORS / 2)),
+                Long.getLong(TIMEOUT_PROPERTY, 30L));
+    }
+
+    /**
+     * @param threads threads for interactive charts
+     * @param batchThreads threads for batch charts
+     * @param timeoutSeconds time an interactive chart is waited for
+     */
+    public ChartExecutor(int threads, int batchThreads, long timeoutSeconds)
+    {
+        if (threads < 1 || batchThreads < 1)
+        {
+            throw new IllegalArgumentException("Thread counts should be at least 1, not "
+                    + threads + " and " + batchThreads);
+        }
+
+        this.interactive = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(INTERACTIVE_QUEUE), new ChartThreadFactory("chart"));
+        // Bounded by the permits, not by the queue
+        this.batch = new ThreadPoolExecutor(batchThreads, batchThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ChartThreadFactory("chart-batch"));
+        this.interactive.allowCoreThreadTimeOut(true);
+        this.batch.allowCoreThreadTimeOut(true);
+        this.batchPermits = new Semaphore(2 * batchThreads, true);
+        this.batchWindow = batchThreads;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * @return executor shared by the REST resources
+     */
+    public static ChartExecutor getInstance()
+    {
+        return ExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Compute one chart for a request, waiting for it.
+     *
+     * @param <T> result of the computation
+     * @param task computation of the chart
+     * @return result of the task
+     * @throws RejectedExecutionException if too many charts are waiting
+     * @throws TimeoutException if the chart is not done in the timeout
+     * @throws ExecutionException if the task fails
+     * @throws InterruptedException if the request thread is interrupted
+     */
+    public <T> T compute(Callable<T> task)
+            throws TimeoutException, ExecutionException, InterruptedException
+    {
+        Future<T> future = interactive.submit(task);
+
+        try
+        {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * @param <T> result of the charts of the batch
+     * @return completion service to submit the charts of one batch to
+     */
+    public <T> CompletionService<T> newBatch()
+    {
+        return new ExecutorCompletionService<>(batch);
+    }
+
+    /**
+     * Submit a chart of a batch, waiting for its turn among the batches.
+     *
+     * @param <T> result of the chart
+     * @param batchService from newBatch()
+     * @param task computation of the chart
+     * @throws InterruptedException if interrupted while waiting for the turn
+     */
+    public <T> void submit(CompletionService<T> batchService, final Callable<T> task)
+            throws InterruptedException
+    {
+        batchPermits.acquire();
+
+        try
+        {
+            batchService.submit(() ->
+            {
+                try
+                {
+                    return task.call();
+                }
+                finally
+                {
+                    batchPermits.release();
+                }
+            });
+        }
+        catch (RejectedExecutionException ex)
+        {
+            batchPermits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return charts of one batch to keep in flight
+     */
+    public int getBatchWindow()
+    {
+        return batchWindow;
+    }
+
+    /**
+     * Stop taking charts, those running are finished.
+     */
+    public void shutdown()
+    {
+        interactive.shutdown();
+        batch.shutdown();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ChartExecutor{" + "interactive=" + interactive.getActiveCount() + "/"
+                + interactive.getQueue().size() + ", batch=" + batch.getActiveCount() + "/"
+                + batch.getQueue().size() + ", batchPermits=" + batchPermits.availablePermits() + '}';
+    }
+
+    private static final class ChartThreadFactory
+        implements ThreadFactory
+    {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private ChartThreadFactory(String prefix)
+        {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
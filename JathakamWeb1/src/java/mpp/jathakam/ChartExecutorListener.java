@@ -0,0 +1,33 @@
+/*
+ * This software is provided AS IS without any warranty for any kind of use. Author is not liable for any loss for using
+ * this software.
+ */
+package mpp.jathakam;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Shuts down the shared ChartExecutor with the application, so its threads
+ * do not keep the classes of an undeployed application. The pools start
+ * their threads only for charts, so nothing is started here if no chart
+ * was computed.
+ *
+ * @author phani
+ */
+@WebListener
+public class ChartExecutorListener
+    implements ServletContextListener
+{
+    @Override
+    public void contextInitialized(ServletContextEvent sce)
+    {
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce)
+    {
+        ChartExecutor.getInstance().shutdown();
+    }
+}
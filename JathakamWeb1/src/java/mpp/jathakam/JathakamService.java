@@ -4,7 +4,14 @@
  */
 package mpp.jathakam;
 
+import com.google.gson.JsonParseException;
 import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.Consumes;
@@ -13,85 +20,77 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PUT;
-import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import mpp.jathakam.model.NatalChartInfo;
 import mpp.jathakam.services.Defaults;
+import mpp.jathakam.services.JathakamuException;
 
 /**
- * REST Web Service
+ * REST Web Service. Stateless, every request computes its chart from the
+ * request body only (GET from the current time at the default place) on the
+ * shared ChartExecutor.
  *
  * @author phani
  */
 @Path("jathakamService")
 public class JathakamService
 {
+    static final Logger LOGGER = Logger.getLogger("mpp.jathakam");
 
     @Context
     private UriInfo context;
 
-    private NatalChartInfo chartInfo = new NatalChartInfo();
-
     /**
      * Creates a new instance of JathakamService
      */
     public JathakamService()
     {
-        System.out.println("Initializing JathakamService");
-        Calendar cal = Calendar.getInstance();
-        double newLongitude = Defaults.DEFAULT_PLACE.getLongitude(),
-                newLatitude = Defaults.DEFAULT_PLACE.getLatitude();
-        int newDay = cal.get(Calendar.DAY_OF_MONTH);
-        int newMonth = cal.get(Calendar.MONTH)+1;
-        int newYear = cal.get(Calendar.YEAR);
-        int newHours = cal.get(Calendar.HOUR_OF_DAY);
-        int newMins = cal.get(Calendar.MINUTE);
-        int newSecs = cal.get(Calendar.SECOND);
-        int newMillis = cal.get(Calendar.MILLISECOND);
-        String newName = "Untitled";
-        String newPlaceName = Defaults.DEFAULT_PLACE.getName();
-        String newTimezone = Defaults.DEFAULT_PLACE.getTimeZone();
-
-        chartInfo.setLongitude(newLongitude);
-        chartInfo.setLatitude(newLatitude);
-        chartInfo.setDay(newDay);
-        chartInfo.setMonth(newMonth);
-        chartInfo.setYear(newYear);
-        chartInfo.setHours(newHours);
-        chartInfo.setMinutes(newMins);
-        chartInfo.setSeconds(newSecs);
-        chartInfo.setMillis(newMillis);
-        chartInfo.setTimezoneOffsetInMinutes(newTimezone);
-        chartInfo.setPlaceName(newPlaceName);
-        chartInfo.setName(newName);
-
-        chartInfo.calculate();
     }
 
     /**
-     * Retrieves representation of an instance of mpp.jathakam.JathakamService
+     * Chart of the current time at the default place.
      *
-     * @param name
-     * @return an instance of java.lang.String
+     * @return chart as JSON
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public String getJson()
     {
-        String jsonChart = chartInfo.toJSON();
-        System.out.println("jsonChart = " + jsonChart);
-        
-        return jsonChart;
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(Defaults.DEFAULT_PLACE.getTimeZone()));
+        NatalChartInfo chartInfo = new NatalChartInfo("Untitled", cal.get(Calendar.DAY_OF_MONTH),
+                cal.get(Calendar.MONTH) + 1, cal.get(Calendar.YEAR), cal.get(Calendar.HOUR_OF_DAY),
+                cal.get(Calendar.MINUTE), cal.get(Calendar.SECOND), cal.get(Calendar.MILLISECOND),
+                Defaults.DEFAULT_PLACE.getTimeZone(), Defaults.DEFAULT_PLACE.getLongitude(),
+                Defaults.DEFAULT_PLACE.getLatitude(), Defaults.DEFAULT_PLACE.getName());
+
+        return calculate(chartInfo);
     }
 
+    /**
+     * Chart of the posted time and place.
+     *
+     * @param content chart as JSON, the zodiac in it is ignored
+     * @return chart as JSON with the zodiac filled
+     */
     @POST
     @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
     public String postJson(String content)
     {
-        System.out.println("Post method called " + content);
-        this.chartInfo.setFromJson(content);
-        chartInfo.calculate();
-        return getJson();
+        NatalChartInfo chartInfo;
+
+        try
+        {
+            chartInfo = NatalChartInfo.fromJSON(content);
+        }
+        catch (JsonParseException ex)
+        {
+            throw new WebApplicationException(ex, Response.Status.BAD_REQUEST);
+        }
+
+        return calculate(chartInfo);
     }
 
     /**
@@ -104,7 +103,38 @@ public class JathakamService
     @Consumes(MediaType.APPLICATION_JSON)
     public void putJson(String content)
     {
-        System.out.println("Post method called " + content);
     }
 
+    private static String calculate(final NatalChartInfo chartInfo)
+    {
+        try
+        {
+            return ChartExecutor.getInstance().compute(() ->
+            {
+                chartInfo.calculate();
+
+                return chartInfo.toJSON();
+            });
+        }
+        catch (RejectedExecutionException | TimeoutException ex)
+        {
+            LOGGER.log(Level.WARNING, "Chart not computed, too many requests", ex);
+            throw new WebApplicationException(ex, Response.Status.SERVICE_UNAVAILABLE);
+        }
+        catch (ExecutionException ex)
+        {
+            if (ex.getCause() instanceof JathakamuException)
+            {
+                throw new WebApplicationException(ex.getCause(), Response.Status.BAD_REQUEST);
+            }
+
+            LOGGER.log(Level.SEVERE, "Chart not computed", ex.getCause());
+            throw new WebApplicationException(ex.getCause(), Response.Status.INTERNAL_SERVER_ERROR);
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebApplicationException(ex, Response.Status.SERVICE_UNAVAILABLE);
+        }
+    }
 }
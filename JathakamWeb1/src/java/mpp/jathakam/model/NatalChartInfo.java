@@ -15,10 +15,12 @@ import mpp.jathakam.services.JathakamuException;
 import mpp.jathakam.services.Profile;
 import mpp.jathakam.services.ProfileBuilder;
 import mpp.jathakam.services.ProfileSettings;
+import mpp.jathakam.services.calculations.ChartPositions;
 import mpp.jathakam.services.calculations.EphemerisCalcs;
 import mpp.jathakam.services.calculations.SupportCalcs;
 import mpp.jathakam.services.types.Place;
-import mpp.jathakam.services.types.Raasi;
+import mpp.jathakam.services.types.ZodiacResolver;
+import swisseph.SweConst;
 
 /**
  *
@@ -57,6 +59,7 @@ public class NatalChartInfo
     public NatalChartInfo(String name, int day, int month, int year, int hours, int minutes, int seconds, int millis,
             String timezone, double longitude, double latitude, String placeName)
     {
+        this();
         this.name = name;
         this.day = day;
         this.month = month;
@@ -72,6 +75,7 @@ public class NatalChartInfo
     }
     
     public NatalChartInfo(NatalChartInfo old) {
+        this();
         this.name = old.name;
         this.day = old.day;
         this.month = old.month;
@@ -87,6 +91,7 @@ public class NatalChartInfo
     }
     
     public NatalChartInfo(String jsonStr) {
+        this();
         setFromJson(jsonStr);
     }
 
@@ -233,61 +238,57 @@ public class NatalChartInfo
     public static NatalChartInfo fromJSON(String jsonStr) {
         return new NatalChartInfo(jsonStr);
     }
-    
-    public void calculate() {
-        System.out.println("calculate called");
-        //clear existing zodiac info
-        for (ZodiacInfoContainer zi: zodiacInfo) {
-            zi.clear();
+
+    /**
+     * @param jsonStr JSON array of charts, as given by toJSON
+     * @return the charts, not calculated
+     */
+    public static NatalChartInfo[] fromJSONArray(String jsonStr) {
+        NatalChartInfo[] charts = GSON.fromJson(jsonStr, NatalChartInfo[].class);
+
+        return (charts == null) ? new NatalChartInfo[0] : charts;
+    }
+
+    /**
+     * Fill the zodiac with the planets and cusps of the chart. Only this
+     * chart is read and written, so charts can be calculated concurrently.
+     * The date and time are local to the time zone of the chart.
+     *
+     * @throws JathakamuException if the time zone is not valid or Swiss
+     * Ephemeris fails
+     */
+    public void calculate()
+            throws JathakamuException {
+        // Zodiac info given in the JSON is replaced
+        zodiacInfo = new ZodiacInfoContainer[12];
+
+        for (int i = 0; i < 12; i++) {
+            zodiacInfo[i] = new ZodiacInfoContainer();
         }
-        
-        Calendar cal = Calendar.getInstance();
+
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(timezone));
+        cal.clear();
         cal.set(year, month-1, day, hours, minutes, seconds);
         cal.set(Calendar.MILLISECOND, millis);
-        Place place = new Place.PlaceBuilder().latitude(latitude).longitude(longitude).build();
-        double tjd_ut = 0;
-        
-        try
-        {
-            tjd_ut = SupportCalcs.getJulianDay(cal, place);
-        }
-        catch (JathakamuException ex)
-        {
-            Logger.getLogger(NatalChartInfo.class.getName()).log(Level.SEVERE,
-                    null, ex);
-        }
-        
+        Place place = new Place.PlaceBuilder().latitude(latitude).longitude(longitude)
+                .timeZone(timezone).build();
+        double tjd_ut = SupportCalcs.getJulianDay(cal, place);
+
         ProfileBuilder pb = new ProfileBuilder();
         Profile profile = pb.tjd_ut(tjd_ut).settings(ProfileSettings.DEFAULT).place(place).build();
-        EphemerisCalcs ephCalc = new EphemerisCalcs(profile);
-        
-        for (int i = 0; i < 10; i++) {
-            try
-            {
-                double[] planetDetails = ephCalc.getPlanetDetails(i);
-                // Negative longitude for retrograde planets
-                ZodiacInfo zi = new ZodiacInfo(i, planetDetails[0] * (planetDetails[1] < 0 ? -1 : 1));
-                addZodiacInfo(zi);
-            }
-            catch (JathakamuException ex)
-            {
-                Logger.getLogger(NatalChartInfo.class.getName()).log(Level.SEVERE, null, ex);
-            }
-        }
-        
-        try
-        {
-            double[] cuspDetails = ephCalc.getCuspDetails();
-            int cuspIndex = 20;
-             
-            for (double cusp: cuspDetails) {
-                ZodiacInfo zi = new ZodiacInfo(cuspIndex++, cusp);
-                addZodiacInfo(zi);
-            }
+        ChartPositions positions = EphemerisCalcs.computeAll(profile);
+
+        for (int i = SweConst.SE_SUN; i <= SweConst.SE_PLUTO; i++) {
+            // Negative longitude for retrograde planets
+            ZodiacInfo zi = new ZodiacInfo(i, positions.getLongitude(i) * (positions.isRetrograde(i) ? -1 : 1));
+            addZodiacInfo(zi);
         }
-        catch (JathakamuException ex)
-        {
-            Logger.getLogger(NatalChartInfo.class.getName()).log(Level.SEVERE, null, ex);
+
+        int cuspIndex = 20;
+
+        for (int i = 0; i < ChartPositions.HOUSES; i++) {
+            ZodiacInfo zi = new ZodiacInfo(cuspIndex++, positions.getCusp(i));
+            addZodiacInfo(zi);
         }
     }
     
@@ -296,10 +297,9 @@ public class NatalChartInfo
     }
     
     private void addZodiacInfo(ZodiacInfo info) {
-        Raasi zodiacSign = Raasi.getRaasi(Math.abs(info.getPosition()));
-        LOGGER.log(Level.INFO, "Zodiac Sign for longitude {0} is {1}", new Object[] {info.getPosition(), zodiacSign.toString()});
-        int raasiIndex = zodiacSign.ordinal();
-        zodiacInfo[raasiIndex > 0 ? raasiIndex - 1: 0].add(info);
+        int raasiIndex = ZodiacResolver.getSignIndex(Math.abs(info.getPosition()));
+        LOGGER.log(Level.FINE, "Zodiac Sign index for longitude {0} is {1}", new Object[] {info.getPosition(), raasiIndex});
+        zodiacInfo[raasiIndex > 0 ? raasiIndex : 0].add(info);
     }
 }
  
\ No newline at end of file
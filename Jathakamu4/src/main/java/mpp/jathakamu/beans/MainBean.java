@@ -20,8 +20,12 @@ import static mpp.jathakamu.Constants.CUSP_AND_PLANETS;
 import mpp.jathakamu.JathakamuException;
 import mpp.jathakamu.Profile;
 import mpp.jathakamu.ProfileSettings;
-import mpp.jathakamu.calculations.EphemerisCalcs;
+import mpp.jathakamu.calculations.ChartCache;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.calculations.DasaCache;
 import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.metrics.Timer;
 import mpp.jathakamu.types.Place;
 import mpp.jathakamu.types.Planet;
 import mpp.jathakamu.types.VDNode;
@@ -40,6 +44,8 @@ import static mpp.jathakamu.JathakamLogger.LOGGER;
 public class MainBean
         extends DefaultHouseInfo
 {
+    private final static Timer SUBMIT_TIMER = Metrics.timer("bean.submit2");
+
     private Date eventTime = new Date();
     private String timeZone = GlobalSettings.DEFAULT_TIMEZONE;
     
@@ -173,6 +179,8 @@ public class MainBean
     @PostConstruct
     public void submit2()
     {
+        long start = Timer.start();
+
         try
         {
             if (eventData == null)
@@ -204,58 +212,39 @@ public class MainBean
             
             profile = new Profile(tjd_ut, place, profileSettings);
             
-            EphemerisCalcs ephCalc = new EphemerisCalcs(profile);
-            ayanamsa = ViewUtils.toStringDegree3(ephCalc.getAyanamsa());
-            double[] cusps = ephCalc.getCuspDetails();
-            sidrealTime = ViewUtils.toStringDegree3(ephCalc.getSidrealTime());
-            mc = ViewUtils.toStringDegree3(ephCalc.getMC());
+            ChartCache.Entry chart = ChartCache.getInstance().get(profile);
+            ChartPositions positions = chart.getPositions();
+            ayanamsa = ViewUtils.toStringDegree3(positions.getAyanamsa());
+            sidrealTime = ViewUtils.toStringDegree3(positions.getSidrealTime());
+            mc = ViewUtils.toStringDegree3(positions.getMC());
             
             addInformation("Ayanamsa: " + ayanamsa);
             addInformation("Sidreal Time: " + sidrealTime);
 
             cuspDetails.clear();
-            int i = 0;
-            for (double cusp : cusps)
+            for (int i = 0; i < ChartPositions.HOUSES; i++)
             {
-                List<Planet> lordsList = SupportCalcs.getLordsWithSignLord(cusp);
+                double cusp = positions.getCusp(i);
+                List<Planet> lordsList = chart.getCuspLords(i);
                 cuspDetails.add(new LordsInfo(i+1, cusp, lordsList));
                 String value = getLordsString(lordsList);
-                CUSP_AND_PLANETS obj = CUSP_AND_PLANETS.values()[i++];
+                CUSP_AND_PLANETS obj = CUSP_AND_PLANETS.values()[i];
                 setHouseEntity(obj, cusp, value);
             }
 
+            // Sun to Pluto followed by Rahu and Ketu
             planetDetails.clear();
-            for (i = SweConst.SE_SUN; i <= SweConst.SE_PLUTO; i++)
+            for (int i = SweConst.SE_SUN; i < ChartPositions.GRAHAS; i++)
             {
-                double[] planetInfo = ephCalc.getPlanetDetails(i);
-                List<Planet> lordsList = SupportCalcs.getLordsWithSignLord(planetInfo[0]);
-                String planetName = ephCalc.getPlanetName(i);
-                double deg = planetInfo[0];
-                planetDetails.add(new LordsInfo(planetName, deg, lordsList));
+                double deg = positions.getLongitude(i);
+                List<Planet> lordsList = chart.getGrahaLords(i);
+                planetDetails.add(new LordsInfo(positions.getName(i), deg, lordsList));
                 
                 String value = getLordsString(lordsList);
                 
                 CUSP_AND_PLANETS obj = CUSP_AND_PLANETS.values()[12+i];
-                setHouseEntity(obj, planetInfo[0], value);
+                setHouseEntity(obj, deg, value);
             }
-            
-            // Rahu
-            int rahu = (profileSettings.isTrueNode()) ? SweConst.SE_TRUE_NODE : SweConst.SE_MEAN_NODE;
-            double[] planetInfo = ephCalc.getPlanetDetails(rahu);
-            double rahuPosition = planetInfo[0];
-            List<Planet> lordsList = SupportCalcs.getLordsWithSignLord(rahuPosition);
-            planetDetails.add(new LordsInfo("Rahu", planetInfo[0], lordsList));
-            String value = getLordsString(lordsList);
-            CUSP_AND_PLANETS obj = CUSP_AND_PLANETS.RAHU;
-            setHouseEntity(obj, planetInfo[0], value);
-            
-            // Ketu
-            double ketuPosition = SupportCalcs.degnorm(180+rahuPosition);
-            lordsList = SupportCalcs.getLordsWithSignLord(ketuPosition);
-            planetDetails.add(new LordsInfo("Ketu", ketuPosition, lordsList));
-            value = getLordsString(lordsList);
-            obj = CUSP_AND_PLANETS.KETU;
-            setHouseEntity(obj, ketuPosition, value);
 
             sortHouseEntities();
         }
@@ -268,6 +257,7 @@ public class MainBean
         selectedBhukthi = null;
         selectedPratyantara = null;
         selectedSookshma = null;
+        SUBMIT_TIMER.stop(start);
     }
     
     public void submit() {
@@ -290,11 +280,13 @@ public class MainBean
         {
             try {
                 long dob = SweDate.getDate(profile.getDateTime()).getTime();
-                EphemerisCalcs ephCalc = new EphemerisCalcs(profile);
-                double[] moonInfo = ephCalc.getPlanetDetails(SweConst.SE_MOON);
-                VDNode vdRoot = SupportCalcs.getVDTree2(dob, moonInfo[0], profile);
-                mahaDasaList = vdRoot.getChildren();
-                System.out.println("#### VD List: " + mahaDasaList + " for moon position: " + moonInfo[0]);
+                // Same chart as submit2, so the Moon comes from the cache
+                double moonPosition = ChartCache.getInstance().get(profile)
+                        .getPositions().getLongitude(SweConst.SE_MOON);
+                // Periods are shared with the sessions of the same Moon
+                mahaDasaList = DasaCache.getInstance().getView(dob, moonPosition,
+                        profile.getProfileSetting().getOneYear()).getMahaDasaList();
+                LOGGER.log(Level.FINE, "Maha dasas for Moon at {0}", moonPosition);
             }
             catch (JathakamuException ex) {
                 LOGGER.log(Level.SEVERE, null, ex);
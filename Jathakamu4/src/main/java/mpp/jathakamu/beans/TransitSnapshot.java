@@ -0,0 +1,120 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.beans;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import mpp.jathakamu.types.HouseEntity;
+
+/**
+ * Transit chart of one moment as shown on the chart pages: the houses with
+ * their cusps and planets, and the information lines, with the longitudes of
+ * the grahas and cusps for the transit stream. Immutable, published by
+ * TransitSnapshotService and read by every session.
+ *
+ * @author phani
+ */
+public final class TransitSnapshot
+    implements Serializable
+{
+    private static final long serialVersionUID = 1L;
+
+    private final long transitTime;
+    private final long validUntil;
+    private final String ayanamsa;
+    private final String sidrealTime;
+    private final List<HouseEntity[]> houseEntities;
+    private final List<String> information;
+    private final double[] longitudes;
+    private final String[] names;
+
+    TransitSnapshot(long transitTime, long validUntil, String ayanamsa, String sidrealTime,
+            List<List<HouseEntity>> houseEntities, List<String> information,
+            double[] longitudes, String[] names)
+    {
+        List<HouseEntity[]> houses = new ArrayList<>(houseEntities.size());
+
+        for (List<HouseEntity> house : houseEntities)
+        {
+            houses.add(house.toArray(new HouseEntity[house.size()]));
+        }
+
+        this.transitTime = transitTime;
+        this.validUntil = validUntil;
+        this.ayanamsa = ayanamsa;
+        this.sidrealTime = sidrealTime;
+        this.houseEntities = Collections.unmodifiableList(houses);
+        this.information = Collections.unmodifiableList(new ArrayList<>(information));
+        this.longitudes = longitudes.clone();
+        this.names = names.clone();
+    }
+
+    /**
+     * @return time of the chart in milliseconds
+     */
+    public long getTransitTime()
+    {
+        return transitTime;
+    }
+
+    /**
+     * @return time in milliseconds the Lagna or Moon sub lord or the day
+     * lord changes after the chart
+     */
+    public long getValidUntil()
+    {
+        return validUntil;
+    }
+
+    public String getAyanamsa()
+    {
+        return ayanamsa;
+    }
+
+    public String getSidrealTime()
+    {
+        return sidrealTime;
+    }
+
+    /**
+     * @param housePosition 0 for the 1st house to 11
+     * @return cusp and planets of the house, a copy
+     */
+    public HouseEntity[] getHouseInfo(int housePosition)
+    {
+        return houseEntities.get(housePosition).clone();
+    }
+
+    public String[] getInformation()
+    {
+        return information.toArray(new String[information.size()]);
+    }
+
+    /**
+     * @param entity 0 to ChartPositions.GRAHAS - 1 for the grahas, followed
+     * by the 12 cusps
+     * @return sidereal longitude of the graha or cusp
+     */
+    public double getLongitude(int entity)
+    {
+        return longitudes[entity];
+    }
+
+    /**
+     * @param entity as for getLongitude
+     * @return name of the graha, or Cusp 1 to Cusp 12
+     */
+    public String getName(int entity)
+    {
+        return names[entity];
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TransitSnapshot{" + "transitTime=" + transitTime + ", validUntil=" + validUntil + '}';
+    }
+}
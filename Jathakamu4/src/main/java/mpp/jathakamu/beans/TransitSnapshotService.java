@@ -0,0 +1,314 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.beans;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import mpp.jathakamu.Constants;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.calculations.ChartCache;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.calculations.RulingPlanets;
+import mpp.jathakamu.calculations.RulingPlanetsService;
+import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.metrics.Timer;
+import mpp.jathakamu.types.Place;
+import mpp.jathakamu.types.Planet;
+import mpp.jathakamu.utils.ViewUtils;
+import swisseph.SweConst;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Transit chart at the place of the astrologer, computed once for all the
+ * sessions. A scheduler thread computes a new TransitSnapshot every refresh
+ * interval, or sooner at the next change of the Lagna or Moon sub lord or
+ * the day lord, and publishes it through a volatile reference; sessions only
+ * read it. Listeners, like the transit stream, are given each new snapshot,
+ * so everything showing the transit shows the same one.
+ *
+ * The interval is 60 seconds unless set with the system property
+ * INTERVAL_PROPERTY. A failed refresh keeps the last snapshot and is tried
+ * again at the next interval.
+ *
+ * @author phani
+ */
+@ApplicationScoped
+public class TransitSnapshotService
+{
+    public final static String INTERVAL_PROPERTY = "mpp.jathakamu.transitRefreshSeconds";
+
+    /* Julian day of 1970-01-01 00:00 UT */
+    private final static double EPOCH_JD = 2440587.5D;
+    private final static double MILLIS_PER_DAY = 86400000D;
+    /* Not sooner than this after a refresh, for changes close together */
+    private final static long MIN_DELAY_MILLIS = 1000L;
+
+    private final static Timer SNAPSHOT_TIMER = Metrics.timer("transit.snapshot");
+
+    private final long intervalMillis;
+    private final ProfileSettings profileSettings = new ProfileSettings();
+
+    private final List<Consumer<TransitSnapshot>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile TransitSnapshot snapshot;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Service refreshing at the interval of INTERVAL_PROPERTY.
+     */
+    public TransitSnapshotService()
+    {
+        this(TimeUnit.SECONDS.toMillis(Long.getLong(INTERVAL_PROPERTY, 60L)));
+    }
+
+    /**
+     * @param intervalMillis longest time between two snapshots
+     */
+    public TransitSnapshotService(long intervalMillis)
+    {
+        if (intervalMillis < MIN_DELAY_MILLIS)
+        {
+            throw new IllegalArgumentException("Refresh interval should be at least "
+                    + MIN_DELAY_MILLIS + "ms, not " + intervalMillis);
+        }
+
+        this.intervalMillis = intervalMillis;
+        profileSettings.setKPNewAynamsa();
+        profileSettings.setUseGeocentric(false);
+    }
+
+    /**
+     * Compute the first snapshot and start refreshing.
+     */
+    @PostConstruct
+    public void start()
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread thread = new Thread(r, "transit-snapshot");
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        scheduler.execute(this::refreshAndSchedule);
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        if (scheduler != null)
+        {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Latest snapshot. Computed in the calling thread only if no snapshot
+     * was published yet.
+     *
+     * @return transit chart of the last refresh
+     * @throws JathakamuException if there is no snapshot and it can not be
+     * computed
+     */
+    public TransitSnapshot getSnapshot()
+            throws JathakamuException
+    {
+        TransitSnapshot rtnSnapshot = snapshot;
+
+        if (rtnSnapshot == null)
+        {
+            synchronized (this)
+            {
+                rtnSnapshot = snapshot;
+
+                if (rtnSnapshot == null)
+                {
+                    rtnSnapshot = refresh();
+                }
+            }
+        }
+
+        return rtnSnapshot;
+    }
+
+    /**
+     * Compute and publish the snapshot of now.
+     *
+     * @return the new snapshot
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public TransitSnapshot refresh()
+            throws JathakamuException
+    {
+        TransitSnapshot newSnapshot = compute(GlobalSettings.astrologerPlace,
+                System.currentTimeMillis());
+
+        snapshot = newSnapshot;
+
+        for (Consumer<TransitSnapshot> listener : listeners)
+        {
+            try
+            {
+                listener.accept(newSnapshot);
+            }
+            catch (RuntimeException ex)
+            {
+                LOGGER.log(Level.SEVERE, "Transit snapshot listener failed", ex);
+            }
+        }
+
+        return newSnapshot;
+    }
+
+    /**
+     * Be given each new snapshot, in the thread publishing it, and the
+     * current one right away if there is one.
+     *
+     * @param listener should return quickly
+     */
+    public void addListener(Consumer<TransitSnapshot> listener)
+    {
+        listeners.add(listener);
+
+        TransitSnapshot current = snapshot;
+
+        if (current != null)
+        {
+            listener.accept(current);
+        }
+    }
+
+    public void removeListener(Consumer<TransitSnapshot> listener)
+    {
+        listeners.remove(listener);
+    }
+
+    private void refreshAndSchedule()
+    {
+        long delay = intervalMillis;
+
+        try
+        {
+            TransitSnapshot newSnapshot = refresh();
+
+            delay = Math.min(delay, newSnapshot.getValidUntil() - System.currentTimeMillis());
+        }
+        catch (JathakamuException | RuntimeException ex)
+        {
+            LOGGER.log(Level.SEVERE, "Transit snapshot not refreshed", ex);
+        }
+
+        if (!scheduler.isShutdown())
+        {
+            scheduler.schedule(this::refreshAndSchedule, Math.max(delay, MIN_DELAY_MILLIS),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Transit chart at a place and time, not published.
+     *
+     * @param place place of the astrologer
+     * @param transitTime time in milliseconds
+     * @return transit chart
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public TransitSnapshot compute(Place place, long transitTime)
+            throws JathakamuException
+    {
+        long start = Timer.start();
+        SnapshotBuilder builder = new SnapshotBuilder();
+
+        builder.initializeHouseEntity();
+        builder.addInformation("Date & Time : " + ViewUtils.getDateAsStringLongFormat(transitTime));
+        builder.addInformation("Longitude   : " + ViewUtils.toStringDegree3(place.getLongitude()));
+        builder.addInformation("Latitude    : " + ViewUtils.toStringDegree3(place.getLatitude()));
+        builder.addInformation("");
+
+        double tjd_ut = SupportCalcs.getJulianDay(transitTime, place);
+        Profile profile = new Profile(tjd_ut, place, profileSettings);
+        ChartCache.Entry chart = ChartCache.getInstance().get(profile);
+        ChartPositions positions = chart.getPositions();
+        String ayanamsa = ViewUtils.toStringDegree3(positions.getAyanamsa());
+        String sidrealTime = ViewUtils.toStringDegree3(positions.getSidrealTime());
+
+        builder.addInformation("Ayanamsa: " + ayanamsa);
+        builder.addInformation("Sidreal Time: " + sidrealTime);
+
+        RulingPlanets rulingPlanets = RulingPlanetsService.getInstance().get(place, tjd_ut);
+
+        builder.addInformation("");
+        builder.addInformation("Day Lord: " + rulingPlanets.getDayLord().getName());
+        builder.addInformation("Lagna " + builder.getLordsString(rulingPlanets.getLagnaLords()));
+        builder.addInformation("Moon " + builder.getLordsString(rulingPlanets.getMoonLords()));
+
+        double[] longitudes = new double[ChartPositions.GRAHAS + ChartPositions.HOUSES];
+        String[] names = new String[longitudes.length];
+
+        for (int i = 0; i < ChartPositions.HOUSES; i++)
+        {
+            double cusp = positions.getCusp(i);
+
+            longitudes[ChartPositions.GRAHAS + i] = cusp;
+            names[ChartPositions.GRAHAS + i] = "Cusp " + (i + 1);
+            List<Planet> lordsList = chart.getCuspLords(i);
+            String value = builder.getLordsString(lordsList);
+            Constants.CUSP_AND_PLANETS obj = Constants.CUSP_AND_PLANETS.values()[i];
+
+            builder.setHouseEntity(obj, cusp, "Lords: " + value);
+        }
+
+        // Sun to Pluto followed by Rahu and Ketu
+        for (int i = SweConst.SE_SUN; i < ChartPositions.GRAHAS; i++)
+        {
+            double deg = positions.getLongitude(i);
+
+            longitudes[i] = deg;
+            names[i] = positions.getName(i);
+
+            List<Planet> lordsList = chart.getGrahaLords(i);
+            String value = builder.getLordsString(lordsList);
+
+            if (i < ChartPositions.RAHU)
+            {
+                value = "Lords: " + value;
+            }
+
+            Constants.CUSP_AND_PLANETS obj = Constants.CUSP_AND_PLANETS.values()[12 + i];
+
+            builder.setHouseEntity(obj, deg, value);
+        }
+
+        builder.sortHouseEntities();
+
+        long validUntil = Math.round((rulingPlanets.getValidUntil() - EPOCH_JD) * MILLIS_PER_DAY);
+        TransitSnapshot rtnSnapshot = new TransitSnapshot(transitTime, validUntil, ayanamsa,
+                sidrealTime, builder.houseEntities, builder.information, longitudes, names);
+
+        SNAPSHOT_TIMER.stop(start);
+
+        return rtnSnapshot;
+    }
+
+    /* Fills the houses and information the way the chart beans do */
+    private static final class SnapshotBuilder
+        extends DefaultHouseInfo
+    {
+        private static final long serialVersionUID = 1L;
+    }
+}
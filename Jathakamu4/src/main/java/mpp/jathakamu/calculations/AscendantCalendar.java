@@ -0,0 +1,319 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * When the Lagna at a place enters the next sign, star, sub or sub-sub (or
+ * deeper) division of the lords table, as a stream of TransitEvent.
+ *
+ * The ascendant depends only on the ARMC (sidereal time plus the longitude of
+ * the place) once the latitude and the obliquity are fixed, so instead of a
+ * swe_houses call for every instant the ARMC is advanced at the sidereal
+ * rate from the sidereal time at the start of each day, and the ascendant
+ * is taken from swe_houses_armc with the obliquity and ayanamsa of that day.
+ * ARMC is stepped a degree at a time (4 minutes); every boundary the Lagna
+ * passes in a step is bracketed by the step and found with the Illinois
+ * variant of regula falsi on the ARMC.
+ *
+ * Events are found as the stream is read, a few at a time, so a calendar of
+ * many days is never held in memory. Obliquity and ayanamsa change by less
+ * than an arc second in a day, which is all the error of keeping them for
+ * the day. The Lagna moves only forward outside the polar circles, other
+ * latitudes are refused.
+ *
+ * @author Phani
+ */
+public final class AscendantCalendar
+{
+    /* ARMC moved in a day of UT, degrees */
+    private final static double ARMC_RATE = 360.98564736629D;
+    private final static double ARMC_STEP = 1D;
+    private final static double TOLERANCE = 1E-7D;
+    private final static int MAX_ITERATIONS = 50;
+
+    private final SwissEph swissEph;
+    private final int ephFlags;
+    private final int houseSystem;
+    private final double latitude;
+    private final double longitude;
+    private final double[] xx = new double[6];
+    private final double[] cusps = new double[13];
+    private final double[] ascmc = new double[10];
+    private final StringBuffer serr = new StringBuffer();
+
+    /**
+     * @param swissEph instance to use, only from this calendar and one stream
+     * at a time; its sidereal mode is set from the settings
+     * @param settings ayanamsa, flags, house system and geocentric latitude
+     * to use
+     * @param place place of the Lagna
+     */
+    public AscendantCalendar(SwissEph swissEph, ProfileSettings settings, Place place)
+    {
+        double[] ayan = settings.getAynamsa();
+        double geolat = place.getLatitude();
+
+        if (settings.isUseGeocentric())
+        {
+            geolat = SupportCalcs.getGeocentricLatitude(geolat);
+        }
+
+        if (Math.abs(geolat) >= 66D)
+        {
+            throw new IllegalArgumentException("Latitude " + geolat
+                    + " is within the polar circle, Lagna may go back");
+        }
+
+        swissEph.swe_set_sid_mode(Double.valueOf(ayan[0]).intValue(), ayan[1], ayan[2]);
+
+        this.swissEph = swissEph;
+        this.ephFlags = settings.getEphemerisFlags() & ~SweConst.SEFLG_SIDEREAL;
+        this.houseSystem = settings.getHouseSystem();
+        this.latitude = geolat;
+        this.longitude = place.getLongitude();
+    }
+
+    /**
+     * Lagna changes in a period, found as the iterator is read.
+     *
+     * The iterator throws IllegalStateException if Swiss Ephemeris fails.
+     *
+     * @param division one of the division constants of TransitSearch
+     * @param startJd Julian day (UT) to start from
+     * @param endJd Julian day (UT) to end at
+     * @return crossings after startJd up to endJd, in time order
+     */
+    public Iterator<TransitEvent> iterator(int division, double startJd, double endJd)
+    {
+        return new Events(LordBoundaries.of(division), division, startJd, endJd);
+    }
+
+    /**
+     * Lagna changes in a period as a sequential stream, found as the stream
+     * is read.
+     *
+     * @param division one of the division constants of TransitSearch
+     * @param startJd Julian day (UT) to start from
+     * @param endJd Julian day (UT) to end at
+     * @return crossings after startJd up to endJd, in time order
+     */
+    public Stream<TransitEvent> stream(int division, double startJd, double endJd)
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterator(division, startJd, endJd),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /*
+     * Walks the period a day at a time and each day an ARMC step at a time,
+     * keeping the events of the last step until they are read.
+     */
+    private final class Events
+        implements Iterator<TransitEvent>
+    {
+        private final LordBoundaries boundaries;
+        private final int division;
+        private final double endJd;
+        private final ArrayDeque<TransitEvent> pending = new ArrayDeque<>();
+
+        /* Current day: its start, ARMC at the start, obliquity, ayanamsa */
+        private double dayJd;
+        private double dayArmc;
+        private double obliquity;
+        private double ayanamsa;
+
+        /* End of the last step: ARMC from the day start and unwrapped Lagna */
+        private double armc;
+        private double lagna;
+
+        /* Next boundary ahead, as index and the turns to add */
+        private int next;
+        private double offset;
+
+        Events(LordBoundaries boundaries, int division, double startJd, double endJd)
+        {
+            this.boundaries = boundaries;
+            this.division = division;
+            this.endJd = endJd;
+
+            try
+            {
+                startDay(startJd);
+                lagna = siderealLagna(0D);
+            }
+            catch (JathakamuException ex)
+            {
+                throw new IllegalStateException(ex.getMessage(), ex);
+            }
+
+            offset = 360D * Math.floor(lagna / 360D);
+            next = boundaries.above(lagna - offset);
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            try
+            {
+                while (pending.isEmpty() && dayJd + armc / ARMC_RATE < endJd)
+                {
+                    step();
+                }
+            }
+            catch (JathakamuException ex)
+            {
+                throw new IllegalStateException(ex.getMessage(), ex);
+            }
+
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public TransitEvent next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            return pending.poll();
+        }
+
+        private void startDay(double tjd_ut)
+                throws JathakamuException
+        {
+            int rtnFlag = swissEph.swe_calc_ut(tjd_ut, SweConst.SE_ECL_NUT, ephFlags, xx, serr);
+
+            if (rtnFlag == SweConst.ERR)
+            {
+                throw new JathakamuException("Error Occured while computing obliquity\n Error is " + serr);
+            }
+
+            dayJd = tjd_ut;
+            dayArmc = swissEph.swe_sidtime(tjd_ut) * 15D + longitude;
+            obliquity = xx[0];
+            ayanamsa = swissEph.swe_get_ayanamsa_ut(tjd_ut);
+            armc = 0D;
+        }
+
+        private void step()
+                throws JathakamuException
+        {
+            if (armc >= ARMC_RATE)
+            {
+                // New day, Lagna carries on from where the last day ended
+                startDay(dayJd + 1D);
+            }
+
+            double endArmc = Math.min(Math.min(armc + ARMC_STEP, ARMC_RATE),
+                    (endJd - dayJd) * ARMC_RATE);
+            double endLagna = lagna + TransitSearch.difference(siderealLagna(endArmc), lagna);
+            double lo = armc;
+            double previous = lagna;
+
+            while (true)
+            {
+                if (next == boundaries.size())
+                {
+                    next = 0;
+                    offset += 360D;
+                }
+
+                double boundary = boundaries.get(next) + offset;
+
+                if (boundary > endLagna)
+                {
+                    break;
+                }
+
+                lo = refine(boundary, lo, previous, endArmc, endLagna);
+                pending.add(new TransitEvent(TransitEvent.LAGNA, division,
+                        dayJd + lo / ARMC_RATE, boundaries.get(next), false));
+
+                previous = boundary;
+                next++;
+            }
+
+            armc = endArmc;
+            lagna = endLagna;
+        }
+
+        /*
+         * ARMC (from the day start) of the Lagna at the boundary, between lo
+         * (Lagna at p0) and hi (Lagna at p1).
+         */
+        private double refine(double boundary, double lo, double p0, double hi, double p1)
+                throws JathakamuException
+        {
+            double f0 = p0 - boundary;
+            double f1 = p1 - boundary;
+            int side = 0;
+
+            for (int i = 0; i < MAX_ITERATIONS && hi - lo > TOLERANCE; i++)
+            {
+                double a = (f1 == f0) ? (lo + hi) / 2 : lo - f0 * (hi - lo) / (f1 - f0);
+                double f = TransitSearch.difference(siderealLagna(a), boundary);
+
+                if (f == 0)
+                {
+                    return a;
+                }
+
+                if (f < 0)
+                {
+                    lo = a;
+                    f0 = f;
+
+                    // Same end kept twice, halve its value (Illinois)
+                    if (side == -1)
+                    {
+                        f1 /= 2;
+                    }
+                    side = -1;
+                }
+                else
+                {
+                    hi = a;
+                    f1 = f;
+
+                    if (side == 1)
+                    {
+                        f0 /= 2;
+                    }
+                    side = 1;
+                }
+            }
+
+            return hi;
+        }
+
+        /* Sidereal Lagna at an ARMC from the day start */
+        private double siderealLagna(double armcFromDay)
+                throws JathakamuException
+        {
+            int rtnFlag = swissEph.swe_houses_armc(SupportCalcs.degnorm(dayArmc + armcFromDay),
+                    latitude, obliquity, houseSystem, cusps, ascmc);
+
+            if (rtnFlag == SweConst.ERR)
+            {
+                throw new JathakamuException("Error Occured while computing Lagna");
+            }
+
+            return SupportCalcs.degnorm(ascmc[SweConst.SE_ASC] - ayanamsa);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.metrics.Timer;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * Least recently used cache of computed charts in front of EphemerisCalcs.
+ * Reopening a chart, or many sessions showing the transit of the same
+ * minute, reuse the positions and lords computed the first time.
+ *
+ * Charts are kept by ChartKey. At most maxEntries charts are kept, a chart is
+ * about 1.5KB (positions and the lords lists), so the default 1024 entries
+ * take around 1.5MB. A chart being computed does not block the lookups of
+ * other charts; two threads asking for the same new chart may both compute
+ * it, the first one is kept.
+ *
+ * @author Phani
+ */
+public final class ChartCache
+{
+    public final static String SIZE_PROPERTY = "mpp.jathakamu.chartCacheSize";
+
+    private final Map<ChartKey, Entry> charts;
+    private final int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final static Timer LORDS_TIMER = Metrics.timer("lords.chart");
+
+    private static class CacheHolder
+    {
+        private final static ChartCache CACHE = new ChartCache(
+                Integer.getInteger(SIZE_PROPERTY, 1024));
+
+        static
+        {
+            Metrics.gauge("chartcache.hits", CACHE::getHitCount);
+            Metrics.gauge("chartcache.misses", CACHE::getMissCount);
+            Metrics.gauge("chartcache.evictions", CACHE::getEvictionCount);
+            Metrics.gauge("chartcache.size", CACHE::size);
+        }
+    }
+
+    /**
+     * Positions of a chart and the lords (sign lord first, see
+     * SupportCalcs.getLordsWithSignLord) of its grahas and cusps. Shared
+     * between threads, do not change.
+     */
+    public static final class Entry
+    {
+        private final ChartPositions positions;
+        private final List<List<Planet>> grahaLords;
+        private final List<List<Planet>> cuspLords;
+
+        private Entry(ChartPositions positions)
+        {
+            long start = Timer.start();
+            List<List<Planet>> lords = new ArrayList<>(ChartPositions.GRAHAS);
+
+            for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+            {
+                lords.add(Collections.unmodifiableList(
+                        SupportCalcs.getLordsWithSignLord(positions.getLongitude(graha))));
+            }
+            grahaLords = Collections.unmodifiableList(lords);
+
+            lords = new ArrayList<>(ChartPositions.HOUSES);
+            for (int house = 0; house < ChartPositions.HOUSES; house++)
+            {
+                lords.add(Collections.unmodifiableList(
+                        SupportCalcs.getLordsWithSignLord(positions.getCusp(house))));
+            }
+            cuspLords = Collections.unmodifiableList(lords);
+
+            this.positions = positions;
+            LORDS_TIMER.stop(start);
+        }
+
+        public ChartPositions getPositions()
+        {
+            return positions;
+        }
+
+        /**
+         * @param graha SweConst.SE_SUN to SweConst.SE_PLUTO, RAHU or KETU
+         * @return sign lord, star lord, sub lord, sub sub lord...
+         */
+        public List<Planet> getGrahaLords(int graha)
+        {
+            return grahaLords.get(graha);
+        }
+
+        /**
+         * @param house 0 for the 1st house to 11 for the 12th house
+         * @return sign lord, star lord, sub lord, sub sub lord...
+         */
+        public List<Planet> getCuspLords(int house)
+        {
+            return cuspLords.get(house);
+        }
+    }
+
+    /**
+     * @param maxEntries number of charts to keep
+     */
+    public ChartCache(int maxEntries)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("Cache size should be at least 1, not " + maxEntries);
+        }
+
+        this.maxEntries = maxEntries;
+        this.charts = new LinkedHashMap<ChartKey, Entry>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ChartKey, Entry> eldest)
+            {
+                if (size() > ChartCache.this.maxEntries)
+                {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cache shared by the chart pages. Size is 1024 charts unless set with
+     * the system property SIZE_PROPERTY.
+     *
+     * @return shared cache
+     */
+    public static ChartCache getInstance()
+    {
+        return CacheHolder.CACHE;
+    }
+
+    /**
+     * Chart of the profile, computed with EphemerisCalcs.computeAll if it is
+     * not in the cache.
+     *
+     * @param profile chart inputs
+     * @return positions and lords of the chart
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public Entry get(Profile profile)
+            throws JathakamuException
+    {
+        ChartKey key = ChartKey.of(profile);
+        Entry entry;
+
+        synchronized (charts)
+        {
+            entry = charts.get(key);
+        }
+
+        if (entry != null)
+        {
+            hits.incrementAndGet();
+            return entry;
+        }
+
+        misses.incrementAndGet();
+        Entry newEntry = new Entry(EphemerisCalcs.computeAll(profile));
+
+        synchronized (charts)
+        {
+            entry = charts.get(key);
+
+            if (entry == null)
+            {
+                charts.put(key, newEntry);
+                entry = newEntry;
+            }
+        }
+
+        return entry;
+    }
+
+    public void clear()
+    {
+        synchronized (charts)
+        {
+            charts.clear();
+        }
+    }
+
+    public int size()
+    {
+        synchronized (charts)
+        {
+            return charts.size();
+        }
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    public long getEvictionCount()
+    {
+        return evictions.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ChartCache{" + "size=" + size() + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + '}';
+    }
+}
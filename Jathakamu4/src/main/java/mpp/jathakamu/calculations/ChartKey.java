@@ -0,0 +1,111 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Arrays;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+
+/**
+ * Inputs of a chart computation, used as the key of the ChartCache.
+ *
+ * ProfileSettings gets a new ID for every instance, so it can not be used to
+ * compare charts. This key is made of the values the positions depend on:
+ * the time, the place and the ayanamsa, flags, house system and node
+ * settings. Time is rounded to TIME_QUANTUM (a second) and the place to a
+ * millionth of a degree, so the same chart entered again gives the same key.
+ *
+ * @author Phani
+ */
+public final class ChartKey
+{
+    /* One second as a fraction of a day */
+    public final static double TIME_QUANTUM = 1D / 86400D;
+
+    private final static double PLACE_QUANTUM = 1E-6D;
+
+    private final long time;
+    private final long latitude;
+    private final long longitude;
+    private final double[] ayanamsa;
+    private final int ephemerisFlags;
+    private final int houseSystem;
+    private final boolean trueNode;
+    private final int hash;
+
+    private ChartKey(Profile profile)
+    {
+        ProfileSettings settings = profile.getProfileSetting();
+
+        time = Math.round(profile.getDateTime() / TIME_QUANTUM);
+        // Latitude is geocentric or not as per the settings
+        latitude = Math.round(profile.getLatitude() / PLACE_QUANTUM);
+        longitude = Math.round(profile.getLongitude() / PLACE_QUANTUM);
+        ayanamsa = settings.getAynamsa();
+        ephemerisFlags = settings.getEphemerisFlags();
+        houseSystem = settings.getHouseSystem();
+        trueNode = settings.isTrueNode();
+
+        int h = 7;
+        h = 31 * h + Long.hashCode(time);
+        h = 31 * h + Long.hashCode(latitude);
+        h = 31 * h + Long.hashCode(longitude);
+        h = 31 * h + Arrays.hashCode(ayanamsa);
+        h = 31 * h + ephemerisFlags;
+        h = 31 * h + houseSystem;
+        h = 31 * h + Boolean.hashCode(trueNode);
+        hash = h;
+    }
+
+    /**
+     * Key of the chart of a profile.
+     *
+     * @param profile chart inputs
+     * @return key, equal for profiles giving the same positions
+     */
+    public static ChartKey of(Profile profile)
+    {
+        return new ChartKey(profile);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+        {
+            return true;
+        }
+
+        if (obj == null || getClass() != obj.getClass())
+        {
+            return false;
+        }
+
+        final ChartKey other = (ChartKey) obj;
+
+        return hash == other.hash
+            && time == other.time
+            && latitude == other.latitude
+            && longitude == other.longitude
+            && ephemerisFlags == other.ephemerisFlags
+            && houseSystem == other.houseSystem
+            && trueNode == other.trueNode
+            && Arrays.equals(ayanamsa, other.ayanamsa);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ChartKey{" + "time=" + time + ", latitude=" + latitude
+                + ", longitude=" + longitude + ", ayanamsa=" + Arrays.toString(ayanamsa)
+                + ", ephemerisFlags=" + ephemerisFlags + ", houseSystem=" + houseSystem
+                + ", trueNode=" + trueNode + '}';
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import swisseph.SweConst;
+
+/**
+ * Positions of a chart filled by EphemerisCalcs.computeAll in one go: the 12
+ * grahas (Sun to Pluto by their Swiss Ephemeris numbers, then Rahu and Ketu),
+ * the 12 house cusps and the ascmc values of swe_houses.
+ *
+ * Longitudes of the grahas and cusps have the ayanamsa deducted when the
+ * profile asks for it, ascmc values are as given by swe_houses. An instance
+ * can be filled again for another chart, nothing is allocated for that.
+ *
+ * @author Phani
+ */
+public final class ChartPositions
+{
+    public final static int RAHU = SweConst.SE_PLUTO + 1;
+    public final static int KETU = RAHU + 1;
+    public final static int GRAHAS = KETU + 1;
+    public final static int HOUSES = 12;
+
+    final double[] longitudes = new double[GRAHAS];
+    final double[] speeds = new double[GRAHAS];
+    final boolean[] retrogrades = new boolean[GRAHAS];
+    final String[] names = new String[GRAHAS];
+    final double[] cusps = new double[HOUSES];
+    final double[] ascmc = new double[10];
+    double ayanamsa;
+
+    /**
+     * @param graha SweConst.SE_SUN to SweConst.SE_PLUTO, RAHU or KETU
+     * @return longitude in degrees
+     */
+    public double getLongitude(int graha)
+    {
+        return longitudes[graha];
+    }
+
+    /**
+     * @param graha SweConst.SE_SUN to SweConst.SE_PLUTO, RAHU or KETU
+     * @return speed in longitude, degrees per day
+     */
+    public double getSpeed(int graha)
+    {
+        return speeds[graha];
+    }
+
+    public boolean isRetrograde(int graha)
+    {
+        return retrogrades[graha];
+    }
+
+    public String getName(int graha)
+    {
+        return names[graha];
+    }
+
+    /**
+     * @param house 0 for the 1st house to 11 for the 12th house
+     * @return longitude of the cusp in degrees
+     */
+    public double getCusp(int house)
+    {
+        return cusps[house];
+    }
+
+    public double getAyanamsa()
+    {
+        return ayanamsa;
+    }
+
+    public double getLagna()
+    {
+        return ascmc[SweConst.SE_ASC];
+    }
+
+    public double getMC()
+    {
+        return ascmc[SweConst.SE_MC];
+    }
+
+    public double getSidrealTime()
+    {
+        return ascmc[SweConst.SE_ARMC];
+    }
+
+    public double getVertex()
+    {
+        return ascmc[SweConst.SE_VERTEX];
+    }
+
+    public double getEquatorialAsc()
+    {
+        return ascmc[SweConst.SE_EQUASC];
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.types.LazyVDNode;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * Vimshottari dasa periods shared by all the sessions. The periods depend
+ * only on the Moon longitude and the length of the year, the birth time
+ * just shifts them, so they are kept as a DasaTimeline relative to the
+ * birth (birth at time 0) and a session holds a DasaView, the birth time
+ * with a reference to the shared timeline.
+ *
+ * Every Moon in a star has the same sequence of periods, only the balance
+ * at birth differs, so the timeline is computed for the start of the star of
+ * the Moon and shared by all the charts with the Moon in that star. The view
+ * shifts it by the exact dasa elapsed between the start of the star and the
+ * Moon, so the dates are those of SupportCalcs.getVDTree2. There are at most
+ * 27 timelines for a year length. A timeline of all the five levels is about
+ * 600 KB; the least recently used ones are dropped beyond 32 timelines
+ * unless set with the system property SIZE_PROPERTY.
+ *
+ * @author Phani
+ */
+public final class DasaCache
+{
+    public final static String SIZE_PROPERTY = "mpp.jathakamu.dasaCacheSize";
+
+    private final Map<Key, DasaTimeline> timelines;
+    private final int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static class CacheHolder
+    {
+        private final static DasaCache CACHE = new DasaCache(Integer.getInteger(SIZE_PROPERTY, 32));
+
+        static
+        {
+            Metrics.gauge("dasacache.hits", CACHE::getHitCount);
+            Metrics.gauge("dasacache.misses", CACHE::getMissCount);
+            Metrics.gauge("dasacache.size", CACHE::size);
+        }
+    }
+
+    /* Start of the star of the Moon and the year length */
+    static final class Key
+    {
+        private final double longitude;
+        private final double oneYear;
+
+        Key(double moonLongitude, double oneYear)
+        {
+            this.longitude = SupportCalcs.getLords(moonLongitude).get(LordsIndex.STAR_LORD)
+                    .getValue().getMin();
+            this.oneYear = oneYear;
+        }
+
+        double getLongitude()
+        {
+            return longitude;
+        }
+
+        double getOneYear()
+        {
+            return oneYear;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * Double.hashCode(longitude) + Double.hashCode(oneYear);
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (!(obj instanceof Key))
+            {
+                return false;
+            }
+
+            Key other = (Key) obj;
+
+            return Double.compare(longitude, other.longitude) == 0
+                    && Double.compare(oneYear, other.oneYear) == 0;
+        }
+    }
+
+    /**
+     * @param maxEntries number of timelines to keep
+     */
+    public DasaCache(int maxEntries)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("Cache size should be at least 1, not " + maxEntries);
+        }
+
+        this.maxEntries = maxEntries;
+        this.timelines = new LinkedHashMap<Key, DasaTimeline>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, DasaTimeline> eldest)
+            {
+                return size() > DasaCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Dasa cache shared by the sessions.
+     *
+     * @return shared instance
+     */
+    public static DasaCache getInstance()
+    {
+        return CacheHolder.CACHE;
+    }
+
+    /**
+     * Dasa periods of a native.
+     *
+     * @param dob birth time in milliseconds
+     * @param moonLongitude longitude of the Moon at birth
+     * @param oneYear days in a dasa year, ProfileSettings.getOneYear()
+     * @return view of the shared periods at the birth time
+     */
+    public DasaView getView(long dob, double moonLongitude, double oneYear)
+    {
+        Key key = new Key(moonLongitude, oneYear);
+        DasaTimeline timeline = getTimeline(key);
+
+        return new DasaView(dob, moonLongitude, key, timeline,
+                getShift(moonLongitude, key, timeline));
+    }
+
+    /*
+     * Time by which the birth is after the birth of the timeline, the dasa
+     * elapsed between the start of the star and the Moon
+     */
+    static long getShift(double moonLongitude, Key key, DasaTimeline timeline)
+    {
+        long[] mahaDasaBounds = SupportCalcs.getMahaDasaBounds(0L, moonLongitude,
+                key.getOneYear(), new Planet[9]);
+
+        return timeline.getEnd(LazyVDNode.MAHA_DASA, 0) - mahaDasaBounds[1];
+    }
+
+    DasaTimeline getTimeline(Key key)
+    {
+        DasaTimeline timeline;
+
+        synchronized (timelines)
+        {
+            timeline = timelines.get(key);
+        }
+
+        if (timeline != null)
+        {
+            hits.incrementAndGet();
+            return timeline;
+        }
+
+        misses.incrementAndGet();
+
+        Planet[] mahaDasaPlanets = new Planet[9];
+        long[] mahaDasaBounds = SupportCalcs.getMahaDasaBounds(0L, key.getLongitude(),
+                key.getOneYear(), mahaDasaPlanets);
+
+        timeline = DasaTimeline.build(mahaDasaPlanets, mahaDasaBounds, 0L);
+
+        synchronized (timelines)
+        {
+            timelines.put(key, timeline);
+        }
+
+        return timeline;
+    }
+
+    public void clear()
+    {
+        synchronized (timelines)
+        {
+            timelines.clear();
+        }
+    }
+
+    public int size()
+    {
+        synchronized (timelines)
+        {
+            return timelines.size();
+        }
+    }
+
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DasaCache{" + "size=" + size() + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + '}';
+    }
+}
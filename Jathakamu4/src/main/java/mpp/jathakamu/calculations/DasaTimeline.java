@@ -0,0 +1,268 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Arrays;
+import mpp.jathakamu.types.Planet;
+
+import static mpp.jathakamu.types.LazyVDNode.MAHA_DASA;
+import static mpp.jathakamu.types.LazyVDNode.PRANA;
+
+/**
+ * Vimshottari dasa periods of a native kept as columns, one pair of arrays
+ * per level (maha dasa, bhukthi, pratyantara, sookshma and prana).
+ *
+ * Periods of a level are in time order and follow each other without gaps,
+ * so only the end of each period (milliseconds since epoch) is stored. The
+ * start of a period is the end of the one before it, or {@code getBegin} for
+ * the first one. Planet of each period is kept as the Planet ordinal.
+ *
+ * The periods are split the same way as LazyVDNode splits its children, and
+ * periods ending on or before the birth time are left out. A timeline may be
+ * built down to fewer levels, the levels below have no periods. Instances are
+ * immutable and safe to share between threads.
+ *
+ * @author Phani
+ */
+public final class DasaTimeline
+{
+    public final static int LEVELS = PRANA + 1;
+
+    private final static Planet[] PLANETS = Planet.values();
+
+    private final long[] begin = new long[LEVELS];
+    private final long[][] end = new long[LEVELS][];
+    private final byte[][] planets = new byte[LEVELS][];
+    private final int[] size = new int[LEVELS];
+    private final int levels;
+
+    private DasaTimeline(int levels)
+    {
+        int capacity = 1;
+
+        this.levels = levels;
+
+        for (int level = MAHA_DASA; level < LEVELS; level++)
+        {
+            capacity = (level < levels) ? capacity * 9 : 0;
+            end[level] = new long[capacity];
+            planets[level] = new byte[capacity];
+        }
+    }
+
+    /**
+     * Build the timeline from the maha dasas.
+     *
+     * @param mahaDasaPlanets the 9 maha dasa planets, starting with the one
+     * running at notBefore
+     * @param mahaDasaBounds start of the first maha dasa followed by the end
+     * of each maha dasa, in milliseconds
+     * @param notBefore periods ending on or before this time are left out
+     * @return timeline of all the five levels
+     */
+    static DasaTimeline build(Planet[] mahaDasaPlanets, long[] mahaDasaBounds,
+            long notBefore)
+    {
+        return build(mahaDasaPlanets, mahaDasaBounds, notBefore, LEVELS);
+    }
+
+    /**
+     * Build the timeline from the maha dasas down to a level.
+     *
+     * @param mahaDasaPlanets the 9 maha dasa planets, starting with the one
+     * running at notBefore
+     * @param mahaDasaBounds start of the first maha dasa followed by the end
+     * of each maha dasa, in milliseconds
+     * @param notBefore periods ending on or before this time are left out
+     * @param levels 1 for the maha dasas only to LEVELS
+     * @return timeline of the levels
+     */
+    static DasaTimeline build(Planet[] mahaDasaPlanets, long[] mahaDasaBounds,
+            long notBefore, int levels)
+    {
+        if (levels < 1 || levels > LEVELS)
+        {
+            throw new IllegalArgumentException("Levels should be 1 to " + LEVELS + ", not " + levels);
+        }
+
+        DasaTimeline timeline = new DasaTimeline(levels);
+
+        for (int i = 0; i < mahaDasaPlanets.length; i++)
+        {
+            timeline.add(MAHA_DASA, mahaDasaPlanets[i], mahaDasaBounds[i],
+                    mahaDasaBounds[i + 1], notBefore);
+        }
+
+        for (int level = MAHA_DASA; level < LEVELS; level++)
+        {
+            timeline.end[level] = Arrays.copyOf(timeline.end[level], timeline.size[level]);
+            timeline.planets[level] = Arrays.copyOf(timeline.planets[level], timeline.size[level]);
+        }
+
+        return timeline;
+    }
+
+    private void add(int level, Planet planet, long periodStart, long periodEnd,
+            long notBefore)
+    {
+        if (periodEnd <= notBefore)
+        {
+            return;
+        }
+
+        int index = size[level]++;
+
+        if (index == 0)
+        {
+            begin[level] = periodStart;
+        }
+
+        end[level][index] = periodEnd;
+        planets[level][index] = (byte) planet.ordinal();
+
+        if (level == levels - 1)
+        {
+            return;
+        }
+
+        Planet[] subPlanets = Planet.getVDPlanetArray(planet);
+        double duration = periodEnd - periodStart;
+        double subEnd = periodStart;
+        long subStart = periodStart;
+
+        for (int i = 0; i < subPlanets.length; i++)
+        {
+            subEnd += duration * subPlanets[i].getDasaDuration() / 120D;
+
+            // Last sub period ends with this period, whatever the rounding
+            long subPeriodEnd = (i == subPlanets.length - 1) ? periodEnd : Math.round(subEnd);
+
+            add(level + 1, subPlanets[i], subStart, subPeriodEnd, notBefore);
+            subStart = subPeriodEnd;
+        }
+    }
+
+    /**
+     * Number of periods in a level.
+     *
+     * @param level LazyVDNode.MAHA_DASA to LazyVDNode.PRANA
+     * @return number of periods
+     */
+    public int size(int level)
+    {
+        return size[level];
+    }
+
+    /**
+     * Find the period of a level running at the given time.
+     *
+     * @param level LazyVDNode.MAHA_DASA to LazyVDNode.PRANA
+     * @param epochMillis time in milliseconds
+     * @return index of the period, -1 if the time is outside the timeline
+     */
+    public int indexAt(int level, long epochMillis)
+    {
+        int last = size[level] - 1;
+
+        if (last < 0 || epochMillis < begin[level] || epochMillis >= end[level][last])
+        {
+            return -1;
+        }
+
+        int pos = Arrays.binarySearch(end[level], 0, size[level], epochMillis);
+
+        // A period ending at the given time is over, the next one is running
+        return (pos >= 0) ? pos + 1 : -pos - 1;
+    }
+
+    /**
+     * Planets of all the five levels running at the given time.
+     *
+     * @param epochMillis time in milliseconds
+     * @return maha dasa, bhukthi, pratyantara, sookshma and prana planets, or
+     * null if the time is outside the timeline or the timeline has fewer
+     * levels
+     */
+    public Planet[] periodAt(long epochMillis)
+    {
+        Planet[] rtnPlanets = new Planet[LEVELS];
+
+        for (int level = MAHA_DASA; level < LEVELS; level++)
+        {
+            int index = indexAt(level, epochMillis);
+
+            if (index < 0)
+            {
+                return null;
+            }
+
+            rtnPlanets[level] = getPlanet(level, index);
+        }
+
+        return rtnPlanets;
+    }
+
+    /**
+     * Periods of a level which overlap the time between from (inclusive) and
+     * to (exclusive), for example all the sookshma periods of a year.
+     *
+     * @param level LazyVDNode.MAHA_DASA to LazyVDNode.PRANA
+     * @param from start time in milliseconds
+     * @param to end time in milliseconds
+     * @return indexes of the periods in time order, empty if none
+     */
+    public int[] indexesBetween(int level, long from, long to)
+    {
+        int count = size[level];
+
+        if (count == 0 || from >= to || to <= begin[level] || from >= end[level][count - 1])
+        {
+            return new int[0];
+        }
+
+        int first = (from < begin[level]) ? 0 : indexAt(level, from);
+        int last = indexAt(level, to - 1);
+
+        if (last < 0)
+        {
+            last = count - 1;
+        }
+
+        int[] rtnIndexes = new int[last - first + 1];
+
+        for (int i = 0; i < rtnIndexes.length; i++)
+        {
+            rtnIndexes[i] = first + i;
+        }
+
+        return rtnIndexes;
+    }
+
+    /**
+     * Start of the first period of a level, before the birth time for the
+     * running period.
+     *
+     * @param level LazyVDNode.MAHA_DASA to LazyVDNode.PRANA
+     * @return time in milliseconds
+     */
+    public long getBegin(int level)
+    {
+        return begin[level];
+    }
+
+    public long getStart(int level, int index)
+    {
+        return (index == 0) ? begin[level] : end[level][index - 1];
+    }
+
+    public long getEnd(int level, int index)
+    {
+        return end[level][index];
+    }
+
+    public Planet getPlanet(int level, int index)
+    {
+        return PLANETS[planets[level][index]];
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import mpp.jathakamu.types.LazyVDNode;
+import mpp.jathakamu.types.Planet;
+import mpp.jathakamu.types.VDNode;
+
+/**
+ * Dasa periods of one native: the birth time and a reference to the shared
+ * DasaTimeline of DasaCache, which is relative to a birth with the Moon at
+ * the start of its star, shifted by the dasa elapsed up to the Moon. Periods of
+ * the timeline ending by the birth are left out. This is what a session
+ * keeps; the timeline itself is not serialized with the session and
+ * is taken from the cache again when needed.
+ *
+ * The periods are given as VDNodes for the chart pages. A node is made
+ * when its list is asked for and has only the level and index of its period,
+ * its sub periods are read from the timeline.
+ *
+ * @author Phani
+ */
+public final class DasaView
+    implements Serializable
+{
+    private static final long serialVersionUID = 2L;
+
+    private final long dob;
+    private final double moonLongitude;
+    private final double oneYear;
+    private final long shift;
+
+    private transient volatile DasaTimeline timeline;
+
+    DasaView(long dob, double moonLongitude, DasaCache.Key key, DasaTimeline timeline,
+            long shift)
+    {
+        this.dob = dob;
+        this.moonLongitude = moonLongitude;
+        this.oneYear = key.getOneYear();
+        this.timeline = timeline;
+        this.shift = shift;
+    }
+
+    /**
+     * @return birth time in milliseconds
+     */
+    public long getDob()
+    {
+        return dob;
+    }
+
+    /**
+     * @return time in milliseconds by which the birth is after the birth of
+     * the shared timeline
+     */
+    public long getShift()
+    {
+        return shift;
+    }
+
+    /**
+     * @return the shared timeline, times relative to the birth of the
+     * Moon at the start of its star
+     */
+    public DasaTimeline getTimeline()
+    {
+        DasaTimeline rtnTimeline = timeline;
+
+        if (rtnTimeline == null)
+        {
+            rtnTimeline = DasaCache.getInstance().getTimeline(new DasaCache.Key(moonLongitude, oneYear));
+            timeline = rtnTimeline;
+        }
+
+        return rtnTimeline;
+    }
+
+    /**
+     * @param level LazyVDNode.MAHA_DASA to LazyVDNode.PRANA
+     * @param index index of the period in the level
+     * @return start of the period in milliseconds
+     */
+    public long getStart(int level, int index)
+    {
+        return dob - shift + getTimeline().getStart(level, index);
+    }
+
+    /**
+     * @param level LazyVDNode.MAHA_DASA to LazyVDNode.PRANA
+     * @param index index of the period in the level
+     * @return end of the period in milliseconds
+     */
+    public long getEnd(int level, int index)
+    {
+        return dob - shift + getTimeline().getEnd(level, index);
+    }
+
+    /**
+     * @param epochMillis time in milliseconds
+     * @return maha dasa, bhukthi, pratyantara, sookshma and prana planets, or
+     * null if the time is outside the periods
+     */
+    public Planet[] periodAt(long epochMillis)
+    {
+        return getTimeline().periodAt(epochMillis - dob + shift);
+    }
+
+    /**
+     * @return maha dasas from the one running at birth
+     */
+    public List<VDNode> getMahaDasaList()
+    {
+        return nodes(LazyVDNode.MAHA_DASA, 0, Long.MAX_VALUE);
+    }
+
+    /*
+     * Periods of a level from the index, those ending after the birth and by
+     * end (relative)
+     */
+    private List<VDNode> nodes(int level, int first, long end)
+    {
+        DasaTimeline periods = getTimeline();
+        List<VDNode> rtnList = new ArrayList<>(9);
+        int from = first;
+
+        while (from < periods.size(level) && periods.getEnd(level, from) <= shift)
+        {
+            from++;
+        }
+
+        for (int index = from; index < periods.size(level) && periods.getEnd(level, index) <= end;
+                index++)
+        {
+            rtnList.add(new Node(this, level, index));
+        }
+
+        return rtnList;
+    }
+
+    /* Period of the view, children from the timeline */
+    private static final class Node
+        extends VDNode
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final DasaView view;
+        private final int level;
+        private final int index;
+
+        private Node(DasaView view, int level, int index)
+        {
+            super(view.getTimeline().getPlanet(level, index), view.getEnd(level, index));
+            this.view = view;
+            this.level = level;
+            this.index = index;
+        }
+
+        @Override
+        public List<VDNode> getChildren()
+        {
+            if (level >= LazyVDNode.PRANA)
+            {
+                return new ArrayList<>();
+            }
+
+            DasaTimeline periods = view.getTimeline();
+            int childLevel = level + 1;
+            long start = periods.getStart(level, index);
+            // Sub periods before the birth are not in the timeline
+            int first = (start < periods.getBegin(childLevel)) ? 0
+                    : periods.indexAt(childLevel, start);
+
+            if (first < 0)
+            {
+                return new ArrayList<>();
+            }
+
+            return view.nodes(childLevel, first, periods.getEnd(level, index));
+        }
+
+        @Override
+        public boolean hasChild()
+        {
+            return level < LazyVDNode.PRANA;
+        }
+
+        @Override
+        public void add(VDNode child)
+        {
+            throw new UnsupportedOperationException("Children of a dasa view are computed");
+        }
+
+        @Override
+        public void add(Collection<VDNode> child)
+        {
+            throw new UnsupportedOperationException("Children of a dasa view are computed");
+        }
+
+        @Override
+        public void removeAllChildren()
+        {
+        }
+    }
+}
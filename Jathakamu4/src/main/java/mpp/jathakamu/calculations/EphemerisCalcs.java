@@ -3,14 +3,14 @@
  */
 package mpp.jathakamu.calculations;
 
-import java.io.File;
 import java.util.logging.Level;
 import static mpp.jathakamu.JathakamLogger.LOGGER;
 
-import mpp.jathakamu.GlobalSettings;
 import mpp.jathakamu.JathakamuException;
 import mpp.jathakamu.Profile;
 import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.metrics.Timer;
 import mpp.jathakamu.utils.ViewUtils;
 import swisseph.SweConst;
 import swisseph.SwissEph;
@@ -19,29 +19,58 @@ import swisseph.SwissEph;
  * All the calculations related to Swiss EphemerisCalcs (or java package)goes
  * here
  *
+ * SwissEph instance is taken from the EphemerisEngine pool, close this to
+ * give it back.
+ *
  * @author Phani
  */
 public class EphemerisCalcs
+    implements AutoCloseable
 {
+    private final static Timer PLANETS_TIMER = Metrics.timer("ephemeris.planets");
+    private final static Timer PLANET_TIMER = Metrics.timer("ephemeris.planet");
+    private final static Timer HOUSES_TIMER = Metrics.timer("ephemeris.houses");
 
     private final Profile profile;
-    private final SwissEph swissEph;
+    private final EphemerisEngine engine;
+    private SwissEph swissEph;
     private final StringBuffer serr = new StringBuffer();
     private double ayanamsa;
     
     /* ascmc array is populated when calculating house/cusps */
     private final double []ascmc = new double[10];
 
+    /* Buffers reused by computeAll */
+    private final double[] xx = new double[6];
+    private final double[] cuspBuffer = new double[13];
+
     public EphemerisCalcs(Profile profile)
+    {
+        this(profile, EphemerisEngine.getInstance());
+    }
+
+    public EphemerisCalcs(Profile profile, EphemerisEngine engine)
     {
         this.profile = profile;
-        File ephFile = new File(GlobalSettings.EPHEMERIS_FILES_PATH);
-        LOGGER.log(Level.INFO, "Using Swiss Ephmeris Files from location ''{0}''", ephFile.getAbsoluteFile().toString());
-        swissEph = new SwissEph(GlobalSettings.EPHEMERIS_FILES_PATH);
+        this.engine = engine;
+        swissEph = engine.checkout();
 
         initializeEphemeris();
     }
 
+    /**
+     * Return the SwissEph instance to the pool, this object should not be
+     * used after this.
+     */
+    @Override
+    public void close()
+    {
+        SwissEph instance = swissEph;
+
+        swissEph = null;
+        engine.release(instance);
+    }
+
     private void initializeEphemeris()
     {
         ProfileSettings settings = profile.getProfileSetting();
@@ -77,8 +106,10 @@ public class EphemerisCalcs
         serr.setLength(0);
         printEphemerisFlags(ephFlags);
         LOGGER.log(Level.INFO, "Calling swe_calc_ut");
+        long start = Timer.start();
         int rtnFlag = swissEph.swe_calc_ut(tjd_ut, planet, ephFlags, xx,
                 serr);
+        PLANET_TIMER.stop(start);
 
         LOGGER.log(Level.INFO,
                 "Planet longitude is {0} and is Retrograde? {1}",
@@ -122,8 +153,10 @@ public class EphemerisCalcs
 
         printEphemerisFlags(ephFlags);
         LOGGER.log(Level.INFO, "Calling swe_houses");
+        long start = Timer.start();
         int rtnFlag = swissEph.swe_houses(tjd_ut, ephFlags, geolat, geolong,
                 hsys, cusp, ascmc);
+        HOUSES_TIMER.stop(start);
 
         if (rtnFlag == SweConst.ERR)
         {
@@ -149,6 +182,141 @@ public class EphemerisCalcs
         return rtnCusp;
     }
 
+    /**
+     * Positions of all the grahas and cusps of the given profile, using a
+     * SwissEph instance from the shared EphemerisEngine.
+     *
+     * @param profile chart to compute
+     * @return positions of the chart
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public static ChartPositions computeAll(Profile profile)
+            throws JathakamuException
+    {
+        try (EphemerisCalcs ephCalc = new EphemerisCalcs(profile))
+        {
+            return ephCalc.computeAll(new ChartPositions());
+        }
+    }
+
+    /**
+     * Fill the positions of all the grahas (Sun to Pluto, Rahu and Ketu) and
+     * the cusps of the profile. Settings are read once and the ayanamsa is
+     * deducted from all the longitudes in one pass at the end.
+     *
+     * @param positions filled with the positions, can be reused
+     * @return the given positions
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public ChartPositions computeAll(ChartPositions positions)
+            throws JathakamuException
+    {
+        ProfileSettings settings = profile.getProfileSetting();
+        double tjd_ut = profile.getDateTime();
+        int ephFlags = settings.getEphemerisFlags();
+
+        computePlanets(positions);
+
+        long start = Timer.start();
+        int rtnFlag = swissEph.swe_houses(tjd_ut, ephFlags, profile.getLatitude(),
+                profile.getLongitude(), settings.getHouseSystem(), cuspBuffer,
+                positions.ascmc);
+        HOUSES_TIMER.stop(start);
+
+        if (rtnFlag == SweConst.ERR)
+        {
+            throw new JathakamuException(
+                    "Error Occured while getting cusp details. Return status is "
+                    + rtnFlag + "\n Error is " + serr);
+        }
+
+        System.arraycopy(cuspBuffer, 1, positions.cusps, 0, ChartPositions.HOUSES);
+        System.arraycopy(positions.ascmc, 0, ascmc, 0, ascmc.length);
+
+        if (settings.deductAyanamsa())
+        {
+            for (int house = 0; house < ChartPositions.HOUSES; house++)
+            {
+                positions.cusps[house] = SupportCalcs.degnorm(positions.cusps[house] - ayanamsa);
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * Fill the positions of the grahas only (Sun to Pluto, Rahu and Ketu),
+     * for charts whose cusps are not from the time and place, like horary
+     * charts. Cusps and ascmc of positions are left as they are.
+     *
+     * @param positions filled with the positions, can be reused
+     * @return the given positions
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public ChartPositions computePlanets(ChartPositions positions)
+            throws JathakamuException
+    {
+        ProfileSettings settings = profile.getProfileSetting();
+        double tjd_ut = profile.getDateTime();
+        int ephFlags = settings.getEphemerisFlags();
+        int rahu = (settings.isTrueNode()) ? SweConst.SE_TRUE_NODE : SweConst.SE_MEAN_NODE;
+
+        printEphemerisFlags(ephFlags);
+        serr.setLength(0);
+
+        long start = Timer.start();
+
+        for (int graha = SweConst.SE_SUN; graha <= ChartPositions.RAHU; graha++)
+        {
+            int planet = (graha == ChartPositions.RAHU) ? rahu : graha;
+            int rtnFlag = swissEph.swe_calc_ut(tjd_ut, planet, ephFlags, xx, serr);
+
+            if (rtnFlag == SweConst.ERR)
+            {
+                throw new JathakamuException(
+                        "Error Occured while getting planet details for "
+                        + swissEph.swe_get_planet_name(planet) + "\nReturn status is "
+                        + rtnFlag + "\n Error is " + serr);
+            }
+
+            positions.longitudes[graha] = xx[0];
+            positions.speeds[graha] = xx[3];
+
+            if (positions.names[graha] == null)
+            {
+                positions.names[graha] = (graha == ChartPositions.RAHU)
+                        ? "Rahu" : swissEph.swe_get_planet_name(planet);
+            }
+        }
+
+        PLANETS_TIMER.stop(start);
+
+        for (int graha = SweConst.SE_SUN; graha <= ChartPositions.RAHU; graha++)
+        {
+            double longitude = positions.longitudes[graha];
+
+            if (settings.deductAyanamsa())
+            {
+                longitude = longitude - ayanamsa;
+            }
+            positions.longitudes[graha] = SupportCalcs.degnorm(longitude);
+        }
+
+        // Ketu is always opposite to Rahu
+        positions.longitudes[ChartPositions.KETU] = SupportCalcs.degnorm(180 + positions.longitudes[ChartPositions.RAHU]);
+        positions.speeds[ChartPositions.KETU] = positions.speeds[ChartPositions.RAHU];
+        positions.names[ChartPositions.KETU] = "Ketu";
+
+        for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+        {
+            positions.retrogrades[graha] = positions.speeds[graha] < 0;
+        }
+
+        positions.ayanamsa = ayanamsa;
+
+        return positions;
+    }
+
     public double getAyanamsa()
     {
         return ayanamsa;
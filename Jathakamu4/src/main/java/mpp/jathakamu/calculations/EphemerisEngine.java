@@ -0,0 +1,202 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.metrics.Metrics;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Pool of initialized SwissEph instances. Creating a SwissEph sets up its
+ * SwissData and opens the ephemeris files on the first calculation, so the
+ * instances are reused across chart requests instead of created for each.
+ *
+ * An instance is used by one thread at a time: checkout it, do the
+ * calculations and release it (EphemerisCalcs.close does this). When no
+ * instance is idle a new one is created, so checkout never waits. At most
+ * maxIdle instances are kept, extra instances released are closed.
+ *
+ * Sidereal mode is set by every EphemerisCalcs, it is reset to the library
+ * default on release so a pooled instance looks like a new one.
+ *
+ * @author Phani
+ */
+public final class EphemerisEngine
+{
+    public final static String POOL_SIZE_PROPERTY = "mpp.jathakamu.ephemerisPoolSize";
+
+    /* SwissEph instances created by all the engines */
+    private final static LongAdder INSTANTIATIONS = Metrics.counter("swisseph.created");
+
+    private final String ephemerisPath;
+    private final BlockingQueue<SwissEph> idle;
+    private final int maxIdle;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong checkouts = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong inUse = new AtomicLong();
+
+    private static class EngineHolder
+    {
+        private final static EphemerisEngine ENGINE = new EphemerisEngine(
+                GlobalSettings.EPHEMERIS_FILES_PATH,
+                Integer.getInteger(POOL_SIZE_PROPERTY,
+                        Runtime.getRuntime().availableProcessors()));
+
+        static
+        {
+            Metrics.gauge("ephemeris.pool.idle", ENGINE::getIdleCount);
+            Metrics.gauge("ephemeris.pool.inuse", ENGINE::getInUseCount);
+            Metrics.gauge("ephemeris.pool.checkouts", ENGINE::getCheckoutCount);
+            Metrics.gauge("ephemeris.pool.reused", ENGINE::getReusedCount);
+            Metrics.gauge("ephemeris.pool.discarded", ENGINE::getDiscardedCount);
+        }
+    }
+
+    /**
+     * @param ephemerisPath location of the Swiss Ephemeris files
+     * @param maxIdle number of instances to keep for reuse
+     */
+    public EphemerisEngine(String ephemerisPath, int maxIdle)
+    {
+        if (maxIdle < 1)
+        {
+            throw new IllegalArgumentException("Pool size should be at least 1, not " + maxIdle);
+        }
+
+        this.ephemerisPath = ephemerisPath;
+        this.maxIdle = maxIdle;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+
+        File ephFile = new File(ephemerisPath);
+        LOGGER.log(Level.INFO, "Using Swiss Ephmeris Files from location ''{0}'', pool size {1}",
+                new Object[] {ephFile.getAbsoluteFile().toString(), maxIdle});
+    }
+
+    /**
+     * Engine shared by all the EphemerisCalcs. Size of the pool is the number
+     * of processors unless set with the system property POOL_SIZE_PROPERTY.
+     *
+     * @return shared engine
+     */
+    public static EphemerisEngine getInstance()
+    {
+        return EngineHolder.ENGINE;
+    }
+
+    /**
+     * Take an idle instance from the pool, or create one if none is idle.
+     *
+     * @return instance for use by the calling thread only
+     */
+    public SwissEph checkout()
+    {
+        SwissEph swissEph = idle.poll();
+
+        checkouts.incrementAndGet();
+        inUse.incrementAndGet();
+
+        if (swissEph != null)
+        {
+            reused.incrementAndGet();
+            return swissEph;
+        }
+
+        created.incrementAndGet();
+        INSTANTIATIONS.increment();
+        return new SwissEph(ephemerisPath);
+    }
+
+    /**
+     * Give back an instance taken with checkout. It should not be used after
+     * this.
+     *
+     * @param swissEph instance to return to the pool
+     */
+    public void release(SwissEph swissEph)
+    {
+        if (swissEph == null)
+        {
+            return;
+        }
+
+        inUse.decrementAndGet();
+        swissEph.swe_set_sid_mode(SweConst.SE_SIDM_FAGAN_BRADLEY, 0, 0);
+
+        if (!idle.offer(swissEph))
+        {
+            discarded.incrementAndGet();
+            swissEph.swe_close();
+        }
+    }
+
+    public int getMaxIdle()
+    {
+        return maxIdle;
+    }
+
+    /**
+     * @return instances in the pool waiting for checkout
+     */
+    public int getIdleCount()
+    {
+        return idle.size();
+    }
+
+    /**
+     * @return instances checked out and not released yet
+     */
+    public long getInUseCount()
+    {
+        return inUse.get();
+    }
+
+    /**
+     * @return instances created since the engine started
+     */
+    public long getCreatedCount()
+    {
+        return created.get();
+    }
+
+    public long getCheckoutCount()
+    {
+        return checkouts.get();
+    }
+
+    /**
+     * @return checkouts served with an idle instance
+     */
+    public long getReusedCount()
+    {
+        return reused.get();
+    }
+
+    /**
+     * @return instances closed on release because the pool was full
+     */
+    public long getDiscardedCount()
+    {
+        return discarded.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "EphemerisEngine{" + "idle=" + getIdleCount() + ", inUse=" + getInUseCount()
+                + ", created=" + getCreatedCount() + ", checkouts=" + getCheckoutCount()
+                + ", reused=" + getReusedCount() + ", discarded=" + getDiscardedCount() + '}';
+    }
+}
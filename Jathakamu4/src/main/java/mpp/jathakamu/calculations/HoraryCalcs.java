@@ -0,0 +1,348 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.metrics.Metrics;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * KP horary charts: the Lagna is put at the start of the horary number (1 to
+ * 249 or 1 to 2193) given by the querent, the planets are those of the time
+ * of the query.
+ *
+ * The cusps come from swe_houses_armc at the ARMC which rises the horary
+ * Lagna at the latitude. That ARMC depends only on the horary number, the
+ * latitude, the obliquity and the ayanamsa, so it is computed for all the
+ * horary numbers of a set at once and kept in a table for the latitude band
+ * (a ten thousandth of a degree) and the day. A horary chart is then a table
+ * lookup, one swe_houses_armc call and the planet positions.
+ *
+ * ARMC is first found with the oblique ascension of the Lagna and then
+ * corrected with the secant method on swe_houses_armc, so the Lagna is the
+ * one Swiss Ephemeris gives. It is aimed a millionth of a degree after the
+ * start of the horary number so that it falls in it. Cusps have the
+ * ayanamsa of the day deducted, the one the table was computed with.
+ *
+ * @author Phani
+ */
+public final class HoraryCalcs
+{
+    public final static int HORARY_249 = 249;
+    public final static int HORARY_2193 = 2193;
+
+    public final static String SIZE_PROPERTY = "mpp.jathakamu.horaryTableCacheSize";
+
+    private final static double LATITUDE_BAND = 1E-4D;
+    private final static double INSIDE = 1E-6D;
+    private final static double TOLERANCE = 1E-9D;
+    private final static int MAX_ITERATIONS = 30;
+
+    private final Map<String, ArmcTable> tables;
+    private final int maxTables;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static class HoraryHolder
+    {
+        private final static HoraryCalcs HORARY = new HoraryCalcs(
+                Integer.getInteger(SIZE_PROPERTY, 32));
+
+        static
+        {
+            Metrics.gauge("horary.hits", HORARY::getHitCount);
+            Metrics.gauge("horary.misses", HORARY::getMissCount);
+        }
+    }
+
+    /* ARMC of every horary number of a set, with what it was computed for */
+    private static final class ArmcTable
+    {
+        private final double latitude;
+        private final double obliquity;
+        private final double ayanamsa;
+        private final double[] armc;
+
+        private ArmcTable(double latitude, double obliquity, double ayanamsa, double[] armc)
+        {
+            this.latitude = latitude;
+            this.obliquity = obliquity;
+            this.ayanamsa = ayanamsa;
+            this.armc = armc;
+        }
+    }
+
+    /**
+     * @param maxTables number of ARMC tables to keep
+     */
+    public HoraryCalcs(int maxTables)
+    {
+        if (maxTables < 1)
+        {
+            throw new IllegalArgumentException("Cache size should be at least 1, not " + maxTables);
+        }
+
+        this.maxTables = maxTables;
+        this.tables = new LinkedHashMap<String, ArmcTable>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ArmcTable> eldest)
+            {
+                return size() > HoraryCalcs.this.maxTables;
+            }
+        };
+    }
+
+    /**
+     * Horary calculations shared by the chart pages. Keeps 32 tables unless
+     * set with the system property SIZE_PROPERTY.
+     *
+     * @return shared instance
+     */
+    public static HoraryCalcs getInstance()
+    {
+        return HoraryHolder.HORARY;
+    }
+
+    /**
+     * Horary chart of a query.
+     *
+     * @param profile time and place of the query, and the settings
+     * @param horarySet HORARY_249 or HORARY_2193
+     * @param horaryNum horary number given, 1 to horarySet
+     * @return positions of the planets at the time and the horary cusps
+     * @throws JathakamuException if the horary number is not valid or Swiss
+     * Ephemeris fails
+     */
+    public ChartPositions compute(Profile profile, int horarySet, int horaryNum)
+            throws JathakamuException
+    {
+        ChartPositions positions;
+
+        try (EphemerisCalcs ephCalc = new EphemerisCalcs(profile))
+        {
+            positions = ephCalc.computePlanets(new ChartPositions());
+        }
+
+        ProfileSettings settings = profile.getProfileSetting();
+        ArmcTable table = getTable(profile, horarySet);
+        double[] cusps = new double[13];
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            int rtnFlag = swissEph.swe_houses_armc(table.armc[checkHoraryNum(horarySet, horaryNum)],
+                    table.latitude, table.obliquity, settings.getHouseSystem(), cusps,
+                    positions.ascmc);
+
+            if (rtnFlag == SweConst.ERR)
+            {
+                throw new JathakamuException("Error Occured while getting horary cusp details");
+            }
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+
+        System.arraycopy(cusps, 1, positions.cusps, 0, ChartPositions.HOUSES);
+
+        if (settings.deductAyanamsa())
+        {
+            for (int house = 0; house < ChartPositions.HOUSES; house++)
+            {
+                positions.cusps[house] = SupportCalcs.degnorm(positions.cusps[house] - table.ayanamsa);
+            }
+        }
+
+        return positions;
+    }
+
+    /**
+     * ARMC rising the horary Lagna, from the table of the latitude and day of
+     * the profile.
+     *
+     * @param profile time and place of the query, and the settings
+     * @param horarySet HORARY_249 or HORARY_2193
+     * @param horaryNum horary number given, 1 to horarySet
+     * @return ARMC in degrees
+     * @throws JathakamuException if the horary number is not valid or Swiss
+     * Ephemeris fails
+     */
+    public double getArmc(Profile profile, int horarySet, int horaryNum)
+            throws JathakamuException
+    {
+        return getTable(profile, horarySet).armc[checkHoraryNum(horarySet, horaryNum)];
+    }
+
+    private static int checkHoraryNum(int horarySet, int horaryNum)
+            throws JathakamuException
+    {
+        if (horaryNum < 1 || horaryNum > horarySet)
+        {
+            throw new JathakamuException("Invalid horary number : " + horaryNum);
+        }
+
+        return horaryNum;
+    }
+
+    private ArmcTable getTable(Profile profile, int horarySet)
+            throws JathakamuException
+    {
+        if (horarySet != HORARY_249 && horarySet != HORARY_2193)
+        {
+            throw new JathakamuException("Invalid horary number set : " + horarySet);
+        }
+
+        double latitude = Math.round(profile.getLatitude() / LATITUDE_BAND) * LATITUDE_BAND;
+        // Start of the day in UT
+        double dayJd = Math.floor(profile.getDateTime() + 0.5D) - 0.5D;
+        double[] ayan = profile.getProfileSetting().getAynamsa();
+        String key = horarySet + ":" + latitude + ":" + dayJd + ":" + Arrays.toString(ayan);
+        ArmcTable table;
+
+        synchronized (tables)
+        {
+            table = tables.get(key);
+        }
+
+        if (table != null)
+        {
+            hits.incrementAndGet();
+            return table;
+        }
+
+        misses.incrementAndGet();
+        table = buildTable(horarySet, latitude, dayJd, ayan);
+
+        synchronized (tables)
+        {
+            tables.put(key, table);
+        }
+
+        return table;
+    }
+
+    private static ArmcTable buildTable(int horarySet, double latitude, double dayJd, double[] ayan)
+            throws JathakamuException
+    {
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            double[] xx = new double[6];
+            StringBuffer serr = new StringBuffer();
+
+            swissEph.swe_set_sid_mode(Double.valueOf(ayan[0]).intValue(), ayan[1], ayan[2]);
+
+            if (swissEph.swe_calc_ut(dayJd, SweConst.SE_ECL_NUT, 0, xx, serr) == SweConst.ERR)
+            {
+                throw new JathakamuException("Error Occured while computing obliquity\n Error is " + serr);
+            }
+
+            double obliquity = xx[0];
+            double ayanamsa = swissEph.swe_get_ayanamsa_ut(dayJd);
+            double[] armc = new double[horarySet + 1];
+            double[] cusps = new double[13];
+            double[] ascmc = new double[10];
+
+            for (int horaryNum = 1; horaryNum <= horarySet; horaryNum++)
+            {
+                double start = (horarySet == HORARY_249) ? SupportCalcs.getAscendent(horaryNum)
+                        : SupportCalcs.getAscendent2193(horaryNum);
+                double lagna = SupportCalcs.degnorm(start + INSIDE + ayanamsa);
+
+                armc[horaryNum] = findArmc(swissEph, lagna, latitude, obliquity, cusps, ascmc);
+            }
+
+            return new ArmcTable(latitude, obliquity, ayanamsa, armc);
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+    }
+
+    /*
+     * ARMC where the (tropical) lagna rises: oblique ascension of the lagna
+     * less 90 degrees, then corrected by the secant method on
+     * swe_houses_armc.
+     */
+    private static double findArmc(SwissEph swissEph, double lagna, double latitude,
+            double obliquity, double[] cusps, double[] ascmc)
+            throws JathakamuException
+    {
+        double e = Math.toRadians(obliquity);
+        double l = Math.toRadians(lagna);
+        double ra = Math.atan2(Math.sin(l) * Math.cos(e), Math.cos(l));
+        double declination = Math.asin(Math.sin(e) * Math.sin(l));
+        double oa = ra - Math.asin(Math.tan(declination) * Math.tan(Math.toRadians(latitude)));
+
+        double a1 = SupportCalcs.degnorm(Math.toDegrees(oa) - 90D);
+        double f1 = lagnaError(swissEph, a1, lagna, latitude, obliquity, cusps, ascmc);
+        double a0 = a1 - f1 - 0.1D;
+        double f0 = lagnaError(swissEph, a0, lagna, latitude, obliquity, cusps, ascmc);
+
+        for (int i = 0; i < MAX_ITERATIONS && Math.abs(f1) > TOLERANCE && f1 != f0; i++)
+        {
+            double a2 = a1 - f1 * (a1 - a0) / (f1 - f0);
+
+            a0 = a1;
+            f0 = f1;
+            a1 = a2;
+            f1 = lagnaError(swissEph, a1, lagna, latitude, obliquity, cusps, ascmc);
+        }
+
+        return SupportCalcs.degnorm(a1);
+    }
+
+    private static double lagnaError(SwissEph swissEph, double armc, double lagna,
+            double latitude, double obliquity, double[] cusps, double[] ascmc)
+            throws JathakamuException
+    {
+        int rtnFlag = swissEph.swe_houses_armc(SupportCalcs.degnorm(armc), latitude, obliquity,
+                'P', cusps, ascmc);
+
+        if (rtnFlag == SweConst.ERR)
+        {
+            throw new JathakamuException("Error Occured while computing Lagna");
+        }
+
+        return TransitSearch.difference(ascmc[SweConst.SE_ASC], lagna);
+    }
+
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    public long getMissCount()
+    {
+        return misses.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        int size;
+
+        synchronized (tables)
+        {
+            size = tables.size();
+        }
+
+        return "HoraryCalcs{" + "tables=" + size + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + '}';
+    }
+}
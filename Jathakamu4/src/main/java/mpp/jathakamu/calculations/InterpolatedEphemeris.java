@@ -0,0 +1,511 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.ProfileSettings;
+import swisseph.SweConst;
+import swisseph.SweDate;
+import swisseph.SwissEph;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Longitudes of the grahas interpolated from Chebyshev coefficients kept in
+ * a memory mapped file, for workloads needing a lot of positions (transit
+ * scans, muhurtha search, bulk reports). Evaluating a position is a few
+ * multiplications instead of the full swe_calc_ut, and nothing is allocated.
+ *
+ * The file is generated by running this class, which samples SwissEph. Time
+ * is divided in blocks of fixed length per body (4 days for the Moon up to
+ * 64 days for the outer planets) and the longitude in each block is fitted
+ * with a Chebyshev series through the Chebyshev nodes. Speed is the
+ * derivative of the series. Two frames are stored, tropical and sidereal,
+ * the sidereal longitude being the tropical one less the ayanamsa of the
+ * settings, as EphemerisCalcs deducts it.
+ *
+ * Bodies are the Swiss Ephemeris numbers SE_SUN to SE_PLUTO, SE_MEAN_NODE
+ * and SE_TRUE_NODE. Time is Julian day in UT, same as swe_calc_ut.
+ *
+ * Layout, all numbers little endian:
+ * <pre>
+ * header : int magic, int version, double start jd, double end jd,
+ *          int body count, int frame count
+ * bodies : for each body
+ *            int body, int coefficients, double block days, int blocks,
+ *            int unused, long offset of the coefficients
+ * data   : for each body, for each frame, for each block
+ *            double coefficient[coefficients]
+ * </pre>
+ *
+ * @author Phani
+ */
+public final class InterpolatedEphemeris
+{
+    public final static int TROPICAL = 0;
+    public final static int SIDEREAL = 1;
+    public final static int FRAMES = 2;
+
+    private final static int MAGIC = 0x4A434542; // JCEB
+    private final static int VERSION = 1;
+    private final static int HEADER_SIZE = 32;
+    private final static int BODY_SIZE = 32;
+    private final static int BODIES = SweConst.SE_TRUE_NODE + 1;
+
+    /* Block length in days and number of coefficients, by body number */
+    private final static double[] BLOCK_DAYS =
+    {
+        16, 4, 8, 16, 16, 32, 32, 64, 64, 64, 64, 4
+    };
+    private final static int[] COEFFICIENTS =
+    {
+        12, 14, 12, 12, 12, 12, 12, 12, 12, 12, 12, 14
+    };
+
+    private final ByteBuffer buffer;
+    private final double startJd;
+    private final double endJd;
+    private final int[] coefficients = new int[BODIES];
+    private final double[] blockDays = new double[BODIES];
+    private final int[] blocks = new int[BODIES];
+    private final long[] offsets = new long[BODIES];
+
+    private InterpolatedEphemeris(ByteBuffer buffer)
+        throws IOException
+    {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < HEADER_SIZE
+            || buffer.getInt(0) != MAGIC
+            || buffer.getInt(4) != VERSION
+            || buffer.getInt(28) != FRAMES)
+        {
+            throw new IOException("Not an interpolated ephemeris of version " + VERSION);
+        }
+
+        startJd = buffer.getDouble(8);
+        endJd = buffer.getDouble(16);
+        Arrays.fill(offsets, -1);
+
+        int bodyCount = buffer.getInt(24);
+
+        for (int i = 0; i < bodyCount; i++)
+        {
+            int position = HEADER_SIZE + i * BODY_SIZE;
+            int body = buffer.getInt(position);
+
+            coefficients[body] = buffer.getInt(position + 4);
+            blockDays[body] = buffer.getDouble(position + 8);
+            blocks[body] = buffer.getInt(position + 16);
+            offsets[body] = buffer.getLong(position + 24);
+
+            long end = offsets[body] + 8L * FRAMES * blocks[body] * coefficients[body];
+
+            if (end > buffer.capacity())
+            {
+                throw new IOException("Interpolated ephemeris is truncated");
+            }
+        }
+    }
+
+    /**
+     * Map the given file.
+     *
+     * @param file file written by this class
+     * @return ephemeris reading the file
+     * @throws IOException if the file cannot be read or is not valid
+     */
+    public static InterpolatedEphemeris open(Path file)
+        throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            return new InterpolatedEphemeris(channel.map(FileChannel.MapMode.READ_ONLY,
+                    0, channel.size()));
+        }
+    }
+
+    public double getStartJd()
+    {
+        return startJd;
+    }
+
+    public double getEndJd()
+    {
+        return endJd;
+    }
+
+    public boolean covers(double tjd_ut)
+    {
+        return tjd_ut >= startJd && tjd_ut <= endJd;
+    }
+
+    public boolean hasBody(int body)
+    {
+        return body >= 0 && body < BODIES && offsets[body] >= 0;
+    }
+
+    /**
+     * Longitude of a body.
+     *
+     * @param body SE_SUN to SE_PLUTO, SE_MEAN_NODE or SE_TRUE_NODE
+     * @param frame TROPICAL or SIDEREAL
+     * @param tjd_ut Julian day in UT, within the file
+     * @return longitude in degrees (0.0 to 360.0)
+     */
+    public double getLongitude(int body, int frame, double tjd_ut)
+    {
+        long base = blockOffset(body, frame, tjd_ut);
+        double x = blockTime(body, tjd_ut);
+        int n = coefficients[body];
+
+        // Clenshaw recurrence
+        double b1 = 0;
+        double b2 = 0;
+
+        for (int j = n - 1; j >= 1; j--)
+        {
+            double b0 = 2 * x * b1 - b2 + buffer.getDouble((int) (base + 8L * j));
+            b2 = b1;
+            b1 = b0;
+        }
+
+        double longitude = x * b1 - b2 + buffer.getDouble((int) base);
+
+        return normalize(longitude);
+    }
+
+    /**
+     * Longitude and speed of a body, in the places swe_calc_ut uses.
+     *
+     * @param body SE_SUN to SE_PLUTO, SE_MEAN_NODE or SE_TRUE_NODE
+     * @param frame TROPICAL or SIDEREAL
+     * @param tjd_ut Julian day in UT, within the file
+     * @param xx filled with longitude at 0 and speed (degrees per day) at 3
+     */
+    public void compute(int body, int frame, double tjd_ut, double[] xx)
+    {
+        long base = blockOffset(body, frame, tjd_ut);
+        double x = blockTime(body, tjd_ut);
+        int n = coefficients[body];
+
+        // T(j) and its derivative, T(j+1) = 2x T(j) - T(j-1)
+        double t0 = 1;
+        double t1 = x;
+        double d0 = 0;
+        double d1 = 1;
+        double longitude = buffer.getDouble((int) base);
+        double speed = 0;
+
+        for (int j = 1; j < n; j++)
+        {
+            double c = buffer.getDouble((int) (base + 8L * j));
+
+            longitude += c * t1;
+            speed += c * d1;
+
+            double t2 = 2 * x * t1 - t0;
+            double d2 = 2 * t1 + 2 * x * d1 - d0;
+
+            t0 = t1;
+            t1 = t2;
+            d0 = d1;
+            d1 = d2;
+        }
+
+        xx[0] = normalize(longitude);
+        xx[3] = speed * 2 / blockDays[body];
+    }
+
+    /**
+     * Speed of a body, the derivative of the series alone.
+     *
+     * @param body SE_SUN to SE_PLUTO, SE_MEAN_NODE or SE_TRUE_NODE
+     * @param frame TROPICAL or SIDEREAL
+     * @param tjd_ut Julian day in UT, within the file
+     * @return speed in degrees per day
+     */
+    public double getSpeed(int body, int frame, double tjd_ut)
+    {
+        long base = blockOffset(body, frame, tjd_ut);
+        double x = blockTime(body, tjd_ut);
+        int n = coefficients[body];
+
+        // Derivative of T(j) from T(j+1)' = 2 T(j) + 2x T(j)' - T(j-1)'
+        double t0 = 1;
+        double t1 = x;
+        double d0 = 0;
+        double d1 = 1;
+        double speed = 0;
+
+        for (int j = 1; j < n; j++)
+        {
+            speed += buffer.getDouble((int) (base + 8L * j)) * d1;
+
+            double t2 = 2 * x * t1 - t0;
+            double d2 = 2 * t1 + 2 * x * d1 - d0;
+
+            t0 = t1;
+            t1 = t2;
+            d0 = d1;
+            d1 = d2;
+        }
+
+        return speed * 2 / blockDays[body];
+    }
+
+    private long blockOffset(int body, int frame, double tjd_ut)
+    {
+        if (!hasBody(body))
+        {
+            throw new IllegalArgumentException("Body " + body + " is not interpolated");
+        }
+
+        if (!covers(tjd_ut))
+        {
+            throw new IllegalArgumentException("Julian day " + tjd_ut + " is not within "
+                    + startJd + " and " + endJd);
+        }
+
+        int block = blockIndex(body, tjd_ut);
+
+        return offsets[body] + 8L * coefficients[body] * ((long) frame * blocks[body] + block);
+    }
+
+    private int blockIndex(int body, double tjd_ut)
+    {
+        int block = (int) ((tjd_ut - startJd) / blockDays[body]);
+
+        // End of the last block belongs to it
+        return Math.min(block, blocks[body] - 1);
+    }
+
+    /* Time within the block, -1 at its start to 1 at its end */
+    private double blockTime(int body, double tjd_ut)
+    {
+        double u = (tjd_ut - startJd) / blockDays[body] - blockIndex(body, tjd_ut);
+
+        return 2 * u - 1;
+    }
+
+    private static double normalize(double longitude)
+    {
+        double rtnValue = longitude % 360D;
+
+        return (rtnValue < 0) ? rtnValue + 360D : rtnValue;
+    }
+
+    /**
+     * Sample all the bodies from SwissEph and write their coefficients.
+     *
+     * @param file file to write
+     * @param swissEph instance to sample, its sidereal mode is set from the
+     * settings
+     * @param settings ayanamsa and ephemeris flags to use
+     * @param startJd first Julian day (UT) to cover
+     * @param endJd last Julian day (UT) to cover
+     * @throws IOException if the file cannot be written
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public static void write(Path file, SwissEph swissEph, ProfileSettings settings,
+            double startJd, double endJd)
+        throws IOException, JathakamuException
+    {
+        double[] ayan = settings.getAynamsa();
+        int ephFlags = settings.getEphemerisFlags() & ~SweConst.SEFLG_SIDEREAL;
+        long offset = HEADER_SIZE + BODIES * BODY_SIZE;
+
+        swissEph.swe_set_sid_mode(Double.valueOf(ayan[0]).intValue(), ayan[1], ayan[2]);
+
+        ByteBuffer header = ByteBuffer.allocate((int) offset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putDouble(startJd).putDouble(endJd)
+                .putInt(BODIES).putInt(FRAMES);
+
+        for (int body = 0; body < BODIES; body++)
+        {
+            int count = blockCount(body, startJd, endJd);
+
+            header.putInt(body).putInt(COEFFICIENTS[body]).putDouble(BLOCK_DAYS[body])
+                    .putInt(count).putInt(0).putLong(offset);
+            offset += 8L * FRAMES * count * COEFFICIENTS[body];
+        }
+
+        header.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null)
+        {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            channel.write(header);
+
+            for (int body = 0; body < BODIES; body++)
+            {
+                ByteBuffer data = fitBody(swissEph, body, ephFlags, startJd,
+                        blockCount(body, startJd, endJd));
+
+                while (data.hasRemaining())
+                {
+                    channel.write(data);
+                }
+            }
+        }
+    }
+
+    private static int blockCount(int body, double startJd, double endJd)
+    {
+        return Math.max(1, (int) Math.ceil((endJd - startJd) / BLOCK_DAYS[body]));
+    }
+
+    /*
+     * Coefficients of all the blocks of a body, tropical frame followed by
+     * the sidereal frame.
+     */
+    private static ByteBuffer fitBody(SwissEph swissEph, int body, int ephFlags,
+            double startJd, int count)
+        throws JathakamuException
+    {
+        int n = COEFFICIENTS[body];
+        double days = BLOCK_DAYS[body];
+        double[] xx = new double[6];
+        double[] tropical = new double[n];
+        double[] sidereal = new double[n];
+        double[] coefficient = new double[n];
+        StringBuffer serr = new StringBuffer();
+        ByteBuffer data = ByteBuffer.allocate(8 * FRAMES * count * n).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int block = 0; block < count; block++)
+        {
+            double blockStart = startJd + block * days;
+
+            // Nodes in time order, longitudes unwrapped to follow each other
+            for (int k = 0; k < n; k++)
+            {
+                double x = -Math.cos(Math.PI * (k + 0.5) / n);
+                double tjd_ut = blockStart + (x + 1) * days / 2;
+                int rtnFlag = swissEph.swe_calc_ut(tjd_ut, body, ephFlags, xx, serr);
+
+                if (rtnFlag == SweConst.ERR)
+                {
+                    throw new JathakamuException("Error Occured while sampling "
+                            + swissEph.swe_get_planet_name(body) + "\n Error is " + serr);
+                }
+
+                double ayanamsa = swissEph.swe_get_ayanamsa_ut(tjd_ut);
+
+                tropical[k] = (k == 0) ? xx[0] : unwrap(tropical[k - 1], xx[0]);
+                sidereal[k] = (k == 0) ? xx[0] - ayanamsa : unwrap(sidereal[k - 1], xx[0] - ayanamsa);
+            }
+
+            fit(tropical, coefficient);
+            putCoefficients(data, 8 * n * block, coefficient);
+            fit(sidereal, coefficient);
+            putCoefficients(data, 8 * n * (count + block), coefficient);
+        }
+
+        LOGGER.log(Level.FINE, "Fitted {0} blocks of {1}", new Object[] {count,
+            swissEph.swe_get_planet_name(body)});
+
+        return data;
+    }
+
+    private static double unwrap(double previous, double longitude)
+    {
+        double difference = (longitude - previous) % 360D;
+
+        if (difference > 180D)
+        {
+            difference -= 360D;
+        }
+        else if (difference <= -180D)
+        {
+            difference += 360D;
+        }
+
+        return previous + difference;
+    }
+
+    /*
+     * Chebyshev coefficients of the values at the nodes, values[k] being at
+     * x = -cos(PI (k + 0.5) / n).
+     */
+    private static void fit(double[] values, double[] coefficient)
+    {
+        int n = values.length;
+
+        for (int j = 0; j < n; j++)
+        {
+            double sum = 0;
+
+            for (int k = 0; k < n; k++)
+            {
+                // T(j) at -x is (-1)^j T(j) at x
+                double t = Math.cos(Math.PI * j * (k + 0.5) / n);
+                sum += values[k] * (((j & 1) == 0) ? t : -t);
+            }
+
+            coefficient[j] = sum * 2 / n;
+        }
+
+        coefficient[0] /= 2;
+    }
+
+    private static void putCoefficients(ByteBuffer data, int position, double[] coefficient)
+    {
+        for (int j = 0; j < coefficient.length; j++)
+        {
+            data.putDouble(position + 8 * j, coefficient[j]);
+        }
+    }
+
+    /**
+     * Generate the file for the years 1800 to 2200 with the default settings
+     * (KP new ayanamsa).
+     *
+     * @param args file name, optionally followed by the first and last year
+     * @throws Exception if the file cannot be generated
+     */
+    public static void main(String[] args)
+        throws Exception
+    {
+        if (args.length != 1 && args.length != 3)
+        {
+            System.err.println("Usage: InterpolatedEphemeris <file> [<first year> <last year>]");
+            System.exit(1);
+        }
+
+        int firstYear = (args.length == 3) ? Integer.parseInt(args[1]) : 1800;
+        int lastYear = (args.length == 3) ? Integer.parseInt(args[2]) : 2200;
+        double startJd = SweDate.getJulDay(firstYear, 1, 1, 0.0D);
+        double endJd = SweDate.getJulDay(lastYear + 1, 1, 1, 0.0D);
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            write(Paths.get(args[0]), swissEph, ProfileSettings.DEFAULT, startJd, endJd);
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+
+        LOGGER.log(Level.INFO, "Interpolated ephemeris written to {0}", args[0]);
+    }
+}
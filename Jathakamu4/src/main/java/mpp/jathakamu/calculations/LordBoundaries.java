@@ -0,0 +1,114 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Arrays;
+
+/**
+ * Sorted longitudes where the sign or a lord changes, for one division level
+ * of the lords table. A star boundary is where the sign or the star lord
+ * changes, a sub boundary where any of sign, star lord or sub lord changes
+ * and so on down to prana.
+ *
+ * The boundaries of a level are built from the LordsIndex on first use and
+ * shared. Prana divisions do not stop at the sign boundaries, so multiples of
+ * 30 degrees are added to every level.
+ *
+ * @author Phani
+ */
+final class LordBoundaries
+{
+    private final static LordBoundaries[] BOUNDARIES = new LordBoundaries[TransitSearch.PRANA + 1];
+
+    private final double[] longitudes;
+
+    private LordBoundaries(double[] longitudes)
+    {
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * @param division one of the division constants of TransitSearch
+     * @return boundaries of the division
+     */
+    static LordBoundaries of(int division)
+    {
+        if (division < TransitSearch.SIGN || division > TransitSearch.PRANA)
+        {
+            throw new IllegalArgumentException("Unknown division " + division);
+        }
+
+        LordBoundaries boundaries = BOUNDARIES[division];
+
+        if (boundaries == null)
+        {
+            // Two threads may both build it, either copy is the same
+            boundaries = build(SupportCalcs.getLordsIndex(), division);
+            BOUNDARIES[division] = boundaries;
+        }
+
+        return boundaries;
+    }
+
+    private static LordBoundaries build(LordsIndex index, int division)
+    {
+        double[] values = new double[index.size() + 12];
+        int count = 0;
+
+        for (int sign = 0; sign < 12; sign++)
+        {
+            values[count++] = sign * 30D;
+        }
+
+        for (int i = 1; i < index.size(); i++)
+        {
+            for (int level = 0; level < division; level++)
+            {
+                if (index.getLordOrdinal(i, level) != index.getLordOrdinal(i - 1, level))
+                {
+                    values[count++] = index.getBegin(i);
+                    break;
+                }
+            }
+        }
+
+        values = Arrays.copyOf(values, count);
+        Arrays.sort(values);
+
+        // Drop the sign boundaries already in the table
+        int size = 0;
+
+        for (int i = 0; i < values.length; i++)
+        {
+            if (size == 0 || values[i] != values[size - 1])
+            {
+                values[size++] = values[i];
+            }
+        }
+
+        return new LordBoundaries(Arrays.copyOf(values, size));
+    }
+
+    int size()
+    {
+        return longitudes.length;
+    }
+
+    double get(int i)
+    {
+        return longitudes[i];
+    }
+
+    /**
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return index of the first boundary above the longitude, size() if
+     * there is none
+     */
+    int above(double longitude)
+    {
+        int pos = Arrays.binarySearch(longitudes, longitude);
+
+        return (pos < 0) ? -pos - 1 : pos + 1;
+    }
+}
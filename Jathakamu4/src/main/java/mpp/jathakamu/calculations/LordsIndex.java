@@ -0,0 +1,210 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.IntFunction;
+import mpp.jathakamu.types.DoubleRange;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * Sorted, primitive index over the KP lords table.
+ *
+ * Every prana division of the zodiac is one entry. Entries are sorted by their
+ * starting longitude, so the division holding a longitude is found with a
+ * binary search over {@code begin} instead of scanning all the ranges. The
+ * planet ordinals of the star, sub, sub-sub, sookshma and prana lords are kept
+ * in parallel byte arrays, one array per level.
+ *
+ * Instances are immutable once built and safe to share between threads. When
+ * loaded from the precomputed file the LordNode lists are created on first
+ * use.
+ *
+ * @author Phani
+ */
+public final class LordsIndex
+{
+    public final static int STAR_LORD = 0;
+    public final static int SUB_LORD = 1;
+    public final static int SUB_SUB_LORD = 2;
+    public final static int SOOKSHMA_LORD = 3;
+    public final static int PRANA_LORD = 4;
+    public final static int LEVELS = 5;
+
+    private final static Planet[] PLANETS = Planet.values();
+
+    private final double[] begin;
+    private final double[] end;
+    private final byte[][] lords;
+    private final List<LordNode>[] nodes;
+    private final IntFunction<List<LordNode>> nodesFactory;
+
+    private LordsIndex(int size)
+    {
+        this(new double[size], new double[size], new byte[LEVELS][size], null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private LordsIndex(double[] begin, double[] end, byte[][] lords,
+            IntFunction<List<LordNode>> nodesFactory)
+    {
+        this.begin = begin;
+        this.end = end;
+        this.lords = lords;
+        this.nodes = (List<LordNode>[]) new List<?>[begin.length];
+        this.nodesFactory = nodesFactory;
+    }
+
+    /**
+     * Build the index from the lords table. Each value of the table should
+     * hold the LordNode of all the five levels, starting with the star lord.
+     *
+     * @param lordsTable prana range to the list of lords, sorted on the range
+     * @return sorted index of the given table
+     */
+    static LordsIndex build(SortedMap<DoubleRange, List<LordNode>> lordsTable)
+    {
+        return build(lordsTable.values());
+    }
+
+    /**
+     * Build the index from the lists of lords, already sorted on the prana
+     * range. Range of the prana LordNode (last in each list) is used as the
+     * extent of the division.
+     *
+     * @param lordsLists lists of lords of all the five levels, star lord first
+     * @return sorted index of the given lists
+     */
+    static LordsIndex build(Collection<List<LordNode>> lordsLists)
+    {
+        LordsIndex index = new LordsIndex(lordsLists.size());
+        int i = 0;
+
+        for (List<LordNode> lordNodes : lordsLists)
+        {
+            DoubleRange range = lordNodes.get(PRANA_LORD).getValue();
+
+            index.begin[i] = range.getMin();
+            index.end[i] = range.getMax();
+
+            for (int level = 0; level < LEVELS; level++)
+            {
+                index.lords[level][i] = (byte) lordNodes.get(level).getPlanet().ordinal();
+            }
+
+            index.nodes[i] = Collections.unmodifiableList(lordNodes);
+            i++;
+        }
+
+        return index;
+    }
+
+    /**
+     * Build the index from primitive columns, already sorted on begin. The
+     * LordNode lists are created by nodesFactory only when getLordNodes is
+     * called for a division, so loading the index does not allocate them.
+     *
+     * @param begin start of each division
+     * @param end end of each division
+     * @param lords planet ordinals, one array for each of the five levels
+     * @param nodesFactory creates the lords of a division, star lord first
+     * @return index over the given columns
+     */
+    static LordsIndex build(double[] begin, double[] end, byte[][] lords,
+            IntFunction<List<LordNode>> nodesFactory)
+    {
+        return new LordsIndex(begin, end, lords, nodesFactory);
+    }
+
+    /**
+     * Number of divisions in the index.
+     *
+     * @return size of the index
+     */
+    public int size()
+    {
+        return begin.length;
+    }
+
+    /**
+     * Find the division containing the given longitude.
+     *
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return index of the division, or -1 if the longitude is out of range
+     */
+    public int indexOf(double longitude)
+    {
+        double value = (longitude == 360.0) ? 0.0 : longitude;
+        int last = begin.length - 1;
+
+        if (last < 0 || value < begin[0] || value >= end[last])
+        {
+            return -1;
+        }
+
+        int pos = Arrays.binarySearch(begin, value);
+
+        if (pos < 0)
+        {
+            // insertion point - 1 is the division starting before the value
+            pos = -pos - 2;
+        }
+
+        return pos;
+    }
+
+    public double getBegin(int index)
+    {
+        return begin[index];
+    }
+
+    public double getEnd(int index)
+    {
+        return end[index];
+    }
+
+    /**
+     * Planet ordinal of a lord.
+     *
+     * @param index index of the division, as returned by indexOf
+     * @param level one of STAR_LORD, SUB_LORD, SUB_SUB_LORD, SOOKSHMA_LORD or
+     * PRANA_LORD
+     * @return ordinal of the lord in Planet
+     */
+    public int getLordOrdinal(int index, int level)
+    {
+        return lords[level][index];
+    }
+
+    public Planet getLord(int index, int level)
+    {
+        return PLANETS[lords[level][index]];
+    }
+
+    /**
+     * Lords of the division as LordNode, in the same order as the lords table
+     * (star lord first). The returned list is shared and cannot be modified.
+     *
+     * @param index index of the division, as returned by indexOf
+     * @return list of lords
+     */
+    public List<LordNode> getLordNodes(int index)
+    {
+        List<LordNode> lordNodes = nodes[index];
+
+        if (lordNodes == null)
+        {
+            // Two threads may both create the list, either copy is the same
+            lordNodes = Collections.unmodifiableList(nodesFactory.apply(index));
+            nodes[index] = lordNodes;
+        }
+
+        return lordNodes;
+    }
+}
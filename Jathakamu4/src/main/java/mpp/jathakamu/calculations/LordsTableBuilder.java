@@ -0,0 +1,314 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import mpp.jathakamu.types.DoubleRange;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+import mpp.jathakamu.types.Raasi;
+import mpp.jathakamu.utils.Core;
+
+/**
+ * Computes the KP lords table and the 249/2193 horary tables.
+ *
+ * Each of the 27 nakshatras is computed on its own into a slice (list of
+ * lords of its prana divisions, in the order of longitude) and the slices
+ * are joined in order, so the nakshatras can be computed in parallel on a
+ * ForkJoinPool. Nothing is shared between the slices, the result is the
+ * same as computing them one after the other.
+ *
+ * Horary tables are small and their boundaries are added up over the whole
+ * zodiac, so they are computed in one pass.
+ *
+ * @author Phani
+ */
+final class LordsTableBuilder
+{
+    private final static int NAKSHATRAS = 27;
+
+    /* Note that most of the below logic is based on minutes. 800' = 13d 20' */
+    private final static double DASA_DURATION = 800D;
+
+    private LordsTableBuilder()
+    {
+    }
+
+    /**
+     * Lords of all the prana divisions, sorted on longitude.
+     *
+     * @param pool pool to compute the nakshatras in parallel, null to compute
+     * them in the calling thread
+     * @return lists of lords, star lord first
+     */
+    static List<List<LordNode>> buildLords(ForkJoinPool pool)
+    {
+        if (pool == null)
+        {
+            return buildNakshatras(0, NAKSHATRAS);
+        }
+
+        return forkLords(pool).join();
+    }
+
+    /**
+     * Start computing the lords in the pool, the caller can do other work
+     * (like the horary tables) before joining the task.
+     *
+     * @param pool pool to compute the nakshatras in parallel
+     * @return task giving the same lists as buildLords
+     */
+    static ForkJoinTask<List<List<LordNode>>> forkLords(ForkJoinPool pool)
+    {
+        return pool.submit(new NakshatraSliceTask(0, NAKSHATRAS));
+    }
+
+    private static List<List<LordNode>> buildNakshatras(int from, int to)
+    {
+        List<List<LordNode>> lordsLists = new ArrayList<>();
+
+        for (int nakshatra = from; nakshatra < to; nakshatra++)
+        {
+            lordsLists.addAll(buildNakshatra(nakshatra));
+        }
+
+        return lordsLists;
+    }
+
+    /**
+     * Lords of the prana divisions of one nakshatra.
+     *
+     * @param nakshatra 0 for Aswini to 26 for Revathi
+     * @return lists of lords, star lord first, sorted on longitude
+     */
+    static List<List<LordNode>> buildNakshatra(int nakshatra)
+    {
+        Planet[] vdPlanets = Planet.getVDPlanetArray(Planet.KETU);
+        Planet mahaDasaPlanet = vdPlanets[nakshatra % vdPlanets.length];
+        List<List<LordNode>> lordsLists = new ArrayList<>(9 * 9 * 9 * 9);
+
+        // Whole numbers of minutes, same value as adding 800 for each star
+        double mahaDasaStart = (nakshatra / 9) * 120D * 60D + (nakshatra % 9) * DASA_DURATION;
+        double mahaDasaEnd = mahaDasaStart + DASA_DURATION;
+        DoubleRange mahaDasaRange = new DoubleRange.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
+        double mahaDasaTimeFraction = mahaDasaPlanet.getDasaDuration();
+        LordNode mahaLordNode = new LordNode(mahaDasaPlanet, mahaDasaRange, mahaDasaTimeFraction);
+        double buktiStart;
+        double buktiEnd = mahaDasaStart;
+
+        for (Planet bukthiPlanet : Planet.getVDPlanetArray(mahaDasaPlanet))
+        {
+            buktiStart = buktiEnd;
+            buktiEnd += DASA_DURATION * (bukthiPlanet.getDasaDuration() / 120D);
+            double buktiStartRange = Core.normalize(buktiStart/60D);
+            double buktiEndRange = Core.normalize(buktiEnd/60D);
+            DoubleRange buktiRange = new DoubleRange.Builder().values(buktiStartRange, buktiEndRange).build();
+            double buktiTimeFraction = mahaDasaTimeFraction * bukthiPlanet.getDasaDuration() / 120D;
+            LordNode buktiLordNode = new LordNode(bukthiPlanet, buktiRange, buktiTimeFraction);
+            double pratyantaraStart;
+            double pratyantaraEnd = buktiStart;
+            double buktiDuration = buktiEnd - buktiStart;
+
+            for (Planet pratyantaraPlanet : Planet.getVDPlanetArray(bukthiPlanet))
+            {
+                pratyantaraStart = pratyantaraEnd;
+                pratyantaraEnd += buktiDuration * (pratyantaraPlanet.getDasaDuration() / 120D);
+                double pratyantaraStartRange = Core.normalize(pratyantaraStart/60D);
+                double pratyantaraEndRange = Core.normalize(pratyantaraEnd/60D);
+                DoubleRange pratyantaraRange = new DoubleRange.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
+                double pratyantaraTimeFraction = buktiTimeFraction * pratyantaraPlanet.getDasaDuration() / 120D;
+                LordNode pratyantaraLordNode = new LordNode(pratyantaraPlanet, pratyantaraRange, pratyantaraTimeFraction);
+                double sookshmaStart;
+                double sookshmaEnd = pratyantaraStart;
+                double pratyantaraDuration = pratyantaraEnd - pratyantaraStart;
+
+                for (Planet sookshmaPlanet : Planet.getVDPlanetArray(pratyantaraPlanet))
+                {
+                    sookshmaStart = sookshmaEnd;
+                    sookshmaEnd += pratyantaraDuration * (sookshmaPlanet.getDasaDuration() / 120D);
+                    double sookshmaStartRange = Core.normalize(sookshmaStart/60D);
+                    double sookshmaEndRange = Core.normalize(sookshmaEnd/60D);
+                    DoubleRange sookshmaRange = new DoubleRange.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
+                    double sookshmaTimeFraction = pratyantaraTimeFraction * sookshmaPlanet.getDasaDuration() / 120D;
+                    LordNode sookshmaLordNode = new LordNode(sookshmaPlanet, sookshmaRange, sookshmaTimeFraction);
+                    double pranaStart;
+                    double pranaEnd = sookshmaStart;
+                    double sookshmaDuration = sookshmaEnd - sookshmaStart;
+
+                    for (Planet pranaPlanet : Planet.getVDPlanetArray(sookshmaPlanet))
+                    {
+                        pranaStart = pranaEnd;
+                        pranaEnd += sookshmaDuration * (pranaPlanet.getDasaDuration() / 120D);
+                        double pranaStartRange = Core.normalize(pranaStart/60D);
+                        double pranaEndRange = Core.normalize(pranaEnd/60D);
+                        DoubleRange pranaRange = new DoubleRange.Builder().values(pranaStartRange, pranaEndRange).build();
+                        double pranaTimeFraction = sookshmaTimeFraction * pranaPlanet.getDasaDuration() / 120D;
+                        LordNode pranaNode = new LordNode(pranaPlanet, pranaRange, pranaTimeFraction);
+
+                        List<LordNode> lordsList = new ArrayList<>(LordsIndex.LEVELS);
+                        lordsList.add(mahaLordNode);
+                        lordsList.add(buktiLordNode);
+                        lordsList.add(pratyantaraLordNode);
+                        lordsList.add(sookshmaLordNode);
+                        lordsList.add(pranaNode);
+
+                        lordsLists.add(lordsList);
+                    }
+                }
+            }
+        }
+
+        return lordsLists;
+    }
+
+    /*
+     * Splits the nakshatras in halves until one is left, joins the slices in
+     * the order of the nakshatras.
+     */
+    private static class NakshatraSliceTask
+        extends RecursiveTask<List<List<LordNode>>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        NakshatraSliceTask(int from, int to)
+        {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<List<LordNode>> compute()
+        {
+            if (to - from <= 1)
+            {
+                return buildNakshatras(from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            NakshatraSliceTask left = new NakshatraSliceTask(from, middle);
+            NakshatraSliceTask right = new NakshatraSliceTask(middle, to);
+
+            right.fork();
+            List<List<LordNode>> lordsLists = left.compute();
+            lordsLists.addAll(right.join());
+
+            return lordsLists;
+        }
+    }
+
+    /**
+     * Compute the horary tables. Numbers start with 1 in each table.
+     *
+     * @param horary249Table filled with horary number (1 to 249) to planets
+     * @param horary249RangeTable filled with horary number (1 to 249) to range
+     * @param horary2193Table filled with horary number (1 to 2193) to planets
+     * @param horary2193RangeTable filled with horary number (1 to 2193) to range
+     */
+    static void buildHorary(Map<Integer, List<Planet>> horary249Table,
+            Map<Integer, DoubleRange> horary249RangeTable,
+            Map<Integer, List<Planet>> horary2193Table,
+            Map<Integer, DoubleRange> horary2193RangeTable)
+    {
+        HoraryCursor cursor249 = new HoraryCursor(horary249Table, horary249RangeTable);
+        HoraryCursor cursor2193 = new HoraryCursor(horary2193Table, horary2193RangeTable);
+
+        for (int nakshatra = 0; nakshatra < NAKSHATRAS; nakshatra++)
+        {
+            Planet[] vdPlanets = Planet.getVDPlanetArray(Planet.KETU);
+            Planet mahaDasaPlanet = vdPlanets[nakshatra % vdPlanets.length];
+
+            for (Planet bukthiPlanet : Planet.getVDPlanetArray(mahaDasaPlanet))
+            {
+                // populate 249 Horary table
+                double duration = DASA_DURATION;
+                duration *= bukthiPlanet.getDasaDuration();
+                duration = duration / (120D * 60D);
+                cursor249.add(duration, mahaDasaPlanet, bukthiPlanet, null);
+
+                for (Planet pratyantaraPlanet : Planet.getVDPlanetArray(bukthiPlanet))
+                {
+                    // populate 2193 Horary table
+                    duration = DASA_DURATION;
+                    duration *= bukthiPlanet.getDasaDuration();
+                    duration *= pratyantaraPlanet.getDasaDuration();
+                    duration = duration / (120D * 120D * 60D);
+                    cursor2193.add(duration, mahaDasaPlanet, bukthiPlanet, pratyantaraPlanet);
+                }
+            }
+        }
+    }
+
+    /*
+     * Running boundary and number of one horary table.
+     */
+    private static class HoraryCursor
+    {
+        private final Map<Integer, List<Planet>> horaryTable;
+        private final Map<Integer, DoubleRange> horaryRangeTable;
+        private double begin = 0;
+        private double end = 0;
+        private int horaryIndex = 0;
+
+        HoraryCursor(Map<Integer, List<Planet>> horaryTable,
+                Map<Integer, DoubleRange> horaryRangeTable)
+        {
+            this.horaryTable = horaryTable;
+            this.horaryRangeTable = horaryRangeTable;
+        }
+
+        void add(double duration, Planet mahaDasaPlanet, Planet bukthiPlanet,
+                Planet pratyantaraPlanet)
+        {
+            end += duration;
+            end = Core.normalize(end);
+
+            // populate 249/2193 Horary table
+            boolean signChangedFlag = SupportCalcs.isDifferentZodiacSign(begin, end);
+            double newEnd = end;
+
+            if (signChangedFlag)
+            {
+                int nEnd = (int) end;
+                newEnd = (nEnd/30)*30;
+            }
+
+            List<Planet> horaryPlanetList = new ArrayList<>();
+            Raasi planetSign = Raasi.getRaasi(begin);
+
+            Planet signStar = Planet.getPlanetSign(planetSign);
+            horaryPlanetList.add(signStar);
+            horaryPlanetList.add(mahaDasaPlanet);
+            horaryPlanetList.add(bukthiPlanet);
+
+            if (pratyantaraPlanet != null)
+            {
+                horaryPlanetList.add(pratyantaraPlanet);
+            }
+
+            horaryTable.put(++horaryIndex, horaryPlanetList);
+            horaryRangeTable.put(horaryIndex, new DoubleRange.Builder().values(begin, newEnd).build());
+
+            if (signChangedFlag)
+            {
+                planetSign = Raasi.getRaasi(newEnd);
+                signStar = Planet.getPlanetSign(planetSign);
+                List<Planet> newPlanetList = new ArrayList<>(horaryPlanetList);
+
+                newPlanetList.set(0, signStar);
+                horaryTable.put(++horaryIndex, newPlanetList);
+                horaryRangeTable.put(horaryIndex, new DoubleRange.Builder().values(newEnd, end).build());
+            }
+
+            begin = end;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+import mpp.jathakamu.types.DoubleRange;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Precomputed lords and horary tables stored as a little endian binary file,
+ * so SupportCalcs need not compute them on every start.
+ *
+ * The file is generated at build time by running this class (see pom.xml)
+ * and packaged next to it as {@value #RESOURCE_NAME}. At startup the file is
+ * mapped read-only when it is on the file system, or read into a buffer when
+ * it is inside a jar. If the file is missing or its checksum does not match,
+ * load returns null and SupportCalcs computes the tables.
+ *
+ * Layout, all numbers little endian:
+ * <pre>
+ * header  : int magic, int version, int payload length, int CRC32 of payload
+ * lords   : for each of the 5 levels (star lord to prana lord)
+ *             int count, then one column after the other
+ *             byte planet[count], int parent index[count] (-1 for star lord),
+ *             double min[count], double max[count], double time fraction[count]
+ *           prana lords are in the order of their range
+ * horary  : for 249 and then 2193 table
+ *             int count, then for each horary number
+ *             int number, byte count, bytes planets, double min, double max
+ * </pre>
+ *
+ * @author Phani
+ */
+public final class LordsTableFile
+{
+    final static String RESOURCE_NAME = "lords.bin";
+
+    /* Set to true to always compute the tables, the generator sets it */
+    final static String COMPUTE_PROPERTY = "mpp.jathakamu.computeLordsTable";
+
+    private final static int MAGIC = 0x4A4C5442; // JLTB
+    private final static int VERSION = 1;
+    private final static int HEADER_SIZE = 16;
+    private final static int NODE_SIZE = 1 + 4 + 8 + 8 + 8;
+
+    private final static Planet[] PLANETS = Planet.values();
+
+    private final LordsIndex lordsIndex;
+    private final Map<Integer, List<Planet>> horary249Table = new TreeMap<>();
+    private final Map<Integer, DoubleRange> horary249RangeTable = new TreeMap<>();
+    private final Map<Integer, List<Planet>> horary2193Table = new TreeMap<>();
+    private final Map<Integer, DoubleRange> horary2193RangeTable = new TreeMap<>();
+
+    private LordsTableFile(ByteBuffer payload)
+    {
+        lordsIndex = readLords(payload);
+        readHorary(payload, horary249Table, horary249RangeTable);
+        readHorary(payload, horary2193Table, horary2193RangeTable);
+    }
+
+    LordsIndex getLordsIndex()
+    {
+        return lordsIndex;
+    }
+
+    Map<Integer, List<Planet>> getHoraryTable(boolean isHorary249)
+    {
+        return isHorary249 ? horary249Table : horary2193Table;
+    }
+
+    Map<Integer, DoubleRange> getHoraryRangeTable(boolean isHorary249)
+    {
+        return isHorary249 ? horary249RangeTable : horary2193RangeTable;
+    }
+
+    /**
+     * Load the tables packaged with this class.
+     *
+     * @return loaded tables, or null if the file is missing or not valid
+     */
+    static LordsTableFile load()
+    {
+        URL url = LordsTableFile.class.getResource(RESOURCE_NAME);
+
+        if (url == null)
+        {
+            LOGGER.log(Level.INFO, "{0} is not packaged, computing the lords table", RESOURCE_NAME);
+            return null;
+        }
+
+        return load(url);
+    }
+
+    /**
+     * Load the tables from the given file or jar entry.
+     *
+     * @param url location of the tables file
+     * @return loaded tables, or null if the file is not valid
+     */
+    static LordsTableFile load(URL url)
+    {
+        try
+        {
+            ByteBuffer buffer = map(url);
+            ByteBuffer payload = verify(buffer);
+
+            if (payload == null)
+            {
+                return null;
+            }
+
+            return new LordsTableFile(payload);
+        }
+        catch (IOException | URISyntaxException | RuntimeException ex)
+        {
+            LOGGER.log(Level.WARNING, "Failed to load " + url + ", computing the lords table", ex);
+            return null;
+        }
+    }
+
+    private static ByteBuffer map(URL url)
+        throws IOException, URISyntaxException
+    {
+        if ("file".equals(url.getProtocol()))
+        {
+            try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()),
+                    StandardOpenOption.READ))
+            {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        // Entry in a jar or war cannot be mapped, read it in one go
+        try (InputStream in = url.openStream())
+        {
+            byte[] data = new byte[HEADER_SIZE];
+            int length = 0;
+            int read;
+
+            while ((read = in.read(data, length, data.length - length)) > 0)
+            {
+                length += read;
+
+                if (length == data.length)
+                {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+            }
+
+            return ByteBuffer.wrap(data, 0, length).slice();
+        }
+    }
+
+    /*
+     * Check the header and checksum, returns the payload or null.
+     */
+    private static ByteBuffer verify(ByteBuffer buffer)
+    {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.remaining() < HEADER_SIZE
+            || buffer.getInt() != MAGIC
+            || buffer.getInt() != VERSION)
+        {
+            LOGGER.log(Level.WARNING, "{0} is not a lords table of version {1}",
+                    new Object[] {RESOURCE_NAME, VERSION});
+            return null;
+        }
+
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+
+        if (buffer.remaining() != length)
+        {
+            LOGGER.log(Level.WARNING, "{0} is truncated", RESOURCE_NAME);
+            return null;
+        }
+
+        ByteBuffer payload = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        if ((int) crc.getValue() != checksum)
+        {
+            LOGGER.log(Level.WARNING, "Checksum of {0} does not match", RESOURCE_NAME);
+            return null;
+        }
+
+        return payload;
+    }
+
+    private static LordsIndex readLords(ByteBuffer payload)
+    {
+        byte[][] planets = new byte[LordsIndex.LEVELS][];
+        int[][] parents = new int[LordsIndex.LEVELS][];
+        double[][] min = new double[LordsIndex.LEVELS][];
+        double[][] max = new double[LordsIndex.LEVELS][];
+        double[][] timeFractions = new double[LordsIndex.LEVELS][];
+
+        for (int level = 0; level < LordsIndex.LEVELS; level++)
+        {
+            int count = payload.getInt();
+
+            planets[level] = new byte[count];
+            parents[level] = new int[count];
+            min[level] = new double[count];
+            max[level] = new double[count];
+            timeFractions[level] = new double[count];
+
+            payload.get(planets[level]);
+            payload.asIntBuffer().get(parents[level]);
+            payload.position(payload.position() + count * 4);
+            readDoubles(payload, min[level]);
+            readDoubles(payload, max[level]);
+            readDoubles(payload, timeFractions[level]);
+        }
+
+        // Star lord to sookshma lord nodes are shared by many divisions
+        LordNode[][] parentNodes = new LordNode[LordsIndex.PRANA_LORD][];
+
+        for (int level = 0; level < LordsIndex.PRANA_LORD; level++)
+        {
+            parentNodes[level] = new LordNode[planets[level].length];
+
+            for (int i = 0; i < planets[level].length; i++)
+            {
+                parentNodes[level][i] = newLordNode(planets, min, max, timeFractions, level, i);
+            }
+        }
+
+        int size = planets[LordsIndex.PRANA_LORD].length;
+        byte[][] lords = new byte[LordsIndex.LEVELS][size];
+
+        for (int i = 0; i < size; i++)
+        {
+            int index = i;
+
+            for (int level = LordsIndex.PRANA_LORD; level >= 0; level--)
+            {
+                lords[level][i] = planets[level][index];
+                index = parents[level][index];
+            }
+        }
+
+        return LordsIndex.build(min[LordsIndex.PRANA_LORD], max[LordsIndex.PRANA_LORD], lords, i ->
+        {
+            LordNode[] lordNodes = new LordNode[LordsIndex.LEVELS];
+            int index = parents[LordsIndex.PRANA_LORD][i];
+
+            lordNodes[LordsIndex.PRANA_LORD] = newLordNode(planets, min, max,
+                    timeFractions, LordsIndex.PRANA_LORD, i);
+
+            // Walk up from the sookshma lord to the star lord
+            for (int level = LordsIndex.SOOKSHMA_LORD; level >= 0; level--)
+            {
+                lordNodes[level] = parentNodes[level][index];
+                index = parents[level][index];
+            }
+
+            return Arrays.asList(lordNodes);
+        });
+    }
+
+    private static LordNode newLordNode(byte[][] planets, double[][] min,
+            double[][] max, double[][] timeFractions, int level, int index)
+    {
+        DoubleRange range = new DoubleRange.Builder()
+                .values(min[level][index], max[level][index]).build();
+
+        return new LordNode(PLANETS[planets[level][index]], range, timeFractions[level][index]);
+    }
+
+    private static void readDoubles(ByteBuffer payload, double[] values)
+    {
+        payload.asDoubleBuffer().get(values);
+        payload.position(payload.position() + values.length * 8);
+    }
+
+    private static void readHorary(ByteBuffer payload,
+            Map<Integer, List<Planet>> horaryTable,
+            Map<Integer, DoubleRange> horaryRangeTable)
+    {
+        int count = payload.getInt();
+
+        for (int i = 0; i < count; i++)
+        {
+            int horaryNum = payload.getInt();
+            int planetCount = payload.get();
+            List<Planet> planets = new ArrayList<>(planetCount);
+
+            for (int p = 0; p < planetCount; p++)
+            {
+                planets.add(PLANETS[payload.get()]);
+            }
+
+            horaryTable.put(horaryNum, planets);
+            horaryRangeTable.put(horaryNum, new DoubleRange.Builder()
+                    .values(payload.getDouble(), payload.getDouble()).build());
+        }
+    }
+
+    /**
+     * Write the tables to a file.
+     *
+     * @param file file to write
+     * @param lordsIndex lords table
+     * @param horary249Table horary number (1 to 249) to its planets
+     * @param horary249RangeTable horary number (1 to 249) to its range
+     * @param horary2193Table horary number (1 to 2193) to its planets
+     * @param horary2193RangeTable horary number (1 to 2193) to its range
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, LordsIndex lordsIndex,
+            Map<Integer, List<Planet>> horary249Table,
+            Map<Integer, DoubleRange> horary249RangeTable,
+            Map<Integer, List<Planet>> horary2193Table,
+            Map<Integer, DoubleRange> horary2193RangeTable)
+        throws IOException
+    {
+        List<List<LordNode>> levelNodes = new ArrayList<>();
+        List<List<Integer>> levelParents = new ArrayList<>();
+        List<IdentityHashMap<LordNode, Integer>> levelIds = new ArrayList<>();
+        int payloadSize = 0;
+
+        for (int level = 0; level < LordsIndex.LEVELS; level++)
+        {
+            levelNodes.add(new ArrayList<>());
+            levelParents.add(new ArrayList<>());
+            levelIds.add(new IdentityHashMap<>());
+        }
+
+        // Distinct nodes of each level, in the order of the prana ranges
+        for (int i = 0; i < lordsIndex.size(); i++)
+        {
+            List<LordNode> lordNodes = lordsIndex.getLordNodes(i);
+
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                LordNode node = lordNodes.get(level);
+
+                if (!levelIds.get(level).containsKey(node))
+                {
+                    int parent = (level == 0) ? -1
+                            : levelIds.get(level - 1).get(lordNodes.get(level - 1));
+
+                    levelIds.get(level).put(node, levelNodes.get(level).size());
+                    levelNodes.get(level).add(node);
+                    levelParents.get(level).add(parent);
+                }
+            }
+        }
+
+        for (List<LordNode> nodes : levelNodes)
+        {
+            payloadSize += 4 + nodes.size() * NODE_SIZE;
+        }
+
+        payloadSize += horarySize(horary249Table) + horarySize(horary2193Table);
+
+        ByteBuffer payload = ByteBuffer.allocate(payloadSize).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int level = 0; level < LordsIndex.LEVELS; level++)
+        {
+            List<LordNode> nodes = levelNodes.get(level);
+            payload.putInt(nodes.size());
+
+            for (LordNode node : nodes)
+            {
+                payload.put((byte) node.getPlanet().ordinal());
+            }
+
+            for (Integer parent : levelParents.get(level))
+            {
+                payload.putInt(parent);
+            }
+
+            for (LordNode node : nodes)
+            {
+                payload.putDouble(node.getValue().getMin());
+            }
+
+            for (LordNode node : nodes)
+            {
+                payload.putDouble(node.getValue().getMax());
+            }
+
+            for (LordNode node : nodes)
+            {
+                payload.putDouble(node.getTimeFractionInYears());
+            }
+        }
+
+        writeHorary(payload, horary249Table, horary249RangeTable);
+        writeHorary(payload, horary2193Table, horary2193RangeTable);
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(payloadSize).putInt((int) crc.getValue());
+        header.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+
+        if (parent != null)
+        {
+            Files.createDirectories(parent);
+        }
+
+        try (OutputStream out = Files.newOutputStream(file))
+        {
+            out.write(header.array(), 0, HEADER_SIZE);
+            out.write(payload.array(), 0, payloadSize);
+        }
+    }
+
+    private static int horarySize(Map<Integer, List<Planet>> horaryTable)
+    {
+        int size = 4;
+
+        for (List<Planet> planets : horaryTable.values())
+        {
+            size += 4 + 1 + planets.size() + 8 + 8;
+        }
+
+        return size;
+    }
+
+    private static void writeHorary(ByteBuffer payload,
+            Map<Integer, List<Planet>> horaryTable,
+            Map<Integer, DoubleRange> horaryRangeTable)
+    {
+        payload.putInt(horaryTable.size());
+
+        for (Map.Entry<Integer, List<Planet>> entry : new TreeMap<>(horaryTable).entrySet())
+        {
+            DoubleRange range = horaryRangeTable.get(entry.getKey());
+
+            payload.putInt(entry.getKey());
+            payload.put((byte) entry.getValue().size());
+
+            for (Planet planet : entry.getValue())
+            {
+                payload.put((byte) planet.ordinal());
+            }
+
+            payload.putDouble(range.getMin());
+            payload.putDouble(range.getMax());
+        }
+    }
+
+    /**
+     * Generates the tables file at build time.
+     *
+     * @param args path of the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args)
+        throws IOException
+    {
+        Path file = Paths.get((args.length > 0) ? args[0] : RESOURCE_NAME);
+
+        // Never load an older file while generating a new one
+        System.setProperty(COMPUTE_PROPERTY, "true");
+
+        write(file, SupportCalcs.getLordsIndex(),
+                SupportCalcs.getHoraryTable(true),
+                SupportCalcs.getHoraryRangeTable(true),
+                SupportCalcs.getHoraryTable(false),
+                SupportCalcs.getHoraryRangeTable(false));
+
+        LOGGER.log(Level.INFO, "Lords table written to {0}", file.toAbsolutePath());
+    }
+}
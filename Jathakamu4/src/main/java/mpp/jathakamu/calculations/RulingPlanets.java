@@ -0,0 +1,121 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * KP ruling planets at a place: the day lord and the sign, star and sub lords
+ * of the Lagna and of the Moon, with the period they hold for. None of them
+ * changes between validFrom and validUntil, the next sunrise or change of the
+ * Lagna or Moon sub, whichever comes first.
+ *
+ * @author Phani
+ */
+public final class RulingPlanets
+{
+    private final double validFrom;
+    private final double validUntil;
+    private final Planet dayLord;
+    private final List<Planet> lagnaLords;
+    private final List<Planet> moonLords;
+
+    RulingPlanets(double validFrom, double validUntil, Planet dayLord,
+            List<Planet> lagnaLords, List<Planet> moonLords)
+    {
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.dayLord = dayLord;
+        this.lagnaLords = Collections.unmodifiableList(lagnaLords);
+        this.moonLords = Collections.unmodifiableList(moonLords);
+    }
+
+    /**
+     * @return Julian day (UT) of the last change, the sunrise or change of
+     * the Lagna or Moon sub these hold from
+     */
+    public double getValidFrom()
+    {
+        return validFrom;
+    }
+
+    /**
+     * @return Julian day (UT) of the next change
+     */
+    public double getValidUntil()
+    {
+        return validUntil;
+    }
+
+    public boolean isValidAt(double tjd_ut)
+    {
+        return tjd_ut >= validFrom && tjd_ut < validUntil;
+    }
+
+    /**
+     * @return lord of the week day, the day starting at sunrise
+     */
+    public Planet getDayLord()
+    {
+        return dayLord;
+    }
+
+    /**
+     * @return sign lord, star lord and sub lord of the Lagna
+     */
+    public List<Planet> getLagnaLords()
+    {
+        return lagnaLords;
+    }
+
+    /**
+     * @return sign lord, star lord and sub lord of the Moon
+     */
+    public List<Planet> getMoonLords()
+    {
+        return moonLords;
+    }
+
+    /**
+     * Ruling planets without repetition: day lord, then the Lagna lords and
+     * the Moon lords.
+     *
+     * @return list of planets
+     */
+    public List<Planet> getPlanets()
+    {
+        List<Planet> rtnList = new ArrayList<>(7);
+
+        rtnList.add(dayLord);
+
+        for (Planet planet : lagnaLords)
+        {
+            if (!rtnList.contains(planet))
+            {
+                rtnList.add(planet);
+            }
+        }
+
+        for (Planet planet : moonLords)
+        {
+            if (!rtnList.contains(planet))
+            {
+                rtnList.add(planet);
+            }
+        }
+
+        return rtnList;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RulingPlanets{" + "dayLord=" + dayLord + ", lagnaLords=" + lagnaLords
+                + ", moonLords=" + moonLords + ", validFrom=" + validFrom
+                + ", validUntil=" + validUntil + '}';
+    }
+}
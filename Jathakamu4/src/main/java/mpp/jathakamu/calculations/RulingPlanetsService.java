@@ -0,0 +1,390 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.types.Place;
+import mpp.jathakamu.types.Planet;
+import swisseph.DblObj;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Ruling planets of the current moment, computed once per place and shared
+ * by every session.
+ *
+ * Along with the ruling planets the next instant any of them changes is
+ * found: the next sunrise (day lord), the next Lagna sub change from
+ * AscendantCalendar and the next Moon sub change from TransitSearch. Until
+ * that instant the last answer of the place is returned as is, a lookup and
+ * a comparison; after it the first caller computes the new one while the
+ * others of the same place wait for it. The answer also holds back to the
+ * last change, so a query of an earlier moment of the same period is
+ * answered from it as well.
+ *
+ * Inside the polar circles AscendantCalendar refuses the place, as the Lagna
+ * may go back there. The Lagna changes are then found by computing the Lagna
+ * directly a minute apart and halving the minute of a change.
+ *
+ * @author Phani
+ */
+public final class RulingPlanetsService
+{
+    /* Julian day of 1970-01-01 00:00 UT */
+    private final static double EPOCH_JD = 2440587.5D;
+    private final static double MILLIS_PER_DAY = 86400000D;
+    private final static double PLACE_QUANTUM = 1E-6D;
+
+    /* Polar places: Lagna computed every minute, changes found to a second */
+    private final static double LAGNA_STEP = 1D / 1440D;
+    private final static double LAGNA_TOLERANCE = 1D / 86400D;
+
+    /* Lords of Sunday to Saturday */
+    private final static Planet[] DAY_LORDS =
+    {
+        Planet.SUN, Planet.MOON, Planet.MARS, Planet.MERCURY, Planet.JUPITER,
+        Planet.VENUS, Planet.SATURN
+    };
+
+    private final ProfileSettings settings;
+    private final ConcurrentMap<String, Location> locations = new ConcurrentHashMap<>();
+    private final Function<String, Location> newLocation = key -> new Location();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong computations = new AtomicLong();
+
+    private static class ServiceHolder
+    {
+        private final static RulingPlanetsService SERVICE = new RulingPlanetsService(
+                ProfileSettings.DEFAULT);
+
+        static
+        {
+            Metrics.gauge("rulingplanets.hits", SERVICE::getHitCount);
+            Metrics.gauge("rulingplanets.computations", SERVICE::getComputeCount);
+        }
+    }
+
+    /* Last ruling planets of a place */
+    private static final class Location
+    {
+        private volatile RulingPlanets current;
+    }
+
+    /**
+     * @param settings ayanamsa, flags and node to use
+     */
+    public RulingPlanetsService(ProfileSettings settings)
+    {
+        this.settings = settings;
+    }
+
+    /**
+     * Service with the default settings (KP new ayanamsa), shared by the
+     * chart pages.
+     *
+     * @return shared service
+     */
+    public static RulingPlanetsService getInstance()
+    {
+        return ServiceHolder.SERVICE;
+    }
+
+    /**
+     * Ruling planets now at the place of the astrologer.
+     *
+     * @return ruling planets
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public RulingPlanets now()
+            throws JathakamuException
+    {
+        return now(GlobalSettings.astrologerPlace);
+    }
+
+    /**
+     * Ruling planets now at a place.
+     *
+     * @param place place of the astrologer
+     * @return ruling planets
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public RulingPlanets now(Place place)
+            throws JathakamuException
+    {
+        return get(place, EPOCH_JD + System.currentTimeMillis() / MILLIS_PER_DAY);
+    }
+
+    /**
+     * Ruling planets at a place and time. The answer is kept for the place
+     * when it is not valid at the time of the last one.
+     *
+     * @param place place of the astrologer
+     * @param tjd_ut Julian day (UT)
+     * @return ruling planets
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public RulingPlanets get(Place place, double tjd_ut)
+            throws JathakamuException
+    {
+        Location location = locations.computeIfAbsent(
+                Math.round(place.getLatitude() / PLACE_QUANTUM) + ","
+                + Math.round(place.getLongitude() / PLACE_QUANTUM), newLocation);
+        RulingPlanets rulingPlanets = location.current;
+
+        if (rulingPlanets != null && rulingPlanets.isValidAt(tjd_ut))
+        {
+            hits.incrementAndGet();
+            return rulingPlanets;
+        }
+
+        synchronized (location)
+        {
+            rulingPlanets = location.current;
+
+            if (rulingPlanets != null && rulingPlanets.isValidAt(tjd_ut))
+            {
+                hits.incrementAndGet();
+                return rulingPlanets;
+            }
+
+            rulingPlanets = compute(place, tjd_ut);
+
+            // Keep the latest, a query of the past does not replace it
+            if (location.current == null || location.current.getValidUntil() <= tjd_ut)
+            {
+                location.current = rulingPlanets;
+            }
+        }
+
+        return rulingPlanets;
+    }
+
+    /**
+     * Compute the ruling planets without the cache.
+     *
+     * @param place place of the astrologer
+     * @param tjd_ut Julian day (UT)
+     * @return ruling planets valid from the last change before tjd_ut
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public RulingPlanets compute(Place place, double tjd_ut)
+            throws JathakamuException
+    {
+        computations.incrementAndGet();
+
+        ChartPositions positions = EphemerisCalcs.computeAll(new Profile(tjd_ut, place, settings));
+        List<Planet> lagnaLords = new ArrayList<>(
+                SupportCalcs.getLordsWithSignLord(positions.getCusp(0)).subList(0, 3));
+        List<Planet> moonLords = new ArrayList<>(
+                SupportCalcs.getLordsWithSignLord(positions.getLongitude(SweConst.SE_MOON)).subList(0, 3));
+
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            double sunrise = sunriseAfter(swissEph, place, tjd_ut - 1D);
+
+            if (sunrise > tjd_ut)
+            {
+                sunrise = sunriseAfter(swissEph, place, tjd_ut - 2D);
+            }
+
+            double validFrom = sunrise;
+            double validUntil = sunriseAfter(swissEph, place, tjd_ut);
+            AscendantCalendar calendar = null;
+
+            try
+            {
+                calendar = new AscendantCalendar(swissEph, settings, place);
+            }
+            catch (IllegalArgumentException ex)
+            {
+                // Within a polar circle, computed directly below
+            }
+
+            if (calendar != null)
+            {
+                Iterator<TransitEvent> lagna = calendar.iterator(TransitSearch.SUB, tjd_ut, validUntil);
+
+                if (lagna.hasNext())
+                {
+                    validUntil = lagna.next().getTime();
+                }
+
+                lagna = calendar.iterator(TransitSearch.SUB, sunrise, tjd_ut);
+
+                while (lagna.hasNext())
+                {
+                    validFrom = lagna.next().getTime();
+                }
+            }
+            else
+            {
+                validUntil = lagnaChange(swissEph, place, tjd_ut, validUntil, LAGNA_STEP);
+                validFrom = lagnaChange(swissEph, place, tjd_ut, sunrise, -LAGNA_STEP);
+            }
+
+            TransitSearch search = new TransitSearch(swissEph, settings);
+            List<TransitEvent> moon = search.search(SweConst.SE_MOON, TransitSearch.SUB,
+                    tjd_ut, validUntil);
+
+            if (!moon.isEmpty())
+            {
+                validUntil = Math.min(validUntil, moon.get(0).getTime());
+            }
+
+            moon = search.search(SweConst.SE_MOON, TransitSearch.SUB, validFrom, tjd_ut);
+
+            if (!moon.isEmpty())
+            {
+                validFrom = moon.get(moon.size() - 1).getTime();
+            }
+
+            return new RulingPlanets(validFrom, validUntil, getDayLord(sunrise, place),
+                    lagnaLords, moonLords);
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+    }
+
+    /*
+     * First change of the Lagna lords after tjd_ut up to limit, or with a
+     * negative step the start of the lords of tjd_ut back to limit. The
+     * Lagna is computed every step and the step of a change halved until
+     * it is within LAGNA_TOLERANCE.
+     */
+    private double lagnaChange(SwissEph swissEph, Place place, double tjd_ut,
+            double limit, double step)
+            throws JathakamuException
+    {
+        List<Planet> lords = getLagnaLords(swissEph, place, tjd_ut);
+        double same = tjd_ut;
+
+        while ((step > 0) ? same < limit : same > limit)
+        {
+            double changed = (step > 0) ? Math.min(same + step, limit) : Math.max(same + step, limit);
+
+            if (!lords.equals(getLagnaLords(swissEph, place, changed)))
+            {
+                while (Math.abs(changed - same) > LAGNA_TOLERANCE)
+                {
+                    double middle = (same + changed) / 2;
+
+                    if (lords.equals(getLagnaLords(swissEph, place, middle)))
+                    {
+                        same = middle;
+                    }
+                    else
+                    {
+                        changed = middle;
+                    }
+                }
+
+                return (step > 0) ? changed : same;
+            }
+
+            same = changed;
+        }
+
+        return limit;
+    }
+
+    /* Sign, star and sub lords of the Lagna, from swe_houses */
+    private List<Planet> getLagnaLords(SwissEph swissEph, Place place, double tjd_ut)
+            throws JathakamuException
+    {
+        double[] ayan = settings.getAynamsa();
+        double[] cusps = new double[13];
+        double[] ascmc = new double[10];
+        double geolat = place.getLatitude();
+
+        if (settings.isUseGeocentric())
+        {
+            geolat = SupportCalcs.getGeocentricLatitude(geolat);
+        }
+
+        swissEph.swe_set_sid_mode(Double.valueOf(ayan[0]).intValue(), ayan[1], ayan[2]);
+
+        int rtnFlag = swissEph.swe_houses(tjd_ut, settings.getEphemerisFlags(), geolat,
+                place.getLongitude(), settings.getHouseSystem(), cusps, ascmc);
+
+        if (rtnFlag == SweConst.ERR)
+        {
+            throw new JathakamuException("Error Occured while computing Lagna");
+        }
+
+        double lagna = ascmc[SweConst.SE_ASC];
+
+        if (settings.deductAyanamsa())
+        {
+            lagna = SupportCalcs.degnorm(lagna - swissEph.swe_get_ayanamsa_ut(tjd_ut));
+        }
+
+        return SupportCalcs.getLordsWithSignLord(lagna).subList(0, 3);
+    }
+
+    /*
+     * Lord of the week day the sunrise is in, by the local mean time of the
+     * place.
+     */
+    private static Planet getDayLord(double sunrise, Place place)
+    {
+        long day = (long) Math.floor(sunrise + 0.5D + place.getLongitude() / 360D);
+
+        // Julian day number 0 was a Monday
+        return DAY_LORDS[(int) ((day + 1) % 7)];
+    }
+
+    private double sunriseAfter(SwissEph swissEph, Place place, double tjd_ut)
+            throws JathakamuException
+    {
+        DblObj rise = new DblObj();
+        StringBuffer serr = new StringBuffer();
+        int rtnFlag = swissEph.swe_rise_trans(tjd_ut, SweConst.SE_SUN, null,
+                settings.getEphemerisFlags() & ~SweConst.SEFLG_SIDEREAL, SweConst.SE_CALC_RISE,
+                new double[] {place.getLongitude(), place.getLatitude(), 0},
+                0, 25, rise, serr);
+
+        if (rtnFlag < 0)
+        {
+            throw new JathakamuException(
+                    "Error Occured while calculating sun rise time. Return status is "
+                    + rtnFlag + "\n Error is " + serr);
+        }
+
+        return rise.val;
+    }
+
+    public long getHitCount()
+    {
+        return hits.get();
+    }
+
+    public long getComputeCount()
+    {
+        return computations.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RulingPlanetsService{" + "locations=" + locations.size()
+                + ", hits=" + getHitCount() + ", computations=" + getComputeCount() + '}';
+    }
+}
@@ -10,40 +10,42 @@ import java.io.IOException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.TimeZone;
-import java.util.function.Function;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
 import mpp.jathakamu.Constants;
 
 import mpp.jathakamu.JathakamuException;
 import mpp.jathakamu.Profile;
+import mpp.jathakamu.metrics.Metrics;
+import mpp.jathakamu.metrics.Timer;
+import mpp.jathakamu.types.DoubleRange;
+import mpp.jathakamu.types.LazyVDNode;
 import mpp.jathakamu.types.LordNode;
 import mpp.jathakamu.types.Place;
 import mpp.jathakamu.types.Planet;
 import mpp.jathakamu.types.Raasi;
 import mpp.jathakamu.types.Range;
 import mpp.jathakamu.types.VDNode;
-import mpp.jathakamu.utils.Core;
+import mpp.jathakamu.types.ZodiacResolver;
 import mpp.jathakamu.utils.ViewUtils;
 import swisseph.SweDate;
 import static mpp.jathakamu.JathakamLogger.LOGGER;
 
 import swisseph.SwissLib;
 
-import static java.util.Comparator.comparing;
-
 
 /**
  * Calculation in this class will support EphemerisCalcs.
@@ -55,26 +57,38 @@ import static java.util.Comparator.comparing;
 public final class SupportCalcs
 {
     private final static SwissLib swephLib = new SwissLib();
+
+    private final static Timer DASA_TREE_TIMER = Metrics.timer("dasa.tree");
+    private final static Timer DASA_TIMELINE_TIMER = Metrics.timer("dasa.timeline");
     
-    private final static Map<Range, List<LordNode>> LORDS_TABLE = new HashMap<>();
+    private final static NavigableMap<DoubleRange, List<LordNode>> LORDS_TABLE = new TreeMap<>();
     private final static Map<Integer, List<Planet>> HORARY_249_TABLE = new HashMap<>();
     private final static Map<Integer, List<Planet>> HORARY_2193_TABLE = new HashMap<>();
-    private final static Map<Integer, Range> HORARY_249_RANGE_TABLE = new HashMap<>();
-    private final static Map<Integer, Range> HORARY_2193_RANGE_TABLE = new HashMap<>();
+    private final static Map<Integer, DoubleRange> HORARY_249_RANGE_TABLE = new HashMap<>();
+    private final static Map<Integer, DoubleRange> HORARY_2193_RANGE_TABLE = new HashMap<>();
     
-    // beginFor249 and endFor249 are used for populating horary tables 
-    private static double beginFor249 = 0;
-    private static double endFor249 = 0;
-    private static int horary249Index = 0;
-    
-    private static double beginFor2193 = 0;
-    private static double endFor2193 = 0;
-    private static int horary2193Index = 0;
+    /* Sorted view of LORDS_TABLE used for lookups, or loaded from lords.bin */
+    private final static LordsIndex LORDS_INDEX;
     
     static
     {
         LOGGER.log(Level.INFO, "Initializing Lords Table...");
-        initializeLordsTable2();
+        LordsTableFile tableFile = Boolean.getBoolean(LordsTableFile.COMPUTE_PROPERTY)
+                ? null : LordsTableFile.load();
+        
+        if (tableFile != null)
+        {
+            // Precomputed at build time, LORDS_TABLE is filled only if needed
+            LORDS_INDEX = tableFile.getLordsIndex();
+            HORARY_249_TABLE.putAll(tableFile.getHoraryTable(true));
+            HORARY_249_RANGE_TABLE.putAll(tableFile.getHoraryRangeTable(true));
+            HORARY_2193_TABLE.putAll(tableFile.getHoraryTable(false));
+            HORARY_2193_RANGE_TABLE.putAll(tableFile.getHoraryRangeTable(false));
+        }
+        else
+        {
+            LORDS_INDEX = computeLordsTables();
+        }
         LOGGER.log(Level.INFO, "Initialized Lords Table !!");
         
         saveToFile();
@@ -311,9 +325,9 @@ public final class SupportCalcs
         
         boolean rtnValue;
         Raasi beginRaasi = Raasi.getRaasi(begin);
-        Range beginRaasiExtent = beginRaasi.getExtent();
+        DoubleRange beginRaasiExtent = beginRaasi.getExtent();
         
-        rtnValue = beginRaasiExtent.getMax().doubleValue() < end;
+        rtnValue = beginRaasiExtent.getMax() < end;
         
         return rtnValue;
     }
@@ -335,14 +349,14 @@ public final class SupportCalcs
     
     public static double getAscendent(int horaryNum)
     {
-        Range range = HORARY_249_RANGE_TABLE.get(horaryNum);
-        return range.getMin().doubleValue();
+        DoubleRange range = HORARY_249_RANGE_TABLE.get(horaryNum);
+        return range.getMin();
     }
     
     public static double getAscendent2193(int horaryNum)
     {
-        Range range = HORARY_2193_RANGE_TABLE.get(horaryNum);
-        return range.getMin().doubleValue();
+        DoubleRange range = HORARY_2193_RANGE_TABLE.get(horaryNum);
+        return range.getMin();
     }
     
     /**
@@ -355,9 +369,9 @@ public final class SupportCalcs
      */
     public static Range getRangeFor249Horary(int horaryNum)
     {
-        Range range = HORARY_249_RANGE_TABLE.get(horaryNum);
+        DoubleRange range = HORARY_249_RANGE_TABLE.get(horaryNum);
         
-        return range;
+        return (range == null) ? null : range.toRange();
     }
     
     /**
@@ -385,42 +399,108 @@ public final class SupportCalcs
      */
     public static Range getRangeFor2193Horary(int horaryNum)
     {
-        Range range = HORARY_2193_RANGE_TABLE.get(horaryNum);
+        DoubleRange range = HORARY_2193_RANGE_TABLE.get(horaryNum);
         
-        return range;
+        return (range == null) ? null : range.toRange();
+    }
+    
+    /**
+     * Sorted index of the lords table, for callers which need the division
+     * boundaries or the lords as planet ordinals.
+     * 
+     * @return lords index
+     */
+    public static LordsIndex getLordsIndex()
+    {
+        return LORDS_INDEX;
     }
     
     public static List<LordNode> getLords(double planetLongitude)
     {
-        Optional<Range> key = LORDS_TABLE.keySet().stream()
-                .filter(r -> r.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
-                .findFirst();
+        int index = LORDS_INDEX.indexOf(planetLongitude);
         
-        if (!key.isPresent())
+        if (index < 0)
         {
             return new ArrayList<>();
         }
         
-        List<LordNode> entry = LORDS_TABLE.get(key.get());
-        return entry;
+        return LORDS_INDEX.getLordNodes(index);
     }
     
     public static List<Planet> getLordsWithSignLord(double planetLongitude)
     {
-        List<LordNode> entry = getLords(planetLongitude);
+        Planet signLord = ZodiacResolver.getSignLord(planetLongitude);
+        List<Planet> rtnList = new ArrayList<>(LordsIndex.LEVELS + 1);
         
-        Raasi raasi = Raasi.getRaasi(planetLongitude);
-        Planet signLord = Planet.getSignLord(raasi);
+        rtnList.add(signLord);
         
-        List<Planet> rtnList = entry.stream()
-                .map((LordNode t) -> t.getPlanet())
-                .collect(Collectors.toList());
+        int index = LORDS_INDEX.indexOf(planetLongitude);
         
-        rtnList.add(0, signLord);
+        if (index >= 0)
+        {
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                rtnList.add(LORDS_INDEX.getLord(index, level));
+            }
+        }
 
         return rtnList;
     }
     
+    /*
+     * Linear scan of LORDS_TABLE, which is how getLords used to work. Kept
+     * only to compare against LordsIndex in tests and benchmarks.
+     */
+    static List<LordNode> scanLords(double planetLongitude)
+    {
+        NavigableMap<DoubleRange, List<LordNode>> lordsTable = getLordsTable();
+        Optional<DoubleRange> key = lordsTable.keySet().stream()
+                .filter(r -> r.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
+                .findFirst();
+        
+        if (!key.isPresent())
+        {
+            return new ArrayList<>();
+        }
+        
+        List<LordNode> entry = lordsTable.get(key.get());
+        return entry;
+    }
+    
+    /*
+     * LORDS_TABLE is not filled when the tables are loaded from lords.bin,
+     * build it from the index the first time it is needed.
+     */
+    private static NavigableMap<DoubleRange, List<LordNode>> getLordsTable()
+    {
+        synchronized (LORDS_TABLE)
+        {
+            if (LORDS_TABLE.isEmpty())
+            {
+                for (int i = 0; i < LORDS_INDEX.size(); i++)
+                {
+                    List<LordNode> lordNodes = LORDS_INDEX.getLordNodes(i);
+                    LORDS_TABLE.put(lordNodes.get(LordsIndex.PRANA_LORD).getValue(), lordNodes);
+                }
+            }
+        }
+        
+        return LORDS_TABLE;
+    }
+    
+    /*
+     * Horary tables, used by LordsTableFile to write them.
+     */
+    static Map<Integer, List<Planet>> getHoraryTable(boolean isHorary249)
+    {
+        return isHorary249 ? HORARY_249_TABLE : HORARY_2193_TABLE;
+    }
+    
+    static Map<Integer, DoubleRange> getHoraryRangeTable(boolean isHorary249)
+    {
+        return isHorary249 ? HORARY_249_RANGE_TABLE : HORARY_2193_RANGE_TABLE;
+    }
+    
     /**
      * 
      * @param dob date of birth or time for which Vimshottari dasa tree is needed
@@ -501,434 +581,152 @@ public final class SupportCalcs
         return root;
     }
     
-        /**
+    /**
+     * Vimshottari dasa tree with the maha dasas as children of the root. The
+     * lower levels are LazyVDNode children, computed only when a maha dasa
+     * (or its sub periods) are expanded.
      * 
      * @param dob date of birth or time for which Vimshottari dasa tree is needed
      * @param planetLongitude   longitude of planet
      * @param profile   profile to get profile settings to use while calculating.
      * 
-     * @return  Root TreeNode of Vimshottari dasa
+     * @return  Root node of Vimshottari dasa
      */
     public static VDNode getVDTree2(long dob, double planetLongitude, Profile profile)
     {
+        long start = Timer.start();
         long t1 = System.currentTimeMillis();
-        List<LordNode> entry = getLords(planetLongitude);
-        LordNode[] startingDasaPlanets = new LordNode[5];
-        double[] remainDasaFraction = new double[5];
-        
-        entry.toArray(startingDasaPlanets);
-        
-        int i = 0;
-        for (LordNode node: startingDasaPlanets)
-        {
-            System.out.println(node);
-            remainDasaFraction[i++] = node.getRemainingDurationForLongitude(planetLongitude);
-        }
-        
-        long[] dasaEndDate =  new long[5]; 
-        Arrays.fill(dasaEndDate, dob);
+        Planet[] mahaDasaPlanets = new Planet[9];
+        long[] mahaDasaBounds = getMahaDasaBounds(dob, planetLongitude, profile, mahaDasaPlanets);
         VDNode root = VDNode.getRootNode();
-        Planet startingMahaDasaPlanet = startingDasaPlanets[0].getPlanet();
-        Planet startingBhuktiPlanet = startingDasaPlanets[1].getPlanet();
-        Planet startingPratyantaraPlanet = startingDasaPlanets[2].getPlanet();
-        Planet startingSookshmaPlanet = startingDasaPlanets[3].getPlanet();
-        Planet startingPranaPlanet = startingDasaPlanets[4].getPlanet();
-        
-        List<Planet> mahaDasaPlanets = Planet.getVDPlanets(startingMahaDasaPlanet, startingMahaDasaPlanet);
         
-        for (Planet mahaDasaPlanet: mahaDasaPlanets)
+        for (int i = 0; i < mahaDasaPlanets.length; i++)
         {
-            double mdDuration = mahaDasaPlanet.getDasaDuration() * remainDasaFraction[0]; // Required for 1st iteration only
-            VDNode mahaDasaNode = addNode(mahaDasaPlanet, root, mdDuration, dasaEndDate, 0, profile);
-            remainDasaFraction[0] = 1;
-            mdDuration = mahaDasaPlanet.getDasaDuration(); // Required for use by bukti loop below
-            List<Planet> bhuktiPlanets = Planet.getVDPlanets(mahaDasaPlanet, (startingBhuktiPlanet == null)? mahaDasaPlanet : startingBhuktiPlanet );
-            
-            for (Planet bp : bhuktiPlanets)
-            {
-                double bdDuration = mdDuration * bp.getDasaDuration()/120D * remainDasaFraction[1];
-                remainDasaFraction[1] = 1;
-                VDNode bukthiDasaNode = addNode(bp, mahaDasaNode, bdDuration, dasaEndDate, 1, profile);
-                bdDuration = mdDuration * bp.getDasaDuration()/120D;
-                List<Planet> pratyantaraPlanets = Planet.getVDPlanets(bp, (startingPratyantaraPlanet == null) ? bp : startingPratyantaraPlanet);
-                
-                for (Planet pap : pratyantaraPlanets)
-                {
-                    double paDuration = bdDuration * pap.getDasaDuration()/120D * remainDasaFraction[2];
-                    remainDasaFraction[2] = 1;
-                    VDNode pratyantaraDasaNode = addNode(pap, bukthiDasaNode, paDuration, dasaEndDate, 2, profile);
-                    paDuration = bdDuration * pap.getDasaDuration()/120D;
-                    List<Planet> sookshmaPlanets = Planet.getVDPlanets(pap, (startingSookshmaPlanet == null) ? pap : startingSookshmaPlanet);
-                    
-                    for (Planet sp : sookshmaPlanets)
-                    {
-                        double sdDuration = paDuration * sp.getDasaDuration()/120D * remainDasaFraction[3];
-                        remainDasaFraction[3] = 1;
-                        VDNode sookshmaDasaNode = addNode(sp, pratyantaraDasaNode, sdDuration, dasaEndDate, 3, profile);
-                        sdDuration = paDuration * sp.getDasaDuration()/120D;
-                        List<Planet> pranaPlanets = Planet.getVDPlanets(sp, (startingPranaPlanet == null) ? sp : startingPranaPlanet);
-                        
-                        for (Planet pp : pranaPlanets)
-                        {
-                            double pdDuration = sdDuration * pp.getDasaDuration()/120D * remainDasaFraction[4];
-                            remainDasaFraction[4] = 1;
-                            addNode(pp, sookshmaDasaNode, pdDuration, dasaEndDate, 4, profile);
-                        }
-                        startingPranaPlanet = null;
-                    }
-                    startingSookshmaPlanet = null;
-                }
-                startingPratyantaraPlanet = null;
-            }
-            startingBhuktiPlanet = null;
+            root.add(new LazyVDNode(mahaDasaPlanets[i], mahaDasaBounds[i],
+                    mahaDasaBounds[i + 1], dob, LazyVDNode.MAHA_DASA, true));
         }
         
         long t2 = System.currentTimeMillis();
         LOGGER.log(Level.INFO, "Time taken to generate vimshottari dasa is {0}msecs", (t2-t1));
+        DASA_TREE_TIMER.stop(start);
         
         return root;
     }
     
-    /*
-     * Using initializeLordsTable2 instead of initializeLordsTable
+    /**
+     * Vimshottari dasa periods of all the five levels as a DasaTimeline, for
+     * finding the running periods at many instants.
+     * 
+     * @param dob date of birth or time for which Vimshottari dasa is needed
+     * @param planetLongitude   longitude of planet
+     * @param profile   profile to get profile settings to use while calculating.
+     * 
+     * @return  Vimshottari dasa timeline
      */
-    private static void initializeLordsTable()
+    public static DasaTimeline getDasaTimeline(long dob, double planetLongitude, Profile profile)
     {
-        long t1 = System.currentTimeMillis();
-        /*
-         * Note that most of the below logic is based on minutes.
-         * For Example 800'=13Deg 20'
-         */
-        double dasaduration = 800D;
-        double mahaDasaStart;
-        double mahaDasaEnd = 0D;
-        
-        beginFor249 = 0;
-        endFor249 = 0;
-        horary249Index = 0;
-        beginFor2193 = 0;
-        endFor2193 = 0;
-        horary2193Index = 0;
-        
-        for (int i = 0; i < 3; i++)
-        {
-            for (Planet mahaDasaPlanet : Planet.getVDPlanetArray(Planet.KETU))
-            {
-                mahaDasaStart = mahaDasaEnd;
-                mahaDasaEnd += dasaduration;
-                Range mahaDasaRange = new Range.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
-                double mahaDasaTimeFraction = mahaDasaPlanet.getDasaDuration(); 
-                LordNode mahaLordNode = new LordNode(mahaDasaPlanet, mahaDasaRange, mahaDasaTimeFraction);
-                double buktiStart;
-                double buktiEnd = mahaDasaStart;
-                
-                for (Planet bukthiPlanet : Planet.getVDPlanetArray(mahaDasaPlanet))
-                {
-                    buktiStart = buktiEnd;
-                    buktiEnd += dasaduration * (bukthiPlanet.getDasaDuration() / 120D);
-                    double buktiStartRange = Core.normalize(buktiStart/60D);
-                    double buktiEndRange = Core.normalize(buktiEnd/60D);
-                    Range buktiRange = new Range.Builder().values(buktiStartRange, buktiEndRange).build();
-                    double buktiTimeFraction = mahaDasaTimeFraction * bukthiPlanet.getDasaDuration() / 120D;
-                    LordNode buktiLordNode = new LordNode(bukthiPlanet, buktiRange, buktiTimeFraction);
-                    double pratyantaraStart;
-                    double pratyantaraEnd = buktiStart;
-                    double buktiDuration = buktiEnd - buktiStart;
-                    
-                    // populate 249 Horary table
-                    double duration = 800D;
-                    duration *= bukthiPlanet.getDasaDuration();
-                    duration = duration / (120D * 60D);
-                    setHoraryTableEntry(mahaDasaPlanet, bukthiPlanet, null, duration);
-                    
-                    for (Planet pratyantaraPlanet : Planet.getVDPlanetArray(bukthiPlanet))
-                    {
-                        pratyantaraStart = pratyantaraEnd;
-                        pratyantaraEnd += buktiDuration * (pratyantaraPlanet.getDasaDuration() / 120D);
-                        double pratyantaraStartRange = Core.normalize(pratyantaraStart/60D);
-                        double pratyantaraEndRange = Core.normalize(pratyantaraEnd/60D);
-                        Range pratyantaraRange = new Range.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
-                        double pratyantaraTimeFraction = buktiTimeFraction * pratyantaraPlanet.getDasaDuration() / 120D;
-                        LordNode pratyantaraLordNode = new LordNode(pratyantaraPlanet, pratyantaraRange, pratyantaraTimeFraction);
-                        double sookshmaStart;
-                        double sookshmaEnd = pratyantaraStart;
-                        double pratyantaraDuration = pratyantaraEnd - pratyantaraStart;
-
-                        // populate 2193 Horary table
-                        duration = 800D;
-                        duration *= bukthiPlanet.getDasaDuration();
-                        duration *= pratyantaraPlanet.getDasaDuration();
-                        duration = duration / (120D * 120D * 60D);
-                        setHoraryTableEntry(mahaDasaPlanet, bukthiPlanet, pratyantaraPlanet, duration);
-                        
-                        for (Planet sookshmaPlanet : Planet.getVDPlanetArray(pratyantaraPlanet))
-                        {
-                            sookshmaStart = sookshmaEnd;
-                            sookshmaEnd += pratyantaraDuration * (sookshmaPlanet.getDasaDuration() / 120D);
-                            double sookshmaStartRange = Core.normalize(sookshmaStart/60D);
-                            double sookshmaEndRange = Core.normalize(sookshmaEnd/60D);
-                            Range sookshmaRange = new Range.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
-                            double sookshmaTimeFraction = pratyantaraTimeFraction * sookshmaPlanet.getDasaDuration() / 120D;
-                            LordNode sookshmaLordNode = new LordNode(sookshmaPlanet,sookshmaRange, sookshmaTimeFraction);
-                            double pranaStart;
-                            double pranaEnd = sookshmaStart;
-                            double sookshmaDuration = sookshmaEnd - sookshmaStart;
-                            
-                            for (Planet pranaPlanet : Planet.getVDPlanetArray(sookshmaPlanet))
-                            {
-                                pranaStart = pranaEnd;
-                                pranaEnd += sookshmaDuration * (pranaPlanet.getDasaDuration() / 120D);
-                                double pranaStartRange = Core.normalize(pranaStart/60D);
-                                double pranaEndRange = Core.normalize(pranaEnd/60D);
-                                Range pranaRange = new Range.Builder().values(pranaStartRange, pranaEndRange).build();
-                                double pranaTimeFraction = sookshmaTimeFraction * pranaPlanet.getDasaDuration() / 120D;
-                                LordNode pranaNode = new LordNode(pranaPlanet, pranaRange, pranaTimeFraction);
-                                
-                                List<LordNode> LordsList = new ArrayList<>();
-                                LordsList.add(mahaLordNode);
-                                LordsList.add(buktiLordNode);
-                                LordsList.add(pratyantaraLordNode);
-                                LordsList.add(sookshmaLordNode);
-                                LordsList.add(pranaNode);
-    
-                                LORDS_TABLE.put(pranaRange, LordsList);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        long t2 = System.currentTimeMillis();
-        LOGGER.log(Level.INFO, "Time taken to populate LORDS_TABLE is {0}msecs", (t2-t1));
+        return getDasaTimeline(dob, planetLongitude, profile, DasaTimeline.LEVELS);
     }
     
-    private static void initializeLordsTable2()
+    /**
+     * Vimshottari dasa periods down to a level as a DasaTimeline, the levels
+     * below are not computed.
+     * 
+     * @param dob date of birth or time for which Vimshottari dasa is needed
+     * @param planetLongitude   longitude of planet
+     * @param profile   profile to get profile settings to use while calculating.
+     * @param levels    1 for the maha dasas only to DasaTimeline.LEVELS
+     * 
+     * @return  Vimshottari dasa timeline
+     */
+    public static DasaTimeline getDasaTimeline(long dob, double planetLongitude, Profile profile,
+            int levels)
     {
-        long t1 = System.currentTimeMillis();
+        long start = Timer.start();
+        Planet[] mahaDasaPlanets = new Planet[9];
+        long[] mahaDasaBounds = getMahaDasaBounds(dob, planetLongitude, profile, mahaDasaPlanets);
+        DasaTimeline timeline = DasaTimeline.build(mahaDasaPlanets, mahaDasaBounds, dob, levels);
         
-        beginFor249 = 0;
-        endFor249 = 0;
-        horary249Index = 0;
-        beginFor2193 = 0;
-        endFor2193 = 0;
-        horary2193Index = 0;
-        
-        Arrays.asList(0d, 120d, 240d).forEach(entry ->
-        {
-            /*
-             * Note that most of the below logic is based on minutes.
-             * For Example 800'=13Deg 20'
-             */
-            double dasaduration = 800D;
-            double mahaDasaStart;
-            double mahaDasaEnd = entry;
+        DASA_TIMELINE_TIMER.stop(start);
         
-            for (Planet mahaDasaPlanet : Planet.getVDPlanetArray(Planet.KETU))
-            {
-                mahaDasaStart = mahaDasaEnd;
-                mahaDasaEnd += dasaduration;
-                Range mahaDasaRange = new Range.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
-                double mahaDasaTimeFraction = mahaDasaPlanet.getDasaDuration(); 
-                LordNode mahaLordNode = new LordNode(mahaDasaPlanet, mahaDasaRange, mahaDasaTimeFraction);
-                double buktiStart;
-                double buktiEnd = mahaDasaStart;
-                
-                for (Planet bukthiPlanet : Planet.getVDPlanetArray(mahaDasaPlanet))
-                {
-                    buktiStart = buktiEnd;
-                    buktiEnd += dasaduration * (bukthiPlanet.getDasaDuration() / 120D);
-                    double buktiStartRange = Core.normalize(buktiStart/60D);
-                    double buktiEndRange = Core.normalize(buktiEnd/60D);
-                    Range buktiRange = new Range.Builder().values(buktiStartRange, buktiEndRange).build();
-                    double buktiTimeFraction = mahaDasaTimeFraction * bukthiPlanet.getDasaDuration() / 120D;
-                    LordNode buktiLordNode = new LordNode(bukthiPlanet, buktiRange, buktiTimeFraction);
-                    double pratyantaraStart;
-                    double pratyantaraEnd = buktiStart;
-                    double buktiDuration = buktiEnd - buktiStart;
-                    
-                    // populate 249 Horary table
-                    double duration = 800D;
-                    duration *= bukthiPlanet.getDasaDuration();
-                    duration = duration / (120D * 60D);
-                    setHoraryTableEntry(mahaDasaPlanet, bukthiPlanet, null, duration);
-                    
-                    for (Planet pratyantaraPlanet : Planet.getVDPlanetArray(bukthiPlanet))
-                    {
-                        pratyantaraStart = pratyantaraEnd;
-                        pratyantaraEnd += buktiDuration * (pratyantaraPlanet.getDasaDuration() / 120D);
-                        double pratyantaraStartRange = Core.normalize(pratyantaraStart/60D);
-                        double pratyantaraEndRange = Core.normalize(pratyantaraEnd/60D);
-                        Range pratyantaraRange = new Range.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
-                        double pratyantaraTimeFraction = buktiTimeFraction * pratyantaraPlanet.getDasaDuration() / 120D;
-                        LordNode pratyantaraLordNode = new LordNode(pratyantaraPlanet, pratyantaraRange, pratyantaraTimeFraction);
-                        double sookshmaStart;
-                        double sookshmaEnd = pratyantaraStart;
-                        double pratyantaraDuration = pratyantaraEnd - pratyantaraStart;
-
-                        // populate 2193 Horary table
-                        duration = 800D;
-                        duration *= bukthiPlanet.getDasaDuration();
-                        duration *= pratyantaraPlanet.getDasaDuration();
-                        duration = duration / (120D * 120D * 60D);
-                        setHoraryTableEntry(mahaDasaPlanet, bukthiPlanet, pratyantaraPlanet, duration);
-                        
-                        for (Planet sookshmaPlanet : Planet.getVDPlanetArray(pratyantaraPlanet))
-                        {
-                            sookshmaStart = sookshmaEnd;
-                            sookshmaEnd += pratyantaraDuration * (sookshmaPlanet.getDasaDuration() / 120D);
-                            double sookshmaStartRange = Core.normalize(sookshmaStart/60D);
-                            double sookshmaEndRange = Core.normalize(sookshmaEnd/60D);
-                            Range sookshmaRange = new Range.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
-                            double sookshmaTimeFraction = pratyantaraTimeFraction * sookshmaPlanet.getDasaDuration() / 120D;
-                            LordNode sookshmaLordNode = new LordNode(sookshmaPlanet,sookshmaRange, sookshmaTimeFraction);
-                            double pranaStart;
-                            double pranaEnd = sookshmaStart;
-                            double sookshmaDuration = sookshmaEnd - sookshmaStart;
-                            
-                            for (Planet pranaPlanet : Planet.getVDPlanetArray(sookshmaPlanet))
-                            {
-                                pranaStart = pranaEnd;
-                                pranaEnd += sookshmaDuration * (pranaPlanet.getDasaDuration() / 120D);
-                                double pranaStartRange = Core.normalize(pranaStart/60D);
-                                double pranaEndRange = Core.normalize(pranaEnd/60D);
-                                Range pranaRange = new Range.Builder().values(pranaStartRange, pranaEndRange).build();
-                                double pranaTimeFraction = sookshmaTimeFraction * pranaPlanet.getDasaDuration() / 120D;
-                                LordNode pranaNode = new LordNode(pranaPlanet, pranaRange, pranaTimeFraction);
-                                
-                                List<LordNode> LordsList = new ArrayList<>();
-                                LordsList.add(mahaLordNode);
-                                LordsList.add(buktiLordNode);
-                                LordsList.add(pratyantaraLordNode);
-                                LordsList.add(sookshmaLordNode);
-                                LordsList.add(pranaNode);
-    
-                                LORDS_TABLE.put(pranaRange, LordsList);
-                            }
-                        }
-                    }
-                }
-            }
-        });
-        long t2 = System.currentTimeMillis();
-        LOGGER.log(Level.INFO, "Time taken to populate LORDS_TABLE is {0}msecs", (t2-t1));
+        return timeline;
     }
     
-    private static void setHoraryTableEntry(Planet mahaDasaPlanet,
-                                           Planet bukthiPlanet,
-                                           Planet pratyantaraPlanet,
-                                           double duration)
+    /**
+     * Vimshottari maha dasas only, without their sub periods, for when the
+     * running maha dasa and its balance are enough.
+     * 
+     * @param dob date of birth or time for which Vimshottari dasa is needed
+     * @param planetLongitude   longitude of planet
+     * @param profile   profile to get profile settings to use while calculating.
+     * @param mahaDasaPlanets   filled with the 9 maha dasa planets, starting
+     * with the one running at dob
+     * 
+     * @return  start of the running maha dasa (before dob) followed by the
+     * end of each maha dasa, in milliseconds
+     */
+    public static long[] getMahaDasaBounds(long dob, double planetLongitude,
+            Profile profile, Planet[] mahaDasaPlanets)
     {
-        if (pratyantaraPlanet == null)
-        {
-            endFor249 += duration;
-            endFor249 = Core.normalize(endFor249);
-        }
-        else
-        {
-            endFor2193 += duration;
-            endFor2193 = Core.normalize(endFor2193);
-        }
-        
-        if (pratyantaraPlanet == null)
-        {
-            addToHoraryTable(beginFor249, endFor249, mahaDasaPlanet, bukthiPlanet, pratyantaraPlanet);
-        }
-        else
-        {
-            addToHoraryTable(beginFor2193, endFor2193, mahaDasaPlanet, bukthiPlanet, pratyantaraPlanet);
-        }
-       
-        if (pratyantaraPlanet == null)
-        {
-            beginFor249 = endFor249;
-        }
-        else
-        {
-            beginFor2193 = endFor2193;
-        }
+        return getMahaDasaBounds(dob, planetLongitude, profile.getProfileSetting().getOneYear(),
+                mahaDasaPlanets);
     }
-    
-    private static void addToHoraryTable(double begin, double end,
-            Planet mahaDasaPlanet, Planet bukthiPlanet, Planet pratyantaraPlanet)
-    {
-        Map<Integer, List<Planet>> horaryTable = HORARY_2193_TABLE;
-        boolean isHorary249 = false;
-        
-        if (pratyantaraPlanet == null)
-        {
-            horaryTable = HORARY_249_TABLE;
-            isHorary249 = true;
-        }
-
-        // populate 249/2193 Horary table
-        boolean signChangedFlag = isDifferentZodiacSign(begin, end);
-        double newEnd = end;
-        
-        if (signChangedFlag)
-        {
-            int nEnd = (int) end;
-            newEnd = (nEnd/30)*30;
-        }
-        
-        List<Planet> horaryPlanetList = new ArrayList<>();
-        Raasi planetSign = Raasi.getRaasi(begin);
 
-        Planet signStar = Planet.getPlanetSign(planetSign);
-        horaryPlanetList.add(signStar);
-        horaryPlanetList.add(mahaDasaPlanet);
-        horaryPlanetList.add(bukthiPlanet);
-
-        if (pratyantaraPlanet != null)
-        {
-            horaryPlanetList.add(pratyantaraPlanet);
-        }
+    /*
+     * Maha dasa planets, starting with the one running at dob, are filled in
+     * mahaDasaPlanets. Returned array has the start of the running maha dasa
+     * (before dob) followed by the end of each maha dasa.
+     */
+    static long[] getMahaDasaBounds(long dob, double planetLongitude, double oneYr,
+            Planet[] mahaDasaPlanets)
+    {
+        LordNode starLordNode = getLords(planetLongitude).get(LordsIndex.STAR_LORD);
+        double remainDasaFraction = starLordNode.getRemainingDurationForLongitude(planetLongitude);
+        long[] mahaDasaBounds = new long[mahaDasaPlanets.length + 1];
+        long dasaEndDate = dob;
+        int i = 0;
         
-        Range range = new Range.Builder().values(begin, newEnd).build();
-        if (isHorary249)
-        {
-            horaryTable.put(++horary249Index, horaryPlanetList);
-            HORARY_249_RANGE_TABLE.put(horary249Index, range);
-        }
-        else
-        {
-            horaryTable.put(++horary2193Index, horaryPlanetList);
-            HORARY_2193_RANGE_TABLE.put(horary2193Index, range);
-        }
-
-        if (signChangedFlag)
+        for (Planet mahaDasaPlanet : Planet.getVDPlanetArray(starLordNode.getPlanet()))
         {
-            planetSign = Raasi.getRaasi(newEnd);
-            signStar = Planet.getPlanetSign(planetSign);
-            List<Planet> newPlanetList = new ArrayList<>(horaryPlanetList);
-
-            newPlanetList.set(0, signStar);
-            range = new Range.Builder().values(newEnd, end).build();
-            if (isHorary249)
-            {
-                horaryTable.put(++horary249Index, newPlanetList);
-                HORARY_249_RANGE_TABLE.put(horary249Index, range);
-            }
-            else
+            double mdDuration = mahaDasaPlanet.getDasaDuration();
+            long fullInc = Double.valueOf(mdDuration * oneYr * 24D * Constants.HOURS_IN_MILLS_D).longValue();
+            long inc = Double.valueOf(mdDuration * remainDasaFraction * oneYr * 24D * Constants.HOURS_IN_MILLS_D).longValue();
+            
+            if (i == 0)
             {
-                horaryTable.put(++horary2193Index, newPlanetList);
-                HORARY_2193_RANGE_TABLE.put(horary2193Index, range);
+                // Running maha dasa started before dob
+                mahaDasaBounds[0] = dasaEndDate + inc - fullInc;
+                remainDasaFraction = 1; // Required for 1st iteration only
             }
+            
+            dasaEndDate += inc;
+            mahaDasaPlanets[i++] = mahaDasaPlanet;
+            mahaDasaBounds[i] = dasaEndDate;
         }
+        
+        return mahaDasaBounds;
     }
-    
-    private static VDNode addNode(Planet dasaPlanet,
-            VDNode parent, double dasaDuration, long[] dasaEndDate,
-            int endDateIndex, Profile profile)
+
+    /*
+     * Nakshatras of the lords table are computed in parallel on the common
+     * pool. Horary tables are computed in this thread meanwhile, they use
+     * isDifferentZodiacSign and this class is not initialized yet, so they
+     * can not go to the pool.
+     */
+    private static LordsIndex computeLordsTables()
     {
-        VDNode vdNode = new VDNode(dasaPlanet, 0L);
-        double oneYr = profile.getProfileSetting().getOneYear();
-        long inc = Double.valueOf(dasaDuration * oneYr * 24D * Constants.HOURS_IN_MILLS_D).longValue();
+        long t1 = System.currentTimeMillis();
+        ForkJoinTask<List<List<LordNode>>> lordsTask
+                = LordsTableBuilder.forkLords(ForkJoinPool.commonPool());
 
-        dasaEndDate[endDateIndex] += inc;
-        vdNode.setDasaEndPeriod(dasaEndDate[endDateIndex]);
-        parent.add(vdNode);
+        LordsTableBuilder.buildHorary(HORARY_249_TABLE, HORARY_249_RANGE_TABLE,
+                HORARY_2193_TABLE, HORARY_2193_RANGE_TABLE);
+        LordsIndex lordsIndex = LordsIndex.build(lordsTask.join());
 
-        return vdNode;
+        long t2 = System.currentTimeMillis();
+        LOGGER.log(Level.INFO, "Time taken to populate LORDS_TABLE is {0}msecs", (t2-t1));
+
+        return lordsIndex;
     }
 
     private static DefaultMutableTreeNode addNode(Planet dasaPlanet,
@@ -971,7 +769,7 @@ public final class SupportCalcs
         {
             for (Entry<Integer, List<Planet>> entry : HORARY_249_TABLE.entrySet())
             {
-                Range range = HORARY_249_RANGE_TABLE.get(entry.getKey());
+                DoubleRange range = HORARY_249_RANGE_TABLE.get(entry.getKey());
                 String str = entry.getKey() + "\t"+ range + " = "+ entry.getValue();
                 bw249.write(str);
                 bw249.newLine();
@@ -990,7 +788,7 @@ public final class SupportCalcs
         {    
             for (Entry<Integer, List<Planet>> entry : HORARY_2193_TABLE.entrySet())
             {
-                Range range = HORARY_2193_RANGE_TABLE.get(entry.getKey());
+                DoubleRange range = HORARY_2193_RANGE_TABLE.get(entry.getKey());
                 String str = entry.getKey() + "\t" + range + " = "+ entry.getValue();
                 bw2193.write(str);
                 bw2193.newLine();
@@ -1008,12 +806,8 @@ public final class SupportCalcs
                 BufferedWriter writer = new BufferedWriter(fw);
         )
         {            
-            Function<Entry<Range, List<LordNode>>, Double> keyComparator;
-            keyComparator = (r -> r.getKey().getMin().doubleValue());
-            Comparator<Entry<Range, List<LordNode>>> comp = comparing(keyComparator);
-            
-            LORDS_TABLE.entrySet().stream()
-                    .sorted(comp)
+            // LORDS_TABLE is sorted on the range
+            getLordsTable().entrySet().stream()
                     .forEach(entry ->
             {
                 try
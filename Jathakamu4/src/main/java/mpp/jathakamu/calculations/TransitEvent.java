@@ -0,0 +1,122 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import mpp.jathakamu.types.Planet;
+import mpp.jathakamu.types.ZodiacResolver;
+
+/**
+ * A point crossing a boundary of the lords table: the time, the boundary and
+ * the lords of the division it enters.
+ *
+ * @author Phani
+ */
+public final class TransitEvent
+{
+    /* Graha number of the Lagna in the events of AscendantCalendar */
+    public final static int LAGNA = -1;
+
+    private final int graha;
+    private final int division;
+    private final double time;
+    private final double boundary;
+    private final boolean retrograde;
+    private final int index;
+    private final Planet signLord;
+
+    TransitEvent(int graha, int division, double time, double boundary, boolean retrograde)
+    {
+        this.graha = graha;
+        this.division = division;
+        this.time = time;
+        this.boundary = boundary;
+        this.retrograde = retrograde;
+
+        // Going back the division entered is the one ending at the boundary
+        double entered = (retrograde) ? Math.nextDown((boundary == 0D) ? 360D : boundary) : boundary;
+
+        this.index = SupportCalcs.getLordsIndex().indexOf(entered);
+        this.signLord = ZodiacResolver.getSignLord(entered);
+    }
+
+    /**
+     * @return graha as numbered in ChartPositions, or LAGNA
+     */
+    public int getGraha()
+    {
+        return graha;
+    }
+
+    /**
+     * @return one of the division constants of TransitSearch
+     */
+    public int getDivision()
+    {
+        return division;
+    }
+
+    /**
+     * @return Julian day (UT) of the crossing
+     */
+    public double getTime()
+    {
+        return time;
+    }
+
+    /**
+     * @return sidereal longitude of the boundary crossed
+     */
+    public double getBoundary()
+    {
+        return boundary;
+    }
+
+    public boolean isRetrograde()
+    {
+        return retrograde;
+    }
+
+    /**
+     * @return index in the LordsIndex of the prana division entered
+     */
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public Planet getSignLord()
+    {
+        return signLord;
+    }
+
+    /**
+     * Lords entered, down to the division searched.
+     *
+     * @return sign lord, star lord, sub lord...
+     */
+    public List<Planet> getLords()
+    {
+        LordsIndex lordsIndex = SupportCalcs.getLordsIndex();
+        List<Planet> rtnList = new ArrayList<>(division + 1);
+
+        rtnList.add(signLord);
+
+        for (int level = 0; level < division; level++)
+        {
+            rtnList.add(lordsIndex.getLord(index, level));
+        }
+
+        return rtnList;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TransitEvent{" + "graha=" + graha + ", division=" + division
+                + ", time=" + time + ", boundary=" + boundary
+                + ", retrograde=" + retrograde + ", lords=" + getLords() + '}';
+    }
+}
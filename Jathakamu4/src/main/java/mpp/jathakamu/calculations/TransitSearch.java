@@ -0,0 +1,368 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.ProfileSettings;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Finds when a graha enters the next sign, star, sub or sub-sub (or deeper)
+ * division of the lords table.
+ *
+ * Time is stepped a day or so at a time (a quarter day for the true node,
+ * which turns often), short enough that the graha turns at most once in a
+ * step. A step where the speed changes sign is split at the station, so
+ * every part moves one way and crosses each boundary between its ends
+ * exactly once; going back over a boundary after a station is reported as
+ * another, retrograde, crossing. Each crossing is bracketed by the previous
+ * crossing and the end of the step, and refined with Newton's method on the
+ * speed, falling back to bisection when a Newton step leaves the bracket.
+ *
+ * Longitudes are sidereal, the ayanamsa of the settings deducted. Positions
+ * are taken from SwissEph or, faster, from an InterpolatedEphemeris. An
+ * instance is not safe to use from more than one thread.
+ *
+ * The TransitCalculator of Swiss Ephemeris finds one crossing of one given
+ * longitude per call, which does not suit thousands of boundaries.
+ *
+ * @author Phani
+ */
+public final class TransitSearch
+{
+    public final static int SIGN = 0;
+    public final static int STAR = 1;
+    public final static int SUB = 2;
+    public final static int SUB_SUB = 3;
+    public final static int SOOKSHMA = 4;
+    public final static int PRANA = 5;
+
+    /* About 0.1 second */
+    private final static double TOLERANCE = 1E-6D;
+    private final static int MAX_ITERATIONS = 50;
+
+    /* Step in days by graha, at most one station in a step */
+    private final static double[] STEPS =
+    {
+        4, 1, 1, 1, 1, 4, 4, 4, 4, 4
+    };
+    private final static double NODE_STEP = 0.25D;
+    private final static double MEAN_NODE_STEP = 8D;
+
+    private final SwissEph swissEph;
+    private final int ephFlags;
+    private final InterpolatedEphemeris interpolated;
+    private final boolean trueNode;
+    private final double[] xx = new double[6];
+    private final StringBuffer serr = new StringBuffer();
+
+    /* Longitude and speed of the last compute */
+    private double longitude;
+    private double speed;
+
+    /**
+     * Search with Swiss Ephemeris. The sidereal mode of swissEph is set from
+     * the settings.
+     *
+     * @param swissEph instance to use, only from this search
+     * @param settings ayanamsa, ephemeris flags and node to use
+     */
+    public TransitSearch(SwissEph swissEph, ProfileSettings settings)
+    {
+        double[] ayan = settings.getAynamsa();
+
+        swissEph.swe_set_sid_mode(Double.valueOf(ayan[0]).intValue(), ayan[1], ayan[2]);
+
+        this.swissEph = swissEph;
+        this.ephFlags = (settings.getEphemerisFlags() & ~SweConst.SEFLG_SIDEREAL)
+                | SweConst.SEFLG_SPEED;
+        this.interpolated = null;
+        this.trueNode = settings.isTrueNode();
+    }
+
+    /**
+     * Search with the sidereal frame of an interpolated ephemeris.
+     *
+     * @param interpolated ephemeris covering the times searched
+     * @param trueNode true node for Rahu and Ketu, otherwise mean node
+     */
+    public TransitSearch(InterpolatedEphemeris interpolated, boolean trueNode)
+    {
+        this.swissEph = null;
+        this.ephFlags = 0;
+        this.interpolated = interpolated;
+        this.trueNode = trueNode;
+    }
+
+    /**
+     * All the crossings in a period.
+     *
+     * @param graha SweConst.SE_SUN to SweConst.SE_PLUTO, ChartPositions.RAHU
+     * or ChartPositions.KETU
+     * @param division SIGN, STAR, SUB, SUB_SUB, SOOKSHMA or PRANA
+     * @param startJd Julian day (UT) to start from
+     * @param endJd Julian day (UT) to end at
+     * @return crossings from startJd to endJd, in time order
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public List<TransitEvent> search(int graha, int division, double startJd, double endJd)
+            throws JathakamuException
+    {
+        List<TransitEvent> rtnList = new ArrayList<>();
+
+        search(graha, division, startJd, endJd, rtnList::add);
+
+        return rtnList;
+    }
+
+    /**
+     * Give the crossings in a period to a consumer as they are found.
+     *
+     * @param graha SweConst.SE_SUN to SweConst.SE_PLUTO, ChartPositions.RAHU
+     * or ChartPositions.KETU
+     * @param division SIGN, STAR, SUB, SUB_SUB, SOOKSHMA or PRANA
+     * @param startJd Julian day (UT) to start from
+     * @param endJd Julian day (UT) to end at
+     * @param consumer gets the crossings from startJd to endJd, in time
+     * order
+     * @throws JathakamuException if Swiss Ephemeris fails
+     */
+    public void search(int graha, int division, double startJd, double endJd,
+            Consumer<TransitEvent> consumer)
+            throws JathakamuException
+    {
+        if (graha < SweConst.SE_SUN || graha > ChartPositions.KETU)
+        {
+            throw new IllegalArgumentException("Unknown graha " + graha);
+        }
+
+        LordBoundaries boundaries = LordBoundaries.of(division);
+        double step = (graha < ChartPositions.RAHU) ? STEPS[graha]
+                : (trueNode) ? NODE_STEP : MEAN_NODE_STEP;
+
+        double t0 = startJd;
+        compute(graha, t0);
+        double p0 = longitude;
+        double s0 = speed;
+
+        while (t0 < endJd)
+        {
+            double t1 = Math.min(t0 + step, endJd);
+            compute(graha, t1);
+            double p1 = p0 + difference(longitude, p0);
+            double s1 = speed;
+
+            if ((s0 < 0) != (s1 < 0))
+            {
+                // Station within the step, split it where the speed is 0
+                double ts = station(graha, t0, s0, t1);
+                compute(graha, ts);
+                double ps = p0 + difference(longitude, p0);
+
+                crossings(graha, division, boundaries, t0, p0, ts, ps, consumer);
+                crossings(graha, division, boundaries, ts, ps, t1, p1, consumer);
+            }
+            else
+            {
+                crossings(graha, division, boundaries, t0, p0, t1, p1, consumer);
+            }
+
+            t0 = t1;
+            p0 = p1;
+            s0 = s1;
+        }
+    }
+
+    /*
+     * Crossings between two times where the graha moves only one way. p0 and
+     * p1 are unwrapped longitudes, a crossing forward is from below a
+     * boundary to at or above it, a crossing back the other way.
+     */
+    private void crossings(int graha, int division, LordBoundaries boundaries,
+            double t0, double p0, double t1, double p1, Consumer<TransitEvent> consumer)
+            throws JathakamuException
+    {
+        if (p0 == p1)
+        {
+            return;
+        }
+
+        boolean forward = p1 > p0;
+        // Whole turns, so boundary + offset is exact
+        double offset = 360D * Math.floor(p0 / 360D);
+        int n = boundaries.size();
+        int j = boundaries.above(p0 - offset);
+        double lo = t0;
+        double previous = p0;
+
+        if (!forward)
+        {
+            j--;
+        }
+
+        while (true)
+        {
+            if (j == n)
+            {
+                j = 0;
+                offset += 360D;
+            }
+            else if (j < 0)
+            {
+                j = n - 1;
+                offset -= 360D;
+            }
+
+            double boundary = boundaries.get(j) + offset;
+
+            if ((forward) ? boundary > p1 : boundary <= p1)
+            {
+                return;
+            }
+
+            double time = refine(graha, boundary, forward, lo, previous, t1, p1);
+
+            consumer.accept(new TransitEvent(graha, division, time,
+                    boundaries.get(j), !forward));
+
+            lo = time;
+            previous = boundary;
+            j = (forward) ? j + 1 : j - 1;
+        }
+    }
+
+    /*
+     * Time the graha is at the boundary, between lo (at p0) and hi (at p1).
+     */
+    private double refine(int graha, double boundary, boolean forward,
+            double lo, double p0, double hi, double p1)
+            throws JathakamuException
+    {
+        double t = lo + (hi - lo) * (boundary - p0) / (p1 - p0);
+
+        for (int i = 0; i < MAX_ITERATIONS; i++)
+        {
+            compute(graha, t);
+            double f = difference(longitude, boundary);
+
+            if (f == 0)
+            {
+                return t;
+            }
+
+            if ((f < 0) == forward)
+            {
+                lo = t;
+            }
+            else
+            {
+                hi = t;
+            }
+
+            double next = (speed != 0) ? t - f / speed : lo;
+
+            if (!(next > lo && next < hi))
+            {
+                next = (lo + hi) / 2;
+            }
+
+            if (Math.abs(next - t) < TOLERANCE)
+            {
+                return next;
+            }
+
+            t = next;
+        }
+
+        return t;
+    }
+
+    /*
+     * Time the speed is 0, between t0 (with speed s0) and t1 by bisection.
+     */
+    private double station(int graha, double t0, double s0, double t1)
+            throws JathakamuException
+    {
+        double lo = t0;
+        double hi = t1;
+
+        while (hi - lo > TOLERANCE)
+        {
+            double t = (lo + hi) / 2;
+            compute(graha, t);
+
+            if ((speed < 0) == (s0 < 0))
+            {
+                lo = t;
+            }
+            else
+            {
+                hi = t;
+            }
+        }
+
+        return (lo + hi) / 2;
+    }
+
+    /* Difference a - b of two longitudes, -180 to 180 */
+    static double difference(double a, double b)
+    {
+        double rtnValue = (a - b) % 360D;
+
+        if (rtnValue > 180D)
+        {
+            rtnValue -= 360D;
+        }
+        else if (rtnValue <= -180D)
+        {
+            rtnValue += 360D;
+        }
+
+        return rtnValue;
+    }
+
+    /*
+     * Sidereal longitude and speed of a graha in the longitude and speed
+     * fields.
+     */
+    private void compute(int graha, double tjd_ut)
+            throws JathakamuException
+    {
+        int body = graha;
+
+        if (graha >= ChartPositions.RAHU)
+        {
+            body = (trueNode) ? SweConst.SE_TRUE_NODE : SweConst.SE_MEAN_NODE;
+        }
+
+        if (interpolated != null)
+        {
+            interpolated.compute(body, InterpolatedEphemeris.SIDEREAL, tjd_ut, xx);
+            longitude = xx[0];
+        }
+        else
+        {
+            int rtnFlag = swissEph.swe_calc_ut(tjd_ut, body, ephFlags, xx, serr);
+
+            if (rtnFlag == SweConst.ERR)
+            {
+                throw new JathakamuException("Error Occured while computing "
+                        + swissEph.swe_get_planet_name(body) + "\n Error is " + serr);
+            }
+
+            longitude = SupportCalcs.degnorm(xx[0] - swissEph.swe_get_ayanamsa_ut(tjd_ut));
+        }
+
+        if (graha == ChartPositions.KETU)
+        {
+            longitude = SupportCalcs.degnorm(longitude + 180D);
+        }
+
+        speed = xx[3];
+    }
+}
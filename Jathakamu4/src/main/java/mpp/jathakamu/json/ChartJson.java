@@ -0,0 +1,271 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.json;
+
+import java.io.IOException;
+import java.util.List;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.calculations.DasaTimeline;
+import mpp.jathakamu.calculations.LordsIndex;
+import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.types.LazyVDNode;
+import mpp.jathakamu.types.VDNode;
+import mpp.jathakamu.types.ZodiacResolver;
+
+/**
+ * Streams charts and Vimshottari dasa periods as JSON to a JsonStreamWriter.
+ *
+ * Positions are written as
+ * {"ayanamsa":..,"grahas":[{"name":"Sun","longitude":..,"speed":..,
+ * "retrograde":false,"lords":["Mars","Ketu",..]},..],"cusps":[{"longitude":..,
+ * "lords":[..]},..]}, the lords being the sign, star, sub, sub-sub, sookshma
+ * and prana lords. A dasa period is
+ * {"planet":"Venus","start":..,"end":..,"periods":[..]}, times in
+ * milliseconds since epoch, periods being its sub periods in time order.
+ *
+ * Dasa periods are written to a depth (1 for maha dasas only, up to
+ * DasaTimeline.LEVELS) and only those overlapping the time between from
+ * (inclusive) and to (exclusive). Nothing is created per period written
+ * from a DasaTimeline, the nested periods are walked with one cursor per
+ * level over its columns.
+ *
+ * @author Phani
+ */
+public final class ChartJson
+{
+    private ChartJson()
+    {
+    }
+
+    /**
+     * @param out writer to write to
+     * @param positions positions of a chart
+     * @throws IOException if the writer fails
+     */
+    public static void writePositions(JsonStreamWriter out, ChartPositions positions)
+            throws IOException
+    {
+        out.beginObject();
+        out.name("ayanamsa").value(positions.getAyanamsa());
+        out.name("grahas").beginArray();
+
+        for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+        {
+            double longitude = positions.getLongitude(graha);
+
+            out.beginObject();
+            out.name("name").value(positions.getName(graha));
+            out.name("longitude").value(longitude);
+            out.name("speed").value(positions.getSpeed(graha));
+            out.name("retrograde").value(positions.isRetrograde(graha));
+            out.name("lords");
+            writeLords(out, longitude);
+            out.endObject();
+        }
+
+        out.endArray();
+        out.name("cusps").beginArray();
+
+        for (int house = 0; house < ChartPositions.HOUSES; house++)
+        {
+            double longitude = positions.getCusp(house);
+
+            out.beginObject();
+            out.name("longitude").value(longitude);
+            out.name("lords");
+            writeLords(out, longitude);
+            out.endObject();
+        }
+
+        out.endArray();
+        out.endObject();
+    }
+
+    /**
+     * Sign lord followed by the star, sub, sub-sub, sookshma and prana lords
+     * of a longitude, as an array of planet names.
+     *
+     * @param out writer to write to
+     * @param longitude longitude in degrees
+     * @throws IOException if the writer fails
+     */
+    public static void writeLords(JsonStreamWriter out, double longitude)
+            throws IOException
+    {
+        LordsIndex lordsIndex = SupportCalcs.getLordsIndex();
+        int index = lordsIndex.indexOf(longitude);
+
+        out.beginArray();
+        out.value(ZodiacResolver.getSignLord(longitude).getName());
+
+        if (index >= 0)
+        {
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                out.value(lordsIndex.getLord(index, level).getName());
+            }
+        }
+
+        out.endArray();
+    }
+
+    /**
+     * Dasa periods of a timeline as an array of maha dasas.
+     *
+     * @param out writer to write to
+     * @param timeline dasa timeline
+     * @param depth levels to write, 1 to DasaTimeline.LEVELS
+     * @param from periods ending on or before this time are left out
+     * @param to periods starting on or after this time are left out
+     * @throws IOException if the writer fails
+     */
+    public static void writeTimeline(JsonStreamWriter out, DasaTimeline timeline, int depth,
+            long from, long to)
+            throws IOException
+    {
+        int levels = checkDepth(depth);
+        int[] cursor = new int[levels];
+
+        for (int level = LazyVDNode.MAHA_DASA; level < levels; level++)
+        {
+            cursor[level] = firstEndingAfter(timeline, level, from);
+        }
+
+        out.beginArray();
+        writePeriods(out, timeline, cursor, LazyVDNode.MAHA_DASA, Long.MAX_VALUE, to);
+        out.endArray();
+    }
+
+    /*
+     * Periods of a level ending by parentEnd, that is the sub periods of the
+     * parent, from the cursor of the level. Sub periods split their parent
+     * exactly, so the cursor of each level only moves forward.
+     */
+    private static void writePeriods(JsonStreamWriter out, DasaTimeline timeline, int[] cursor,
+            int level, long parentEnd, long to)
+            throws IOException
+    {
+        int size = timeline.size(level);
+
+        for (; cursor[level] < size; cursor[level]++)
+        {
+            int index = cursor[level];
+            long start = timeline.getStart(level, index);
+            long end = timeline.getEnd(level, index);
+
+            if (end > parentEnd || start >= to)
+            {
+                return;
+            }
+
+            out.beginObject();
+            out.name("planet").value(timeline.getPlanet(level, index).getName());
+            out.name("start").value(start);
+            out.name("end").value(end);
+
+            if (level + 1 < cursor.length)
+            {
+                out.name("periods").beginArray();
+                writePeriods(out, timeline, cursor, level + 1, end, to);
+                out.endArray();
+            }
+
+            out.endObject();
+        }
+    }
+
+    private static int firstEndingAfter(DasaTimeline timeline, int level, long from)
+    {
+        int size = timeline.size(level);
+
+        if (size == 0 || from < timeline.getBegin(level))
+        {
+            return 0;
+        }
+
+        int index = timeline.indexAt(level, from);
+
+        return (index < 0) ? size : index;
+    }
+
+    /**
+     * Dasa periods of a VDNode tree (from SupportCalcs.getVDTree2) as an
+     * array of maha dasas. LazyVDNode children are created as the tree is
+     * walked, only down to the depth and within the time.
+     *
+     * @param out writer to write to
+     * @param root root node of the tree
+     * @param depth levels to write, 1 to DasaTimeline.LEVELS
+     * @param from periods ending on or before this time are left out
+     * @param to periods starting on or after this time are left out
+     * @throws IOException if the writer fails
+     */
+    public static void writeVDTree(JsonStreamWriter out, VDNode root, int depth, long from,
+            long to)
+            throws IOException
+    {
+        out.beginArray();
+        writeChildren(out, root, Long.MIN_VALUE, checkDepth(depth), from, to);
+        out.endArray();
+    }
+
+    private static void writeChildren(JsonStreamWriter out, VDNode parent, long parentStart,
+            int levels, long from, long to)
+            throws IOException
+    {
+        List<VDNode> children = parent.getChildren();
+        long start = parentStart;
+
+        for (VDNode child : children)
+        {
+            // The first maha dasa starts before the birth
+            if (child instanceof LazyVDNode)
+            {
+                start = ((LazyVDNode) child).getDasaStartPeriod();
+            }
+
+            long end = child.getDasaEndPeriod();
+
+            if (start >= to)
+            {
+                return;
+            }
+
+            if (end > from)
+            {
+                out.beginObject();
+                out.name("planet").value(child.getPlanet().getName());
+
+                if (start != Long.MIN_VALUE)
+                {
+                    out.name("start").value(start);
+                }
+
+                out.name("end").value(end);
+
+                if (levels > 1)
+                {
+                    out.name("periods").beginArray();
+                    writeChildren(out, child, start, levels - 1, from, to);
+                    out.endArray();
+                }
+
+                out.endObject();
+            }
+
+            start = end;
+        }
+    }
+
+    private static int checkDepth(int depth)
+    {
+        if (depth < 1 || depth > DasaTimeline.LEVELS)
+        {
+            throw new IllegalArgumentException("Depth should be 1 to " + DasaTimeline.LEVELS
+                    + ", not " + depth);
+        }
+
+        return depth;
+    }
+}
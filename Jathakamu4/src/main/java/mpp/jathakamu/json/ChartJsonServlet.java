@@ -0,0 +1,153 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.json;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.calculations.ChartCache;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.calculations.DasaTimeline;
+import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.types.Place;
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+/**
+ * Serves a chart with its Vimshottari dasa periods at /chart.json, written
+ * to the response as it is serialized:
+ * {"jd":..,"positions":{..},"dasa":[..]} in the format of ChartJson.
+ *
+ * Parameters are dateTime (local, yyyy-MM-ddTHH:mm[:ss]), timeZone,
+ * latitude and longitude of the birth, and optionally depth of the dasa
+ * periods (0 for none to 5, 3 if not given) and from and to (local date
+ * times in the same time zone) to write only the periods between them.
+ *
+ * @author Phani
+ */
+@WebServlet(name = "ChartJsonServlet", urlPatterns = "/chart.json")
+public class ChartJsonServlet
+    extends HttpServlet
+{
+    private static final long serialVersionUID = 1L;
+
+    private final static int DEFAULT_DEPTH = 3;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException
+    {
+        Profile profile;
+        ZoneId zone;
+        int depth;
+        long from;
+        long to;
+
+        try
+        {
+            String timeZone = required(request, "timeZone");
+            LocalDateTime dateTime = LocalDateTime.parse(required(request, "dateTime"));
+            double latitude = Double.parseDouble(required(request, "latitude"));
+            double longitude = Double.parseDouble(required(request, "longitude"));
+            String depthParam = request.getParameter("depth");
+
+            zone = ZoneId.of(timeZone);
+            depth = (depthParam == null) ? DEFAULT_DEPTH : Integer.parseInt(depthParam);
+            from = epochMillis(request.getParameter("from"), zone, Long.MIN_VALUE);
+            to = epochMillis(request.getParameter("to"), zone, Long.MAX_VALUE);
+
+            if (depth < 0 || depth > DasaTimeline.LEVELS)
+            {
+                throw new JathakamuException("depth should be 0 to " + DasaTimeline.LEVELS);
+            }
+
+            if (Math.abs(latitude) > 90D || Math.abs(longitude) > 180D)
+            {
+                throw new JathakamuException("Latitude " + latitude + " or longitude "
+                        + longitude + " out of range");
+            }
+
+            double tjd_ut = SupportCalcs.getJulianDay(dateTime.getYear(), dateTime.getMonthValue(),
+                    dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(),
+                    dateTime.getSecond() + dateTime.getNano() / 1E9D, timeZone, longitude);
+            Place place = new Place.PlaceBuilder().longitude(longitude).latitude(latitude)
+                    .timeZone(timeZone).build();
+
+            profile = new Profile(tjd_ut, place, ProfileSettings.DEFAULT);
+        }
+        catch (JathakamuException | DateTimeException | NumberFormatException ex)
+        {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, ex.getMessage());
+            return;
+        }
+
+        ChartPositions positions;
+
+        try
+        {
+            positions = ChartCache.getInstance().get(profile).getPositions();
+        }
+        catch (JathakamuException ex)
+        {
+            throw new ServletException(ex);
+        }
+
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        JsonStreamWriter out = new JsonStreamWriter(response.getOutputStream());
+
+        out.beginObject();
+        out.name("jd").value(profile.getDateTime());
+        out.name("positions");
+        ChartJson.writePositions(out, positions);
+
+        if (depth > 0)
+        {
+            // Birth time as the chart pages take it
+            long dob = SweDate.getDate(profile.getDateTime()).getTime();
+            // Only the levels written
+            DasaTimeline timeline = SupportCalcs.getDasaTimeline(dob,
+                    positions.getLongitude(SweConst.SE_MOON), profile, depth);
+
+            out.name("dasa");
+            ChartJson.writeTimeline(out, timeline, depth, from, to);
+        }
+
+        out.endObject();
+        out.flush();
+    }
+
+    private static String required(HttpServletRequest request, String name)
+            throws JathakamuException
+    {
+        String value = request.getParameter(name);
+
+        if (value == null || value.isEmpty())
+        {
+            throw new JathakamuException("Missing " + name);
+        }
+
+        return value;
+    }
+
+    private static long epochMillis(String dateTime, ZoneId zone, long absent)
+    {
+        if (dateTime == null || dateTime.isEmpty())
+        {
+            return absent;
+        }
+
+        return LocalDateTime.parse(dateTime).atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Writes JSON as UTF-8 straight to an OutputStream through a byte buffer of
+ * its own. Numbers and strings are encoded into the buffer without creating
+ * objects, so writing a large document allocates only when the nesting gets
+ * deeper than it has been before.
+ *
+ * Commas are put in by the writer; names are given before the value of each
+ * member. Doubles are written with up to DECIMALS decimal places (which is
+ * well below a second of arc for longitudes), NaN and infinities as null.
+ * The structure is not validated, a name outside an object gives bad JSON.
+ *
+ * Not thread safe, one writer per response.
+ *
+ * @author Phani
+ */
+public final class JsonStreamWriter
+    implements Closeable, Flushable
+{
+    public final static int DECIMALS = 7;
+
+    private final static long SCALE = 10_000_000L;
+    /* Larger doubles are written with Double.toString */
+    private final static double MAX_SCALED = Long.MAX_VALUE / SCALE;
+    private final static byte[] HEX = "0123456789abcdef".getBytes();
+    private final static byte[] NULL = "null".getBytes();
+    private final static byte[] TRUE = "true".getBytes();
+    private final static byte[] FALSE = "false".getBytes();
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private final byte[] digits = new byte[20];
+    private int count;
+
+    /* Whether a value has been written at each nesting level */
+    private boolean[] hasValue = new boolean[16];
+    private int depth;
+    private boolean afterName;
+
+    /**
+     * @param out stream to write to, closed with this writer
+     */
+    public JsonStreamWriter(OutputStream out)
+    {
+        this(out, 8192);
+    }
+
+    /**
+     * @param out stream to write to, closed with this writer
+     * @param bufferSize bytes kept before writing to the stream
+     */
+    public JsonStreamWriter(OutputStream out, int bufferSize)
+    {
+        if (bufferSize < 16)
+        {
+            throw new IllegalArgumentException("Buffer size should be at least 16, not " + bufferSize);
+        }
+
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    public JsonStreamWriter beginObject()
+            throws IOException
+    {
+        return open('{');
+    }
+
+    public JsonStreamWriter endObject()
+            throws IOException
+    {
+        return close('}');
+    }
+
+    public JsonStreamWriter beginArray()
+            throws IOException
+    {
+        return open('[');
+    }
+
+    public JsonStreamWriter endArray()
+            throws IOException
+    {
+        return close(']');
+    }
+
+    /**
+     * @param name name of the next member of the object
+     * @return this writer
+     * @throws IOException if the stream can not be written
+     */
+    public JsonStreamWriter name(String name)
+            throws IOException
+    {
+        separate();
+        string(name);
+        put(':');
+        afterName = true;
+
+        return this;
+    }
+
+    public JsonStreamWriter value(String value)
+            throws IOException
+    {
+        if (value == null)
+        {
+            return nullValue();
+        }
+
+        separate();
+        string(value);
+
+        return this;
+    }
+
+    public JsonStreamWriter value(long value)
+            throws IOException
+    {
+        separate();
+        number(value);
+
+        return this;
+    }
+
+    public JsonStreamWriter value(double value)
+            throws IOException
+    {
+        if (Double.isNaN(value) || Double.isInfinite(value))
+        {
+            return nullValue();
+        }
+
+        separate();
+
+        if (Math.abs(value) >= MAX_SCALED)
+        {
+            ascii(Double.toString(value));
+            return this;
+        }
+
+        long scaled = Math.round(Math.abs(value) * SCALE);
+
+        if (value < 0 && scaled != 0)
+        {
+            put('-');
+        }
+
+        number(scaled / SCALE);
+
+        long fraction = scaled % SCALE;
+
+        if (fraction != 0)
+        {
+            int places = DECIMALS;
+
+            while (fraction % 10 == 0)
+            {
+                fraction /= 10;
+                places--;
+            }
+
+            put('.');
+
+            for (long pad = fraction * 10; pad < pow10(places); pad *= 10)
+            {
+                put('0');
+            }
+
+            number(fraction);
+        }
+
+        return this;
+    }
+
+    public JsonStreamWriter value(boolean value)
+            throws IOException
+    {
+        separate();
+        bytes(value ? TRUE : FALSE);
+
+        return this;
+    }
+
+    public JsonStreamWriter nullValue()
+            throws IOException
+    {
+        separate();
+        bytes(NULL);
+
+        return this;
+    }
+
+    /**
+     * Write the buffer to the stream and flush the stream, so a client
+     * reading a chunked response gets what is written so far.
+     *
+     * @throws IOException if the stream can not be written
+     */
+    @Override
+    public void flush()
+            throws IOException
+    {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try
+        {
+            drain();
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    private JsonStreamWriter open(char c)
+            throws IOException
+    {
+        separate();
+        put(c);
+
+        if (++depth == hasValue.length)
+        {
+            hasValue = Arrays.copyOf(hasValue, depth * 2);
+        }
+
+        hasValue[depth] = false;
+
+        return this;
+    }
+
+    private JsonStreamWriter close(char c)
+            throws IOException
+    {
+        if (depth == 0)
+        {
+            throw new IllegalStateException("Nothing to close with " + c);
+        }
+
+        depth--;
+        put(c);
+
+        return this;
+    }
+
+    /* Comma before all but the first value of an array or object */
+    private void separate()
+            throws IOException
+    {
+        if (afterName)
+        {
+            afterName = false;
+            return;
+        }
+
+        if (hasValue[depth])
+        {
+            put(',');
+        }
+
+        hasValue[depth] = true;
+    }
+
+    private void number(long value)
+            throws IOException
+    {
+        if (value == Long.MIN_VALUE)
+        {
+            ascii(Long.toString(value));
+            return;
+        }
+
+        if (value < 0)
+        {
+            put('-');
+            value = -value;
+        }
+
+        int pos = digits.length;
+
+        do
+        {
+            digits[--pos] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        while (value != 0);
+
+        while (pos < digits.length)
+        {
+            put(digits[pos++]);
+        }
+    }
+
+    private static long pow10(int places)
+    {
+        long rtnValue = 1;
+
+        for (int i = 0; i < places; i++)
+        {
+            rtnValue *= 10;
+        }
+
+        return rtnValue;
+    }
+
+    private void string(String value)
+            throws IOException
+    {
+        put('"');
+
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\')
+            {
+                put('\\');
+                put(c);
+            }
+            else if (c < 0x20)
+            {
+                put('\\');
+                put('u');
+                put('0');
+                put('0');
+                put(HEX[c >> 4]);
+                put(HEX[c & 0xF]);
+            }
+            else if (c < 0x80)
+            {
+                put(c);
+            }
+            else if (c < 0x800)
+            {
+                put(0xC0 | (c >> 6));
+                put(0x80 | (c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+
+                put(0xF0 | (codePoint >> 18));
+                put(0x80 | ((codePoint >> 12) & 0x3F));
+                put(0x80 | ((codePoint >> 6) & 0x3F));
+                put(0x80 | (codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c))
+            {
+                // Unpaired surrogate
+                put('?');
+            }
+            else
+            {
+                put(0xE0 | (c >> 12));
+                put(0x80 | ((c >> 6) & 0x3F));
+                put(0x80 | (c & 0x3F));
+            }
+        }
+
+        put('"');
+    }
+
+    private void ascii(String value)
+            throws IOException
+    {
+        for (int i = 0; i < value.length(); i++)
+        {
+            put(value.charAt(i));
+        }
+    }
+
+    private void bytes(byte[] value)
+            throws IOException
+    {
+        for (byte b : value)
+        {
+            put(b);
+        }
+    }
+
+    private void put(int b)
+            throws IOException
+    {
+        if (count == buffer.length)
+        {
+            drain();
+        }
+
+        buffer[count++] = (byte) b;
+    }
+
+    private void drain()
+            throws IOException
+    {
+        if (count > 0)
+        {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+/**
+ * JMX view of a counter or gauge.
+ *
+ * @author Phani
+ */
+public interface GaugeMXBean
+{
+    long getValue();
+}
@@ -0,0 +1,153 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds, recorded from any number of
+ * threads without locks.
+ *
+ * Like HdrHistogram the buckets are linear below 128 and above that each
+ * power of 2 is split in 64 buckets, so a percentile is within 1/64 (1.6%)
+ * of the recorded value, from a nanosecond to centuries, in 3776 counters.
+ * Recording is an index computation and an atomic increment; percentiles
+ * are found by walking the counters when they are read.
+ *
+ * @author Phani
+ */
+public final class LatencyHistogram
+{
+    private final static int SUB_BITS = 7;
+    private final static int SUB_COUNT = 1 << SUB_BITS;
+    private final static int HALF = SUB_COUNT >> 1;
+    private final static int BUCKETS = SUB_COUNT + (Long.SIZE - SUB_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos latency to record, negative values are taken as 0
+     */
+    public void record(long nanos)
+    {
+        long value = Math.max(nanos, 0L);
+
+        counts.incrementAndGet(index(value));
+        sum.add(value);
+
+        long current = max.get();
+
+        while (value > current && !max.compareAndSet(current, value))
+        {
+            current = max.get();
+        }
+    }
+
+    /* Bucket of a value, the top 7 bits of it above 127 */
+    static int index(long value)
+    {
+        if (value < SUB_COUNT)
+        {
+            return (int) value;
+        }
+
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BITS;
+
+        return SUB_COUNT + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    /* Highest value that goes in a bucket */
+    static long highestValue(int index)
+    {
+        if (index < SUB_COUNT)
+        {
+            return index;
+        }
+
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long sub = (index - SUB_COUNT) % HALF + HALF;
+
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /**
+     * @return values recorded
+     */
+    public long getCount()
+    {
+        long rtnValue = 0;
+
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            rtnValue += counts.get(i);
+        }
+
+        return rtnValue;
+    }
+
+    /**
+     * @return sum of the values recorded, nanoseconds
+     */
+    public long getSum()
+    {
+        return sum.sum();
+    }
+
+    /**
+     * @return highest value recorded, nanoseconds
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return value at or below which the percentile of the values are,
+     * nanoseconds; 0 when nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long total = getCount();
+
+        if (total == 0)
+        {
+            return 0L;
+        }
+
+        long rank = Math.max((long) Math.ceil(percentile / 100D * total), 1L);
+        long seen = 0;
+
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts.get(i);
+
+            if (seen >= rank)
+            {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Forget the values recorded. Values recorded at the same time may be
+     * partly kept.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts.set(i, 0L);
+        }
+
+        sum.reset();
+        max.set(0L);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Timers, counters and gauges of the chart computation, by name (like
+ * ephemeris.planets). Each one is registered as an MXBean named
+ * mpp.jathakamu:type=Timer|Gauge,name=... when it is created, and all are
+ * written in the Prometheus text format by writeText, which MetricsServlet
+ * serves at /metrics.
+ *
+ * Timers and counters are kept in static finals of the classes they
+ * measure, so looking them up is not on the hot path. Setting the system
+ * property ENABLED_PROPERTY to false turns the timers off.
+ *
+ * @author Phani
+ */
+public final class Metrics
+{
+    public final static String ENABLED_PROPERTY = "mpp.jathakamu.metrics";
+    public final static boolean ENABLED = !"false".equalsIgnoreCase(
+            System.getProperty(ENABLED_PROPERTY));
+
+    private final static String DOMAIN = "mpp.jathakamu";
+    private final static String PREFIX = "jathakamu_";
+    private final static double NANOS_PER_SECOND = 1E9D;
+    private final static double[] QUANTILES =
+    {
+        0.5D, 0.9D, 0.99D, 0.999D
+    };
+
+    private final static ConcurrentMap<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+    private final static ConcurrentMap<String, LongAdder> COUNTERS = new ConcurrentSkipListMap<>();
+    private final static ConcurrentMap<String, Gauge> GAUGES = new ConcurrentSkipListMap<>();
+
+    private Metrics()
+    {
+    }
+
+    /* Counter or gauge, read when it is scraped */
+    private static final class Gauge
+        implements GaugeMXBean
+    {
+        private final LongSupplier supplier;
+        private final boolean counter;
+
+        private Gauge(LongSupplier supplier, boolean counter)
+        {
+            this.supplier = supplier;
+            this.counter = counter;
+        }
+
+        @Override
+        public long getValue()
+        {
+            return supplier.getAsLong();
+        }
+    }
+
+    /**
+     * @param name name of the stage, like ephemeris.planets
+     * @return timer of the name, created on the first call
+     */
+    public static Timer timer(String name)
+    {
+        return TIMERS.computeIfAbsent(name, key -> register(new Timer(key), "Timer", key));
+    }
+
+    /**
+     * @param name name of what is counted, like swisseph.created
+     * @return counter of the name, created on the first call
+     */
+    public static LongAdder counter(String name)
+    {
+        return COUNTERS.computeIfAbsent(name, key ->
+        {
+            LongAdder adder = new LongAdder();
+
+            GAUGES.put(key, register(new Gauge(adder::sum, true), "Gauge", key));
+            return adder;
+        });
+    }
+
+    /**
+     * Publish a value kept elsewhere, like the hits of a cache. A gauge of
+     * the same name is replaced.
+     *
+     * @param name name of the value, like chartcache.hits
+     * @param supplier gives the value when it is read
+     */
+    public static void gauge(String name, LongSupplier supplier)
+    {
+        GAUGES.put(name, register(new Gauge(supplier, false), "Gauge", name));
+    }
+
+    private static <T> T register(T bean, String type, String name)
+    {
+        try
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+
+            // Left by an earlier deployment of the application
+            if (server.isRegistered(objectName))
+            {
+                server.unregisterMBean(objectName);
+            }
+
+            server.registerMBean(bean, objectName);
+        }
+        catch (JMException | SecurityException ex)
+        {
+            LOGGER.log(Level.WARNING, "Could not register " + name + " with JMX", ex);
+        }
+
+        return bean;
+    }
+
+    /**
+     * Write all the metrics in the Prometheus text format. Timers are
+     * summaries in seconds with the 0.5, 0.9, 0.99 and 0.999 quantiles and
+     * a _max gauge, counters get _total.
+     *
+     * @param out where to write
+     * @throws IOException if out can not be written
+     */
+    public static void writeText(Appendable out)
+            throws IOException
+    {
+        for (Timer timer : TIMERS.values())
+        {
+            LatencyHistogram histogram = timer.getHistogram();
+            String name = PREFIX + timer.getName().replace('.', '_') + "_seconds";
+
+            out.append("# TYPE ").append(name).append(" summary\n");
+
+            for (double quantile : QUANTILES)
+            {
+                out.append(name).append("{quantile=\"").append(Double.toString(quantile))
+                        .append("\"} ")
+                        .append(seconds(histogram.getValueAtPercentile(quantile * 100D)))
+                        .append('\n');
+            }
+
+            out.append(name).append("_sum ").append(seconds(histogram.getSum())).append('\n');
+            out.append(name).append("_count ").append(Long.toString(histogram.getCount()))
+                    .append('\n');
+            out.append("# TYPE ").append(name).append("_max gauge\n");
+            out.append(name).append("_max ").append(seconds(histogram.getMax())).append('\n');
+        }
+
+        for (Map.Entry<String, Gauge> entry : GAUGES.entrySet())
+        {
+            Gauge gauge = entry.getValue();
+            String name = PREFIX + entry.getKey().replace('.', '_')
+                    + ((gauge.counter) ? "_total" : "");
+
+            out.append("# TYPE ").append(name).append((gauge.counter) ? " counter\n" : " gauge\n");
+            out.append(name).append(' ').append(Long.toString(gauge.getValue())).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos)
+    {
+        return Double.toString(nanos / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the metrics at /metrics in the Prometheus text format, for a
+ * scraper to chart the latency of each stage.
+ *
+ * @author Phani
+ */
+@WebServlet(name = "MetricsServlet", urlPatterns = "/metrics")
+public class MetricsServlet
+    extends HttpServlet
+{
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException
+    {
+        response.setContentType("text/plain; version=0.0.4");
+        response.setCharacterEncoding("UTF-8");
+
+        PrintWriter out = response.getWriter();
+
+        Metrics.writeText(out);
+        out.flush();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+/**
+ * Times a stage of the chart computation:
+ *
+ * long start = Timer.start();
+ * ...
+ * TIMER.stop(start);
+ *
+ * Nothing is allocated, and nothing is done at all when the metrics are
+ * turned off with Metrics.ENABLED_PROPERTY.
+ *
+ * @author Phani
+ */
+public final class Timer
+    implements TimerMXBean
+{
+    private final static double NANOS_PER_MILLI = 1E6D;
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    Timer(String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * @return start time to give to stop
+     */
+    public static long start()
+    {
+        return (Metrics.ENABLED) ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Record the time from start to now.
+     *
+     * @param start value of Timer.start at the start of the stage
+     */
+    public void stop(long start)
+    {
+        if (Metrics.ENABLED)
+        {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public LatencyHistogram getHistogram()
+    {
+        return histogram;
+    }
+
+    @Override
+    public long getCount()
+    {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getMeanMillis()
+    {
+        long count = histogram.getCount();
+
+        return (count == 0) ? 0D : histogram.getSum() / NANOS_PER_MILLI / count;
+    }
+
+    @Override
+    public double getP50Millis()
+    {
+        return histogram.getValueAtPercentile(50D) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP90Millis()
+    {
+        return histogram.getValueAtPercentile(90D) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis()
+    {
+        return histogram.getValueAtPercentile(99D) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP999Millis()
+    {
+        return histogram.getValueAtPercentile(99.9D) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis()
+    {
+        return histogram.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void reset()
+    {
+        histogram.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Timer{" + "name=" + name + ", count=" + getCount() + ", p50=" + getP50Millis()
+                + "ms, p99=" + getP99Millis() + "ms, max=" + getMaxMillis() + "ms}";
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+/**
+ * JMX view of a Timer, times in milliseconds.
+ *
+ * @author Phani
+ */
+public interface TimerMXBean
+{
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,419 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.push;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import javax.servlet.ServletOutputStream;
+import mpp.jathakamu.beans.TransitSnapshot;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.calculations.LordsIndex;
+import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.json.JsonStreamWriter;
+import mpp.jathakamu.types.ZodiacResolver;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Live transit at the place of the astrologer as Server-Sent Events, fed by
+ * the snapshots of TransitSnapshotService, so the stream and the chart pages
+ * show the same transit.
+ *
+ * Each published snapshot is compared on the producer thread with the last
+ * one: the sign, star and sub of each graha and cusp. When any has crossed a
+ * boundary one delta event is encoded and the same bytes are queued to every
+ * subscriber:
+ *
+ * <pre>
+ * event: delta
+ * data: {"time":..,"changes":[{"name":"Moon","level":"sub","lords":["Mars","Ketu","Venus"]}]}
+ * </pre>
+ *
+ * level is the largest of sign, star and sub that changed and lords are the
+ * new sign, star and sub lords. A new subscriber, and one whose buffer filled
+ * up, first gets a snapshot event with the lords of all the grahas and
+ * cusps, {"time":..,"entities":[{"name":..,"lords":[..]},..]}. A comment is
+ * sent with a snapshot that changed nothing when nothing was sent for
+ * HEARTBEAT_MILLIS, so closed connections are found.
+ *
+ * The same frames go to every subscriber, so the cost of an event is one
+ * comparison and one encoding whatever the number of subscribers. They are
+ * written by a few shared writer threads with the non-blocking output of
+ * Servlet 3.1 (see TransitSubscriber), so a client that stops reading does
+ * not hold up the others. The hub is made and shut down with the
+ * application by TransitStreamListener.
+ *
+ * @author Phani
+ */
+public final class TransitEventHub
+{
+    public final static int BUFFER_SIZE = 16;
+    public final static long HEARTBEAT_MILLIS = 30000L;
+
+    private final static int ENTITIES = ChartPositions.GRAHAS + ChartPositions.HOUSES;
+    private final static String[] LEVELS = {"sign", "star", "sub"};
+    private final static byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final Set<TransitSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService producer;
+    private final ExecutorService writers;
+
+    private final LongAdder events = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    /* Producer thread only */
+    private int[][] lastState;
+    private byte[] snapshotFrame;
+    private long lastFrameTime;
+
+    private static final class DaemonFactory
+        implements ThreadFactory
+    {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private DaemonFactory(String prefix)
+        {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, prefix + "-" + count.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+
+    /**
+     * @param writerThreads threads writing the frames to the subscribers
+     */
+    public TransitEventHub(int writerThreads)
+    {
+        this.producer = Executors.newSingleThreadExecutor(new DaemonFactory("transit-producer"));
+        this.writers = Executors.newFixedThreadPool(writerThreads, new DaemonFactory("transit-writer"));
+    }
+
+    /**
+     * Open a stream. The snapshot is sent to it right away, or with the
+     * first published snapshot. The subscriber is set as the write listener
+     * of the stream, so the request should be in async mode.
+     *
+     * @param out stream of the client
+     * @param onClose called once when the stream is closed, by the client
+     * going away or by close
+     * @return the subscriber, to close the stream
+     */
+    public TransitSubscriber subscribe(ServletOutputStream out, Runnable onClose)
+    {
+        TransitSubscriber subscriber = new TransitSubscriber(out, () ->
+        {
+            unsubscribe(null);
+            onClose.run();
+        }, BUFFER_SIZE, writers);
+
+        out.setWriteListener(subscriber);
+        subscribers.add(subscriber);
+        producer.execute(this::sendSnapshots);
+
+        return subscriber;
+    }
+
+    /**
+     * Stop sending to a stream, for example when the container has closed
+     * it.
+     *
+     * @param subscriber from subscribe, null to drop those already closed
+     */
+    public void unsubscribe(TransitSubscriber subscriber)
+    {
+        if (subscriber != null)
+        {
+            subscribers.remove(subscriber);
+        }
+
+        subscribers.removeIf(TransitSubscriber::isClosed);
+    }
+
+    /**
+     * Send what changed since the last snapshot, in the producer thread. A
+     * listener of TransitSnapshotService.
+     *
+     * @param snapshot published transit
+     */
+    public void publish(TransitSnapshot snapshot)
+    {
+        try
+        {
+            producer.execute(() -> update(snapshot));
+        }
+        catch (RejectedExecutionException ex)
+        {
+            LOGGER.log(Level.FINE, "Transit stream shut down", ex);
+        }
+    }
+
+    /**
+     * Stop sending and close every stream, when the application is
+     * undeployed.
+     */
+    public void shutdown()
+    {
+        producer.shutdownNow();
+
+        for (TransitSubscriber subscriber : subscribers)
+        {
+            subscriber.close();
+        }
+
+        writers.shutdown();
+    }
+
+    /*
+     * Snapshot to the subscribers which need one, if there is one yet. Runs
+     * on the producer thread.
+     */
+    private void sendSnapshots()
+    {
+        if (snapshotFrame == null)
+        {
+            return;
+        }
+
+        for (TransitSubscriber subscriber : subscribers)
+        {
+            if (subscriber.needsSnapshot && subscriber.offer(snapshotFrame))
+            {
+                subscriber.needsSnapshot = false;
+            }
+        }
+    }
+
+    /**
+     * Compare a snapshot with the last one and send what changed. Runs on
+     * the producer thread.
+     *
+     * @param snapshot published transit
+     */
+    void update(TransitSnapshot snapshot)
+    {
+        long now = snapshot.getTransitTime();
+        int[][] state = new int[ENTITIES][];
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            state[i] = boundaries(snapshot.getLongitude(i));
+        }
+
+        byte[] deltaFrame = (lastState == null) ? null : deltaFrame(snapshot, state, lastState);
+
+        if (deltaFrame != null || lastState == null)
+        {
+            snapshotFrame = snapshotFrame(snapshot);
+        }
+
+        lastState = state;
+
+        if (deltaFrame == null && now - lastFrameTime >= HEARTBEAT_MILLIS)
+        {
+            deltaFrame = HEARTBEAT;
+        }
+
+        if (deltaFrame != HEARTBEAT && deltaFrame != null)
+        {
+            events.increment();
+        }
+
+        for (TransitSubscriber subscriber : subscribers)
+        {
+            if (subscriber.needsSnapshot)
+            {
+                subscriber.needsSnapshot = !subscriber.offer(snapshotFrame);
+            }
+            else if (deltaFrame != null && !subscriber.offer(deltaFrame))
+            {
+                // Too slow, what it has queued is stale; catch up with a snapshot
+                resyncs.increment();
+                subscriber.clear();
+                subscriber.needsSnapshot = !subscriber.offer(snapshotFrame);
+            }
+        }
+
+        if (deltaFrame != null)
+        {
+            lastFrameTime = now;
+        }
+    }
+
+    /*
+     * update on the producer thread, waiting for it, so a test can use the
+     * hub with the producer fields safely
+     */
+    void updateAndWait(TransitSnapshot snapshot)
+            throws InterruptedException, ExecutionException
+    {
+        producer.submit(() -> update(snapshot)).get();
+    }
+
+    /* Sign, star and sub of a longitude */
+    private static int[] boundaries(double longitude)
+    {
+        LordsIndex lordsIndex = SupportCalcs.getLordsIndex();
+        int index = lordsIndex.indexOf(longitude);
+
+        return new int[]
+        {
+            ZodiacResolver.getSignIndex(longitude), ZodiacResolver.getStarIndex(longitude),
+            (index < 0) ? -1 : lordsIndex.getLordOrdinal(index, LordsIndex.SUB_LORD)
+        };
+    }
+
+    private static byte[] deltaFrame(TransitSnapshot snapshot, int[][] state, int[][] lastState)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        boolean changed = false;
+
+        try (JsonStreamWriter out = frame(bytes, "delta"))
+        {
+            out.beginObject();
+            out.name("time").value(snapshot.getTransitTime());
+            out.name("changes").beginArray();
+
+            for (int i = 0; i < ENTITIES; i++)
+            {
+                int level = -1;
+
+                for (int j = 0; j < LEVELS.length && level < 0; j++)
+                {
+                    if (state[i][j] != lastState[i][j])
+                    {
+                        level = j;
+                    }
+                }
+
+                if (level >= 0)
+                {
+                    changed = true;
+                    out.beginObject();
+                    out.name("name").value(snapshot.getName(i));
+                    out.name("level").value(LEVELS[level]);
+                    out.name("lords");
+                    lords(out, snapshot.getLongitude(i));
+                    out.endObject();
+                }
+            }
+
+            out.endArray();
+            out.endObject();
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        return changed ? end(bytes) : null;
+    }
+
+    private static byte[] snapshotFrame(TransitSnapshot snapshot)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+
+        try (JsonStreamWriter out = frame(bytes, "snapshot"))
+        {
+            out.beginObject();
+            out.name("time").value(snapshot.getTransitTime());
+            out.name("entities").beginArray();
+
+            for (int i = 0; i < ENTITIES; i++)
+            {
+                out.beginObject();
+                out.name("name").value(snapshot.getName(i));
+                out.name("lords");
+                lords(out, snapshot.getLongitude(i));
+                out.endObject();
+            }
+
+            out.endArray();
+            out.endObject();
+        }
+        catch (IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+
+        return end(bytes);
+    }
+
+    private static JsonStreamWriter frame(ByteArrayOutputStream bytes, String event)
+    {
+        byte[] header = ("event: " + event + "\ndata: ").getBytes(StandardCharsets.US_ASCII);
+
+        bytes.write(header, 0, header.length);
+
+        return new JsonStreamWriter(bytes, 512);
+    }
+
+    private static byte[] end(ByteArrayOutputStream bytes)
+    {
+        bytes.write('\n');
+        bytes.write('\n');
+
+        return bytes.toByteArray();
+    }
+
+    private static void lords(JsonStreamWriter out, double longitude)
+            throws IOException
+    {
+        LordsIndex lordsIndex = SupportCalcs.getLordsIndex();
+        int index = lordsIndex.indexOf(longitude);
+
+        out.beginArray();
+        out.value(ZodiacResolver.getSignLord(longitude).getName());
+        out.value(ZodiacResolver.getStarLord(longitude).getName());
+
+        if (index >= 0)
+        {
+            out.value(lordsIndex.getLord(index, LordsIndex.SUB_LORD).getName());
+        }
+
+        out.endArray();
+    }
+
+    public long getSubscriberCount()
+    {
+        return subscribers.size();
+    }
+
+    public long getEventCount()
+    {
+        return events.sum();
+    }
+
+    public long getResyncCount()
+    {
+        return resyncs.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TransitEventHub{" + "subscribers=" + getSubscriberCount() + ", events="
+                + getEventCount() + ", resyncs=" + getResyncCount() + '}';
+    }
+}
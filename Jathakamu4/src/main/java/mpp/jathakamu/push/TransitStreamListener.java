@@ -0,0 +1,64 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.push;
+
+import java.util.function.Consumer;
+import javax.inject.Inject;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import mpp.jathakamu.beans.TransitSnapshot;
+import mpp.jathakamu.beans.TransitSnapshotService;
+import mpp.jathakamu.metrics.Metrics;
+
+/**
+ * Makes the TransitEventHub of the application, fed by the snapshots of
+ * TransitSnapshotService, and shuts it down with the application so its
+ * threads do not keep the classes of an undeployed application. The hub is
+ * kept as the context attribute HUB_ATTRIBUTE for TransitStreamServlet.
+ *
+ * @author Phani
+ */
+@WebListener
+public class TransitStreamListener
+    implements ServletContextListener
+{
+    public final static String HUB_ATTRIBUTE = TransitEventHub.class.getName();
+
+    private final static int WRITER_THREADS = 2;
+
+    @Inject
+    private TransitSnapshotService transitSnapshots;
+
+    private TransitEventHub hub;
+    private Consumer<TransitSnapshot> feed;
+
+    @Override
+    public void contextInitialized(ServletContextEvent sce)
+    {
+        TransitEventHub newHub = new TransitEventHub(WRITER_THREADS);
+
+        Metrics.gauge("transit.stream.subscribers", newHub::getSubscriberCount);
+        Metrics.gauge("transit.stream.events", newHub::getEventCount);
+        Metrics.gauge("transit.stream.resyncs", newHub::getResyncCount);
+
+        hub = newHub;
+        feed = newHub::publish;
+        transitSnapshots.addListener(feed);
+        sce.getServletContext().setAttribute(HUB_ATTRIBUTE, newHub);
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent sce)
+    {
+        sce.getServletContext().removeAttribute(HUB_ATTRIBUTE);
+
+        if (hub != null)
+        {
+            transitSnapshots.removeListener(feed);
+            hub.shutdown();
+            hub = null;
+        }
+    }
+}
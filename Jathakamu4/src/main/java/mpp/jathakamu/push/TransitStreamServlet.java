@@ -0,0 +1,79 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.push;
+
+import java.io.IOException;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the live transit at /transit/stream as Server-Sent Events from
+ * the TransitEventHub of TransitStreamListener, for the chart pages to follow
+ * with an EventSource instead of reloading the transit chart.
+ *
+ * @author Phani
+ */
+@WebServlet(name = "TransitStreamServlet", urlPatterns = "/transit/stream", asyncSupported = true)
+public class TransitStreamServlet
+    extends HttpServlet
+{
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException
+    {
+        TransitEventHub hub = (TransitEventHub) getServletContext().getAttribute(
+                TransitStreamListener.HUB_ATTRIBUTE);
+
+        if (hub == null)
+        {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Transit stream not started");
+            return;
+        }
+
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+
+        AsyncContext async = request.startAsync();
+
+        // Open until the client goes away
+        async.setTimeout(0);
+
+        final TransitSubscriber subscriber = hub.subscribe(response.getOutputStream(), async::complete);
+
+        async.addListener(new AsyncListener()
+        {
+            @Override
+            public void onComplete(AsyncEvent event)
+            {
+                hub.unsubscribe(subscriber);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event)
+            {
+                subscriber.close();
+            }
+
+            @Override
+            public void onError(AsyncEvent event)
+            {
+                subscriber.close();
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event)
+            {
+            }
+        });
+    }
+}
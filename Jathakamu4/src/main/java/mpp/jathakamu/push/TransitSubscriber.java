@@ -0,0 +1,162 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.push;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * One open stream of TransitEventHub. Frames are queued up to the buffer
+ * size and written with the non-blocking output of Servlet 3.1: only while
+ * the stream is ready, and when it is not the writing stops and resumes from
+ * onWritePossible once the client has read. So a client that stops reading
+ * holds no thread; it only fills its buffer, loses the queued frames and
+ * gets a fresh snapshot instead (see TransitEventHub).
+ *
+ * @author Phani
+ */
+public final class TransitSubscriber
+    implements WriteListener
+{
+    private final ServletOutputStream out;
+    private final Runnable onClose;
+    private final BlockingQueue<byte[]> frames;
+    private final Executor writers;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /* Guarded by this, written frames not flushed yet */
+    private boolean unflushed;
+
+    /* Producer thread only */
+    boolean needsSnapshot = true;
+
+    TransitSubscriber(ServletOutputStream out, Runnable onClose, int bufferSize, Executor writers)
+    {
+        this.out = out;
+        this.onClose = onClose;
+        this.frames = new ArrayBlockingQueue<>(bufferSize);
+        this.writers = writers;
+    }
+
+    /**
+     * Queue a frame for writing.
+     *
+     * @param frame bytes to write, shared with the other subscribers
+     * @return false if the buffer is full, nothing is queued then
+     */
+    boolean offer(byte[] frame)
+    {
+        if (closed.get() || !frames.offer(frame))
+        {
+            return false;
+        }
+
+        if (scheduled.compareAndSet(false, true))
+        {
+            writers.execute(() ->
+            {
+                // Frames queued from now on schedule another write
+                scheduled.set(false);
+                drain();
+            });
+        }
+
+        return true;
+    }
+
+    /**
+     * Drop the frames not written yet.
+     */
+    void clear()
+    {
+        frames.clear();
+    }
+
+    boolean isClosed()
+    {
+        return closed.get();
+    }
+
+    /**
+     * Stop writing and tell the container, for example when the client
+     * has gone away.
+     */
+    public void close()
+    {
+        if (closed.compareAndSet(false, true))
+        {
+            frames.clear();
+
+            try
+            {
+                onClose.run();
+            }
+            catch (RuntimeException ex)
+            {
+                LOGGER.log(Level.FINE, "Transit stream not closed cleanly", ex);
+            }
+        }
+    }
+
+    /**
+     * The client has read what was written, write the rest.
+     */
+    @Override
+    public void onWritePossible()
+    {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t)
+    {
+        LOGGER.log(Level.FINE, "Transit stream closed", t);
+        close();
+    }
+
+    /*
+     * Write the queued frames while the stream is ready. When it is not the
+     * container calls onWritePossible later, nothing here waits for the
+     * client, so holding the lock is short.
+     */
+    private synchronized void drain()
+    {
+        try
+        {
+            while (!closed.get() && out.isReady())
+            {
+                byte[] frame = frames.poll();
+
+                if (frame != null)
+                {
+                    out.write(frame);
+                    unflushed = true;
+                }
+                else if (unflushed)
+                {
+                    out.flush();
+                    unflushed = false;
+                }
+                else
+                {
+                    return;
+                }
+            }
+        }
+        catch (IOException | RuntimeException ex)
+        {
+            LOGGER.log(Level.FINE, "Transit stream closed", ex);
+            close();
+        }
+    }
+}
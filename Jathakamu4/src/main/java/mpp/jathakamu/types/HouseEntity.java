@@ -196,9 +196,8 @@ public class HouseEntity
 
     private void initialize()
     {
-        // Get Raasi for the cusp/planet
-        // subtracting -1 because the first Raasi in Enum is None.
-        occupiedHouse = Raasi.getRaasi(position).ordinal()-1;
+        // Get Raasi for the cusp/planet, 0 for Aries
+        occupiedHouse = ZodiacResolver.getSignIndex(position);
         
         info = cuspOrPlanet + "\n" + info;
     }
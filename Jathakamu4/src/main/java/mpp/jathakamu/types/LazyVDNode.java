@@ -0,0 +1,147 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.types;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Vimshottari dasa node which creates its children only when they are asked
+ * for. The children are computed from the start, end and planet of this node:
+ * the period is divided among the 9 dasa planets, starting with the planet of
+ * this node, in proportion to their dasa years.
+ *
+ * Children ending on or before {@code notBefore} (the birth time) are left
+ * out, so the running dasa at birth starts with the running sub period, same
+ * as the fully built tree.
+ *
+ * When caching is on the children are held through a SoftReference and
+ * computed again if the garbage collector clears them.
+ *
+ * @author Phani
+ */
+public class LazyVDNode
+    extends VDNode
+{
+    private static final long serialVersionUID = 1L;
+
+    public final static int MAHA_DASA = 0;
+    public final static int BHUKTHI = 1;
+    public final static int PRATYANTARA = 2;
+    public final static int SOOKSHMA = 3;
+    public final static int PRANA = 4;
+
+    private final long dasaStartPeriod;
+    private final long notBefore;
+    private final int level;
+    private final boolean cacheChildren;
+
+    private transient volatile SoftReference<List<VDNode>> cachedChildren = null;
+
+    /**
+     * @param planet dasa planet
+     * @param dasaStartPeriod start of the dasa in milliseconds, can be before
+     * notBefore for the running dasa
+     * @param dasaEndPeriod end of the dasa in milliseconds
+     * @param notBefore children ending on or before this time are left out
+     * @param level one of MAHA_DASA, BHUKTHI, PRATYANTARA, SOOKSHMA or PRANA
+     * @param cacheChildren true to keep the children once computed
+     */
+    public LazyVDNode(Planet planet, long dasaStartPeriod, long dasaEndPeriod,
+            long notBefore, int level, boolean cacheChildren)
+    {
+        super(planet, dasaEndPeriod);
+        this.dasaStartPeriod = dasaStartPeriod;
+        this.notBefore = notBefore;
+        this.level = level;
+        this.cacheChildren = cacheChildren;
+    }
+
+    public long getDasaStartPeriod()
+    {
+        return dasaStartPeriod;
+    }
+
+    public int getLevel()
+    {
+        return level;
+    }
+
+    @Override
+    public List<VDNode> getChildren()
+    {
+        if (level >= PRANA)
+        {
+            return new ArrayList<>();
+        }
+
+        SoftReference<List<VDNode>> ref = cachedChildren;
+        List<VDNode> children = (ref == null) ? null : ref.get();
+
+        if (children == null)
+        {
+            children = createChildren();
+
+            if (cacheChildren)
+            {
+                cachedChildren = new SoftReference<>(children);
+            }
+        }
+
+        return new ArrayList<>(children);
+    }
+
+    @Override
+    public boolean hasChild()
+    {
+        return level < PRANA;
+    }
+
+    @Override
+    public void add(VDNode child)
+    {
+        throw new UnsupportedOperationException("Children of LazyVDNode are computed");
+    }
+
+    @Override
+    public void add(Collection<VDNode> child)
+    {
+        throw new UnsupportedOperationException("Children of LazyVDNode are computed");
+    }
+
+    @Override
+    public void removeAllChildren()
+    {
+        cachedChildren = null;
+    }
+
+    private List<VDNode> createChildren()
+    {
+        Planet[] planets = Planet.getVDPlanetArray(getPlanet());
+        List<VDNode> children = new ArrayList<>(planets.length);
+        double duration = getDasaEndPeriod() - dasaStartPeriod;
+        double childEnd = dasaStartPeriod;
+        long childStart = dasaStartPeriod;
+
+        for (int i = 0; i < planets.length; i++)
+        {
+            childEnd += duration * planets[i].getDasaDuration() / 120D;
+
+            // Last child ends with this node, whatever the rounding
+            long end = (i == planets.length - 1) ? getDasaEndPeriod() : Math.round(childEnd);
+
+            if (end > notBefore)
+            {
+                children.add(new LazyVDNode(planets[i], childStart, end,
+                        notBefore, level + 1, cacheChildren));
+            }
+
+            childStart = end;
+        }
+
+        return children;
+    }
+}
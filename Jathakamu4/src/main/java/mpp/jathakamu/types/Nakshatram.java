@@ -5,11 +5,6 @@
 package mpp.jathakamu.types;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Stream;
 
 import static mpp.jathakamu.Constants.STAR_EXTENT_IN_MINUTES;
 
@@ -48,9 +43,6 @@ public enum Nakshatram implements Serializable
     UTTARA_BHADRA(PURVA_BHADRA.end),
     REVATHI(UTTARA_BHADRA.end);
 
-    private static Map<Range, Nakshatram> extents = null;
-    private static Set<Range> extentsKeySet = null;
-
     private int start = 0;
     private int end = 0;
 
@@ -77,43 +69,20 @@ public enum Nakshatram implements Serializable
         return ((double)end)/60D;
     }
 
-    public Range getExtent()
+    public DoubleRange getExtent()
     {
-        return new Range.Builder().values(start(), end()).build();
+        return new DoubleRange.Builder().values(start(), end()).build();
     }
 
-    public synchronized static Nakshatram getStar(double planetLongitude)
+    /**
+     * Star of the given longitude. Thread safe and lock free, see
+     * ZodiacResolver.
+     *
+     * @param planetLongitude longitude in degrees (0.0 to 360.0)
+     * @return Nakshatram of the longitude, NONE if not between 0 and 360
+     */
+    public static Nakshatram getStar(double planetLongitude)
     {
-        if (extents == null)
-        {
-            extents = new HashMap<>();
-
-            for (Nakshatram star : Nakshatram.values())
-            {
-                if (star.equals(NONE))
-                {
-                    continue;
-                }
-                extents.put(star.getExtent(), star);
-            }
-            extentsKeySet = extents.keySet();
-        }
-
-        Stream<Range> rtnRange = extentsKeySet.parallelStream()
-                .filter(range -> range.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
-                .limit(1);
-        
-        Optional<Range> keyRange = rtnRange.findFirst();
-        
-        if (!keyRange.isPresent())
-        {
-            return NONE;
-        }
-        
-        Range key = keyRange.get();
-        
-        Nakshatram star = extents.getOrDefault(key, NONE);
-
-        return star;
+        return ZodiacResolver.getNakshatram(planetLongitude);
     }
 }
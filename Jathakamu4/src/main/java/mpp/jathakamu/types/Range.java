@@ -4,12 +4,11 @@
 package mpp.jathakamu.types;
 
 import java.io.Serializable;
-import java.util.Comparator;
 import java.util.Objects;
-import java.util.logging.Level;
-import static mpp.jathakamu.JathakamLogger.LOGGER;
 
 /**
+ * Boxed range, kept as an adapter for callers using Number bounds. The lords
+ * and zodiac tables use DoubleRange.
  *
  * @author phani
  */
@@ -77,15 +76,14 @@ public final class Range
     
     public boolean inRange(Number num)
     {
-       double minValue = min.doubleValue();
-       double maxValue = max.doubleValue();
        double givenValue = num.doubleValue();
        
-       LOGGER.log(Level.FINEST, "Range = [{0}-{1}], check number = {2}", new Object[]{minValue, maxValue, givenValue});
-       
-       boolean rtnValue = (givenValue >= minValue && givenValue < maxValue);
-       
-       return rtnValue;
+       return (givenValue >= min.doubleValue() && givenValue < max.doubleValue());
+    }
+    
+    public DoubleRange toDoubleRange()
+    {
+        return new DoubleRange.Builder().values(min.doubleValue(), max.doubleValue()).build();
     }
     
 //    public Comparator getComparator(Range r1, Range r2)
@@ -17,12 +17,12 @@ public class VDNode
 	private long dasaEndPeriod;
 	private SimpleDateFormat dateFormat = DEFAULT_DATE_FORMAT;
     
-    private final List<VDNode> children;
+    /* Allocated on first add, most of the nodes never get children */
+    private List<VDNode> children = null;
 
 	public VDNode(Planet planet, long dasaEndPeriod, SimpleDateFormat dateFormat)
 	{
 		super();
-        this.children = new ArrayList<>();
 		this.planet = planet;
 		this.dasaEndPeriod = dasaEndPeriod;
 		this.dateFormat = dateFormat;
@@ -31,7 +31,6 @@ public class VDNode
 	public VDNode(Planet planet, long dasaEndPeriod)
 	{
 		super();
-        this.children = new ArrayList<>();
 		this.planet = planet;
 		this.dasaEndPeriod = dasaEndPeriod;
 	}
@@ -73,27 +72,42 @@ public class VDNode
     
     public List<VDNode> getChildren()
     {
-        return new ArrayList(children);
+        if (children == null)
+        {
+            return new ArrayList<>();
+        }
+
+        return new ArrayList<>(children);
     }
     
     public void add(VDNode child)
     {
+        if (children == null)
+        {
+            children = new ArrayList<>();
+        }
+
         children.add(child);
     }
     
     public void add(Collection<VDNode> child)
     {
+        if (children == null)
+        {
+            children = new ArrayList<>();
+        }
+
         children.addAll(child);
     }
     
     public boolean hasChild()
     {
-        return children.size() > 0;
+        return children != null && children.size() > 0;
     }
     
     public void removeAllChildren()
     {
-        children.clear();
+        children = null;
     }
 
 	@Override
@@ -0,0 +1,153 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.types;
+
+import static mpp.jathakamu.Constants.STAR_EXTENT_IN_MINUTES;
+
+/**
+ * Resolves the sign (Raasi), star (Nakshatram), pada and their lords for a
+ * longitude with plain arithmetic. There are no locks and nothing is
+ * allocated, so it can be called from any thread.
+ *
+ * Sign index is floor(longitude / 30) and star index is
+ * floor(longitude / 13d 20m). Lords come from tables filled once when the
+ * class is loaded.
+ *
+ * @author Phani
+ */
+public final class ZodiacResolver
+{
+    private final static double SIGN_EXTENT = 30D;
+    private final static double STAR_EXTENT = STAR_EXTENT_IN_MINUTES / 60D;
+    private final static double PADA_EXTENT = STAR_EXTENT / 4D;
+
+    /* Index 0 is Raasi.NONE / Nakshatram.NONE in both the enums */
+    private final static Raasi[] SIGNS = Raasi.values();
+    private final static Nakshatram[] STARS = Nakshatram.values();
+    private final static double[] STAR_BEGIN = new double[STARS.length];
+    private final static Planet[] SIGN_LORDS = new Planet[SIGNS.length];
+    private final static Planet[] STAR_LORDS = new Planet[STARS.length];
+
+    static
+    {
+        for (Raasi sign : SIGNS)
+        {
+            SIGN_LORDS[sign.ordinal()] = Planet.getSignLord(sign);
+        }
+
+        for (Nakshatram star : STARS)
+        {
+            STAR_BEGIN[star.ordinal()] = star.start();
+            STAR_LORDS[star.ordinal()] = Planet.getNakshatraLord(star);
+        }
+    }
+
+    private ZodiacResolver()
+    {
+    }
+
+    /**
+     * Zero based sign index, 0 for Aries to 11 for Pisces.
+     *
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return sign index, -1 if the longitude is not between 0 and 360
+     */
+    public static int getSignIndex(double longitude)
+    {
+        if (!(longitude >= 0.0 && longitude <= 360.0))
+        {
+            return -1;
+        }
+
+        int index = (int) (longitude / SIGN_EXTENT);
+
+        // Division can round up just below a sign boundary
+        if (index * SIGN_EXTENT > longitude)
+        {
+            index--;
+        }
+
+        // 360.0 is same as 0 Aries
+        return (index >= 12) ? index - 12 : index;
+    }
+
+    /**
+     * Zero based star index, 0 for Aswini to 26 for Revathi.
+     *
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return star index, -1 if the longitude is not between 0 and 360
+     */
+    public static int getStarIndex(double longitude)
+    {
+        if (!(longitude >= 0.0 && longitude <= 360.0))
+        {
+            return -1;
+        }
+
+        double value = (longitude == 360.0) ? 0.0 : longitude;
+        int index = Math.min((int) (value / STAR_EXTENT), 26);
+
+        // Division can be off by one ulp at star boundaries, so check against
+        // the same boundaries used by Nakshatram.getExtent()
+        if (value < STAR_BEGIN[index + 1])
+        {
+            index--;
+        }
+        else if (index < 26 && value >= STAR_BEGIN[index + 2])
+        {
+            index++;
+        }
+
+        return index;
+    }
+
+    public static Raasi getRaasi(double longitude)
+    {
+        return SIGNS[getSignIndex(longitude) + 1];
+    }
+
+    public static Nakshatram getNakshatram(double longitude)
+    {
+        return STARS[getStarIndex(longitude) + 1];
+    }
+
+    /**
+     * Quarter (pada) of the star.
+     *
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return 1 to 4, 0 if the longitude is not between 0 and 360
+     */
+    public static int getPada(double longitude)
+    {
+        int starIndex = getStarIndex(longitude);
+
+        if (starIndex < 0)
+        {
+            return 0;
+        }
+
+        double value = (longitude == 360.0) ? 0.0 : longitude;
+        int pada = (int) ((value - STAR_BEGIN[starIndex + 1]) / PADA_EXTENT);
+
+        return Math.min(pada, 3) + 1;
+    }
+
+    /**
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return lord of the sign, null if the longitude is not between 0 and 360
+     */
+    public static Planet getSignLord(double longitude)
+    {
+        return SIGN_LORDS[getSignIndex(longitude) + 1];
+    }
+
+    /**
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return lord of the star, null if the longitude is not between 0 and 360
+     */
+    public static Planet getStarLord(double longitude)
+    {
+        return STAR_LORDS[getStarIndex(longitude) + 1];
+    }
+}
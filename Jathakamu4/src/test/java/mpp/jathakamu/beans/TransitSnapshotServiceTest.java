@@ -0,0 +1,82 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.beans;
+
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.types.HouseEntity;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class TransitSnapshotServiceTest
+{
+    public TransitSnapshotServiceTest()
+    {
+    }
+
+    /**
+     * Test of compute method, of class TransitSnapshotService, every cusp
+     * and graha is in a house and the snapshot is valid after its time.
+     */
+    @Test
+    public void testCompute() throws Exception
+    {
+        System.out.println("compute");
+        TransitSnapshotService instance = new TransitSnapshotService(60000L);
+        long time = 1500000000000L;
+        TransitSnapshot result = instance.compute(GlobalSettings.astrologerPlace, time);
+        int entities = 0;
+
+        for (int house = 0; house < 12; house++)
+        {
+            HouseEntity[] houseInfo = result.getHouseInfo(house);
+
+            entities += houseInfo.length;
+            // A copy, the snapshot is shared
+            if (houseInfo.length > 0)
+            {
+                houseInfo[0] = null;
+                assertNotNull(result.getHouseInfo(house)[0]);
+            }
+        }
+
+        assertEquals(ChartPositions.HOUSES + ChartPositions.GRAHAS, entities);
+        assertEquals(time, result.getTransitTime());
+        assertTrue(result.getValidUntil() > time);
+        assertTrue(result.getInformation()[0].startsWith("Date & Time"));
+    }
+
+    /**
+     * Test of getSnapshot method, of class TransitSnapshotService, the same
+     * snapshot is read until the next refresh.
+     */
+    @Test
+    public void testGetSnapshot() throws Exception
+    {
+        System.out.println("getSnapshot");
+        TransitSnapshotService instance = new TransitSnapshotService(60000L);
+        TransitSnapshot first = instance.getSnapshot();
+
+        assertSame(first, instance.getSnapshot());
+
+        TransitSnapshot second = instance.refresh();
+
+        assertNotSame(first, second);
+        assertSame(second, instance.getSnapshot());
+
+        try
+        {
+            new TransitSnapshotService(10L);
+            fail("Interval below a second should not be taken");
+        }
+        catch (IllegalArgumentException ex)
+        {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Iterator;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import org.junit.Test;
+import swisseph.SwissEph;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class AscendantCalendarTest
+{
+    private final static double START_JD = 2441776.5D; // 1973-04-04
+
+    private final Place place = new Place.PlaceBuilder().values("", 78.5D,
+            17D + (1D / 3D), GlobalSettings.DEFAULT_TIMEZONE).build();
+
+    public AscendantCalendarTest()
+    {
+    }
+
+    /**
+     * Test of iterator method, of class AscendantCalendar, sub-sub changes of
+     * a day against the Lagna of the chart just after each change.
+     */
+    @Test
+    public void testIterator() throws Exception
+    {
+        System.out.println("iterator");
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            AscendantCalendar instance = new AscendantCalendar(swissEph,
+                    ProfileSettings.DEFAULT, place);
+            Iterator<TransitEvent> result = instance.iterator(TransitSearch.SUB_SUB,
+                    START_JD, START_JD + 1D);
+            LordBoundaries boundaries = LordBoundaries.of(TransitSearch.SUB_SUB);
+            TransitEvent previous = null;
+            int count = 0;
+
+            while (result.hasNext())
+            {
+                TransitEvent event = result.next();
+                assertEquals(TransitEvent.LAGNA, event.getGraha());
+                assertTrue(event.getTime() > START_JD && event.getTime() <= START_JD + 1D);
+
+                if (count % 50 == 0)
+                {
+                    ChartPositions positions = EphemerisCalcs.computeAll(
+                            new Profile(event.getTime() + 1E-5D, place, ProfileSettings.DEFAULT));
+                    assertEquals(SupportCalcs.getLordsWithSignLord(positions.getCusp(0)).subList(0, 4),
+                            event.getLords());
+                }
+
+                if (previous != null)
+                {
+                    int expected = boundaries.above(previous.getBoundary()) % boundaries.size();
+                    assertEquals(boundaries.get(expected), event.getBoundary(), 0.0);
+                    assertTrue(event.getTime() > previous.getTime());
+                }
+
+                previous = event;
+                count++;
+            }
+
+            System.out.println(count + " sub-sub changes in a day");
+            assertTrue(count > boundaries.size());
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+    }
+
+    /**
+     * Test of stream method, of class AscendantCalendar, over days is the
+     * same as the days one by one.
+     */
+    @Test
+    public void testStream() throws Exception
+    {
+        System.out.println("stream");
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            AscendantCalendar instance = new AscendantCalendar(swissEph,
+                    ProfileSettings.DEFAULT, place);
+            long expResult = 0;
+
+            for (int day = 0; day < 3; day++)
+            {
+                expResult += instance.stream(TransitSearch.STAR, START_JD + day,
+                        START_JD + day + 1).count();
+            }
+
+            long result = instance.stream(TransitSearch.STAR, START_JD, START_JD + 3).count();
+            assertEquals(expResult, result);
+            assertTrue(result >= 3 * 27);
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class ChartCacheTest
+{
+    private final static double TJD_UT = 2441776.64D;
+
+    private final Place place = new Place.PlaceBuilder().values("", 78.5D,
+            17D + (1D / 3D), GlobalSettings.DEFAULT_TIMEZONE).build();
+
+    public ChartCacheTest()
+    {
+    }
+
+    private static ProfileSettings newSettings()
+    {
+        ProfileSettings settings = new ProfileSettings();
+        settings.setKPNewAynamsa();
+        settings.setUseGeocentric(false);
+        return settings;
+    }
+
+    /**
+     * Test of of method, of class ChartKey, settings with different IDs give
+     * the same key.
+     */
+    @Test
+    public void testKeyOfEqualSettings()
+    {
+        System.out.println("ChartKey.of");
+        ChartKey expResult = ChartKey.of(new Profile(TJD_UT, place, newSettings()));
+        ChartKey result = ChartKey.of(new Profile(TJD_UT, place, newSettings()));
+
+        assertEquals(expResult, result);
+        assertEquals(expResult.hashCode(), result.hashCode());
+
+        // Less than half a second later is the same chart
+        result = ChartKey.of(new Profile(TJD_UT + ChartKey.TIME_QUANTUM / 4, place, newSettings()));
+        assertEquals(expResult, result);
+
+        result = ChartKey.of(new Profile(TJD_UT + ChartKey.TIME_QUANTUM, place, newSettings()));
+        assertFalse(expResult.equals(result));
+
+        ProfileSettings settings = newSettings();
+        settings.setTrueNode(false);
+        result = ChartKey.of(new Profile(TJD_UT, place, settings));
+        assertFalse(expResult.equals(result));
+
+        settings = newSettings();
+        settings.setKPOldAynamsa();
+        result = ChartKey.of(new Profile(TJD_UT, place, settings));
+        assertFalse(expResult.equals(result));
+    }
+
+    /**
+     * Test of get method, of class ChartCache.
+     */
+    @Test
+    public void testGet() throws Exception
+    {
+        System.out.println("get");
+        ChartCache instance = new ChartCache(2);
+
+        ChartCache.Entry first = instance.get(new Profile(TJD_UT, place, newSettings()));
+        assertEquals(0, instance.getHitCount());
+        assertEquals(1, instance.getMissCount());
+
+        ChartCache.Entry result = instance.get(new Profile(TJD_UT, place, newSettings()));
+        assertSame(first, result);
+        assertEquals(1, instance.getHitCount());
+
+        for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+        {
+            assertEquals(SupportCalcs.getLordsWithSignLord(result.getPositions().getLongitude(graha)),
+                    result.getGrahaLords(graha));
+        }
+
+        for (int house = 0; house < ChartPositions.HOUSES; house++)
+        {
+            assertEquals(SupportCalcs.getLordsWithSignLord(result.getPositions().getCusp(house)),
+                    result.getCuspLords(house));
+        }
+    }
+
+    /**
+     * Test of get method, of class ChartCache, least recently used chart is
+     * evicted.
+     */
+    @Test
+    public void testEviction() throws Exception
+    {
+        System.out.println("eviction");
+        ChartCache instance = new ChartCache(2);
+        Profile first = new Profile(TJD_UT, place, newSettings());
+        Profile second = new Profile(TJD_UT + 1, place, newSettings());
+        Profile third = new Profile(TJD_UT + 2, place, newSettings());
+
+        instance.get(first);
+        instance.get(second);
+        instance.get(first);
+        instance.get(third);
+
+        assertEquals(2, instance.size());
+        assertEquals(1, instance.getEvictionCount());
+
+        // second was the least recently used
+        instance.get(first);
+        assertEquals(2, instance.getHitCount());
+        instance.get(second);
+        assertEquals(4, instance.getMissCount());
+    }
+}
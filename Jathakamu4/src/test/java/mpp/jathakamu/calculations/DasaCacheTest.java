@@ -0,0 +1,126 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.LazyVDNode;
+import mpp.jathakamu.types.VDNode;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class DasaCacheTest
+{
+    /* 04-Apr-1973 08:59:08 IST */
+    private final static long DOB = 102742148000L;
+    /* Pushya, 93°20' to 106°40' */
+    private final static double MOON_LONGITUDE = 105.2345671234;
+    private final static double ONE_YEAR = ProfileSettings.DEFAULT.getOneYear();
+
+    public DasaCacheTest()
+    {
+    }
+
+    /**
+     * Test of getView method, of class DasaCache, periods of the view are
+     * those of the dasa tree down to the prana, for Moons in the middle of
+     * a star and for one just after the start of a star.
+     */
+    @Test
+    public void testGetView()
+    {
+        System.out.println("getView");
+        DasaCache instance = new DasaCache(4);
+
+        assertView(instance.getView(DOB, MOON_LONGITUDE, ONE_YEAR), MOON_LONGITUDE);
+        assertView(instance.getView(DOB, 80D / 3D + 1E-8, ONE_YEAR), 80D / 3D + 1E-8);
+        // Same star as the first
+        assertView(instance.getView(DOB, 94D, ONE_YEAR), 94D);
+        assertEquals(2, instance.getMissCount());
+    }
+
+    private static void assertView(DasaView view, double moonLongitude)
+    {
+        Profile profile = new Profile(0.0, null, ProfileSettings.DEFAULT);
+        VDNode root = SupportCalcs.getVDTree2(DOB, moonLongitude, profile);
+        List<VDNode> expResult = root.getChildren();
+        List<VDNode> result = view.getMahaDasaList();
+
+        for (int level = LazyVDNode.MAHA_DASA; level <= LazyVDNode.PRANA; level++)
+        {
+            assertEquals(expResult.size(), result.size());
+
+            for (int i = 0; i < result.size(); i++)
+            {
+                assertEquals(expResult.get(i).getPlanet(), result.get(i).getPlanet());
+                assertEquals(expResult.get(i).getDasaEndPeriod(), result.get(i).getDasaEndPeriod(),
+                        2L);
+            }
+
+            // Down the last period of the level
+            expResult = expResult.get(expResult.size() - 1).getChildren();
+            result = result.get(result.size() - 1).getChildren();
+        }
+
+        assertTrue(result.isEmpty());
+        assertArrayEquals(SupportCalcs.getDasaTimeline(DOB, moonLongitude, profile).periodAt(DOB),
+                view.periodAt(DOB));
+    }
+
+    /**
+     * Test of getView method, of class DasaCache, natives with the Moon in
+     * the same star share the timeline and the least recently used timeline is dropped.
+     */
+    @Test
+    public void testShared() throws Exception
+    {
+        System.out.println("shared");
+        DasaCache instance = new DasaCache(2);
+        DasaView view1 = instance.getView(DOB, MOON_LONGITUDE, ONE_YEAR);
+        DasaView view2 = instance.getView(DOB + 86400000L, MOON_LONGITUDE + 1D,
+                ONE_YEAR);
+
+        assertSame(view1.getTimeline(), view2.getTimeline());
+        // Later in the star, less of the first maha dasa is left
+        assertTrue(view2.getShift() > view1.getShift());
+        assertEquals(view1.getEnd(LazyVDNode.BHUKTHI, 3) + 86400000L
+                - (view2.getShift() - view1.getShift()), view2.getEnd(LazyVDNode.BHUKTHI, 3));
+        assertEquals(1, instance.getHitCount());
+        assertEquals(1, instance.getMissCount());
+
+        assertNotSame(view1.getTimeline(), instance.getView(DOB, MOON_LONGITUDE, 360D).getTimeline());
+        instance.getView(DOB, 200D, ONE_YEAR);
+        assertEquals(2, instance.size());
+        // Dropped for the last two
+        instance.getView(DOB, MOON_LONGITUDE, ONE_YEAR);
+        assertEquals(4, instance.getMissCount());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(view1);
+        }
+
+        assertTrue(bytes.size() < 1024);
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+        {
+            DasaView result = (DasaView) in.readObject();
+
+            assertEquals(DOB, result.getDob());
+            assertEquals(view1.getEnd(LazyVDNode.PRANA, 100), result.getEnd(LazyVDNode.PRANA, 100));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.List;
+import java.util.Random;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.LazyVDNode;
+import mpp.jathakamu.types.Planet;
+import mpp.jathakamu.types.VDNode;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class DasaTimelineTest
+{
+    /* 04-Apr-1973 08:59:08 IST */
+    private final static long DOB = 102742148000L;
+    private final static double MOON_LONGITUDE = 105.2;
+    
+    private static Profile profile;
+    private static DasaTimeline timeline;
+    
+    public DasaTimelineTest()
+    {
+    }
+    
+    @BeforeClass
+    public static void setUpClass()
+    {
+        profile = new Profile(0.0, null, ProfileSettings.DEFAULT);
+        timeline = SupportCalcs.getDasaTimeline(DOB, MOON_LONGITUDE, profile);
+    }
+
+    /**
+     * Test of periodAt method, of class DasaTimeline, against the dasa tree.
+     */
+    @Test
+    public void testPeriodAtMatchesTree()
+    {
+        System.out.println("periodAt");
+        VDNode root = SupportCalcs.getVDTree2(DOB, MOON_LONGITUDE, profile);
+        Random random = new Random(1973);
+        long span = timeline.getEnd(LazyVDNode.MAHA_DASA, 8) - DOB;
+        
+        for (int i = 0; i < 500; i++)
+        {
+            long time = DOB + (long) (random.nextDouble() * span);
+            Planet[] result = timeline.periodAt(time);
+            List<VDNode> children = root.getChildren();
+            
+            assertNotNull(result);
+            for (int level = LazyVDNode.MAHA_DASA; level <= LazyVDNode.PRANA; level++)
+            {
+                VDNode running = null;
+                for (VDNode child : children)
+                {
+                    if (child.getDasaEndPeriod() > time)
+                    {
+                        running = child;
+                        break;
+                    }
+                }
+                
+                assertNotNull(running);
+                assertSame(running.getPlanet(), result[level]);
+                children = running.getChildren();
+            }
+        }
+    }
+
+    /**
+     * Test of indexAt method, of class DasaTimeline, on period boundaries.
+     */
+    @Test
+    public void testIndexAtBoundaries()
+    {
+        System.out.println("indexAt");
+        
+        // Moon in Pushyami, Saturn maha dasa is running at birth
+        assertSame(Planet.SATURN, timeline.getPlanet(LazyVDNode.MAHA_DASA, 0));
+        assertEquals(9, timeline.size(LazyVDNode.MAHA_DASA));
+        assertTrue(timeline.getBegin(LazyVDNode.MAHA_DASA) < DOB);
+        
+        for (int level = LazyVDNode.MAHA_DASA; level <= LazyVDNode.PRANA; level++)
+        {
+            int last = timeline.size(level) - 1;
+            long end = timeline.getEnd(level, last);
+            
+            assertEquals(end, timeline.getEnd(LazyVDNode.MAHA_DASA, 8));
+            assertEquals(0, timeline.indexAt(level, DOB));
+            assertEquals(-1, timeline.indexAt(level, timeline.getBegin(level) - 1));
+            assertEquals(-1, timeline.indexAt(level, end));
+            assertEquals(last, timeline.indexAt(level, end - 1));
+            assertEquals(1, timeline.indexAt(level, timeline.getEnd(level, 0)));
+            assertEquals(timeline.getEnd(level, 0), timeline.getStart(level, 1));
+        }
+        
+        assertNull(timeline.periodAt(timeline.getEnd(LazyVDNode.MAHA_DASA, 8)));
+    }
+
+    /**
+     * Test of indexesBetween method, of class DasaTimeline.
+     */
+    @Test
+    public void testIndexesBetween()
+    {
+        System.out.println("indexesBetween");
+        int level = LazyVDNode.SOOKSHMA;
+        long from = timeline.getEnd(level, 10) - 1;
+        long to = timeline.getEnd(level, 20);
+        int[] result = timeline.indexesBetween(level, from, to);
+        
+        assertEquals(11, result.length);
+        assertEquals(10, result[0]);
+        assertEquals(20, result[10]);
+        
+        assertEquals(0, timeline.indexesBetween(level, to, from).length);
+        assertEquals(timeline.size(level), timeline.indexesBetween(level,
+                Long.MIN_VALUE, Long.MAX_VALUE).length);
+    }
+
+    /**
+     * Test of getDasaTimeline method, of class SupportCalcs, a timeline down
+     * to a level has the same periods as the full one and none below.
+     */
+    @Test
+    public void testLevels()
+    {
+        System.out.println("levels");
+        DasaTimeline result = SupportCalcs.getDasaTimeline(DOB, MOON_LONGITUDE, profile, 3);
+
+        for (int level = LazyVDNode.MAHA_DASA; level < 3; level++)
+        {
+            assertEquals(timeline.size(level), result.size(level));
+            assertEquals(timeline.getBegin(level), result.getBegin(level));
+
+            for (int index = 0; index < result.size(level); index++)
+            {
+                assertEquals(timeline.getEnd(level, index), result.getEnd(level, index));
+                assertSame(timeline.getPlanet(level, index), result.getPlanet(level, index));
+            }
+        }
+
+        assertEquals(0, result.size(3));
+        assertEquals(0, result.size(LazyVDNode.PRANA));
+        assertNull(result.periodAt(DOB));
+    }
+}
@@ -12,6 +12,7 @@ import mpp.jathakamu.Profile;
 import mpp.jathakamu.ProfileSettings;
 import mpp.jathakamu.types.Place;
 import mpp.jathakamu.types.Planet;
+import swisseph.SweConst;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -192,5 +193,41 @@ public class EphemerisCalcsTest
         System.out.println("EquatorialAsc = " + result);
         assertEquals(expResult, result, 0.0);
     }
-    
+
+    /**
+     * Test of computeAll method, of class EphemerisCalcs, against the
+     * positions of each planet and cusp.
+     */
+    @Test
+    public void testComputeAll() throws Exception
+    {
+        System.out.println("computeAll");
+        EphemerisCalcs instance = new EphemerisCalcs(profile);
+        ChartPositions result = instance.computeAll(new ChartPositions());
+
+        for (int planet = SweConst.SE_SUN; planet <= SweConst.SE_PLUTO; planet++)
+        {
+            double[] expResult = instance.getPlanetDetails(planet);
+            assertEquals(expResult[0], result.getLongitude(planet), 0.0);
+            assertEquals(expResult[1], result.getSpeed(planet), 0.0);
+            assertEquals(expResult[1] < 0, result.isRetrograde(planet));
+            assertEquals(instance.getPlanetName(planet), result.getName(planet));
+        }
+
+        int rahu = (ProfileSettings.DEFAULT.isTrueNode()) ? SweConst.SE_TRUE_NODE : SweConst.SE_MEAN_NODE;
+        double rahuPosition = instance.getPlanetDetails(rahu)[0];
+        assertEquals(rahuPosition, result.getLongitude(ChartPositions.RAHU), 0.0);
+        assertEquals(SupportCalcs.degnorm(180 + rahuPosition), result.getLongitude(ChartPositions.KETU), 0.0);
+
+        double[] expCusps = instance.getCuspDetails();
+        for (int house = 0; house < ChartPositions.HOUSES; house++)
+        {
+            assertEquals(expCusps[house], result.getCusp(house), 0.0);
+        }
+
+        assertEquals(instance.getAyanamsa(), result.getAyanamsa(), 0.0);
+        assertEquals(instance.getLagna(), result.getLagna(), 0.0);
+        assertEquals(instance.getSidrealTime(), result.getSidrealTime(), 0.0);
+    }
+
 }
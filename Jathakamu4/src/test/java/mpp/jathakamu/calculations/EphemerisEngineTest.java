@@ -0,0 +1,108 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import org.junit.Test;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class EphemerisEngineTest
+{
+
+    public EphemerisEngineTest()
+    {
+    }
+
+    /**
+     * Test of checkout method, of class EphemerisEngine, released instances
+     * are given out again.
+     */
+    @Test
+    public void testCheckoutReusesReleased()
+    {
+        System.out.println("checkout");
+        EphemerisEngine instance = new EphemerisEngine(GlobalSettings.EPHEMERIS_FILES_PATH, 2);
+
+        SwissEph first = instance.checkout();
+        assertEquals(1, instance.getCreatedCount());
+        assertEquals(1, instance.getInUseCount());
+
+        instance.release(first);
+        assertEquals(0, instance.getInUseCount());
+        assertEquals(1, instance.getIdleCount());
+
+        SwissEph second = instance.checkout();
+        assertSame(first, second);
+        assertEquals(1, instance.getCreatedCount());
+        assertEquals(2, instance.getCheckoutCount());
+        assertEquals(1, instance.getReusedCount());
+        instance.release(second);
+    }
+
+    /**
+     * Test of release method, of class EphemerisEngine, instances beyond the
+     * pool size are closed.
+     */
+    @Test
+    public void testReleaseWhenPoolIsFull()
+    {
+        System.out.println("release");
+        EphemerisEngine instance = new EphemerisEngine(GlobalSettings.EPHEMERIS_FILES_PATH, 2);
+        SwissEph[] swissEphs = new SwissEph[3];
+
+        for (int i = 0; i < swissEphs.length; i++)
+        {
+            swissEphs[i] = instance.checkout();
+        }
+
+        assertEquals(3, instance.getCreatedCount());
+        assertEquals(3, instance.getInUseCount());
+
+        for (SwissEph swissEph : swissEphs)
+        {
+            instance.release(swissEph);
+        }
+
+        assertEquals(0, instance.getInUseCount());
+        assertEquals(2, instance.getIdleCount());
+        assertEquals(1, instance.getDiscardedCount());
+    }
+
+    /**
+     * Test of close method, of class EphemerisCalcs, gives the instance back
+     * to the engine.
+     */
+    @Test
+    public void testEphemerisCalcsClose()
+    {
+        System.out.println("EphemerisCalcs close");
+        EphemerisEngine instance = new EphemerisEngine(GlobalSettings.EPHEMERIS_FILES_PATH, 1);
+        Place place = new Place.PlaceBuilder().values("", 78.5D,
+                17D + (1D / 3D), GlobalSettings.DEFAULT_TIMEZONE).build();
+        Profile profile = new Profile(2441776.64D, place, ProfileSettings.DEFAULT);
+
+        for (int i = 0; i < 3; i++)
+        {
+            try (EphemerisCalcs ephCalc = new EphemerisCalcs(profile, instance))
+            {
+                assertEquals("Sun", ephCalc.getPlanetName(SweConst.SE_SUN));
+                assertEquals(1, instance.getInUseCount());
+            }
+        }
+
+        assertEquals(1, instance.getCreatedCount());
+        assertEquals(0, instance.getInUseCount());
+        assertEquals(2, instance.getReusedCount());
+    }
+}
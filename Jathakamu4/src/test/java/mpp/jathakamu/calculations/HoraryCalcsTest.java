@@ -0,0 +1,86 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import mpp.jathakamu.types.Range;
+import org.junit.Test;
+import swisseph.SweConst;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class HoraryCalcsTest
+{
+    private final static double TJD_UT = 2441776.64D;
+
+    private final Place place = new Place.PlaceBuilder().values("", 78.5D,
+            17D + (1D / 3D), GlobalSettings.DEFAULT_TIMEZONE).build();
+
+    public HoraryCalcsTest()
+    {
+    }
+
+    /**
+     * Test of compute method, of class HoraryCalcs, Lagna is in the horary
+     * number and the planets are of the time.
+     */
+    @Test
+    public void testCompute() throws Exception
+    {
+        System.out.println("compute");
+        HoraryCalcs instance = new HoraryCalcs(2);
+        Profile profile = new Profile(TJD_UT, place, ProfileSettings.DEFAULT);
+        ChartPositions expResult = EphemerisCalcs.computeAll(profile);
+
+        for (int horaryNum = 1; horaryNum <= HoraryCalcs.HORARY_249; horaryNum += 31)
+        {
+            ChartPositions result = instance.compute(profile, HoraryCalcs.HORARY_249, horaryNum);
+            Range range = SupportCalcs.getRangeFor249Horary(horaryNum);
+
+            assertTrue(range.inRange(result.getCusp(0)));
+            assertEquals(range.getMin().doubleValue(), result.getCusp(0), 1E-5D);
+
+            for (int graha = SweConst.SE_SUN; graha < ChartPositions.GRAHAS; graha++)
+            {
+                assertEquals(expResult.getLongitude(graha), result.getLongitude(graha), 0.0);
+            }
+        }
+
+        ChartPositions result = instance.compute(profile, HoraryCalcs.HORARY_2193, 1000);
+        assertTrue(SupportCalcs.getRangeFor2193Horary(1000).inRange(result.getCusp(0)));
+
+        // One table per set, the rest are lookups
+        assertEquals(2, instance.getMissCount());
+        assertEquals(8, instance.getHitCount());
+    }
+
+    /**
+     * Test of compute method, of class HoraryCalcs, with a number outside the
+     * set.
+     */
+    @Test
+    public void testComputeInvalid() throws Exception
+    {
+        System.out.println("compute invalid");
+        HoraryCalcs instance = new HoraryCalcs(2);
+
+        try
+        {
+            instance.compute(new Profile(TJD_UT, place, ProfileSettings.DEFAULT),
+                    HoraryCalcs.HORARY_249, 250);
+            fail("Horary number 250 was accepted");
+        }
+        catch (JathakamuException ex)
+        {
+        }
+    }
+}
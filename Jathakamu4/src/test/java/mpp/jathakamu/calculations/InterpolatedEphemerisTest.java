@@ -0,0 +1,119 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import mpp.jathakamu.ProfileSettings;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class InterpolatedEphemerisTest
+{
+    private final static double START_JD = 2441683.5D; // 1973-01-01
+    private final static double END_JD = START_JD + 366D;
+    private final static double ARC_SECOND = 1D / 3600D;
+
+    private static Path file;
+    private static SwissEph swissEph;
+    private static InterpolatedEphemeris instance;
+
+    public InterpolatedEphemerisTest()
+    {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception
+    {
+        file = Files.createTempFile("interpolated", ".bin");
+        swissEph = EphemerisEngine.getInstance().checkout();
+        InterpolatedEphemeris.write(file, swissEph, ProfileSettings.DEFAULT, START_JD, END_JD);
+        instance = InterpolatedEphemeris.open(file);
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception
+    {
+        Files.deleteIfExists(file);
+        EphemerisEngine.getInstance().release(swissEph);
+    }
+
+    private static double difference(double a, double b)
+    {
+        double d = Math.abs(a - b) % 360D;
+        return Math.min(d, 360D - d);
+    }
+
+    /**
+     * Test of compute method, of class InterpolatedEphemeris, against
+     * swe_calc_ut in both frames.
+     */
+    @Test
+    public void testCompute()
+    {
+        System.out.println("compute");
+        Random random = new Random(1973);
+        double[] expResult = new double[6];
+        double[] result = new double[6];
+        StringBuffer serr = new StringBuffer();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            double tjd_ut = START_JD + random.nextDouble() * (END_JD - START_JD);
+            double ayanamsa = swissEph.swe_get_ayanamsa_ut(tjd_ut);
+
+            for (int body = SweConst.SE_SUN; body <= SweConst.SE_TRUE_NODE; body++)
+            {
+                swissEph.swe_calc_ut(tjd_ut, body, SweConst.SEFLG_SPEED, expResult, serr);
+
+                instance.compute(body, InterpolatedEphemeris.TROPICAL, tjd_ut, result);
+                assertEquals(0D, difference(expResult[0], result[0]), ARC_SECOND);
+                assertEquals(expResult[3], result[3], 1E-4D);
+                assertEquals(result[0], instance.getLongitude(body,
+                        InterpolatedEphemeris.TROPICAL, tjd_ut), 1E-9D);
+                assertEquals(result[3], instance.getSpeed(body,
+                        InterpolatedEphemeris.TROPICAL, tjd_ut), 1E-12D);
+
+                instance.compute(body, InterpolatedEphemeris.SIDEREAL, tjd_ut, result);
+                assertEquals(0D, difference(expResult[0] - ayanamsa, result[0]), ARC_SECOND);
+                assertTrue(result[0] >= 0D && result[0] < 360D);
+            }
+        }
+    }
+
+    /**
+     * Test of covers method, of class InterpolatedEphemeris, times outside
+     * the file are refused.
+     */
+    @Test
+    public void testCovers()
+    {
+        System.out.println("covers");
+        assertTrue(instance.covers(START_JD));
+        assertTrue(instance.covers(END_JD));
+        assertFalse(instance.covers(END_JD + 1));
+
+        // Last instant falls in the last block
+        instance.getLongitude(SweConst.SE_MOON, InterpolatedEphemeris.TROPICAL, END_JD);
+
+        try
+        {
+            instance.getLongitude(SweConst.SE_MOON, InterpolatedEphemeris.TROPICAL, START_JD - 1);
+            fail("Time before the file was accepted");
+        }
+        catch (IllegalArgumentException ex)
+        {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.List;
+import java.util.Random;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class LordsIndexTest
+{
+    
+    public LordsIndexTest()
+    {
+    }
+
+    /**
+     * Test of getLords method, of class SupportCalcs, against the linear scan
+     * of the lords table.
+     */
+    @Test
+    public void testGetLordsMatchesScan()
+    {
+        System.out.println("getLords");
+        Random random = new Random(1973);
+        
+        for (int i = 0; i < 2000; i++)
+        {
+            double longitude = random.nextDouble() * 360D;
+            List<LordNode> expResult = SupportCalcs.scanLords(longitude);
+            List<LordNode> result = SupportCalcs.getLords(longitude);
+            
+            assertEquals(5, result.size());
+            for (int level = 0; level < 5; level++)
+            {
+                assertSame(expResult.get(level).getPlanet(), result.get(level).getPlanet());
+            }
+        }
+    }
+
+    /**
+     * Test of getLords method, of class SupportCalcs, on division boundaries.
+     */
+    @Test
+    public void testGetLordsOnBoundaries()
+    {
+        System.out.println("getLords boundaries");
+        LordsIndex index = SupportCalcs.getLordsIndex();
+        
+        assertEquals(3 * 9 * 9 * 9 * 9 * 9, index.size());
+        assertEquals(0, index.indexOf(0.0));
+        assertEquals(0, index.indexOf(360.0));
+        assertEquals(-1, index.indexOf(-0.5));
+        
+        for (int i = 1; i < index.size(); i += 97)
+        {
+            assertEquals(i, index.indexOf(index.getBegin(i)));
+        }
+        
+        // 0 Aries is Aswini, Ketu star, Ketu sub
+        List<LordNode> lords = SupportCalcs.getLords(0.0);
+        assertSame(Planet.KETU, lords.get(0).getPlanet());
+        assertSame(Planet.KETU, lords.get(1).getPlanet());
+        
+        // 13d 20m starts Bharani, Venus star, Venus sub
+        lords = SupportCalcs.getLords(800D / 60D);
+        assertSame(Planet.VENUS, lords.get(0).getPlanet());
+        assertSame(Planet.VENUS, lords.get(1).getPlanet());
+    }
+
+    /**
+     * Test of getLordsWithSignLord method, of class SupportCalcs.
+     */
+    @Test
+    public void testGetLordsWithSignLord()
+    {
+        System.out.println("getLordsWithSignLord");
+        // 45 degrees is Taurus, Rohini (Moon star)
+        List<Planet> result = SupportCalcs.getLordsWithSignLord(45D);
+        
+        assertEquals(6, result.size());
+        assertSame(Planet.VENUS, result.get(0));
+        assertSame(Planet.MOON, result.get(1));
+    }
+}
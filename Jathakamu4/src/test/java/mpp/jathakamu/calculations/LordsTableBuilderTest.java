@@ -0,0 +1,115 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import mpp.jathakamu.types.DoubleRange;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class LordsTableBuilderTest
+{
+
+    public LordsTableBuilderTest()
+    {
+    }
+
+    /**
+     * Test of buildLords method, of class LordsTableBuilder, parallel build
+     * against the build in the calling thread.
+     */
+    @Test
+    public void testParallelBuildMatchesSequential()
+    {
+        System.out.println("buildLords");
+        List<List<LordNode>> expResult = LordsTableBuilder.buildLords(null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<List<LordNode>> result;
+
+        try
+        {
+            result = LordsTableBuilder.buildLords(pool);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        assertEquals(3 * 9 * 9 * 9 * 9 * 9, expResult.size());
+        assertEquals(expResult.size(), result.size());
+
+        for (int i = 0; i < expResult.size(); i++)
+        {
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                LordNode expNode = expResult.get(i).get(level);
+                LordNode node = result.get(i).get(level);
+
+                assertSame(expNode.getPlanet(), node.getPlanet());
+                assertEquals(expNode.getValue(), node.getValue());
+                assertEquals(Double.doubleToLongBits(expNode.getTimeFractionInYears()),
+                        Double.doubleToLongBits(node.getTimeFractionInYears()));
+            }
+        }
+    }
+
+    /**
+     * Test of buildLords method, of class LordsTableBuilder, against the
+     * lords index used by SupportCalcs.
+     */
+    @Test
+    public void testBuildMatchesLordsIndex()
+    {
+        System.out.println("buildLords index");
+        LordsIndex expResult = SupportCalcs.getLordsIndex();
+        LordsIndex result = LordsIndex.build(LordsTableBuilder.buildLords(ForkJoinPool.commonPool()));
+
+        assertEquals(expResult.size(), result.size());
+
+        for (int i = 0; i < expResult.size(); i++)
+        {
+            assertEquals(Double.doubleToLongBits(expResult.getBegin(i)),
+                    Double.doubleToLongBits(result.getBegin(i)));
+            assertEquals(Double.doubleToLongBits(expResult.getEnd(i)),
+                    Double.doubleToLongBits(result.getEnd(i)));
+
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                assertEquals(expResult.getLordOrdinal(i, level), result.getLordOrdinal(i, level));
+            }
+        }
+    }
+
+    /**
+     * Test of buildHorary method, of class LordsTableBuilder.
+     */
+    @Test
+    public void testBuildHorary()
+    {
+        System.out.println("buildHorary");
+        Map<Integer, List<Planet>> horary249 = new HashMap<>();
+        Map<Integer, DoubleRange> range249 = new HashMap<>();
+        Map<Integer, List<Planet>> horary2193 = new HashMap<>();
+        Map<Integer, DoubleRange> range2193 = new HashMap<>();
+
+        LordsTableBuilder.buildHorary(horary249, range249, horary2193, range2193);
+
+        assertEquals(249, horary249.size());
+        assertEquals(2193, horary2193.size());
+        assertEquals(SupportCalcs.getHoraryTable(true), horary249);
+        assertEquals(SupportCalcs.getHoraryRangeTable(true), range249);
+        assertEquals(SupportCalcs.getHoraryTable(false), horary2193);
+        assertEquals(SupportCalcs.getHoraryRangeTable(false), range2193);
+    }
+}
@@ -0,0 +1,166 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import mpp.jathakamu.types.LordNode;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class LordsTableFileTest
+{
+    private static Path tableFile;
+    
+    public LordsTableFileTest()
+    {
+    }
+    
+    @BeforeClass
+    public static void setUpClass()
+        throws IOException
+    {
+        tableFile = Files.createTempFile("lords", ".bin");
+        LordsTableFile.write(tableFile, SupportCalcs.getLordsIndex(),
+                SupportCalcs.getHoraryTable(true),
+                SupportCalcs.getHoraryRangeTable(true),
+                SupportCalcs.getHoraryTable(false),
+                SupportCalcs.getHoraryRangeTable(false));
+    }
+    
+    @AfterClass
+    public static void tearDownClass()
+        throws IOException
+    {
+        Files.deleteIfExists(tableFile);
+    }
+
+    /**
+     * Test of load method, of class LordsTableFile, from a mapped file.
+     */
+    @Test
+    public void testLoadMatchesComputed()
+        throws IOException
+    {
+        System.out.println("load");
+        LordsTableFile result = LordsTableFile.load(tableFile.toUri().toURL());
+        
+        assertNotNull(result);
+        assertTablesEqual(result);
+    }
+
+    /**
+     * Test of load method, of class LordsTableFile, from a jar entry.
+     */
+    @Test
+    public void testLoadFromJar()
+        throws IOException
+    {
+        System.out.println("load from jar");
+        Path jarFile = Files.createTempFile("lords", ".jar");
+        
+        try
+        {
+            try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarFile)))
+            {
+                jar.putNextEntry(new ZipEntry(LordsTableFile.RESOURCE_NAME));
+                Files.copy(tableFile, jar);
+                jar.closeEntry();
+            }
+            
+            URL url = new URL("jar:" + jarFile.toUri() + "!/" + LordsTableFile.RESOURCE_NAME);
+            LordsTableFile result = LordsTableFile.load(url);
+            
+            assertNotNull(result);
+            assertTablesEqual(result);
+        }
+        finally
+        {
+            Files.deleteIfExists(jarFile);
+        }
+    }
+
+    /**
+     * Test of load method, of class LordsTableFile, with a corrupted file.
+     */
+    @Test
+    public void testLoadChecksumMismatch()
+        throws IOException
+    {
+        System.out.println("load corrupted");
+        Path badFile = Files.createTempFile("lords", ".bin");
+        
+        try
+        {
+            byte[] data = Files.readAllBytes(tableFile);
+            data[data.length / 2] ^= 0x01;
+            
+            try (OutputStream out = Files.newOutputStream(badFile))
+            {
+                out.write(data);
+            }
+            
+            assertNull(LordsTableFile.load(badFile.toUri().toURL()));
+            
+            try (OutputStream out = Files.newOutputStream(badFile))
+            {
+                out.write(data, 0, data.length - 8);
+            }
+            
+            assertNull(LordsTableFile.load(badFile.toUri().toURL()));
+        }
+        finally
+        {
+            Files.deleteIfExists(badFile);
+        }
+    }
+    
+    private static void assertTablesEqual(LordsTableFile result)
+    {
+        LordsIndex expIndex = SupportCalcs.getLordsIndex();
+        LordsIndex index = result.getLordsIndex();
+        
+        assertEquals(expIndex.size(), index.size());
+        
+        for (int i = 0; i < expIndex.size(); i++)
+        {
+            assertEquals(expIndex.getBegin(i), index.getBegin(i), 0.0);
+            assertEquals(expIndex.getEnd(i), index.getEnd(i), 0.0);
+            
+            List<LordNode> expNodes = expIndex.getLordNodes(i);
+            List<LordNode> nodes = index.getLordNodes(i);
+            
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                LordNode expNode = expNodes.get(level);
+                LordNode node = nodes.get(level);
+                
+                assertSame(expNode.getPlanet(), node.getPlanet());
+                assertEquals(expNode.getValue(), node.getValue());
+                assertEquals(expNode.getTimeFractionInYears(), node.getTimeFractionInYears(), 0.0);
+            }
+        }
+        
+        // Parents are shared, same as the computed table
+        assertSame(index.getLordNodes(0).get(0), index.getLordNodes(1).get(0));
+        
+        assertEquals(SupportCalcs.getHoraryTable(true), result.getHoraryTable(true));
+        assertEquals(SupportCalcs.getHoraryRangeTable(true), result.getHoraryRangeTable(true));
+        assertEquals(SupportCalcs.getHoraryTable(false), result.getHoraryTable(false));
+        assertEquals(SupportCalcs.getHoraryRangeTable(false), result.getHoraryRangeTable(false));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.HashSet;
+import java.util.List;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import mpp.jathakamu.types.Planet;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class RulingPlanetsServiceTest
+{
+    /* 1973-04-04 12:00 IST, a Wednesday */
+    private final static double TJD_UT = 2441776.5D + 6.5D / 24D;
+
+    private final Place place = new Place.PlaceBuilder().values("", 78.5D,
+            17D + (1D / 3D), GlobalSettings.DEFAULT_TIMEZONE).build();
+
+    public RulingPlanetsServiceTest()
+    {
+    }
+
+    /**
+     * Test of get method, of class RulingPlanetsService, the answer is reused
+     * until it changes.
+     */
+    @Test
+    public void testGet() throws Exception
+    {
+        System.out.println("get");
+        RulingPlanetsService instance = new RulingPlanetsService(ProfileSettings.DEFAULT);
+        RulingPlanets expResult = instance.get(place, TJD_UT);
+
+        assertEquals(Planet.MERCURY, expResult.getDayLord());
+        assertEquals(SupportCalcs.getLordsWithSignLord(EphemerisCalcs.computeAll(
+                new Profile(TJD_UT, place, ProfileSettings.DEFAULT))
+                .getCusp(0)).subList(0, 3), expResult.getLagnaLords());
+        assertTrue(expResult.getValidUntil() > TJD_UT);
+        assertTrue(expResult.getValidUntil() - TJD_UT < 1D);
+
+        double middle = (expResult.getValidFrom() + expResult.getValidUntil()) / 2;
+        RulingPlanets result = instance.get(place, middle);
+        assertSame(expResult, result);
+        assertEquals(1, instance.getHitCount());
+        assertEquals(1, instance.getComputeCount());
+
+        // Lords at the middle are the same when computed again
+        RulingPlanets computed = instance.compute(place, middle);
+        assertEquals(expResult.getDayLord(), computed.getDayLord());
+        assertEquals(expResult.getLagnaLords(), computed.getLagnaLords());
+        assertEquals(expResult.getMoonLords(), computed.getMoonLords());
+
+        // Something changes at validUntil
+        result = instance.get(place, expResult.getValidUntil() + 1E-6D);
+        assertNotSame(expResult, result);
+        assertFalse(expResult.getDayLord() == result.getDayLord()
+                && expResult.getLagnaLords().equals(result.getLagnaLords())
+                && expResult.getMoonLords().equals(result.getMoonLords()));
+    }
+
+    /**
+     * Test of get method, of class RulingPlanetsService, the answer holds
+     * back to the last change.
+     */
+    @Test
+    public void testValidFrom() throws Exception
+    {
+        System.out.println("validFrom");
+        RulingPlanetsService instance = new RulingPlanetsService(ProfileSettings.DEFAULT);
+        RulingPlanets expResult = instance.get(place, TJD_UT);
+
+        assertTrue(expResult.getValidFrom() <= TJD_UT);
+        assertTrue(TJD_UT - expResult.getValidFrom() < 1D);
+
+        RulingPlanets result = instance.get(place, (expResult.getValidFrom() + TJD_UT) / 2);
+        assertSame(expResult, result);
+        assertEquals(1, instance.getHitCount());
+
+        // Something changes at validFrom
+        result = instance.compute(place, expResult.getValidFrom() - 1E-6D);
+        assertFalse(expResult.getDayLord() == result.getDayLord()
+                && expResult.getLagnaLords().equals(result.getLagnaLords())
+                && expResult.getMoonLords().equals(result.getMoonLords()));
+    }
+
+    /**
+     * Test of get method, of class RulingPlanetsService, within the polar
+     * circle the Lagna changes are computed directly.
+     */
+    @Test
+    public void testPolarPlace() throws Exception
+    {
+        System.out.println("polar place");
+        Place tromso = new Place.PlaceBuilder().values("", 18.95D, 69.65D,
+                GlobalSettings.DEFAULT_TIMEZONE).build();
+        RulingPlanetsService instance = new RulingPlanetsService(ProfileSettings.DEFAULT);
+        RulingPlanets expResult = instance.get(tromso, TJD_UT);
+
+        assertEquals(SupportCalcs.getLordsWithSignLord(EphemerisCalcs.computeAll(
+                new Profile(TJD_UT, tromso, ProfileSettings.DEFAULT))
+                .getCusp(0)).subList(0, 3), expResult.getLagnaLords());
+        assertTrue(expResult.isValidAt(TJD_UT));
+        assertTrue(expResult.getValidUntil() - expResult.getValidFrom() < 1D);
+
+        RulingPlanets before = instance.compute(tromso, expResult.getValidFrom() - 1E-4D);
+        RulingPlanets after = instance.compute(tromso, expResult.getValidUntil() + 1E-4D);
+        assertFalse(expResult.getDayLord() == before.getDayLord()
+                && expResult.getLagnaLords().equals(before.getLagnaLords())
+                && expResult.getMoonLords().equals(before.getMoonLords()));
+        assertFalse(expResult.getDayLord() == after.getDayLord()
+                && expResult.getLagnaLords().equals(after.getLagnaLords())
+                && expResult.getMoonLords().equals(after.getMoonLords()));
+    }
+
+    /**
+     * Test of getPlanets method, of class RulingPlanets.
+     */
+    @Test
+    public void testGetPlanets() throws Exception
+    {
+        System.out.println("getPlanets");
+        RulingPlanets instance = new RulingPlanetsService(ProfileSettings.DEFAULT)
+                .compute(place, TJD_UT);
+        List<Planet> result = instance.getPlanets();
+
+        assertEquals(instance.getDayLord(), result.get(0));
+        assertTrue(result.containsAll(instance.getLagnaLords()));
+        assertTrue(result.containsAll(instance.getMoonLords()));
+        assertEquals(result.size(), new HashSet<>(result).size());
+    }
+}
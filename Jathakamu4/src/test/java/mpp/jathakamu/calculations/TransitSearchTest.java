@@ -0,0 +1,173 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.List;
+import mpp.jathakamu.ProfileSettings;
+import org.junit.Test;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class TransitSearchTest
+{
+    private final static double START_JD = 2441683.5D; // 1973-01-01
+
+    /*
+     * Mercury going round the Sun, seen from the Earth: turns back about
+     * every 116 days.
+     */
+    private static class RetrogradeSwissEph extends SwissEph
+    {
+        private static final long serialVersionUID = 1L;
+
+        private static double longitude(double tjd_ut)
+        {
+            double d = tjd_ut - START_JD;
+            return 0.9856D * d + 22D * Math.sin(2 * Math.PI * d / 116D) * 3D;
+        }
+
+        @Override
+        public int swe_calc_ut(double tjd_ut, int ipl, int iflag, double[] xx, StringBuffer serr)
+        {
+            double d = 2 * Math.PI * (tjd_ut - START_JD) / 116D;
+
+            xx[0] = SupportCalcs.degnorm(longitude(tjd_ut));
+            xx[3] = 0.9856D + 66D * Math.cos(d) * 2 * Math.PI / 116D;
+            return iflag;
+        }
+
+        @Override
+        public double swe_get_ayanamsa_ut(double tjd_ut)
+        {
+            return 23.4D;
+        }
+    }
+
+    public TransitSearchTest()
+    {
+    }
+
+    /**
+     * Check that each event is at a boundary and that the graha is in the
+     * division entered just after it.
+     */
+    private static void checkEvents(List<TransitEvent> events, int division, double startJd,
+            double endJd)
+    {
+        for (TransitEvent event : events)
+        {
+            assertTrue(event.getTime() >= startJd && event.getTime() <= endJd);
+            assertEquals(division, event.getDivision());
+
+            int index = SupportCalcs.getLordsIndex().indexOf(event.getBoundary());
+            double begin = SupportCalcs.getLordsIndex().getBegin(index);
+            assertTrue(event.getBoundary() == begin || event.getBoundary() % 30D == 0D);
+        }
+    }
+
+    /**
+     * Test of search method, of class TransitSearch, Moon sub lord changes
+     * through a year.
+     */
+    @Test
+    public void testSearchMoon() throws Exception
+    {
+        System.out.println("search");
+        EphemerisEngine engine = EphemerisEngine.getInstance();
+        SwissEph swissEph = engine.checkout();
+
+        try
+        {
+            TransitSearch instance = new TransitSearch(swissEph, ProfileSettings.DEFAULT);
+            double endJd = START_JD + 365D;
+            long start = System.nanoTime();
+            List<TransitEvent> result = instance.search(SweConst.SE_MOON,
+                    TransitSearch.SUB_SUB, START_JD, endJd);
+            System.out.println(result.size() + " sub-sub changes in "
+                    + (System.nanoTime() - start) / 1000000 + "ms");
+
+            checkEvents(result, TransitSearch.SUB_SUB, START_JD, endJd);
+
+            LordBoundaries boundaries = LordBoundaries.of(TransitSearch.SUB_SUB);
+            double[] xx = new double[6];
+
+            for (int i = 0; i < result.size(); i++)
+            {
+                TransitEvent event = result.get(i);
+                assertFalse(event.isRetrograde());
+
+                // Position just after the crossing is in the division entered
+                swissEph.swe_calc_ut(event.getTime() + 1E-5D, SweConst.SE_MOON,
+                        SweConst.SEFLG_SPEED, xx, new StringBuffer());
+                double longitude = SupportCalcs.degnorm(xx[0] - swissEph.swe_get_ayanamsa_ut(event.getTime()));
+                assertEquals(SupportCalcs.getLordsWithSignLord(longitude).subList(0, 4),
+                        event.getLords());
+
+                if (i > 0)
+                {
+                    // No boundary is skipped
+                    int previous = boundaries.above(result.get(i - 1).getBoundary()) % boundaries.size();
+                    assertEquals(boundaries.get(previous), event.getBoundary(), 0.0);
+                    assertTrue(event.getTime() > result.get(i - 1).getTime());
+                }
+            }
+        }
+        finally
+        {
+            engine.release(swissEph);
+        }
+    }
+
+    /**
+     * Test of search method, of class TransitSearch, with a retrograde
+     * graha against stepping time by hand.
+     */
+    @Test
+    public void testSearchRetrograde() throws Exception
+    {
+        System.out.println("search retrograde");
+        RetrogradeSwissEph swissEph = new RetrogradeSwissEph();
+        TransitSearch instance = new TransitSearch(swissEph, ProfileSettings.DEFAULT);
+        double endJd = START_JD + 400D;
+        List<TransitEvent> result = instance.search(SweConst.SE_MERCURY,
+                TransitSearch.SUB, START_JD, endJd);
+
+        checkEvents(result, TransitSearch.SUB, START_JD, endJd);
+
+        LordBoundaries boundaries = LordBoundaries.of(TransitSearch.SUB);
+        double[] xx = new double[6];
+        int expResult = 0;
+        int retrograde = 0;
+        int previous = -1;
+
+        for (double t = START_JD; t <= endJd; t += 0.001D)
+        {
+            swissEph.swe_calc_ut(t, SweConst.SE_MERCURY, 0, xx, null);
+            int division = boundaries.above(SupportCalcs.degnorm(xx[0] - 23.4D));
+
+            if (previous >= 0 && division != previous)
+            {
+                expResult++;
+            }
+            previous = division;
+        }
+
+        for (TransitEvent event : result)
+        {
+            if (event.isRetrograde())
+            {
+                retrograde++;
+            }
+        }
+
+        assertEquals(expResult, result.size());
+        assertTrue(retrograde > 0);
+    }
+}
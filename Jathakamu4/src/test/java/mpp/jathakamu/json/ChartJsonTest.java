@@ -0,0 +1,137 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.json;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.calculations.DasaTimeline;
+import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.types.LazyVDNode;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class ChartJsonTest
+{
+    /* 04-Apr-1973 08:59:08 IST */
+    private final static long DOB = 102742148000L;
+    private final static double MOON_LONGITUDE = 105.2;
+    private final static long YEAR = 365L * 24 * 3600 * 1000;
+
+    private final Profile profile = new Profile(0.0, null, ProfileSettings.DEFAULT);
+
+    public ChartJsonTest()
+    {
+    }
+
+    /**
+     * Test of the value methods of class JsonStreamWriter, with a buffer
+     * small enough to be written out many times.
+     */
+    @Test
+    public void testJsonStreamWriter() throws Exception
+    {
+        System.out.println("JsonStreamWriter");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (JsonStreamWriter out = new JsonStreamWriter(bytes, 16))
+        {
+            out.beginObject();
+            out.name("a").value(1.05D);
+            out.name("b").value(-0.5D);
+            out.name("c").beginArray().value(123.0000001D).value(-12L).value(Double.NaN)
+                    .value(true).value(-0.00000001D).endArray();
+            out.name("d").value("q\"\\\né € 😀");
+            out.name("e").beginObject().endObject();
+            out.name("f").value(Long.MIN_VALUE);
+            out.endObject();
+        }
+
+        assertEquals("{\"a\":1.05,\"b\":-0.5,\"c\":[123.0000001,-12,null,true,0],"
+                + "\"d\":\"q\\\"\\\\\\u000aé € 😀\",\"e\":{},"
+                + "\"f\":-9223372036854775808}",
+                new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test of writeTimeline method, of class ChartJson, periods written are
+     * those of the depth and between from and to.
+     */
+    @Test
+    public void testWriteTimeline() throws Exception
+    {
+        System.out.println("writeTimeline");
+        DasaTimeline timeline = SupportCalcs.getDasaTimeline(DOB, MOON_LONGITUDE, profile);
+        String result = write(timeline, 2, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertEquals(timeline.size(LazyVDNode.MAHA_DASA) + timeline.size(LazyVDNode.BHUKTHI),
+                count(result, "\"planet\""));
+        assertTrue(result.startsWith("[{\"planet\":\""
+                + timeline.getPlanet(LazyVDNode.MAHA_DASA, 0).getName() + "\",\"start\":"
+                + timeline.getBegin(LazyVDNode.MAHA_DASA) + ",\"end\":"
+                + timeline.getEnd(LazyVDNode.MAHA_DASA, 0) + ",\"periods\":[{\"planet\""));
+
+        long from = DOB + 10 * YEAR;
+        long to = from + YEAR;
+        int expResult = 0;
+
+        for (int level = LazyVDNode.MAHA_DASA; level < DasaTimeline.LEVELS; level++)
+        {
+            expResult += timeline.indexesBetween(level, from, to).length;
+        }
+
+        result = write(timeline, DasaTimeline.LEVELS, from, to);
+        assertEquals(expResult, count(result, "\"planet\""));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (JsonStreamWriter out = new JsonStreamWriter(bytes))
+        {
+            ChartJson.writeVDTree(out, SupportCalcs.getVDTree2(DOB, MOON_LONGITUDE, profile),
+                    DasaTimeline.LEVELS, from, to);
+        }
+
+        assertEquals(result, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+
+        try
+        {
+            write(timeline, 0, from, to);
+            fail("Depth 0 should not be written");
+        }
+        catch (IllegalArgumentException ex)
+        {
+        }
+    }
+
+    private static String write(DasaTimeline timeline, int depth, long from, long to)
+            throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (JsonStreamWriter out = new JsonStreamWriter(bytes))
+        {
+            ChartJson.writeTimeline(out, timeline, depth, from, to);
+        }
+
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static int count(String text, String part)
+    {
+        int rtnCount = 0;
+
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1))
+        {
+            rtnCount++;
+        }
+
+        return rtnCount;
+    }
+}
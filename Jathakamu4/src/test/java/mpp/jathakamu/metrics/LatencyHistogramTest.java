@@ -0,0 +1,86 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class LatencyHistogramTest
+{
+    public LatencyHistogramTest()
+    {
+    }
+
+    /**
+     * Test of index method, of class LatencyHistogram, every value is within
+     * its bucket and buckets follow each other.
+     */
+    @Test
+    public void testIndex()
+    {
+        System.out.println("index");
+        Random random = new Random(1973);
+
+        for (int i = 0; i < 100000; i++)
+        {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int index = LatencyHistogram.index(value);
+
+            assertTrue(value <= LatencyHistogram.highestValue(index));
+            assertTrue(index == 0 || value > LatencyHistogram.highestValue(index - 1));
+        }
+
+        assertEquals(127, LatencyHistogram.index(127));
+        assertEquals(128, LatencyHistogram.index(128));
+        assertEquals(129, LatencyHistogram.index(130));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.index(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Test of getValueAtPercentile method, of class LatencyHistogram, within
+     * 1/64 of the exact percentile.
+     */
+    @Test
+    public void testGetValueAtPercentile()
+    {
+        System.out.println("getValueAtPercentile");
+        LatencyHistogram instance = new LatencyHistogram();
+        Random random = new Random(1973);
+        long[] values = new long[10000];
+
+        assertEquals(0L, instance.getValueAtPercentile(50D));
+
+        for (int i = 0; i < values.length; i++)
+        {
+            // Log normal around 50 microseconds
+            values[i] = (long) (50000D * Math.exp(random.nextGaussian()));
+            instance.record(values[i]);
+        }
+
+        Arrays.sort(values);
+
+        for (double percentile : new double[] {50D, 90D, 99D, 99.9D, 100D})
+        {
+            long expResult = values[(int) Math.ceil(percentile / 100D * values.length) - 1];
+            long result = instance.getValueAtPercentile(percentile);
+
+            assertTrue(result >= expResult);
+            assertTrue(result <= expResult + expResult / 64);
+        }
+
+        assertEquals(values.length, instance.getCount());
+        assertEquals(values[values.length - 1], instance.getMax());
+
+        instance.reset();
+        assertEquals(0L, instance.getCount());
+        assertEquals(0L, instance.getSum());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class MetricsTest
+{
+    public MetricsTest()
+    {
+    }
+
+    /**
+     * Test of timer method, of class Metrics, same timer by name, recorded
+     * and readable over JMX.
+     */
+    @Test
+    public void testTimer() throws Exception
+    {
+        System.out.println("timer");
+        Timer instance = Metrics.timer("test.timer");
+
+        assertSame(instance, Metrics.timer("test.timer"));
+
+        long start = Timer.start();
+        Thread.sleep(2);
+        instance.stop(start);
+
+        assertEquals(1L, instance.getCount());
+        assertTrue(instance.getP50Millis() >= 2D);
+
+        Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(
+                new ObjectName("mpp.jathakamu:type=Timer,name=test.timer"), "Count");
+
+        assertEquals(1L, count);
+    }
+
+    /**
+     * Test of writeText method, of class Metrics, in the Prometheus text
+     * format.
+     */
+    @Test
+    public void testWriteText() throws Exception
+    {
+        System.out.println("writeText");
+        LongAdder counter = Metrics.counter("test.counted");
+        Timer timer = Metrics.timer("test.written");
+        StringBuilder out = new StringBuilder();
+
+        counter.add(3);
+        Metrics.gauge("test.gauge", () -> 42L);
+        timer.stop(Timer.start() - 1500000L);
+        Metrics.writeText(out);
+
+        String text = out.toString();
+
+        assertTrue(text.contains("# TYPE jathakamu_test_written_seconds summary\n"));
+        assertTrue(text.contains("jathakamu_test_written_seconds_count 1\n"));
+        assertTrue(text.contains("jathakamu_test_written_seconds{quantile=\"0.99\"} 0.0015"));
+        assertTrue(text.contains("# TYPE jathakamu_test_counted_total counter\n"
+                + "jathakamu_test_counted_total 3\n"));
+        assertTrue(text.contains("jathakamu_test_gauge 42\n"));
+    }
+}
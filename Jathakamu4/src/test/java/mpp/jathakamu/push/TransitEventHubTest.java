@@ -0,0 +1,270 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.push;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.beans.TransitSnapshot;
+import mpp.jathakamu.beans.TransitSnapshotService;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class TransitEventHubTest
+{
+    private final static long SIX_HOURS = 6L * 3600000L;
+
+    public TransitEventHubTest()
+    {
+    }
+
+    /**
+     * Test of update method, of class TransitEventHub, a new subscriber gets
+     * a snapshot and then the boundaries crossed with their new lords.
+     */
+    @Test
+    public void testUpdate() throws Exception
+    {
+        System.out.println("update");
+        TransitEventHub instance = new TransitEventHub(1);
+        TestStream out = new TestStream(true);
+        long time = 1500000000000L;
+
+        try
+        {
+            instance.subscribe(out, () -> { });
+            assertEquals(1, instance.getSubscriberCount());
+
+            // The Lagna crosses several signs in six hours
+            instance.updateAndWait(snapshot(time));
+            instance.updateAndWait(snapshot(time + SIX_HOURS));
+
+            String result = waitFor(out.bytes, "event: delta");
+
+            assertTrue(result, result.startsWith("event: snapshot\ndata: {"));
+            assertTrue(result, result.contains("\"name\":\"Cusp 1\""));
+            assertTrue(result, result.contains("\"lords\":["));
+            assertTrue(result.endsWith("\n\n"));
+            assertTrue(instance.getEventCount() > 0);
+        }
+        finally
+        {
+            instance.shutdown();
+        }
+    }
+
+    /**
+     * Test of update method, of class TransitEventHub, a subscriber not keeping
+     * up with its buffer is sent a snapshot instead of the stale deltas.
+     */
+    @Test
+    public void testSlowSubscriber() throws Exception
+    {
+        System.out.println("slowSubscriber");
+        TransitEventHub instance = new TransitEventHub(1);
+        TestStream out = new TestStream(false);
+        long time = 1500000000000L;
+
+        try
+        {
+            instance.subscribe(out, () -> { });
+
+            for (int i = 0; i <= TransitEventHub.BUFFER_SIZE + 2; i++)
+            {
+                instance.updateAndWait(snapshot(time + i * SIX_HOURS));
+            }
+
+            assertTrue(instance.getResyncCount() > 0);
+            out.setReady();
+            waitFor(out.bytes, "event: snapshot");
+            assertEquals(1, instance.getSubscriberCount());
+        }
+        finally
+        {
+            instance.shutdown();
+        }
+    }
+
+    /**
+     * Test of update method, of class TransitEventHub, a client that stops
+     * reading does not hold up the others on the same writer thread.
+     */
+    @Test
+    public void testStalledSubscriber() throws Exception
+    {
+        System.out.println("stalledSubscriber");
+        TransitEventHub instance = new TransitEventHub(1);
+        TestStream stalled = new TestStream(false);
+        TestStream out = new TestStream(true);
+        long time = 1500000000000L;
+
+        try
+        {
+            instance.subscribe(stalled, () -> { });
+            instance.subscribe(out, () -> { });
+
+            instance.updateAndWait(snapshot(time));
+            instance.updateAndWait(snapshot(time + SIX_HOURS));
+
+            waitFor(out.bytes, "event: delta");
+            // Never written while not ready, so still open
+            assertEquals(0, stalled.bytes.size());
+            assertEquals(2, instance.getSubscriberCount());
+
+            stalled.setReady();
+            waitFor(stalled.bytes, "event: delta");
+        }
+        finally
+        {
+            instance.shutdown();
+        }
+    }
+
+    /**
+     * Test of publish method, of class TransitEventHub, the hub is fed by
+     * the snapshots of the snapshot service.
+     */
+    @Test
+    public void testPublish() throws Exception
+    {
+        System.out.println("publish");
+        TransitEventHub instance = new TransitEventHub(1);
+        TransitSnapshotService snapshots = new TransitSnapshotService(60000L);
+        TestStream out = new TestStream(true);
+
+        try
+        {
+            instance.subscribe(out, () -> { });
+            snapshots.addListener(instance::publish);
+            snapshots.refresh();
+
+            waitFor(out.bytes, "event: snapshot");
+        }
+        finally
+        {
+            instance.shutdown();
+        }
+    }
+
+    /**
+     * Test of unsubscribe method, of class TransitEventHub.
+     */
+    @Test
+    public void testUnsubscribe() throws Exception
+    {
+        System.out.println("unsubscribe");
+        TransitEventHub instance = new TransitEventHub(1);
+        int[] closed = new int[1];
+
+        try
+        {
+            TransitSubscriber subscriber = instance.subscribe(new TestStream(true),
+                    () -> closed[0]++);
+
+            subscriber.close();
+            subscriber.close();
+            assertEquals(1, closed[0]);
+            assertEquals(0, instance.getSubscriberCount());
+
+            subscriber = instance.subscribe(new TestStream(true), () -> { });
+            instance.unsubscribe(subscriber);
+            assertEquals(0, instance.getSubscriberCount());
+        }
+        finally
+        {
+            instance.shutdown();
+        }
+    }
+
+    private static TransitSnapshot snapshot(long time) throws Exception
+    {
+        return new TransitSnapshotService(60000L).compute(GlobalSettings.astrologerPlace, time);
+    }
+
+    /*
+     * Stream of a client, like that of a container in async mode: writing
+     * while it is not ready is refused, and once it is ready again the
+     * write listener is called
+     */
+    private static final class TestStream
+        extends ServletOutputStream
+    {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile boolean ready;
+        private volatile WriteListener listener;
+
+        private TestStream(boolean ready)
+        {
+            this.ready = ready;
+        }
+
+        private void setReady() throws IOException
+        {
+            ready = true;
+            listener.onWritePossible();
+        }
+
+        @Override
+        public boolean isReady()
+        {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener)
+        {
+            listener = writeListener;
+        }
+
+        @Override
+        public void write(int b)
+        {
+            if (!ready)
+            {
+                throw new IllegalStateException("Not ready");
+            }
+
+            synchronized (bytes)
+            {
+                bytes.write(b);
+            }
+        }
+    }
+
+    /* Output so far once it has the text, written by the writer thread */
+    private static String waitFor(ByteArrayOutputStream out, String text)
+            throws InterruptedException
+    {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        String rtnString = "";
+
+        while (System.nanoTime() < deadline)
+        {
+            synchronized (out)
+            {
+                rtnString = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            }
+
+            if (rtnString.contains(text))
+            {
+                return rtnString;
+            }
+
+            Thread.sleep(10);
+        }
+
+        fail("No " + text + " in " + rtnString);
+
+        return rtnString;
+    }
+}
@@ -0,0 +1,81 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.types;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class DoubleRangeTest
+{
+    
+    public DoubleRangeTest()
+    {
+    }
+
+    /**
+     * Test of equals and hashCode methods, of class DoubleRange.
+     */
+    @Test
+    public void testEquals()
+    {
+        System.out.println("equals");
+        DoubleRange r1 = new DoubleRange.Builder().values(10.0, 20.0).build();
+        DoubleRange r2 = new DoubleRange.Builder().min(10.0).max(20.0).build();
+        DoubleRange r3 = new DoubleRange.Builder().values(10.0, 20.5).build();
+        
+        assertEquals(r1, r2);
+        assertEquals(r1.hashCode(), r2.hashCode());
+        assertFalse(r1.equals(r3));
+        assertEquals(0, r1.compareTo(r2));
+        assertTrue(r1.compareTo(r3) < 0);
+        assertEquals(r1, r1.toRange().toDoubleRange());
+    }
+
+    /**
+     * Test of inRange method, of class DoubleRange.
+     */
+    @Test
+    public void testInRange()
+    {
+        System.out.println("inRange");
+        DoubleRange range = Raasi.TARUS.getExtent();
+        
+        assertTrue(range.inRange(30.0));
+        assertTrue(range.inRange(59.999));
+        assertFalse(range.inRange(60.0));
+        assertFalse(range.inRange(29.999));
+    }
+
+    /**
+     * Test of lookupKey method, of class DoubleRange, with a NavigableMap.
+     */
+    @Test
+    public void testFloorLookup()
+    {
+        System.out.println("lookupKey");
+        NavigableMap<DoubleRange, Raasi> signs = new TreeMap<>();
+        
+        for (Raasi raasi : Raasi.values())
+        {
+            if (raasi != Raasi.NONE)
+            {
+                signs.put(raasi.getExtent(), raasi);
+            }
+        }
+        
+        assertSame(Raasi.ARIES, signs.floorEntry(DoubleRange.lookupKey(0.0)).getValue());
+        assertSame(Raasi.TARUS, signs.floorEntry(DoubleRange.lookupKey(30.0)).getValue());
+        assertSame(Raasi.TARUS, signs.floorEntry(DoubleRange.lookupKey(45.5)).getValue());
+        assertSame(Raasi.PISCES, signs.floorEntry(DoubleRange.lookupKey(359.9)).getValue());
+        assertNull(signs.floorKey(DoubleRange.lookupKey(-1.0)));
+        assertFalse(signs.floorKey(DoubleRange.lookupKey(360.5)).inRange(360.5));
+    }
+}
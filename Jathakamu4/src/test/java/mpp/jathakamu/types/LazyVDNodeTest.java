@@ -0,0 +1,94 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.types;
+
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class LazyVDNodeTest
+{
+    /* 120 years as 120 * 1000 milliseconds, to keep the numbers readable */
+    private final static long START = 0L;
+    private final static long END = 120000L;
+    
+    public LazyVDNodeTest()
+    {
+    }
+
+    /**
+     * Test of getChildren method, of class LazyVDNode.
+     */
+    @Test
+    public void testGetChildren()
+    {
+        System.out.println("getChildren");
+        LazyVDNode node = new LazyVDNode(Planet.KETU, START, END, START,
+                LazyVDNode.MAHA_DASA, false);
+        List<VDNode> children = node.getChildren();
+        
+        assertEquals(9, children.size());
+        assertSame(Planet.KETU, children.get(0).getPlanet());
+        assertSame(Planet.MERCURY, children.get(8).getPlanet());
+        
+        // Ketu 7 years, Venus 20 years of 120
+        assertEquals(7000L, children.get(0).getDasaEndPeriod());
+        assertEquals(27000L, children.get(1).getDasaEndPeriod());
+        assertEquals(END, children.get(8).getDasaEndPeriod());
+        
+        long start = START;
+        for (VDNode child : children)
+        {
+            LazyVDNode lazyChild = (LazyVDNode) child;
+            assertEquals(start, lazyChild.getDasaStartPeriod());
+            assertEquals(LazyVDNode.BHUKTHI, lazyChild.getLevel());
+            start = lazyChild.getDasaEndPeriod();
+        }
+    }
+
+    /**
+     * Test of getChildren method, of class LazyVDNode, for the running dasa.
+     */
+    @Test
+    public void testGetChildrenNotBefore()
+    {
+        System.out.println("getChildren notBefore");
+        LazyVDNode node = new LazyVDNode(Planet.VENUS, START, END, 30000L,
+                LazyVDNode.MAHA_DASA, true);
+        List<VDNode> children = node.getChildren();
+        
+        // Venus 20 and Sun 6 years end before 30000, Moon is running
+        assertEquals(7, children.size());
+        assertSame(Planet.MOON, children.get(0).getPlanet());
+        assertEquals(26000L, ((LazyVDNode) children.get(0)).getDasaStartPeriod());
+        
+        // cached children are reused
+        assertSame(children.get(0), node.getChildren().get(0));
+    }
+
+    /**
+     * Test of hasChild method, of class LazyVDNode.
+     */
+    @Test
+    public void testPranaHasNoChildren()
+    {
+        System.out.println("hasChild");
+        VDNode node = new LazyVDNode(Planet.SUN, START, END, START,
+                LazyVDNode.MAHA_DASA, false);
+        
+        for (int level = LazyVDNode.MAHA_DASA; level < LazyVDNode.PRANA; level++)
+        {
+            assertTrue(node.hasChild());
+            node = node.getChildren().get(0);
+        }
+        
+        assertFalse(node.hasChild());
+        assertTrue(node.getChildren().isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+/* 
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.types;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class ZodiacResolverTest
+{
+    
+    public ZodiacResolverTest()
+    {
+    }
+
+    /**
+     * Test of getRaasi method, of class Raasi, on sign boundaries.
+     */
+    @Test
+    public void testGetRaasi()
+    {
+        System.out.println("getRaasi");
+        assertSame(Raasi.ARIES, Raasi.getRaasi(0.0));
+        assertSame(Raasi.ARIES, Raasi.getRaasi(29.999999));
+        assertSame(Raasi.TARUS, Raasi.getRaasi(30.0));
+        assertSame(Raasi.PISCES, Raasi.getRaasi(359.999999));
+        assertSame(Raasi.ARIES, Raasi.getRaasi(360.0));
+        assertSame(Raasi.NONE, Raasi.getRaasi(-0.5));
+        assertSame(Raasi.NONE, Raasi.getRaasi(360.5));
+        assertSame(Raasi.NONE, Raasi.getRaasi(Double.NaN));
+        
+        for (Raasi raasi : Raasi.values())
+        {
+            if (raasi != Raasi.NONE)
+            {
+                double start = raasi.getExtent().getMin();
+                assertSame(raasi, Raasi.getRaasi(start));
+                assertSame(raasi, Raasi.getRaasi(start + 15.0));
+            }
+        }
+    }
+
+    /**
+     * Test of getStar method, of class Nakshatram, on star boundaries.
+     */
+    @Test
+    public void testGetStar()
+    {
+        System.out.println("getStar");
+        assertSame(Nakshatram.ASWINI, Nakshatram.getStar(0.0));
+        assertSame(Nakshatram.ASWINI, Nakshatram.getStar(360.0));
+        assertSame(Nakshatram.REVATHI, Nakshatram.getStar(359.999999));
+        assertSame(Nakshatram.NONE, Nakshatram.getStar(-1.0));
+        
+        for (Nakshatram star : Nakshatram.values())
+        {
+            if (star != Nakshatram.NONE)
+            {
+                assertSame(star, Nakshatram.getStar(star.start()));
+                assertSame(star, Nakshatram.getStar(Math.nextDown(star.end())));
+                assertSame(star, Nakshatram.getStar(star.start() + 1.0));
+            }
+        }
+    }
+
+    /**
+     * Test of getPada and the lords, of class ZodiacResolver.
+     */
+    @Test
+    public void testPadaAndLords()
+    {
+        System.out.println("getPada");
+        assertEquals(1, ZodiacResolver.getPada(0.0));
+        assertEquals(4, ZodiacResolver.getPada(13.3));
+        assertEquals(2, ZodiacResolver.getPada(16.8));
+        assertEquals(0, ZodiacResolver.getPada(400.0));
+        
+        assertSame(Planet.MARS, ZodiacResolver.getSignLord(10.0));
+        assertSame(Planet.VENUS, ZodiacResolver.getSignLord(45.0));
+        assertSame(Planet.KETU, ZodiacResolver.getStarLord(10.0));
+        assertSame(Planet.MOON, ZodiacResolver.getStarLord(45.0));
+        assertNull(ZodiacResolver.getStarLord(-1.0));
+    }
+}
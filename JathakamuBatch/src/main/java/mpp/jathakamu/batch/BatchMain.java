@@ -0,0 +1,123 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import mpp.jathakamu.ProfileSettings;
+
+import static mpp.jathakamu.JathakamLogger.LOGGER;
+
+/**
+ * Command line of the batch:
+ *
+ * java -jar batch.jar --input births.csv --output charts.jsonl [--threads n]
+ * [--queue n] [--offset n --length bytes] [--progress seconds]
+ *
+ * Input is CSV or JSON Lines and output JSON Lines or CSV, by the file
+ * names. With --offset the records before it are skipped and the output is
+ * appended to, to resume a batch with the offset and length it printed
+ * last; the output is first cut to the length, dropping what was written
+ * after that offset. Progress and the final statistics are printed on the
+ * standard error.
+ *
+ * @author Phani
+ */
+public final class BatchMain
+{
+    private BatchMain()
+    {
+    }
+
+    public static void main(String[] args)
+        throws Exception
+    {
+        Path input = null;
+        Path output = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queueSize = 0;
+        long offset = 0;
+        long length = -1;
+        long progress = 10;
+
+        for (int i = 0; i + 1 < args.length; i += 2)
+        {
+            switch (args[i])
+            {
+                case "--input":
+                    input = Paths.get(args[i + 1]);
+                    break;
+                case "--output":
+                    output = Paths.get(args[i + 1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--queue":
+                    queueSize = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--offset":
+                    offset = Long.parseLong(args[i + 1]);
+                    break;
+                case "--length":
+                    length = Long.parseLong(args[i + 1]);
+                    break;
+                case "--progress":
+                    progress = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    input = null;
+            }
+        }
+
+        if (input == null || output == null || args.length % 2 != 0 || (offset > 0 && length < 0))
+        {
+            System.err.println("Usage: BatchMain --input <csv or jsonl> --output <jsonl or csv>"
+                    + " [--threads <n>] [--queue <n>] [--offset <n> --length <bytes>]"
+                    + " [--progress <seconds>]");
+            System.exit(1);
+        }
+
+        // Every chart logs at INFO, too much for a batch
+        LOGGER.setLevel(Level.WARNING);
+
+        BatchRunner runner = new BatchRunner(ProfileSettings.DEFAULT, threads,
+                (queueSize > 0) ? queueSize : threads * 64);
+        BatchStats stats = new BatchStats(offset);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread thread = new Thread(r, "batch-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (progress > 0)
+        {
+            reporter.scheduleAtFixedRate(() -> System.err.println(stats), progress, progress,
+                    TimeUnit.SECONDS);
+        }
+
+        try (BirthRecordReader reader = BirthRecordReader.open(input);
+                ResultWriter writer = (offset > 0) ? ResultWriter.resume(output, length)
+                        : ResultWriter.open(output, false))
+        {
+            if (reader.skip(offset) < offset)
+            {
+                System.err.println("Input has less than " + offset + " records");
+            }
+
+            runner.run(reader, writer, stats);
+        }
+        finally
+        {
+            reporter.shutdownNow();
+            System.err.println(stats);
+            System.err.println(runner.getEngine());
+        }
+    }
+}
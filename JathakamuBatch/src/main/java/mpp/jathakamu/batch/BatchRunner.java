@@ -0,0 +1,302 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.calculations.EphemerisCalcs;
+import mpp.jathakamu.calculations.EphemerisEngine;
+import mpp.jathakamu.calculations.SupportCalcs;
+import mpp.jathakamu.types.Place;
+import mpp.jathakamu.types.Planet;
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+/**
+ * Computes the charts of birth records on a fixed number of threads and
+ * writes the results in the order of the input.
+ *
+ * The reading thread submits each record and puts its Future in a bounded
+ * queue, a writer thread takes them from the queue in order and writes each
+ * result when it is done. When the output falls behind the queue fills up
+ * and reading waits, so at most queueSize charts are in memory whatever the
+ * size of the input.
+ *
+ * The runner has its own EphemerisEngine keeping as many SwissEph instances
+ * as there are threads, so every chart reuses an instance and no thread
+ * waits for or creates one after the first charts. The output is flushed
+ * every FLUSH_EVERY results and only then BatchStats.getNextOffset is moved,
+ * along with BatchStats.getNextLength, the length of the output at that
+ * flush. Results after it may reach the output before the batch stops, the
+ * last one maybe half written; ResultWriter.resume cuts them off, so a batch
+ * stopped at any point resumes from the offset and length without losing or
+ * repeating a record.
+ *
+ * @author Phani
+ */
+public final class BatchRunner
+{
+    public final static int FLUSH_EVERY = 1000;
+
+    private final static double MILLIS_PER_DAY = 86400000D;
+
+    /* Put after the last record, ends the writer */
+    private final static Future<ChartResult> END = CompletableFuture.completedFuture(null);
+
+    private final ProfileSettings settings;
+    private final int threads;
+    private final int queueSize;
+    private final int flushEvery;
+    private final EphemerisEngine engine;
+
+    /**
+     * @param settings ayanamsa, flags, house system and year length of the
+     * charts
+     * @param threads threads computing charts
+     * @param queueSize charts computed or being computed ahead of the writer
+     */
+    public BatchRunner(ProfileSettings settings, int threads, int queueSize)
+    {
+        this(settings, threads, queueSize, FLUSH_EVERY);
+    }
+
+    /**
+     * @param settings ayanamsa, flags, house system and year length of the
+     * charts
+     * @param threads threads computing charts
+     * @param queueSize charts computed or being computed ahead of the writer
+     * @param flushEvery results written between two flushes of the output
+     */
+    BatchRunner(ProfileSettings settings, int threads, int queueSize, int flushEvery)
+    {
+        if (threads < 1 || queueSize < 1 || flushEvery < 1)
+        {
+            throw new IllegalArgumentException("Threads, queue size and flush interval should be"
+                    + " at least 1, not " + threads + ", " + queueSize + " and " + flushEvery);
+        }
+
+        this.settings = settings;
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.flushEvery = flushEvery;
+        this.engine = new EphemerisEngine(GlobalSettings.EPHEMERIS_FILES_PATH, threads);
+    }
+
+    /**
+     * Compute and write all the records left in the reader.
+     *
+     * @param reader input, at the record to start from
+     * @param writer output
+     * @param stats updated as the results are written
+     * @throws IOException if the input can not be read or the output written
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public void run(BirthRecordReader reader, ResultWriter writer, BatchStats stats)
+            throws IOException, InterruptedException
+    {
+        BlockingQueue<Future<ChartResult>> pending = new ArrayBlockingQueue<>(queueSize);
+        ExecutorService computing = Executors.newFixedThreadPool(threads);
+        ExecutorService writing = Executors.newSingleThreadExecutor();
+
+        // Nothing of this run in the output yet
+        stats.flushed(stats.getNextOffset(), writer.getLength());
+
+        try
+        {
+            Future<Void> written = writing.submit(() -> write(pending, writer, stats,
+                    flushEvery));
+            BirthRecord record;
+
+            while ((record = reader.next()) != null)
+            {
+                final BirthRecord birth = record;
+
+                offer(pending, computing.submit(() -> compute(birth)), written);
+            }
+
+            offer(pending, END, written);
+            written.get();
+        }
+        catch (ExecutionException ex)
+        {
+            Throwable cause = ex.getCause();
+
+            if (cause instanceof IOException)
+            {
+                throw (IOException) cause;
+            }
+
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+        finally
+        {
+            computing.shutdownNow();
+            writing.shutdownNow();
+            stats.finish();
+        }
+    }
+
+    /* Wait for room in the queue, unless the writer has stopped */
+    private static void offer(BlockingQueue<Future<ChartResult>> pending,
+            Future<ChartResult> future, Future<Void> written)
+            throws InterruptedException, ExecutionException
+    {
+        while (!pending.offer(future, 100, TimeUnit.MILLISECONDS))
+        {
+            if (written.isDone())
+            {
+                // Writer failed, get throws its exception
+                written.get();
+            }
+        }
+    }
+
+    private static Void write(BlockingQueue<Future<ChartResult>> pending, ResultWriter writer,
+            BatchStats stats, int flushEvery)
+            throws IOException, InterruptedException, ExecutionException
+    {
+        long unflushed = 0;
+        long nextOffset = -1;
+
+        while (true)
+        {
+            Future<ChartResult> future = pending.take();
+
+            if (future == END)
+            {
+                break;
+            }
+
+            ChartResult result = future.get();
+
+            writer.write(result);
+            stats.record(result);
+            nextOffset = result.getOffset() + 1;
+
+            if (++unflushed == flushEvery)
+            {
+                writer.flush();
+                stats.flushed(nextOffset, writer.getLength());
+                unflushed = 0;
+            }
+        }
+
+        writer.flush();
+
+        if (nextOffset >= 0)
+        {
+            stats.flushed(nextOffset, writer.getLength());
+        }
+
+        return null;
+    }
+
+    /**
+     * Chart of one record, or the error why it could not be computed.
+     *
+     * @param record birth to compute
+     * @return chart result, never null
+     */
+    public ChartResult compute(BirthRecord record)
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            LocalDateTime dateTime = LocalDateTime.parse(required(record.getDateTime(), "dateTime"));
+            String timeZone = required(record.getTimeZone(), "timeZone");
+            double latitude = Double.parseDouble(required(record.getLatitude(), "latitude"));
+            double longitude = Double.parseDouble(required(record.getLongitude(), "longitude"));
+
+            if (Math.abs(latitude) > 90D || Math.abs(longitude) > 180D)
+            {
+                throw new JathakamuException("Latitude " + latitude + " or longitude "
+                        + longitude + " out of range");
+            }
+
+            double tjd_ut = SupportCalcs.getJulianDay(dateTime.getYear(), dateTime.getMonthValue(),
+                    dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(),
+                    dateTime.getSecond() + dateTime.getNano() / 1E9D, timeZone, longitude);
+            Place place = new Place.PlaceBuilder()
+                    .values(record.getId(), longitude, latitude, timeZone).build();
+            Profile profile = new Profile(tjd_ut, place, settings);
+            ChartPositions positions;
+
+            try (EphemerisCalcs ephCalc = new EphemerisCalcs(profile, engine))
+            {
+                positions = ephCalc.computeAll(new ChartPositions());
+            }
+
+            List<List<Planet>> grahaLords = new ArrayList<>(ChartPositions.GRAHAS);
+            List<List<Planet>> cuspLords = new ArrayList<>(ChartPositions.HOUSES);
+
+            for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+            {
+                grahaLords.add(SupportCalcs.getLordsWithSignLord(positions.getLongitude(graha))
+                        .subList(0, ChartResult.LORD_LEVELS));
+            }
+
+            for (int house = 0; house < ChartPositions.HOUSES; house++)
+            {
+                cuspLords.add(SupportCalcs.getLordsWithSignLord(positions.getCusp(house))
+                        .subList(0, ChartResult.LORD_LEVELS));
+            }
+
+            // Birth time as the chart pages take it
+            long dob = SweDate.getDate(tjd_ut).getTime();
+            // Only the running maha dasa, its sub periods are not written
+            Planet[] mahaDasaPlanets = new Planet[9];
+            long[] mahaDasaBounds = SupportCalcs.getMahaDasaBounds(dob,
+                    positions.getLongitude(SweConst.SE_MOON), profile, mahaDasaPlanets);
+            double balance = (mahaDasaBounds[1] - dob) / (settings.getOneYear() * MILLIS_PER_DAY);
+
+            return new ChartResult(record, tjd_ut, positions, grahaLords, cuspLords,
+                    mahaDasaPlanets[0], balance,
+                    System.nanoTime() - start);
+        }
+        catch (JathakamuException | DateTimeException | NumberFormatException ex)
+        {
+            return new ChartResult(record, ex.getMessage(), System.nanoTime() - start);
+        }
+        catch (RuntimeException ex)
+        {
+            return new ChartResult(record, ex.toString(), System.nanoTime() - start);
+        }
+    }
+
+    private static String required(String value, String name)
+            throws JathakamuException
+    {
+        if (value == null || value.isEmpty())
+        {
+            throw new JathakamuException("Missing " + name);
+        }
+
+        return value;
+    }
+
+    /**
+     * @return SwissEph instances of the runner, for its statistics
+     */
+    public EphemerisEngine getEngine()
+    {
+        return engine;
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.util.Arrays;
+
+/**
+ * Counts, throughput and latency percentiles of a batch, updated as results
+ * are written. The latency of every chart is kept (8 bytes a chart) so the
+ * percentiles are exact.
+ *
+ * @author Phani
+ */
+public final class BatchStats
+{
+    private final long startOffset;
+    private final long startNanos = System.nanoTime();
+    private long endNanos;
+    private long written;
+    private long errors;
+    private long nextOffset;
+    private long nextLength = -1L;
+    private long[] latencies = new long[1024];
+
+    /**
+     * @param startOffset offset of the first record of the batch
+     */
+    public BatchStats(long startOffset)
+    {
+        this.startOffset = startOffset;
+        this.nextOffset = startOffset;
+    }
+
+    synchronized void record(ChartResult result)
+    {
+        if (written == latencies.length)
+        {
+            latencies = Arrays.copyOf(latencies, latencies.length * 2);
+        }
+
+        latencies[(int) written++] = result.getLatencyNanos();
+
+        if (result.isError())
+        {
+            errors++;
+        }
+    }
+
+    /* All the records before offset are flushed to the output, which has
+     * length bytes then (-1 if not known) */
+    synchronized void flushed(long offset, long length)
+    {
+        nextOffset = offset;
+        nextLength = length;
+    }
+
+    synchronized void finish()
+    {
+        endNanos = System.nanoTime();
+    }
+
+    public synchronized long getWritten()
+    {
+        return written;
+    }
+
+    public synchronized long getErrors()
+    {
+        return errors;
+    }
+
+    /**
+     * @return offset to resume from, all the records before it are in the
+     * output
+     */
+    public synchronized long getNextOffset()
+    {
+        return nextOffset;
+    }
+
+    /**
+     * @return length of the output when the records before the next offset
+     * were flushed, to cut it to when resuming; -1 if not known
+     */
+    public synchronized long getNextLength()
+    {
+        return nextLength;
+    }
+
+    /**
+     * @return charts written a second since the start
+     */
+    public synchronized double getThroughput()
+    {
+        long end = (endNanos == 0) ? System.nanoTime() : endNanos;
+
+        return (end == startNanos) ? 0D : written * 1E9D / (end - startNanos);
+    }
+
+    /**
+     * @param percentile 0 to 100
+     * @return latency of a chart at the percentile, milliseconds
+     */
+    public synchronized double getLatency(double percentile)
+    {
+        if (written == 0)
+        {
+            return 0D;
+        }
+
+        long[] sorted = Arrays.copyOf(latencies, (int) written);
+        Arrays.sort(sorted);
+
+        // Nearest rank
+        int rank = (int) Math.ceil(percentile / 100D * sorted.length);
+
+        return sorted[Math.max(rank - 1, 0)] / 1E6D;
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return String.format("Charts %d (errors %d) from offset %d, %.1f charts/sec, "
+                + "latency ms p50 %.3f p90 %.3f p99 %.3f max %.3f, resume with --offset %d%s",
+                written, errors, startOffset, getThroughput(), getLatency(50),
+                getLatency(90), getLatency(99), getLatency(100), nextOffset,
+                (nextLength < 0) ? "" : " --length " + nextLength);
+    }
+}
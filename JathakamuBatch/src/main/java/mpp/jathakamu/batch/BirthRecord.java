@@ -0,0 +1,78 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+/**
+ * One birth as read from the input, the fields as they are in the file. They
+ * are parsed when the chart is computed so a bad record gives an error in
+ * its result and does not stop the batch.
+ *
+ * @author Phani
+ */
+public final class BirthRecord
+{
+    private final long offset;
+    private final String id;
+    private final String dateTime;
+    private final String timeZone;
+    private final String latitude;
+    private final String longitude;
+
+    /**
+     * @param offset position of the record in the input, from 0
+     * @param id identifier of the birth, the offset if the input has none
+     * @param dateTime local date and time, yyyy-MM-ddTHH:mm[:ss[.SSS]]
+     * @param timeZone time zone id, like Asia/Kolkata
+     * @param latitude degrees, north positive
+     * @param longitude degrees, east positive
+     */
+    public BirthRecord(long offset, String id, String dateTime, String timeZone,
+            String latitude, String longitude)
+    {
+        this.offset = offset;
+        this.id = (id == null || id.isEmpty()) ? String.valueOf(offset) : id;
+        this.dateTime = dateTime;
+        this.timeZone = timeZone;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public String getDateTime()
+    {
+        return dateTime;
+    }
+
+    public String getTimeZone()
+    {
+        return timeZone;
+    }
+
+    public String getLatitude()
+    {
+        return latitude;
+    }
+
+    public String getLongitude()
+    {
+        return longitude;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BirthRecord{" + "offset=" + offset + ", id=" + id + ", dateTime="
+                + dateTime + ", timeZone=" + timeZone + ", latitude=" + latitude
+                + ", longitude=" + longitude + '}';
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads birth records one at a time from CSV or JSON Lines, so an input of
+ * any size is never held in memory.
+ *
+ * CSV has a header line naming the columns id, dateTime, timeZone, latitude
+ * and longitude in any order (case is ignored, other columns are skipped).
+ * Fields may be quoted with double quotes, a quote inside is doubled; a
+ * field can not span lines. JSON Lines has one flat object per line with
+ * the same names, values are strings or numbers.
+ *
+ * Blank lines are not records. A line that can not be parsed ends the read
+ * with an IOException giving the line number; missing or bad values are left
+ * to the chart computation, which reports them in the result of the record.
+ *
+ * @author Phani
+ */
+public final class BirthRecordReader
+    implements Closeable
+{
+    public enum Format
+    {
+        CSV, JSON_LINES;
+
+        /**
+         * @param path file name to look at
+         * @return CSV for a .csv file, otherwise JSON_LINES
+         */
+        public static Format of(Path path)
+        {
+            return path.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(".csv")
+                    ? CSV : JSON_LINES;
+        }
+    }
+
+    private final static String ID = "id";
+    private final static String DATE_TIME = "datetime";
+    private final static String TIME_ZONE = "timezone";
+    private final static String LATITUDE = "latitude";
+    private final static String LONGITUDE = "longitude";
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long lineNumber;
+    private long offset;
+
+    /**
+     * @param reader input, closed with this reader
+     * @param format format of the input
+     * @throws IOException if the CSV header can not be read
+     */
+    public BirthRecordReader(Reader reader, Format format)
+            throws IOException
+    {
+        this.reader = (reader instanceof BufferedReader) ? (BufferedReader) reader
+                : new BufferedReader(reader);
+        this.format = format;
+
+        if (format == Format.CSV)
+        {
+            readHeader();
+        }
+    }
+
+    /**
+     * Reader of a UTF-8 file, the format from its name.
+     *
+     * @param path CSV (.csv) or JSON Lines file
+     * @return reader at the first record
+     * @throws IOException if the file can not be opened
+     */
+    public static BirthRecordReader open(Path path)
+            throws IOException
+    {
+        return new BirthRecordReader(Files.newBufferedReader(path, StandardCharsets.UTF_8),
+                Format.of(path));
+    }
+
+    /**
+     * Skip records, to resume a batch from the offset it stopped at.
+     *
+     * @param count records to skip
+     * @return records skipped, less than count at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    public long skip(long count)
+            throws IOException
+    {
+        long skipped = 0;
+
+        while (skipped < count && nextLine() != null)
+        {
+            skipped++;
+            offset++;
+        }
+
+        return skipped;
+    }
+
+    /**
+     * @return next record, null at the end of the input
+     * @throws IOException if the input can not be read or parsed
+     */
+    public BirthRecord next()
+            throws IOException
+    {
+        String line = nextLine();
+
+        if (line == null)
+        {
+            return null;
+        }
+
+        BirthRecord rtnRecord;
+
+        if (format == Format.CSV)
+        {
+            List<String> fields = splitCsv(line);
+
+            rtnRecord = new BirthRecord(offset, field(fields, ID), field(fields, DATE_TIME),
+                    field(fields, TIME_ZONE), field(fields, LATITUDE), field(fields, LONGITUDE));
+        }
+        else
+        {
+            Map<String, String> values = parseObject(line);
+
+            rtnRecord = new BirthRecord(offset, values.get(ID), values.get(DATE_TIME),
+                    values.get(TIME_ZONE), values.get(LATITUDE), values.get(LONGITUDE));
+        }
+
+        offset++;
+
+        return rtnRecord;
+    }
+
+    /**
+     * @return offset of the next record
+     */
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        reader.close();
+    }
+
+    private String nextLine()
+            throws IOException
+    {
+        String line;
+
+        do
+        {
+            line = reader.readLine();
+            lineNumber++;
+        }
+        while (line != null && line.trim().isEmpty());
+
+        return line;
+    }
+
+    private void readHeader()
+            throws IOException
+    {
+        String header = nextLine();
+
+        if (header == null)
+        {
+            return;
+        }
+
+        // Byte order mark some spreadsheets write
+        if (header.startsWith("\uFEFF"))
+        {
+            header = header.substring(1);
+        }
+
+        List<String> names = splitCsv(header);
+
+        for (int i = 0; i < names.size(); i++)
+        {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ENGLISH), i);
+        }
+
+        if (!columns.containsKey(DATE_TIME) || !columns.containsKey(TIME_ZONE)
+                || !columns.containsKey(LATITUDE) || !columns.containsKey(LONGITUDE))
+        {
+            throw new IOException("CSV header should have the columns dateTime, timeZone, "
+                    + "latitude and longitude, found " + names);
+        }
+    }
+
+    private String field(List<String> fields, String name)
+    {
+        Integer index = columns.get(name);
+
+        return (index == null || index >= fields.size()) ? null : fields.get(index).trim();
+    }
+
+    private List<String> splitCsv(String line)
+            throws IOException
+    {
+        List<String> rtnList = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+
+            if (quoted)
+            {
+                if (c != '"')
+                {
+                    field.append(c);
+                }
+                else if (i + 1 < line.length() && line.charAt(i + 1) == '"')
+                {
+                    field.append('"');
+                    i++;
+                }
+                else
+                {
+                    quoted = false;
+                }
+            }
+            else if (c == '"')
+            {
+                quoted = true;
+            }
+            else if (c == ',')
+            {
+                rtnList.add(field.toString());
+                field.setLength(0);
+            }
+            else
+            {
+                field.append(c);
+            }
+        }
+
+        if (quoted)
+        {
+            throw new IOException("Line " + lineNumber + ": quote not closed");
+        }
+
+        rtnList.add(field.toString());
+
+        return rtnList;
+    }
+
+    /*
+     * Names (lower case) and values of a flat JSON object, numbers kept as
+     * their text and null as null.
+     */
+    private Map<String, String> parseObject(String line)
+            throws IOException
+    {
+        Map<String, String> rtnMap = new HashMap<>();
+        int[] pos = {skipSpace(line, 0)};
+
+        expect(line, pos, '{');
+
+        pos[0] = skipSpace(line, pos[0]);
+
+        if (pos[0] < line.length() && line.charAt(pos[0]) == '}')
+        {
+            return rtnMap;
+        }
+
+        while (true)
+        {
+            pos[0] = skipSpace(line, pos[0]);
+            String name = parseString(line, pos);
+
+            expect(line, pos, ':');
+            rtnMap.put(name.toLowerCase(Locale.ENGLISH), parseValue(line, pos));
+            pos[0] = skipSpace(line, pos[0]);
+
+            if (pos[0] < line.length() && line.charAt(pos[0]) == ',')
+            {
+                pos[0]++;
+                continue;
+            }
+
+            expect(line, pos, '}');
+
+            return rtnMap;
+        }
+    }
+
+    private String parseValue(String line, int[] pos)
+            throws IOException
+    {
+        pos[0] = skipSpace(line, pos[0]);
+
+        if (pos[0] < line.length() && line.charAt(pos[0]) == '"')
+        {
+            return parseString(line, pos);
+        }
+
+        int start = pos[0];
+
+        while (pos[0] < line.length() && ",} \t".indexOf(line.charAt(pos[0])) < 0)
+        {
+            pos[0]++;
+        }
+
+        String value = line.substring(start, pos[0]);
+
+        if (value.isEmpty() || value.charAt(0) == '{' || value.charAt(0) == '[')
+        {
+            throw new IOException("Line " + lineNumber + ": expected a string or a number at "
+                    + (start + 1));
+        }
+
+        return "null".equals(value) ? null : value;
+    }
+
+    private String parseString(String line, int[] pos)
+            throws IOException
+    {
+        StringBuilder value = new StringBuilder();
+
+        expect(line, pos, '"');
+
+        while (pos[0] < line.length())
+        {
+            char c = line.charAt(pos[0]++);
+
+            if (c == '"')
+            {
+                return value.toString();
+            }
+
+            if (c != '\\')
+            {
+                value.append(c);
+                continue;
+            }
+
+            if (pos[0] >= line.length())
+            {
+                break;
+            }
+
+            c = line.charAt(pos[0]++);
+
+            switch (c)
+            {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (pos[0] + 4 > line.length())
+                    {
+                        throw new IOException("Line " + lineNumber + ": bad \\u escape");
+                    }
+                    try
+                    {
+                        value.append((char) Integer.parseInt(line.substring(pos[0], pos[0] + 4), 16));
+                    }
+                    catch (NumberFormatException ex)
+                    {
+                        throw new IOException("Line " + lineNumber + ": bad \\u escape", ex);
+                    }
+                    pos[0] += 4;
+                    break;
+                default:
+                    value.append(c);
+            }
+        }
+
+        throw new IOException("Line " + lineNumber + ": string not closed");
+    }
+
+    private void expect(String line, int[] pos, char c)
+            throws IOException
+    {
+        pos[0] = skipSpace(line, pos[0]);
+
+        if (pos[0] >= line.length() || line.charAt(pos[0]) != c)
+        {
+            throw new IOException("Line " + lineNumber + ": expected " + c + " at " + (pos[0] + 1));
+        }
+
+        pos[0]++;
+    }
+
+    private static int skipSpace(String line, int pos)
+    {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos)))
+        {
+            pos++;
+        }
+
+        return pos;
+    }
+}
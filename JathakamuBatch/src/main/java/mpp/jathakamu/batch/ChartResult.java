@@ -0,0 +1,138 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.util.List;
+import mpp.jathakamu.calculations.ChartPositions;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * Chart of one birth record: the positions, the sign, star, sub and sub-sub
+ * lords of every graha and cusp, and the Vimshottari dasa running at birth
+ * with the years left in it. A record that could not be computed has only
+ * the error.
+ *
+ * @author Phani
+ */
+public final class ChartResult
+{
+    /* Sign, star, sub and sub-sub lords */
+    public final static int LORD_LEVELS = 4;
+
+    private final long offset;
+    private final String id;
+    private final String error;
+    private final double tjd_ut;
+    private final ChartPositions positions;
+    private final List<List<Planet>> grahaLords;
+    private final List<List<Planet>> cuspLords;
+    private final Planet dasaLord;
+    private final double dasaBalance;
+    private final long latencyNanos;
+
+    ChartResult(BirthRecord record, double tjd_ut, ChartPositions positions,
+            List<List<Planet>> grahaLords, List<List<Planet>> cuspLords, Planet dasaLord,
+            double dasaBalance, long latencyNanos)
+    {
+        this.offset = record.getOffset();
+        this.id = record.getId();
+        this.error = null;
+        this.tjd_ut = tjd_ut;
+        this.positions = positions;
+        this.grahaLords = grahaLords;
+        this.cuspLords = cuspLords;
+        this.dasaLord = dasaLord;
+        this.dasaBalance = dasaBalance;
+        this.latencyNanos = latencyNanos;
+    }
+
+    ChartResult(BirthRecord record, String error, long latencyNanos)
+    {
+        this.offset = record.getOffset();
+        this.id = record.getId();
+        this.error = error;
+        this.tjd_ut = 0D;
+        this.positions = null;
+        this.grahaLords = null;
+        this.cuspLords = null;
+        this.dasaLord = null;
+        this.dasaBalance = 0D;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    public String getId()
+    {
+        return id;
+    }
+
+    public boolean isError()
+    {
+        return error != null;
+    }
+
+    /**
+     * @return why the record could not be computed, null if it was
+     */
+    public String getError()
+    {
+        return error;
+    }
+
+    public double getJulianDay()
+    {
+        return tjd_ut;
+    }
+
+    public ChartPositions getPositions()
+    {
+        return positions;
+    }
+
+    /**
+     * @param graha SweConst.SE_SUN to ChartPositions.KETU
+     * @return sign, star, sub and sub-sub lords of the graha
+     */
+    public List<Planet> getGrahaLords(int graha)
+    {
+        return grahaLords.get(graha);
+    }
+
+    /**
+     * @param house 0 for the first cusp to 11
+     * @return sign, star, sub and sub-sub lords of the cusp
+     */
+    public List<Planet> getCuspLords(int house)
+    {
+        return cuspLords.get(house);
+    }
+
+    /**
+     * @return lord of the maha dasa running at birth
+     */
+    public Planet getDasaLord()
+    {
+        return dasaLord;
+    }
+
+    /**
+     * @return years of the maha dasa left at birth
+     */
+    public double getDasaBalance()
+    {
+        return dasaBalance;
+    }
+
+    /**
+     * @return time taken to compute the chart, nanoseconds
+     */
+    public long getLatencyNanos()
+    {
+        return latencyNanos;
+    }
+}
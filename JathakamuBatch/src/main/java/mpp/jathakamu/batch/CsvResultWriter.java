@@ -0,0 +1,136 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import mpp.jathakamu.calculations.ChartPositions;
+
+/**
+ * One CSV row for each result: offset, id, Julian day, ayanamsa, longitude
+ * and lords of each graha, longitude and lords of each cusp, dasa lord and
+ * balance, and the error (empty when the chart was computed). Lords are the
+ * 2 letter names joined with a dash.
+ *
+ * @author Phani
+ */
+public final class CsvResultWriter
+    implements ResultWriter
+{
+    private final static String[] GRAHA_COLUMNS =
+    {
+        "sun", "moon", "mercury", "venus", "mars", "jupiter", "saturn", "uranus",
+        "neptune", "pluto", "rahu", "ketu"
+    };
+
+    private final Writer out;
+
+    /**
+     * @param out output, closed with this writer
+     * @param header write the header line first
+     * @throws IOException if the header can not be written
+     */
+    public CsvResultWriter(Writer out, boolean header)
+            throws IOException
+    {
+        this.out = out;
+
+        if (header)
+        {
+            out.write("offset,id,jd,ayanamsa");
+
+            for (String graha : GRAHA_COLUMNS)
+            {
+                out.write(',' + graha + "," + graha + "_lords");
+            }
+
+            for (int house = 1; house <= ChartPositions.HOUSES; house++)
+            {
+                out.write(",cusp" + house + ",cusp" + house + "_lords");
+            }
+
+            out.write(",dasa_lord,dasa_balance,error\n");
+        }
+    }
+
+    @Override
+    public void write(ChartResult result)
+            throws IOException
+    {
+        out.write(Long.toString(result.getOffset()));
+        out.write(',');
+        field(result.getId());
+
+        if (result.isError())
+        {
+            // Empty columns, then the error
+            for (int i = 0; i <= 4 + 2 * (ChartPositions.GRAHAS + ChartPositions.HOUSES); i++)
+            {
+                out.write(',');
+            }
+            field(result.getError());
+            out.write('\n');
+            return;
+        }
+
+        ChartPositions positions = result.getPositions();
+
+        out.write(',');
+        out.write(Double.toString(result.getJulianDay()));
+        out.write(',');
+        out.write(Double.toString(positions.getAyanamsa()));
+
+        for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+        {
+            out.write(',');
+            out.write(Double.toString(positions.getLongitude(graha)));
+            out.write(',');
+            out.write(ResultWriter.joinLords(result.getGrahaLords(graha)));
+        }
+
+        for (int house = 0; house < ChartPositions.HOUSES; house++)
+        {
+            out.write(',');
+            out.write(Double.toString(positions.getCusp(house)));
+            out.write(',');
+            out.write(ResultWriter.joinLords(result.getCuspLords(house)));
+        }
+
+        out.write(',');
+        out.write(result.getDasaLord().getName());
+        out.write(',');
+        out.write(Double.toString(result.getDasaBalance()));
+        out.write(",\n");
+    }
+
+    /* Quoted when it has a comma, quote or line break */
+    private void field(String value)
+            throws IOException
+    {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+        {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void flush()
+            throws IOException
+    {
+        out.flush();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        out.close();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Result writer of a file, counting the bytes that have reached the file so
+ * a resumed batch can cut off what was written after its last flush.
+ *
+ * @author Phani
+ */
+final class FileResultWriter
+    implements ResultWriter
+{
+    private final ResultWriter writer;
+    private final CountingOutputStream counter;
+
+    /**
+     * @param writer CSV or JSON Lines writer on the counter
+     * @param counter stream of the file the writer writes to
+     */
+    FileResultWriter(ResultWriter writer, CountingOutputStream counter)
+    {
+        this.writer = writer;
+        this.counter = counter;
+    }
+
+    @Override
+    public void write(ChartResult result)
+            throws IOException
+    {
+        writer.write(result);
+    }
+
+    @Override
+    public void flush()
+            throws IOException
+    {
+        writer.flush();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        writer.close();
+    }
+
+    @Override
+    public long getLength()
+    {
+        return counter.getCount();
+    }
+
+    /* Counts the bytes passed to the file, from the size it had */
+    static final class CountingOutputStream
+        extends FilterOutputStream
+    {
+        private volatile long count;
+
+        CountingOutputStream(OutputStream out, long count)
+        {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b)
+                throws IOException
+        {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+                throws IOException
+        {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount()
+        {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import mpp.jathakamu.calculations.ChartPositions;
+
+/**
+ * One JSON object per line for each result:
+ * {"offset":0,"id":"..","jd":..,"ayanamsa":..,"grahas":[{"name":"Sun",
+ * "longitude":..,"speed":..,"lords":"Su-Ke-Ve-Ma"},..],"cusps":[{"longitude":..,
+ * "lords":".."},..],"dasa":{"lord":"Venus","balance":..}}, or
+ * {"offset":0,"id":"..","error":".."} for a record that could not be computed.
+ *
+ * The text is written straight to the output, nothing is kept per result.
+ *
+ * @author Phani
+ */
+public final class JsonLinesResultWriter
+    implements ResultWriter
+{
+    private final Writer out;
+
+    /**
+     * @param out output, closed with this writer
+     */
+    public JsonLinesResultWriter(Writer out)
+    {
+        this.out = out;
+    }
+
+    @Override
+    public void write(ChartResult result)
+            throws IOException
+    {
+        out.write("{\"offset\":");
+        out.write(Long.toString(result.getOffset()));
+        out.write(",\"id\":");
+        string(result.getId());
+
+        if (result.isError())
+        {
+            out.write(",\"error\":");
+            string(result.getError());
+            out.write("}\n");
+            return;
+        }
+
+        ChartPositions positions = result.getPositions();
+
+        out.write(",\"jd\":");
+        out.write(Double.toString(result.getJulianDay()));
+        out.write(",\"ayanamsa\":");
+        out.write(Double.toString(positions.getAyanamsa()));
+        out.write(",\"grahas\":[");
+
+        for (int graha = 0; graha < ChartPositions.GRAHAS; graha++)
+        {
+            out.write((graha == 0) ? "{\"name\":" : ",{\"name\":");
+            string(positions.getName(graha));
+            out.write(",\"longitude\":");
+            out.write(Double.toString(positions.getLongitude(graha)));
+            out.write(",\"speed\":");
+            out.write(Double.toString(positions.getSpeed(graha)));
+            out.write(",\"lords\":");
+            string(ResultWriter.joinLords(result.getGrahaLords(graha)));
+            out.write('}');
+        }
+
+        out.write("],\"cusps\":[");
+
+        for (int house = 0; house < ChartPositions.HOUSES; house++)
+        {
+            out.write((house == 0) ? "{\"longitude\":" : ",{\"longitude\":");
+            out.write(Double.toString(positions.getCusp(house)));
+            out.write(",\"lords\":");
+            string(ResultWriter.joinLords(result.getCuspLords(house)));
+            out.write('}');
+        }
+
+        out.write("],\"dasa\":{\"lord\":");
+        string(result.getDasaLord().getName());
+        out.write(",\"balance\":");
+        out.write(Double.toString(result.getDasaBalance()));
+        out.write("}}\n");
+    }
+
+    private void string(String value)
+            throws IOException
+    {
+        if (value == null)
+        {
+            out.write("null");
+            return;
+        }
+
+        out.write('"');
+
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+
+            switch (c)
+            {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20)
+                    {
+                        out.write(String.format("\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        out.write(c);
+                    }
+            }
+        }
+
+        out.write('"');
+    }
+
+    @Override
+    public void flush()
+            throws IOException
+    {
+        out.flush();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        out.close();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * Writes chart results one at a time, in the order they are given. Used from
+ * one thread.
+ *
+ * @author Phani
+ */
+public interface ResultWriter
+    extends Closeable, Flushable
+{
+    /**
+     * @param result chart or error of a record
+     * @throws IOException if the output can not be written
+     */
+    void write(ChartResult result)
+            throws IOException;
+
+    /**
+     * @return bytes in the output once it is flushed, -1 if the output is
+     * not a file opened by open or resume
+     */
+    default long getLength()
+    {
+        return -1L;
+    }
+
+    /**
+     * Writer of a UTF-8 file, CSV for a .csv file and JSON Lines otherwise.
+     * When appending to a CSV file that is not empty its header is not
+     * written again.
+     *
+     * @param path output file
+     * @param append add to the file instead of replacing it
+     * @return writer at the end of the file
+     * @throws IOException if the file can not be opened
+     */
+    static ResultWriter open(Path path, boolean append)
+            throws IOException
+    {
+        boolean csv = path.getFileName().toString().toLowerCase(Locale.ENGLISH).endsWith(".csv");
+        long length = (append && Files.exists(path)) ? Files.size(path) : 0L;
+        OutputStream file = (append)
+                ? Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newOutputStream(path);
+        FileResultWriter.CountingOutputStream counter =
+                new FileResultWriter.CountingOutputStream(file, length);
+        Writer out = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8));
+        ResultWriter writer = (csv) ? new CsvResultWriter(out, length == 0)
+                : new JsonLinesResultWriter(out);
+
+        return new FileResultWriter(writer, counter);
+    }
+
+    /**
+     * Writer appending to the output of a stopped batch. The file is first
+     * cut to the length it had at the flush the batch printed its offset
+     * for, dropping the results written after it (written again from the
+     * offset) and any line left half written.
+     *
+     * @param path output file
+     * @param length length printed with the offset to resume from
+     * @return writer at the end of the file
+     * @throws IOException if the file is shorter than the length or can
+     * not be opened
+     */
+    static ResultWriter resume(Path path, long length)
+            throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE))
+        {
+            if (channel.size() < length)
+            {
+                throw new IOException(path + " has " + channel.size()
+                        + " bytes, less than the " + length + " to resume from");
+            }
+
+            channel.truncate(length);
+        }
+
+        return open(path, true);
+    }
+
+    /**
+     * @param lords lords to join
+     * @return 2 letter names joined with a dash, like Ma-Ke-Ve-Sa
+     */
+    static String joinLords(List<Planet> lords)
+    {
+        StringBuilder rtnValue = new StringBuilder();
+
+        for (Planet lord : lords)
+        {
+            if (rtnValue.length() > 0)
+            {
+                rtnValue.append('-');
+            }
+            rtnValue.append(lord.get2LetterName());
+        }
+
+        return rtnValue.toString();
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.batch;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import mpp.jathakamu.ProfileSettings;
+import org.junit.Test;
+import swisseph.SweConst;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author phani
+ */
+public class BatchRunnerTest
+{
+    private final static String CSV = "name,id,dateTime,timeZone,latitude,longitude\n"
+            + "a,1,1973-05-20T03:21:00,Asia/Kolkata,17.33,78.5\n"
+            + "\n"
+            + "\"b, c\",2,1985-11-02T18:05:30,Asia/Kolkata,13.08,80.27\n"
+            + "d,3,1985-13-02T18:05,Asia/Kolkata,13.08,80.27\n"
+            + "e,4,2001-01-01T00:00,America/New_York,40.71,-74.0\n";
+
+    public BatchRunnerTest()
+    {
+    }
+
+    /**
+     * Test of next method, of class BirthRecordReader, CSV and JSON Lines
+     * give the same records.
+     */
+    @Test
+    public void testRead() throws Exception
+    {
+        System.out.println("read");
+        BirthRecordReader csv = new BirthRecordReader(new StringReader(CSV),
+                BirthRecordReader.Format.CSV);
+        BirthRecordReader json = new BirthRecordReader(new StringReader(
+                "{\"id\":\"1\",\"dateTime\":\"1973-05-20T03:21:00\",\"timeZone\":\"Asia/Kolkata\","
+                + "\"latitude\":17.33,\"longitude\":78.5}\n"
+                + "  { \"longitude\" : 80.27 , \"latitude\" : 13.08, \"timeZone\":\"Asia\\/Kolkata\","
+                + " \"dateTime\":\"1985-11-02T18:05:30\", \"id\":\"2\"}\n"),
+                BirthRecordReader.Format.JSON_LINES);
+
+        for (int i = 0; i < 2; i++)
+        {
+            BirthRecord expResult = csv.next();
+            BirthRecord result = json.next();
+
+            assertEquals(i, result.getOffset());
+            assertEquals(expResult.toString(), result.toString());
+        }
+
+        assertNull(json.next());
+        assertEquals(2, csv.skip(5));
+        assertNull(csv.next());
+
+        try
+        {
+            new BirthRecordReader(new StringReader("{\"id\":\"1\" \"dateTime\":\"x\"}"),
+                    BirthRecordReader.Format.JSON_LINES).next();
+            fail("Bad line should not be read");
+        }
+        catch (java.io.IOException ex)
+        {
+            assertTrue(ex.getMessage().startsWith("Line 1"));
+        }
+    }
+
+    /**
+     * Test of run method, of class BatchRunner, results are in the order of
+     * the input, a bad record gives an error and resuming from an offset
+     * appends the records after it to the output.
+     */
+    @Test
+    public void testRun() throws Exception
+    {
+        System.out.println("run");
+        BatchRunner instance = new BatchRunner(ProfileSettings.DEFAULT, 3, 2);
+        StringWriter out = new StringWriter();
+        BatchStats stats = new BatchStats(0);
+
+        instance.run(new BirthRecordReader(new StringReader(CSV), BirthRecordReader.Format.CSV),
+                new JsonLinesResultWriter(out), stats);
+
+        String[] lines = out.toString().split("\n");
+
+        assertEquals(4, lines.length);
+        assertEquals(4, stats.getWritten());
+        assertEquals(1, stats.getErrors());
+        assertEquals(4, stats.getNextOffset());
+        assertTrue(lines[0].startsWith("{\"offset\":0,\"id\":\"1\",\"jd\":"));
+        assertTrue(lines[1].startsWith("{\"offset\":1,\"id\":\"2\",\"jd\":"));
+        assertTrue(lines[2].startsWith("{\"offset\":2,\"id\":\"3\",\"error\":"));
+        assertTrue(lines[3].contains("\"dasa\":{\"lord\":"));
+        assertTrue(stats.getLatency(50) <= stats.getLatency(100));
+
+        Path file = Files.createTempFile("charts", ".csv");
+
+        try
+        {
+            // Stopped after the first two records
+            try (ResultWriter writer = ResultWriter.open(file, false))
+            {
+                String firstTwo = CSV.substring(0, CSV.indexOf("d,3"));
+
+                instance.run(new BirthRecordReader(new StringReader(firstTwo),
+                        BirthRecordReader.Format.CSV), writer, new BatchStats(0));
+            }
+
+            try (ResultWriter writer = ResultWriter.open(file, true))
+            {
+                BirthRecordReader reader = new BirthRecordReader(new StringReader(CSV),
+                        BirthRecordReader.Format.CSV);
+
+                reader.skip(2);
+                instance.run(reader, writer, new BatchStats(2));
+            }
+
+            List<String> rows = Files.readAllLines(file);
+            int columns = rows.get(0).split(",", -1).length;
+
+            assertEquals(5, rows.size());
+            assertTrue(rows.get(0).startsWith("offset,id,jd,ayanamsa,sun,sun_lords,moon,"));
+
+            for (int i = 1; i < rows.size(); i++)
+            {
+                assertTrue(rows.get(i).startsWith((i - 1) + "," + i + ","));
+            }
+
+            for (String row : rows)
+            {
+                assertEquals(columns, row.split(",", -1).length);
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test of resume method, of class ResultWriter, a batch failing after
+     * the results following its last flush reached the output, and a line
+     * left half written, resumes from the offset and length it gave without
+     * repeating or breaking a line.
+     */
+    @Test
+    public void testResume() throws Exception
+    {
+        System.out.println("resume");
+        BatchRunner instance = new BatchRunner(ProfileSettings.DEFAULT, 2, 2, 2);
+        Path file = Files.createTempFile("charts", ".jsonl");
+        BatchStats stats = new BatchStats(0);
+
+        try
+        {
+            try (ResultWriter output = ResultWriter.open(file, false))
+            {
+                // Fails on the fourth result, the third is written after the flush
+                ResultWriter writer = new ResultWriter()
+                {
+                    private int count;
+
+                    @Override
+                    public void write(ChartResult result) throws java.io.IOException
+                    {
+                        if (++count == 4)
+                        {
+                            throw new java.io.IOException("Disk full");
+                        }
+                        output.write(result);
+                    }
+
+                    @Override
+                    public void flush() throws java.io.IOException
+                    {
+                        output.flush();
+                    }
+
+                    @Override
+                    public void close() throws java.io.IOException
+                    {
+                        output.close();
+                    }
+
+                    @Override
+                    public long getLength()
+                    {
+                        return output.getLength();
+                    }
+                };
+
+                instance.run(new BirthRecordReader(new StringReader(CSV),
+                        BirthRecordReader.Format.CSV), writer, stats);
+                fail("Batch should have failed");
+            }
+            catch (java.io.IOException ex)
+            {
+                assertEquals("Disk full", ex.getMessage());
+            }
+
+            // Killed in the middle of a line
+            Files.write(file, "{\"offset\":3,\"id\":\"4\",\"jd".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+            assertEquals(2, stats.getNextOffset());
+            assertTrue(stats.getNextLength() > 0);
+            assertEquals(4, Files.readAllLines(file).size());
+            assertTrue(stats.toString().endsWith("--offset 2 --length " + stats.getNextLength()));
+
+            try (ResultWriter writer = ResultWriter.resume(file, stats.getNextLength()))
+            {
+                BirthRecordReader reader = new BirthRecordReader(new StringReader(CSV),
+                        BirthRecordReader.Format.CSV);
+
+                reader.skip(stats.getNextOffset());
+                instance.run(reader, writer, new BatchStats(stats.getNextOffset()));
+            }
+
+            List<String> lines = Files.readAllLines(file);
+
+            assertEquals(4, lines.size());
+
+            for (int i = 0; i < lines.size(); i++)
+            {
+                assertTrue(lines.get(i), lines.get(i).startsWith("{\"offset\":" + i + ",\"id\":"));
+                assertTrue(lines.get(i), lines.get(i).endsWith("}"));
+            }
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test of compute method, of class BatchRunner, dasa balance is within
+     * the maha dasa of the Moon star lord.
+     */
+    @Test
+    public void testCompute() throws Exception
+    {
+        System.out.println("compute");
+        BatchRunner instance = new BatchRunner(ProfileSettings.DEFAULT, 1, 1);
+        ChartResult result = instance.compute(new BirthRecord(0, "1", "1973-05-20T03:21:00",
+                "Asia/Kolkata", "17.33", "78.5"));
+
+        assertFalse(result.getError(), result.isError());
+        assertEquals(result.getGrahaLords(SweConst.SE_MOON).get(1), result.getDasaLord());
+        assertTrue(result.getDasaBalance() > 0D);
+        assertTrue(result.getDasaBalance() <= result.getDasaLord().getDasaDuration());
+        assertEquals(ChartResult.LORD_LEVELS, result.getCuspLords(0).size());
+
+        result = instance.compute(new BirthRecord(5, "", "1973-05-20T03:21:00",
+                "Asia/Kolkata", "97.33", "78.5"));
+
+        assertTrue(result.isError());
+        assertEquals("5", result.getId());
+    }
+}
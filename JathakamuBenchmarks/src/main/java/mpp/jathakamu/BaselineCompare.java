@@ -0,0 +1,210 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a run of the benchmarks against the baseline, both in the CSV
+ * format of JMH (-rf csv):
+ *
+ * java -jar target/benchmarks.jar -rf csv -rff current.csv
+ * java -cp target/benchmarks.jar mpp.jathakamu.BaselineCompare baseline.csv current.csv [tolerance %]
+ *
+ * A benchmark is slower when its score is worse than the baseline by more
+ * than the tolerance (10% by default) and by more than the errors of both
+ * scores together; lower is better for the time modes, higher for
+ * throughput. Exits with 2 if any benchmark is slower, so a build can fail
+ * on it. Until the baseline has scores nothing is compared and the gate is
+ * off: a notice is printed and it exits with 0. To record or move the
+ * baseline copy current.csv over baseline.csv, on the reference machine.
+ *
+ * @author Phani
+ */
+public final class BaselineCompare
+{
+    private BaselineCompare()
+    {
+    }
+
+    /* One row of the JMH CSV */
+    private static final class Score
+    {
+        private final String mode;
+        private final double score;
+        private final double error;
+        private final String unit;
+
+        private Score(String mode, double score, double error, String unit)
+        {
+            this.mode = mode;
+            this.score = score;
+            this.error = error;
+            this.unit = unit;
+        }
+    }
+
+    public static void main(String[] args)
+        throws IOException
+    {
+        if (args.length != 2 && args.length != 3)
+        {
+            System.err.println("Usage: BaselineCompare <baseline csv> <current csv> [<tolerance %>]");
+            System.exit(1);
+        }
+
+        Map<String, Score> baseline = read(args[0]);
+        Map<String, Score> current = read(args[1]);
+
+        if (baseline.isEmpty())
+        {
+            // Gate is off until the scores of the reference machine are recorded
+            System.err.println("Baseline " + args[0] + " has no scores, nothing compared; copy "
+                    + args[1] + " over it on the reference machine to record one");
+            return;
+        }
+
+        double tolerance = (args.length == 3) ? Double.parseDouble(args[2]) / 100D : 0.1D;
+        int slower = 0;
+
+        System.out.println(String.format("%-70s %6s %12s %12s %8s  %s", "Benchmark", "Mode",
+                "Baseline", "Current", "Change", "Unit"));
+
+        for (Map.Entry<String, Score> entry : current.entrySet())
+        {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+
+            if (before == null || !before.unit.equals(now.unit))
+            {
+                System.out.println(String.format("%-70s %6s %12s %12.3f %8s  %s NEW",
+                        entry.getKey(), now.mode, "-", now.score, "-", now.unit));
+                continue;
+            }
+
+            // Positive when worse
+            double change = (now.score - before.score) / before.score;
+
+            if ("thrpt".equals(now.mode))
+            {
+                change = -change;
+            }
+
+            String status = "";
+
+            if (Math.abs(change) > tolerance
+                    && Math.abs(now.score - before.score) > now.error + before.error)
+            {
+                status = (change > 0) ? "SLOWER" : "FASTER";
+            }
+
+            if (change > 0 && !status.isEmpty())
+            {
+                slower++;
+            }
+
+            System.out.println(String.format("%-70s %6s %12.3f %12.3f %+7.1f%%  %s %s",
+                    entry.getKey(), now.mode, before.score, now.score, change * 100D,
+                    now.unit, status));
+        }
+
+        for (String name : baseline.keySet())
+        {
+            if (!current.containsKey(name))
+            {
+                System.out.println(String.format("%-70s not run", name));
+            }
+        }
+
+        if (slower > 0)
+        {
+            System.out.println(slower + " benchmarks slower than the baseline");
+            System.exit(2);
+        }
+    }
+
+    /*
+     * Scores by benchmark name and threads, lines starting with # are
+     * comments.
+     */
+    private static Map<String, Score> read(String file)
+            throws IOException
+    {
+        Map<String, Score> rtnMap = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        List<String> header = null;
+
+        for (String line : lines)
+        {
+            if (line.trim().isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+
+            List<String> fields = split(line);
+
+            if (header == null)
+            {
+                header = fields;
+                continue;
+            }
+
+            String name = fields.get(header.indexOf("Benchmark"));
+            String threads = fields.get(header.indexOf("Threads"));
+            StringBuilder key = new StringBuilder(name).append(" (").append(threads).append(')');
+
+            // Parameters, if any, are the columns after Unit
+            for (int i = header.indexOf("Unit") + 1; i < header.size() && i < fields.size(); i++)
+            {
+                key.append(' ').append(header.get(i)).append('=').append(fields.get(i));
+            }
+
+            String error = fields.get(header.indexOf("Score Error (99.9%)"));
+
+            rtnMap.put(key.toString(), new Score(fields.get(header.indexOf("Mode")),
+                    Double.parseDouble(fields.get(header.indexOf("Score"))),
+                    (error.isEmpty() || "NaN".equals(error)) ? 0D : Double.parseDouble(error),
+                    fields.get(header.indexOf("Unit"))));
+        }
+
+        return rtnMap;
+    }
+
+    private static List<String> split(String line)
+    {
+        List<String> rtnList = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+
+            if (c == '"')
+            {
+                quoted = !quoted;
+            }
+            else if (c == ',' && !quoted)
+            {
+                rtnList.add(field.toString());
+                field.setLength(0);
+            }
+            else
+            {
+                field.append(c);
+            }
+        }
+
+        rtnList.add(field.toString());
+
+        return rtnList;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mpp.jathakamu.GlobalSettings;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.Profile;
+import mpp.jathakamu.ProfileSettings;
+import mpp.jathakamu.types.Place;
+import mpp.jathakamu.types.VDNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import swisseph.SweConst;
+import swisseph.SweDate;
+
+/**
+ * The steps of drawing a birth chart, each on its own and end to end, on a
+ * single thread. Each call takes the next of 64 births spread over 1900 to
+ * 2020 and over India, so no step sees the same chart twice in a row.
+ *
+ * wholeChart is what MainBean.submit2 and getMahaDasaList do for a chart
+ * that is not in the cache: Julian day, positions and lords of the chart and
+ * the Vimshottari dasa tree.
+ *
+ * The forks log at WARNING, otherwise the INFO lines written to
+ * Jathakamu.log by every step are most of what is measured.
+ *
+ * @author Phani
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-DLOG_LEVEL=WARNING")
+public class ChartBenchmark
+{
+    private final static int BIRTHS = 64;
+
+    private final Date[] dates = new Date[BIRTHS];
+    private final Place[] places = new Place[BIRTHS];
+    private final Profile[] profiles = new Profile[BIRTHS];
+    private final double[] moons = new double[BIRTHS];
+    private final ChartCache cache = new ChartCache(1);
+    private int next;
+
+    @Setup
+    public void setUp()
+            throws JathakamuException
+    {
+        Random random = new Random(1973);
+        ProfileSettings settings = new ProfileSettings();
+
+        settings.setKPNewAynamsa();
+        settings.setUseGeocentric(false);
+
+        for (int i = 0; i < BIRTHS; i++)
+        {
+            double tjd_ut = SweDate.getJulDay(1900 + random.nextInt(121), 1, 1, 0D)
+                    + random.nextDouble() * 365D;
+
+            dates[i] = SweDate.getDate(tjd_ut);
+            places[i] = new Place.PlaceBuilder().values("", 68D + random.nextDouble() * 29D,
+                    8D + random.nextDouble() * 27D, GlobalSettings.DEFAULT_TIMEZONE).build();
+            profiles[i] = new Profile(tjd_ut, places[i], settings);
+            moons[i] = EphemerisCalcs.computeAll(profiles[i]).getLongitude(SweConst.SE_MOON);
+        }
+
+        // Force the lords table to be built outside the measurement
+        SupportCalcs.getLordsIndex();
+    }
+
+    private int nextBirth()
+    {
+        next = (next + 1) & (BIRTHS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double julianDay()
+            throws JathakamuException
+    {
+        int i = nextBirth();
+
+        return SupportCalcs.getJulianDay(dates[i], places[i]);
+    }
+
+    @Benchmark
+    public double ephemerisCalcsConstruction()
+    {
+        try (EphemerisCalcs ephCalc = new EphemerisCalcs(profiles[nextBirth()]))
+        {
+            return ephCalc.getAyanamsa();
+        }
+    }
+
+    @Benchmark
+    public double planetDetails()
+            throws JathakamuException
+    {
+        double sum = 0;
+
+        try (EphemerisCalcs ephCalc = new EphemerisCalcs(profiles[nextBirth()]))
+        {
+            for (int planet = SweConst.SE_SUN; planet <= SweConst.SE_TRUE_NODE; planet++)
+            {
+                sum += ephCalc.getPlanetDetails(planet)[0];
+            }
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public double cuspDetails()
+            throws JathakamuException
+    {
+        try (EphemerisCalcs ephCalc = new EphemerisCalcs(profiles[nextBirth()]))
+        {
+            return ephCalc.getCuspDetails()[0];
+        }
+    }
+
+    @Benchmark
+    public ChartPositions computeAll()
+            throws JathakamuException
+    {
+        return EphemerisCalcs.computeAll(profiles[nextBirth()]);
+    }
+
+    @Benchmark
+    public VDNode vdTree2()
+    {
+        int i = nextBirth();
+
+        return SupportCalcs.getVDTree2(dates[i].getTime(), moons[i], profiles[i]);
+    }
+
+    @Benchmark
+    public VDNode wholeChart()
+            throws JathakamuException
+    {
+        int i = nextBirth();
+        double tjd_ut = SupportCalcs.getJulianDay(dates[i], places[i]);
+        Profile profile = new Profile(tjd_ut, places[i], profiles[i].getProfileSetting());
+        ChartCache.Entry chart = cache.get(profile);
+
+        return SupportCalcs.getVDTree2(SweDate.getDate(tjd_ut).getTime(),
+                chart.getPositions().getLongitude(SweConst.SE_MOON), profile);
+    }
+}
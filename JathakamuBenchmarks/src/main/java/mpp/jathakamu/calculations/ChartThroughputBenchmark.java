@@ -0,0 +1,26 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The benchmarks of ChartBenchmark from 8 threads at once, as many sessions
+ * drawing charts would do. Each thread has its own births; the threads
+ * share the EphemerisEngine pool, the lords table and the logger, which is
+ * where any contention shows up against the single thread numbers.
+ *
+ * @author Phani
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(8)
+public class ChartThroughputBenchmark
+    extends ChartBenchmark
+{
+}
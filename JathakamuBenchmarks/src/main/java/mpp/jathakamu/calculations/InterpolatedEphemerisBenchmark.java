@@ -0,0 +1,125 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mpp.jathakamu.JathakamuException;
+import mpp.jathakamu.ProfileSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import swisseph.SweConst;
+import swisseph.SwissEph;
+
+/**
+ * Compares the positions from InterpolatedEphemeris against swe_calc_ut, on
+ * a single thread. Each call computes Sun to Pluto and the true node at one
+ * of 1024 times spread over ten years.
+ *
+ * @author Phani
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpolatedEphemerisBenchmark
+{
+    private final static double START_JD = 2451544.5D; // 2000-01-01
+    private final static double END_JD = START_JD + 3653D;
+
+    private final double[] times = new double[1024];
+    private final double[] xx = new double[6];
+    private final StringBuffer serr = new StringBuffer();
+    private Path file;
+    private SwissEph swissEph;
+    private InterpolatedEphemeris interpolated;
+    private int next;
+
+    @Setup
+    public void setUp()
+            throws IOException, JathakamuException
+    {
+        Random random = new Random(1973);
+
+        for (int i = 0; i < times.length; i++)
+        {
+            times[i] = START_JD + random.nextDouble() * (END_JD - START_JD);
+        }
+
+        file = Files.createTempFile("interpolated", ".bin");
+        swissEph = EphemerisEngine.getInstance().checkout();
+        InterpolatedEphemeris.write(file, swissEph, ProfileSettings.DEFAULT, START_JD, END_JD);
+        interpolated = InterpolatedEphemeris.open(file);
+    }
+
+    @TearDown
+    public void tearDown()
+            throws IOException
+    {
+        EphemerisEngine.getInstance().release(swissEph);
+        Files.deleteIfExists(file);
+    }
+
+    private double nextTime()
+    {
+        next = (next + 1) & (times.length - 1);
+        return times[next];
+    }
+
+    @Benchmark
+    public double interpolatedChart()
+    {
+        double tjd_ut = nextTime();
+        double sum = 0;
+
+        for (int body = SweConst.SE_SUN; body <= SweConst.SE_TRUE_NODE; body++)
+        {
+            if (body != SweConst.SE_MEAN_NODE)
+            {
+                interpolated.compute(body, InterpolatedEphemeris.SIDEREAL, tjd_ut, xx);
+                sum += xx[0] + xx[3];
+            }
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public double swissEphChart()
+    {
+        double tjd_ut = nextTime();
+        double sum = 0;
+
+        for (int body = SweConst.SE_SUN; body <= SweConst.SE_TRUE_NODE; body++)
+        {
+            if (body != SweConst.SE_MEAN_NODE)
+            {
+                swissEph.swe_calc_ut(tjd_ut, body, SweConst.SEFLG_SPEED, xx, serr);
+                sum += xx[0] - swissEph.swe_get_ayanamsa_ut(tjd_ut) + xx[3];
+            }
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public double interpolatedMoonLongitude()
+    {
+        return interpolated.getLongitude(SweConst.SE_MOON, InterpolatedEphemeris.SIDEREAL, nextTime());
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the lords lookup through LordsIndex (binary search) against the
+ * linear scan over the keys of LORDS_TABLE.
+ *
+ * This class is in the package of SupportCalcs only to reach scanLords.
+ *
+ * @author Phani
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LordsLookupBenchmark
+{
+    /* 24 lookups per chart, 12 cusps and 12 planets */
+    private final double[] longitudes = new double[24];
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random(1973);
+
+        for (int i = 0; i < longitudes.length; i++)
+        {
+            longitudes[i] = random.nextDouble() * 360D;
+        }
+
+        // Force the lords table to be built outside the measurement
+        SupportCalcs.getLordsIndex();
+    }
+
+    @Benchmark
+    public int lordsIndexChart()
+    {
+        int sum = 0;
+
+        for (double longitude : longitudes)
+        {
+            List<LordNode> lords = SupportCalcs.getLords(longitude);
+            sum += lords.get(LordsIndex.PRANA_LORD).getPlanet().ordinal();
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int tableScanChart()
+    {
+        int sum = 0;
+
+        for (double longitude : longitudes)
+        {
+            List<LordNode> lords = SupportCalcs.scanLords(longitude);
+            sum += lords.get(LordsIndex.PRANA_LORD).getPlanet().ordinal();
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public int lordsWithSignLordChart()
+    {
+        int sum = 0;
+
+        for (double longitude : longitudes)
+        {
+            List<Planet> lords = SupportCalcs.getLordsWithSignLord(longitude);
+            sum += lords.size();
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.types;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Raasi and Nakshatram lookups from 8 threads at once, as many requests
+ * drawing charts would do. The legacy lookup (synchronized, parallel stream
+ * over the HashMap of extents) is kept here only as the baseline.
+ *
+ * @author Phani
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class RaasiLookupBenchmark
+{
+    private static Map<Range, Raasi> extents = null;
+
+    @Benchmark
+    public Raasi resolverRaasi()
+    {
+        return Raasi.getRaasi(ThreadLocalRandom.current().nextDouble(360D));
+    }
+
+    @Benchmark
+    public Nakshatram resolverStar()
+    {
+        return Nakshatram.getStar(ThreadLocalRandom.current().nextDouble(360D));
+    }
+
+    @Benchmark
+    public Raasi legacyRaasi()
+    {
+        return legacyGetRaasi(ThreadLocalRandom.current().nextDouble(360D));
+    }
+
+    private synchronized static Raasi legacyGetRaasi(double longitude)
+    {
+        if (extents == null)
+        {
+            extents = new HashMap<>();
+
+            for (Raasi sign : Raasi.values())
+            {
+                extents.put(sign.getExtent().toRange(), sign);
+            }
+        }
+
+        Optional<Range> key = extents.keySet().parallelStream()
+                .filter(range -> range.inRange(longitude))
+                .findFirst();
+
+        return key.isPresent() ? extents.get(key.get()) : Raasi.NONE;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Yet to decide on the license
+ */
+package mpp.jathakamu.calculations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import mpp.jathakamu.types.DoubleRange;
+import mpp.jathakamu.types.LordNode;
+import mpp.jathakamu.types.Planet;
+
+/**
+ * Sorted, primitive index over the KP lords table.
+ *
+ * Every prana division of the zodiac is one entry. Entries are sorted by their
+ * starting longitude, so the division holding a longitude is found with a
+ * binary search over {@code begin} instead of scanning all the ranges. The
+ * planet ordinals of the star, sub, sub-sub, sookshma and prana lords are kept
+ * in parallel byte arrays, one array per level.
+ *
+ * Instances are immutable once built and safe to share between threads.
+ *
+ * @author Phani
+ */
+public final class LordsIndex
+{
+    public final static int STAR_LORD = 0;
+    public final static int SUB_LORD = 1;
+    public final static int SUB_SUB_LORD = 2;
+    public final static int SOOKSHMA_LORD = 3;
+    public final static int PRANA_LORD = 4;
+    public final static int LEVELS = 5;
+
+    private final static Planet[] PLANETS = Planet.values();
+
+    private final double[] begin;
+    private final double[] end;
+    private final byte[][] lords;
+    private final List<LordNode>[] nodes;
+
+    @SuppressWarnings("unchecked")
+    private LordsIndex(int size)
+    {
+        begin = new double[size];
+        end = new double[size];
+        lords = new byte[LEVELS][size];
+        nodes = (List<LordNode>[]) new List<?>[size];
+    }
+
+    /**
+     * Build the index from the lords table. Each value of the table should
+     * hold the LordNode of all the five levels, starting with the star lord.
+     *
+     * @param lordsTable prana range to the list of lords, sorted on the range
+     * @return sorted index of the given table
+     */
+    static LordsIndex build(SortedMap<DoubleRange, List<LordNode>> lordsTable)
+    {
+        LordsIndex index = new LordsIndex(lordsTable.size());
+        int i = 0;
+
+        for (Entry<DoubleRange, List<LordNode>> entry : lordsTable.entrySet())
+        {
+            DoubleRange range = entry.getKey();
+            List<LordNode> lordNodes = entry.getValue();
+
+            index.begin[i] = range.getMin();
+            index.end[i] = range.getMax();
+
+            for (int level = 0; level < LEVELS; level++)
+            {
+                index.lords[level][i] = (byte) lordNodes.get(level).getPlanet().ordinal();
+            }
+
+            index.nodes[i] = Collections.unmodifiableList(lordNodes);
+            i++;
+        }
+
+        return index;
+    }
+
+    /**
+     * Number of divisions in the index.
+     *
+     * @return size of the index
+     */
+    public int size()
+    {
+        return begin.length;
+    }
+
+    /**
+     * Find the division containing the given longitude.
+     *
+     * @param longitude longitude in degrees (0.0 to 360.0)
+     * @return index of the division, or -1 if the longitude is out of range
+     */
+    public int indexOf(double longitude)
+    {
+        double value = (longitude == 360.0) ? 0.0 : longitude;
+        int last = begin.length - 1;
+
+        if (last < 0 || value < begin[0] || value >= end[last])
+        {
+            return -1;
+        }
+
+        int pos = Arrays.binarySearch(begin, value);
+
+        if (pos < 0)
+        {
+            // insertion point - 1 is the division starting before the value
+            pos = -pos - 2;
+        }
+
+        return pos;
+    }
+
+    public double getBegin(int index)
+    {
+        return begin[index];
+    }
+
+    public double getEnd(int index)
+    {
+        return end[index];
+    }
+
+    /**
+     * Planet ordinal of a lord.
+     *
+     * @param index index of the division, as returned by indexOf
+     * @param level one of STAR_LORD, SUB_LORD, SUB_SUB_LORD, SOOKSHMA_LORD or
+     * PRANA_LORD
+     * @return ordinal of the lord in Planet
+     */
+    public int getLordOrdinal(int index, int level)
+    {
+        return lords[level][index];
+    }
+
+    public Planet getLord(int index, int level)
+    {
+        return PLANETS[lords[level][index]];
+    }
+
+    /**
+     * Lords of the division as LordNode, in the same order as the lords table
+     * (star lord first). The returned list is shared and cannot be modified.
+     *
+     * @param index index of the division, as returned by indexOf
+     * @return list of lords
+     */
+    public List<LordNode> getLordNodes(int index)
+    {
+        return nodes[index];
+    }
+}
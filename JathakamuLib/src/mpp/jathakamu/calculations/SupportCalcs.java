@@ -12,23 +12,23 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.TimeZone;
-import java.util.function.Function;
+import java.util.TreeMap;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
 import mpp.jathakamu.Constants;
 
 import mpp.jathakamu.Profile;
 import mpp.jathakamu.types.Degree;
+import mpp.jathakamu.types.DoubleRange;
 import mpp.jathakamu.types.LordNode;
 import mpp.jathakamu.types.Place;
 import mpp.jathakamu.types.Planet;
@@ -45,8 +45,6 @@ import static mpp.jathakamu.Constants.MINUTES_IN_HOURS_D;
 
 import swisseph.SwissLib;
 
-import static java.util.Comparator.comparing;
-
 
 /**
  * Calculation in this class will support EphemerisCalcs.
@@ -59,12 +57,15 @@ public final class SupportCalcs
 {
     private final static SwissLib swephLib = new SwissLib();
     
-    private final static Map<Range, List<LordNode>> LORDS_TABLE = new HashMap<>();
+    private final static NavigableMap<DoubleRange, List<LordNode>> LORDS_TABLE = new TreeMap<>();
     private final static Map<Integer, List<Planet>> HORARY_249_TABLE = new HashMap<>();
     private final static Map<Integer, List<Planet>> HORARY_2193_TABLE = new HashMap<>();
     private final static Map<Integer, Range> HORARY_249_RANGE_TABLE = new HashMap<>();
     private final static Map<Integer, Range> HORARY_2193_RANGE_TABLE = new HashMap<>();
     
+    /* Sorted view of LORDS_TABLE used for lookups */
+    private final static LordsIndex LORDS_INDEX;
+    
     // beginFor249 and endFor249 are used for populating horary tables 
     private static double beginFor249 = 0;
     private static double endFor249 = 0;
@@ -78,6 +79,7 @@ public final class SupportCalcs
     {
         LOGGER.log(Level.INFO, "Initializing Lords Table...");
         initializeLordsTable();
+        LORDS_INDEX = LordsIndex.build(LORDS_TABLE);
         LOGGER.log(Level.INFO, "Initialized Lords Table !!");
         
         saveToFile();
@@ -232,9 +234,9 @@ public final class SupportCalcs
         
         boolean rtnValue;
         Raasi beginRaasi = Raasi.getRaasi(begin);
-        Range beginRaasiExtent = beginRaasi.getExtent();
+        DoubleRange beginRaasiExtent = beginRaasi.getExtent();
         
-        rtnValue = beginRaasiExtent.getMax().doubleValue() < end;
+        rtnValue = beginRaasiExtent.getMax() < end;
         
         return rtnValue;
     }
@@ -311,37 +313,69 @@ public final class SupportCalcs
         return range;
     }
     
+    /**
+     * Sorted index of the lords table, for callers which need the division
+     * boundaries or the lords as planet ordinals.
+     * 
+     * @return lords index
+     */
+    public static LordsIndex getLordsIndex()
+    {
+        return LORDS_INDEX;
+    }
+    
     public static List<LordNode> getLords(double planetLongitude)
     {
-        Optional<Range> key = LORDS_TABLE.keySet().stream()
-                .filter(r -> r.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
-                .findFirst();
+        int index = LORDS_INDEX.indexOf(planetLongitude);
         
-        if (!key.isPresent())
+        if (index < 0)
         {
             return new ArrayList<>();
         }
         
-        List<LordNode> entry = LORDS_TABLE.get(key.get());
-        return entry;
+        return LORDS_INDEX.getLordNodes(index);
     }
     
     public static List<Planet> getLordsWithSignLord(double planetLongitude)
     {
-        List<LordNode> entry = getLords(planetLongitude);
-        
         Raasi raasi = Raasi.getRaasi(planetLongitude);
         Planet signLord = Planet.getSignLord(raasi);
+        List<Planet> rtnList = new ArrayList<>(LordsIndex.LEVELS + 1);
+        
+        rtnList.add(signLord);
         
-        List<Planet> rtnList = entry.stream()
-                .map((LordNode t) -> t.getPlanet())
-                .collect(Collectors.toList());
+        int index = LORDS_INDEX.indexOf(planetLongitude);
         
-        rtnList.add(0, signLord);
+        if (index >= 0)
+        {
+            for (int level = 0; level < LordsIndex.LEVELS; level++)
+            {
+                rtnList.add(LORDS_INDEX.getLord(index, level));
+            }
+        }
 
         return rtnList;
     }
     
+    /*
+     * Linear scan of LORDS_TABLE, which is how getLords used to work. Kept
+     * only to compare against LordsIndex in tests and benchmarks.
+     */
+    static List<LordNode> scanLords(double planetLongitude)
+    {
+        Optional<DoubleRange> key = LORDS_TABLE.keySet().stream()
+                .filter(r -> r.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
+                .findFirst();
+        
+        if (!key.isPresent())
+        {
+            return new ArrayList<>();
+        }
+        
+        List<LordNode> entry = LORDS_TABLE.get(key.get());
+        return entry;
+    }
+    
     /**
      * 
      * @param dob date of birth or time for which Vimshottari dasa tree is needed
@@ -534,7 +568,7 @@ public final class SupportCalcs
             {
                 mahaDasaStart = mahaDasaEnd;
                 mahaDasaEnd += dasaduration;
-                Range mahaDasaRange = new Range.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
+                DoubleRange mahaDasaRange = new DoubleRange.Builder().values(mahaDasaStart/60D, mahaDasaEnd/60D).build();
                 double mahaDasaTimeFraction = mahaDasaPlanet.getDasaDuration(); 
                 LordNode mahaLordNode = new LordNode(mahaDasaPlanet, mahaDasaRange, mahaDasaTimeFraction);
                 double buktiStart;
@@ -546,7 +580,7 @@ public final class SupportCalcs
                     buktiEnd += dasaduration * (bukthiPlanet.getDasaDuration() / 120D);
                     double buktiStartRange = Basic.normalize(buktiStart/60D);
                     double buktiEndRange = Basic.normalize(buktiEnd/60D);
-                    Range buktiRange = new Range.Builder().values(buktiStartRange, buktiEndRange).build();
+                    DoubleRange buktiRange = new DoubleRange.Builder().values(buktiStartRange, buktiEndRange).build();
                     double buktiTimeFraction = mahaDasaTimeFraction * bukthiPlanet.getDasaDuration() / 120D;
                     LordNode buktiLordNode = new LordNode(bukthiPlanet, buktiRange, buktiTimeFraction);
                     double pratyantaraStart;
@@ -565,7 +599,7 @@ public final class SupportCalcs
                         pratyantaraEnd += buktiDuration * (pratyantaraPlanet.getDasaDuration() / 120D);
                         double pratyantaraStartRange = Basic.normalize(pratyantaraStart/60D);
                         double pratyantaraEndRange = Basic.normalize(pratyantaraEnd/60D);
-                        Range pratyantaraRange = new Range.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
+                        DoubleRange pratyantaraRange = new DoubleRange.Builder().values(pratyantaraStartRange, pratyantaraEndRange).build();
                         double pratyantaraTimeFraction = buktiTimeFraction * pratyantaraPlanet.getDasaDuration() / 120D;
                         LordNode pratyantaraLordNode = new LordNode(pratyantaraPlanet, pratyantaraRange, pratyantaraTimeFraction);
                         double sookshmaStart;
@@ -585,7 +619,7 @@ public final class SupportCalcs
                             sookshmaEnd += pratyantaraDuration * (sookshmaPlanet.getDasaDuration() / 120D);
                             double sookshmaStartRange = Basic.normalize(sookshmaStart/60D);
                             double sookshmaEndRange = Basic.normalize(sookshmaEnd/60D);
-                            Range sookshmaRange = new Range.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
+                            DoubleRange sookshmaRange = new DoubleRange.Builder().values(sookshmaStartRange, sookshmaEndRange).build();
                             double sookshmaTimeFraction = pratyantaraTimeFraction * sookshmaPlanet.getDasaDuration() / 120D;
                             LordNode sookshmaLordNode = new LordNode(sookshmaPlanet,sookshmaRange, sookshmaTimeFraction);
                             double pranaStart;
@@ -598,7 +632,7 @@ public final class SupportCalcs
                                 pranaEnd += sookshmaDuration * (pranaPlanet.getDasaDuration() / 120D);
                                 double pranaStartRange = Basic.normalize(pranaStart/60D);
                                 double pranaEndRange = Basic.normalize(pranaEnd/60D);
-                                Range pranaRange = new Range.Builder().values(pranaStartRange, pranaEndRange).build();
+                                DoubleRange pranaRange = new DoubleRange.Builder().values(pranaStartRange, pranaEndRange).build();
                                 double pranaTimeFraction = sookshmaTimeFraction * pranaPlanet.getDasaDuration() / 120D;
                                 LordNode pranaNode = new LordNode(pranaPlanet, pranaRange, pranaTimeFraction);
                                 
@@ -833,12 +867,8 @@ public final class SupportCalcs
                 BufferedWriter writer = new BufferedWriter(fw);
         )
         {            
-            Function<Entry<Range, List<LordNode>>, Double> keyComparator;
-            keyComparator = (r -> r.getKey().getMin().doubleValue());
-            Comparator<Entry<Range, List<LordNode>>> comp = comparing(keyComparator);
-            
+            // LORDS_TABLE is sorted on the range
             LORDS_TABLE.entrySet().stream()
-                    .sorted(comp)
                     .forEach(entry ->
             {
                 try
@@ -16,10 +16,10 @@ public class LordNode
     implements Serializable
 {
     private final Planet planet;
-    private final Range value;
+    private final DoubleRange value;
     private final double timeFractionInYears;
 
-    public LordNode(Planet planet, Range value, double timeFraction)
+    public LordNode(Planet planet, DoubleRange value, double timeFraction)
     {
         this.planet = planet;
         this.value = value;
@@ -31,7 +31,7 @@ public class LordNode
         return planet;
     }
 
-    public Range getValue()
+    public DoubleRange getValue()
     {
         return value;
     }
@@ -43,8 +43,8 @@ public class LordNode
     
     public double getDurationInYears(double longitude)
     {
-    	double endValue = value.getMax().doubleValue();
-		double startValue = value.getMin().doubleValue();
+    	double endValue = value.getMax();
+		double startValue = value.getMin();
 		double diffLongitude = (endValue - longitude)/(endValue - startValue);
 		double durationInYears = (diffLongitude * timeFractionInYears);
 		
@@ -53,8 +53,8 @@ public class LordNode
     
     public double getRemainingDurationForLongitude(double longitude)
     {
-    	double endValue = value.getMax().doubleValue();
-		double startValue = value.getMin().doubleValue();
+    	double endValue = value.getMax();
+		double startValue = value.getMin();
 		double diffLongitude = (endValue - longitude)/(endValue - startValue);
 		
 		return diffLongitude;
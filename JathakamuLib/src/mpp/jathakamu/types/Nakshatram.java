@@ -48,8 +48,8 @@ public enum Nakshatram implements Serializable
     UTTARA_BHADRA(PURVA_BHADRA.end),
     REVATHI(UTTARA_BHADRA.end);
 
-    private static Map<Range, Nakshatram> extents = null;
-    private static Set<Range> extentsKeySet = null;
+    private static Map<DoubleRange, Nakshatram> extents = null;
+    private static Set<DoubleRange> extentsKeySet = null;
 
     private int start = 0;
     private int end = 0;
@@ -77,9 +77,9 @@ public enum Nakshatram implements Serializable
         return ((double)end)/60D;
     }
 
-    public Range getExtent()
+    public DoubleRange getExtent()
     {
-        return new Range.Builder().values(start(), end()).build();
+        return new DoubleRange.Builder().values(start(), end()).build();
     }
 
     public synchronized static Nakshatram getStar(double planetLongitude)
@@ -99,18 +99,18 @@ public enum Nakshatram implements Serializable
             extentsKeySet = extents.keySet();
         }
 
-        Stream<Range> rtnRange = extentsKeySet.parallelStream()
+        Stream<DoubleRange> rtnRange = extentsKeySet.parallelStream()
                 .filter(range -> range.inRange((planetLongitude == 360.0) ? 0.0 : planetLongitude))
                 .limit(1);
         
-        Optional<Range> keyRange = rtnRange.findFirst();
+        Optional<DoubleRange> keyRange = rtnRange.findFirst();
         
         if (!keyRange.isPresent())
         {
             return NONE;
         }
         
-        Range key = keyRange.get();
+        DoubleRange key = keyRange.get();
         
         Nakshatram star = extents.getOrDefault(key, NONE);
 
@@ -29,8 +29,8 @@ public enum Raasi
     AQUARIUS("Aquarius", "Aq", CAPRICORN.end, TRIAD.Airy), /* Kumbha */
     PISCES("Pisces", "Pi", AQUARIUS.end, TRIAD.Watery); /* Meena */
 
-    private static Map<Range, Raasi> extents = null;
-    private static Set<Range> extentsKeySet = null;
+    private static Map<DoubleRange, Raasi> extents = null;
+    private static Set<DoubleRange> extentsKeySet = null;
 
     private int start = 0;
     private int end = 0;
@@ -48,9 +48,9 @@ public enum Raasi
         triad = t;
     }
 
-    public Range getExtent()
+    public DoubleRange getExtent()
     {
-        return new Range.Builder().values(start, end).build();
+        return new DoubleRange.Builder().values(start, end).build();
     }
 
     public static Raasi getRaasiByOrdinal(int ordinal)
@@ -84,7 +84,7 @@ public enum Raasi
             return ARIES;
         }
         
-        Optional<Range> key = extentsKeySet.parallelStream()
+        Optional<DoubleRange> key = extentsKeySet.parallelStream()
                 .filter(range -> range.inRange((longitude == 360.0) ? 0.0 : longitude))
                 .findFirst();
         
@@ -1681,11 +1681,17 @@ public abstract class AbstractSwissEph implements Serializable , ISwissEph, IAya
             SweConst.ERR, serr);
       }
       try {
-        fp = new java.io.RandomAccessFile(fnamp, SwissData.BFILE_R_ACCESS);
+        FilePtr sfp;
+        if (EphemerisFileRegistry.isEphemerisFile(fname)) {
+          // Opened and mapped once for all SwissEph objects:
+          sfp = EphemerisFileRegistry.getInstance().open(fnamp);
+        } else {
+          fp = new java.io.RandomAccessFile(fnamp, SwissData.BFILE_R_ACCESS);
+          sfp = new FilePtr(fp,null,null,null,fnamp,-1,httpBufSize);
+        }
         if (ifno >= 0) {
           swissData.fidat[ifno].fnam=fnamp;
         }
-        FilePtr sfp = new FilePtr(fp,null,null,null,fnamp,-1,httpBufSize);
 ////#ifdef TRACE0
 //        Trace.level--;
 ////#endif /* TRACE0 */
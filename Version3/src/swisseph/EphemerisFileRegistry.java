@@ -0,0 +1,346 @@
+/*
+   This is a port of the Swiss Ephemeris Free Edition, Version 1.76.00
+   of Astrodienst AG, Switzerland from the original C Code to Java. For
+   copyright see the original copyright notices below and additional
+   copyright notes in the file named LICENSE, or - if this file is not
+   available - the copyright notes at http://www.astro.ch/swisseph/ and
+   following. 
+
+   For any questions or comments regarding this port to Java, you should
+   ONLY contact me and not Astrodienst, as the Astrodienst AG is not involved
+   in this port in any way.
+
+   Thomas Mack, mack@ifis.cs.tu-bs.de, 23rd of April 2001
+
+*/
+/* Copyright (C) 1997 - 2008 Astrodienst AG, Switzerland.  All rights reserved.
+
+  License conditions
+  ------------------
+
+  This file is part of Swiss Ephemeris.
+
+  Swiss Ephemeris is distributed with NO WARRANTY OF ANY KIND.  No author
+  or distributor accepts any responsibility for the consequences of using it,
+  or for whether it serves any particular purpose or works at all, unless he
+  or she says so in writing.
+
+  Swiss Ephemeris is made available by its authors under a dual licensing
+  system. The software developer, who uses any part of Swiss Ephemeris
+  in his or her software, must choose between one of the two license models,
+  which are
+  a) GNU public license version 2 or later
+  b) Swiss Ephemeris Professional License
+
+  The choice must be made before the software developer distributes software
+  containing parts of Swiss Ephemeris to others, and before any public
+  service using the developed software is activated.
+
+  If the developer choses the GNU GPL software license, he or she must fulfill
+  the conditions of that license, which includes the obligation to place his
+  or her whole software project under the GNU GPL or a compatible license.
+  See http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+  If the developer choses the Swiss Ephemeris Professional license,
+  he must follow the instructions as found in http://www.astro.com/swisseph/
+  and purchase the Swiss Ephemeris Professional Edition from Astrodienst
+  and sign the corresponding license contract.
+
+  The License grants you the right to use, copy, modify and redistribute
+  Swiss Ephemeris, but only under certain conditions described in the License.
+  Among other things, the License requires that the copyright notices and
+  this notice be preserved on all copies.
+
+  Authors of the Swiss Ephemeris: Dieter Koch and Alois Treindl
+
+  The authors of Swiss Ephemeris have no control or influence over any of
+  the derived works, i.e. over software or services created by other
+  programmers which use Swiss Ephemeris functions.
+
+  The names of the authors or of the copyright holder (Astrodienst) must not
+  be used for promoting any software, product or service which uses or contains
+  the Swiss Ephemeris. This copyright notice is the ONLY place where the
+  names of the authors can legally appear, except in cases where they have
+  given special permission in writing.
+
+  The trademarks 'Swiss Ephemeris' and 'Swiss Ephemeris inside' may be used
+  for promoting such software, products or services.
+*/
+package swisseph;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+* Opens and maps every Swiss Ephemeris data file (*.se1) once for the whole
+* process. Each SwissEph object gets its own FilePtr on a file, a read
+* cursor with its own position on the shared read-only mapping, instead of
+* opening and mapping the file again.<P>
+* The constants read from the start of a file by FileData.read_const()
+* (file range, planets, position of the segment index of every planet,
+* orbital elements) are kept with the file as well and copied to the
+* SwissData of the next SwissEph object opening it, instead of reading and
+* checking the header again. Files of single asteroids (SEI_FILE_ANY_AST)
+* set more than that and are always read.<P>
+* The files stay open until closeAll() is called; the data files are not
+* expected to change while the process runs.
+*/
+public final class EphemerisFileRegistry {
+  private static final EphemerisFileRegistry registry = new EphemerisFileRegistry();
+
+  private final Map<String, MappedFile> files = new ConcurrentHashMap<String, MappedFile>();
+
+
+  private EphemerisFileRegistry() {
+  }
+
+  /**
+  * Returns the registry of the process.
+  */
+  public static EphemerisFileRegistry getInstance() {
+    return registry;
+  }
+
+  /**
+  * Returns true, if the file is a Swiss Ephemeris data file, which is
+  * shared.
+  * @param fname the name of the file
+  */
+  static boolean isEphemerisFile(String fname) {
+    return fname.endsWith("." + SwephData.SE_FILE_SUFFIX);
+  }
+
+  /**
+  * Returns a new read cursor on a file, opening and mapping the file if
+  * this is the first one.
+  * @param fnamp the path and name of the file
+  * @return a cursor starting at the beginning of the file
+  * @throws IOException if the file cannot be opened or mapped, e.g. if it
+  * does not exist
+  */
+  FilePtr open(String fnamp) throws IOException {
+    MappedFile file = files.get(fnamp);
+    if (file == null) {
+      synchronized (this) {
+        file = files.get(fnamp);
+        if (file == null) {
+          file = new MappedFile(fnamp);
+          files.put(fnamp, file);
+        }
+      }
+    }
+    return file.newCursor();
+  }
+
+  /**
+  * Reads the constants of a file just opened into swed, as
+  * FileData.read_const() does, or copies them from the last time the file
+  * was read.
+  * @param ifno the file number
+  * @param serr error string
+  * @param swed the data of the SwissEph object
+  * @return SweConst.OK or SweConst.ERR
+  */
+  int read_const(int ifno, StringBuffer serr, SwissData swed) {
+    FileData fdp = swed.fidat[ifno];
+    MappedFile file = null;
+    if (fdp.fptr != null && fdp.fptr.isShared() && ifno != SwephData.SEI_FILE_ANY_AST) {
+      file = files.get(fdp.fptr.fnamp);
+    }
+    if (file == null) {
+      return fdp.read_const(ifno, serr, swed);
+    }
+    FileHeader header = file.header;
+    if (header != null && header.ifno == ifno) {
+      header.copyTo(fdp, swed);
+      return SweConst.OK;
+    }
+    int retc = fdp.read_const(ifno, serr, swed);
+    if (retc == SweConst.OK) {
+      file.header = new FileHeader(ifno, fdp, swed);
+    }
+    return retc;
+  }
+
+  /**
+  * Returns the number of files open.
+  */
+  public int getFileCount() {
+    return files.size();
+  }
+
+  /**
+  * Closes all the files. Cursors handed out before may not be used any
+  * more, so this is for the end of the process (or of a web application)
+  * only.
+  */
+  public synchronized void closeAll() {
+    for (MappedFile file : files.values()) {
+      try {
+        file.fp.close();
+      } catch (IOException ioe) {
+// NBT
+      }
+    }
+    files.clear();
+  }
+
+
+  /*
+   * A data file open and mapped once.
+   */
+  private static final class MappedFile {
+    final String fnamp;
+    final RandomAccessFile fp;
+    final FileChannel fc;
+    final MappedByteBuffer mbb;
+    // Set after the constants were read the first time:
+    volatile FileHeader header;
+
+    MappedFile(String fnamp) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile(fnamp, SwissData.BFILE_R_ACCESS);
+      try {
+        this.fc = raf.getChannel();
+        this.mbb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+      } catch (IOException ioe) {
+        raf.close();
+        throw ioe;
+      }
+      this.fnamp = fnamp;
+      this.fp = raf;
+    }
+
+    FilePtr newCursor() {
+      return new FilePtr(fp, fc, mbb, fnamp);
+    }
+  }
+
+  /*
+   * What FileData.read_const() reads from a file into FileData, PlanData
+   * and GenConst, except for the file name.
+   */
+  private static final class FileHeader {
+    final int ifno;
+    final int fversion;
+    final int sweph_denum;
+    final double tfstart;
+    final double tfend;
+    final int iflg;
+    final short npl;
+    final int[] ipl;
+    final double clight, aunit, helgravconst, ratme, sunradius;
+    final PlanHeader[] planets;
+
+    FileHeader(int ifno, FileData fdp, SwissData swed) {
+      this.ifno = ifno;
+      fversion = fdp.fversion;
+      sweph_denum = fdp.sweph_denum;
+      tfstart = fdp.tfstart;
+      tfend = fdp.tfend;
+      iflg = fdp.iflg;
+      npl = fdp.npl;
+      ipl = fdp.ipl.clone();
+      clight = swed.gcdat.clight;
+      aunit = swed.gcdat.aunit;
+      helgravconst = swed.gcdat.helgravconst;
+      ratme = swed.gcdat.ratme;
+      sunradius = swed.gcdat.sunradius;
+      planets = new PlanHeader[npl];
+      for (int kpl = 0; kpl < npl; kpl++) {
+        planets[kpl] = new PlanHeader(planData(swed, ipl[kpl]));
+      }
+    }
+
+    void copyTo(FileData fdp, SwissData swed) {
+      fdp.fversion = fversion;
+      fdp.sweph_denum = sweph_denum;
+      swed.jpldenum = sweph_denum;
+      fdp.tfstart = tfstart;
+      fdp.tfend = tfend;
+      fdp.iflg = iflg;
+      fdp.npl = npl;
+      System.arraycopy(ipl, 0, fdp.ipl, 0, ipl.length);
+      swed.gcdat.clight = clight;
+      swed.gcdat.aunit = aunit;
+      swed.gcdat.helgravconst = helgravconst;
+      swed.gcdat.ratme = ratme;
+      swed.gcdat.sunradius = sunradius;
+      for (int kpl = 0; kpl < npl; kpl++) {
+        PlanData pdp = planData(swed, ipl[kpl]);
+        pdp.ibdy = ipl[kpl];
+        planets[kpl].copyTo(pdp);
+      }
+    }
+
+    // As in read_const():
+    private static PlanData planData(SwissData swed, int ipli) {
+      if (ipli >= SweConst.SE_AST_OFFSET) {
+        return swed.pldat[SwephData.SEI_ANYBODY];
+      }
+      return swed.pldat[ipli];
+    }
+  }
+
+  /*
+   * The constants of one planet in a file.
+   */
+  private static final class PlanHeader {
+    final long lndx0;
+    final int iflg;
+    final int ncoe;
+    final double rmax;
+    final double tfstart;
+    final double tfend;
+    final double dseg;
+    final int nndx;
+    final double telem, prot, dprot, qrot, dqrot, peri, dperi;
+    final double[] refep;
+
+    PlanHeader(PlanData pdp) {
+      lndx0 = pdp.lndx0;
+      iflg = pdp.iflg;
+      ncoe = pdp.ncoe;
+      rmax = pdp.rmax;
+      tfstart = pdp.tfstart;
+      tfend = pdp.tfend;
+      dseg = pdp.dseg;
+      nndx = pdp.nndx;
+      telem = pdp.telem;
+      prot = pdp.prot;
+      dprot = pdp.dprot;
+      qrot = pdp.qrot;
+      dqrot = pdp.dqrot;
+      peri = pdp.peri;
+      dperi = pdp.dperi;
+      refep = ((pdp.iflg & SwephData.SEI_FLG_ELLIPSE)!=0) ? pdp.refep.clone() : null;
+    }
+
+    void copyTo(PlanData pdp) {
+      pdp.lndx0 = lndx0;
+      pdp.iflg = iflg;
+      pdp.ncoe = ncoe;
+      pdp.rmax = rmax;
+      pdp.tfstart = tfstart;
+      pdp.tfend = tfend;
+      pdp.dseg = dseg;
+      pdp.nndx = nndx;
+      pdp.telem = telem;
+      pdp.prot = prot;
+      pdp.dprot = dprot;
+      pdp.qrot = qrot;
+      pdp.dqrot = dqrot;
+      pdp.peri = peri;
+      pdp.dperi = dperi;
+      if (refep != null) {
+        // segp belongs to the old reference ellipse, as in read_const():
+        pdp.refep = refep.clone();
+        pdp.segp = null;
+      }
+    }
+  }
+}
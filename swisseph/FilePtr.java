@@ -125,6 +125,10 @@ class FilePtr implements java.io.Serializable {
 
   private boolean useHTTP;
 
+  // A cursor on a file of the EphemerisFileRegistry, the file and its
+  // mapping are not closed with the cursor:
+  private boolean shared = false;
+
   /**
   * Creates a new FilePtr instance. Well, the parameters are rather
   * &quot;funny&quot; for now, but there were reasons for it. I will
@@ -168,6 +172,36 @@ class FilePtr implements java.io.Serializable {
   }
 
 
+  /**
+  * Creates a read cursor on a file mapped by the EphemerisFileRegistry.
+  * The cursor has its own file position and byte order on the shared
+  * mapping, so every SwissEph object (or thread) can have its own cursor.
+  * @param fp the shared file
+  * @param fc the channel of the shared file
+  * @param mapped the mapping of the whole file, not read directly
+  * @param fnamp the name of the file
+  */
+  FilePtr(RandomAccessFile fp,
+          FileChannel fc,
+          MappedByteBuffer mapped,
+          String fnamp) {
+    this.fp = fp;
+    this.fc = fc;
+    this.fnamp = fnamp;
+    this.shared = true;
+    mbb = (MappedByteBuffer)mapped.duplicate();
+    cb = CharBuffer.allocate( STRING_BUFFER_SIZE );
+  }
+
+  /**
+  * Returns true, if this is a cursor on a file of the
+  * EphemerisFileRegistry.
+  */
+  boolean isShared() {
+    return shared;
+  }
+
+
   void setBigendian(boolean bigendian) {
     if (fc != null) {
       mbb.order(bigendian?ByteOrder.BIG_ENDIAN:ByteOrder.LITTLE_ENDIAN);
@@ -345,13 +379,14 @@ System.err.println("Re-allocating CharBuffer to size of " + (2 * cb.capacity())
 
   /**
   * Closes the connection to the file. This includes any Streams as well
-  * as the Socket and the RandomAccessFile from the constructor.
+  * as the Socket and the RandomAccessFile from the constructor. A cursor of
+  * the EphemerisFileRegistry leaves the shared file open.
   * @throws IOException if an I/O error occurs.
   */
   void close() throws IOException {
     try {
       fnamp = "";
-      if (fp != null) { fp.close(); }
+      if (fp != null && !shared) { fp.close(); }
       fp = null;
       if (sk != null) { sk.close(); }
       sk = null;
@@ -0,0 +1,400 @@
+/*
+   This is a port of the Swiss Ephemeris Free Edition, Version 1.76.00
+   of Astrodienst AG, Switzerland from the original C Code to Java. For
+   copyright see the original copyright notices below and additional
+   copyright notes in the file named LICENSE, or - if this file is not
+   available - the copyright notes at http://www.astro.ch/swisseph/ and
+   following. 
+
+   For any questions or comments regarding this port to Java, you should
+   ONLY contact me and not Astrodienst, as the Astrodienst AG is not involved
+   in this port in any way.
+
+   Thomas Mack, mack@ifis.cs.tu-bs.de, 23rd of April 2001
+
+*/
+/* Copyright (C) 1997 - 2008 Astrodienst AG, Switzerland.  All rights reserved.
+
+  License conditions
+  ------------------
+
+  This file is part of Swiss Ephemeris.
+
+  Swiss Ephemeris is distributed with NO WARRANTY OF ANY KIND.  No author
+  or distributor accepts any responsibility for the consequences of using it,
+  or for whether it serves any particular purpose or works at all, unless he
+  or she says so in writing.
+
+  Swiss Ephemeris is made available by its authors under a dual licensing
+  system. The software developer, who uses any part of Swiss Ephemeris
+  in his or her software, must choose between one of the two license models,
+  which are
+  a) GNU public license version 2 or later
+  b) Swiss Ephemeris Professional License
+
+  The choice must be made before the software developer distributes software
+  containing parts of Swiss Ephemeris to others, and before any public
+  service using the developed software is activated.
+
+  If the developer choses the GNU GPL software license, he or she must fulfill
+  the conditions of that license, which includes the obligation to place his
+  or her whole software project under the GNU GPL or a compatible license.
+  See http://www.gnu.org/licenses/old-licenses/gpl-2.0.html
+
+  If the developer choses the Swiss Ephemeris Professional license,
+  he must follow the instructions as found in http://www.astro.com/swisseph/
+  and purchase the Swiss Ephemeris Professional Edition from Astrodienst
+  and sign the corresponding license contract.
+
+  The License grants you the right to use, copy, modify and redistribute
+  Swiss Ephemeris, but only under certain conditions described in the License.
+  Among other things, the License requires that the copyright notices and
+  this notice be preserved on all copies.
+
+  Authors of the Swiss Ephemeris: Dieter Koch and Alois Treindl
+
+  The authors of Swiss Ephemeris have no control or influence over any of
+  the derived works, i.e. over software or services created by other
+  programmers which use Swiss Ephemeris functions.
+
+  The names of the authors or of the copyright holder (Astrodienst) must not
+  be used for promoting any software, product or service which uses or contains
+  the Swiss Ephemeris. This copyright notice is the ONLY place where the
+  names of the authors can legally appear, except in cases where they have
+  given special permission in writing.
+
+  The trademarks 'Swiss Ephemeris' and 'Swiss Ephemeris inside' may be used
+  for promoting such software, products or services.
+*/
+package swisseph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+* The fixed star file fixstars.cat, read once and kept in memory. The star
+* lines are indexed by traditional name (lower case), by nomenclature name
+* (with the leading comma) and by number, so that swe_fixstar() and
+* swe_fixstar_mag() do not have to read through the file for every star.
+* A catalogue is immutable and shared by all SwissEph objects reading the
+* same file.<P>
+* If the system property SIDECAR_PROPERTY is "true", the catalogue is also
+* saved next to the star file (fixstars.cat.idx) and read from there as
+* long as the star file is not changed. This needs write access to the
+* ephemeris directory and is not done for files read via http.<P>
+* A name finds the same star as reading the file did: the first line in
+* the file starting with the given name (or the given part of it).
+*/
+final class FixstarCatalogue {
+  static final String SIDECAR_PROPERTY = "swisseph.fixstarSidecar";
+  static final String SIDECAR_SUFFIX = ".idx";
+
+  private static final int SIDECAR_MAGIC = 0x53454658;  // "SEFX"
+  private static final int SIDECAR_VERSION = 1;
+
+  // Catalogues by name of the star file:
+  private static final Map<String, FixstarCatalogue> catalogues =
+      new ConcurrentHashMap<String, FixstarCatalogue>();
+
+  // Star lines as read from the file, without the comment lines:
+  private final String[] lines;
+  // Line number of every star line in the file, counting comment lines:
+  private final int[] flines;
+  private final NameIndex names;
+  private final NameIndex nomenclatures;
+
+
+  private FixstarCatalogue(String[] lines, int[] flines) {
+    this.lines = lines;
+    this.flines = flines;
+    String[] nameKeys = new String[lines.length];
+    String[] nomKeys = new String[lines.length];
+    for (int i = 0; i < lines.length; i++) {
+      String s = lines[i];
+      int comma = s.indexOf(',');
+      if (comma < 0) {
+        nameKeys[i] = s.toLowerCase().trim();
+        continue;
+      }
+      nameKeys[i] = s.substring(0, comma).toLowerCase().trim();
+      int end = s.indexOf(',', comma + 1);
+      nomKeys[i] = (end < 0) ? s.substring(comma).trim() : s.substring(comma, end);
+    }
+    names = new NameIndex(nameKeys);
+    nomenclatures = new NameIndex(nomKeys);
+  }
+
+  /**
+  * Returns the catalogue of an open star file, reading it if it is not
+  * known yet.
+  * @param fp the star file as opened by swi_fopen()
+  * @return the catalogue of the file
+  * @throws IOException if the file cannot be read
+  */
+  static FixstarCatalogue forFile(FilePtr fp) throws IOException {
+    String fnamp = fp.fnamp;
+    FixstarCatalogue catalogue = catalogues.get(fnamp);
+    if (catalogue == null) {
+      // Read twice at worst, if two threads start together
+      catalogue = load(fp);
+      FixstarCatalogue known = catalogues.putIfAbsent(fnamp, catalogue);
+      if (known != null) {
+        catalogue = known;
+      }
+    }
+    return catalogue;
+  }
+
+  private static FixstarCatalogue load(FilePtr fp) throws IOException {
+    File source = null;
+    File sidecar = null;
+    if (Boolean.getBoolean(SIDECAR_PROPERTY) && !fp.fnamp.startsWith("http://")) {
+      source = new File(fp.fnamp);
+      sidecar = new File(fp.fnamp + SIDECAR_SUFFIX);
+      FixstarCatalogue catalogue = readSidecar(sidecar, source);
+      if (catalogue != null) {
+        return catalogue;
+      }
+    }
+    FixstarCatalogue catalogue = read(fp);
+    if (sidecar != null) {
+      catalogue.writeSidecar(sidecar, source);
+    }
+    return catalogue;
+  }
+
+  /*
+   * Reads the star lines of the file. Lines starting with # are comments.
+   */
+  private static FixstarCatalogue read(FilePtr fp) throws IOException {
+    String[] lines = new String[1024];
+    int[] flines = new int[1024];
+    int line = 0;
+    int fline = 0;
+    String s;
+    fp.seek(0);
+    try {
+      while ((s=fp.readLine())!=null) {
+        fline++;
+        if (s.startsWith("#")) { continue; }
+        if (line == lines.length) {
+          lines = Arrays.copyOf(lines, 2 * line);
+          flines = Arrays.copyOf(flines, 2 * line);
+        }
+        lines[line] = s;
+        flines[line] = fline;
+        line++;
+      }
+    } catch (EOFException eofe) {
+    } catch (java.nio.BufferUnderflowException bue) {
+      // End of a memory mapped file
+    }
+    return new FixstarCatalogue(Arrays.copyOf(lines, line), Arrays.copyOf(flines, line));
+  }
+
+  /*
+   * The catalogue saved in the sidecar, or null if there is none or it was
+   * saved from another version of the star file.
+   */
+  private static FixstarCatalogue readSidecar(File sidecar, File source) {
+    if (!sidecar.isFile()) {
+      return null;
+    }
+    DataInputStream in = null;
+    try {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar)));
+      if (in.readInt() != SIDECAR_MAGIC || in.readInt() != SIDECAR_VERSION ||
+          in.readLong() != source.length() || in.readLong() != source.lastModified()) {
+        return null;
+      }
+      int n = in.readInt();
+      String[] lines = new String[n];
+      int[] flines = new int[n];
+      for (int i = 0; i < n; i++) {
+        flines[i] = in.readInt();
+        lines[i] = in.readUTF();
+      }
+      return new FixstarCatalogue(lines, flines);
+    } catch (IOException ioe) {
+      // Damaged, it is written again
+      return null;
+    } catch (RuntimeException re) {
+      return null;
+    } finally {
+      closeQuietly(in);
+    }
+  }
+
+  /*
+   * Saves the catalogue if the directory is writable, else nothing happens.
+   */
+  private void writeSidecar(File sidecar, File source) {
+    File tmp = new File(sidecar.getPath() + ".tmp");
+    DataOutputStream out = null;
+    try {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+      out.writeInt(SIDECAR_MAGIC);
+      out.writeInt(SIDECAR_VERSION);
+      out.writeLong(source.length());
+      out.writeLong(source.lastModified());
+      out.writeInt(lines.length);
+      for (int i = 0; i < lines.length; i++) {
+        out.writeInt(flines[i]);
+        out.writeUTF(lines[i]);
+      }
+      out.close();
+      out = null;
+      // Readers see the old sidecar or the new one, never half of it:
+      if (!tmp.renameTo(sidecar)) {
+        sidecar.delete();
+        tmp.renameTo(sidecar);
+      }
+    } catch (IOException ioe) {
+    } catch (SecurityException se) {
+    } finally {
+      closeQuietly(out);
+      tmp.delete();
+    }
+  }
+
+  private static void closeQuietly(java.io.Closeable c) {
+    if (c != null) {
+      try {
+        c.close();
+      } catch (IOException ioe) {
+      }
+    }
+  }
+
+  /**
+  * Returns the number of stars in the catalogue.
+  */
+  int size() {
+    return lines.length;
+  }
+
+  /**
+  * Returns the line of a star as read from the file.
+  * @param idx the index of the star, 0 for the first star line
+  */
+  String getLine(int idx) {
+    return lines[idx];
+  }
+
+  /**
+  * Returns the line number of a star in the file, counting the comment
+  * lines.
+  * @param idx the index of the star, 0 for the first star line
+  */
+  int getFileLine(int idx) {
+    return flines[idx];
+  }
+
+  /**
+  * Finds a star by number.
+  * @param star_nr the number of the star, starting from 1 and not counting
+  * comment lines
+  * @return the index of the star or -1, if there is no such star
+  */
+  int findByNumber(int star_nr) {
+    return (star_nr > 0 && star_nr <= lines.length) ? star_nr - 1 : -1;
+  }
+
+  /**
+  * Finds the first star with a traditional name starting with the given
+  * name.
+  * @param sstar the name or the start of it in lower case, trimmed
+  * @return the index of the star or -1, if there is no such star
+  */
+  int findByName(String sstar) {
+    return names.find(sstar);
+  }
+
+  /**
+  * Finds the first star with a nomenclature name starting with the given
+  * name, e.g. ",alAnd". Case sensitive.
+  * @param sstar the name or the start of it with the leading comma
+  * @return the index of the star or -1, if there is no such star
+  */
+  int findByNomenclature(String sstar) {
+    if (sstar.indexOf(',', 1) >= 0) {
+      // Reaches into the fields after the name, compare the lines:
+      for (int i = 0; i < lines.length; i++) {
+        int comma = lines[i].indexOf(',');
+        if (comma >= 0 && lines[i].substring(comma).trim().startsWith(sstar)) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    return nomenclatures.find(sstar);
+  }
+
+
+  /*
+   * Names of the stars for prefix search. A complete name is found in a
+   * hash map, the start of a name in the sorted names.
+   */
+  private static final class NameIndex {
+    // Sorted names and the index of the first star for every one of them:
+    private final String[] sorted;
+    private final int[] first;
+    // First star with a name starting with the given name:
+    private final Map<String, Integer> byName;
+
+    NameIndex(String[] keys) {
+      Map<String, Integer> firstOfKey = new HashMap<String, Integer>();
+      for (int i = 0; i < keys.length; i++) {
+        if (keys[i] != null && !firstOfKey.containsKey(keys[i])) {
+          firstOfKey.put(keys[i], i);
+        }
+      }
+      sorted = firstOfKey.keySet().toArray(new String[firstOfKey.size()]);
+      Arrays.sort(sorted);
+      first = new int[sorted.length];
+      for (int i = 0; i < sorted.length; i++) {
+        first[i] = firstOfKey.get(sorted[i]);
+      }
+      // A name may be the start of other, earlier names ("al" of "aldebaran"):
+      byName = new HashMap<String, Integer>(2 * sorted.length);
+      for (int i = 0; i < sorted.length; i++) {
+        byName.put(sorted[i], firstWithPrefix(sorted[i], i));
+      }
+    }
+
+    int find(String prefix) {
+      Integer idx = byName.get(prefix);
+      if (idx != null) {
+        return idx;
+      }
+      int pos = Arrays.binarySearch(sorted, prefix);
+      return firstWithPrefix(prefix, (pos < 0) ? -pos - 1 : pos);
+    }
+
+    /*
+     * Names starting with the prefix follow each other in the sorted names
+     * from pos on.
+     */
+    private int firstWithPrefix(String prefix, int pos) {
+      int idx = -1;
+      for (int i = pos; i < sorted.length && sorted[i].startsWith(prefix); i++) {
+        if (idx < 0 || first[i] < idx) {
+          idx = first[i];
+        }
+      }
+      return idx;
+    }
+  }
+}
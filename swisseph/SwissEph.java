@@ -353,6 +353,36 @@ public class SwissEph extends AbstractSwissEph implements java.io.Serializable,
 
 String slast_stardata;
 String slast_starname;
+  // The star file as read by this or another SwissEph object:
+  private transient FixstarCatalogue fixstars;
+
+  /**
+  * Returns the catalogue of the star file, opening the file if needed.
+  * @param serr Buffer for error message on output
+  * @return the catalogue of fixstars.cat
+  * @throws SwissephException if the file cannot be found or read
+  */
+  FixstarCatalogue getFixstarCatalogue(StringBuffer serr) throws SwissephException {
+    if (swissData.fixfp == null) {
+      // May throw SwissephException:
+      swissData.fixfp = swi_fopen(SwephData.SEI_FILE_FIXSTAR, SweConst.SE_STARFILE, swissData.ephepath, serr);
+      fixstars = null;
+    }
+    if (fixstars == null) {
+      try {
+        fixstars = FixstarCatalogue.forFile(swissData.fixfp);
+      } catch (java.io.IOException ioe) {
+        if (serr != null) {
+          serr.setLength(0);
+          serr.append("error reading star file "+SweConst.SE_STARFILE+": "+ioe.getMessage());
+        }
+        throw new SwissephException(0./0., SwissephException.FILE_READ_ERROR,
+            SweConst.ERR, serr);
+      }
+    }
+    return fixstars;
+  }
+
   // Reads the line with the fixstar parameters and returns the
   // corresponding line number as a String in String[0] and the
   // line itself in String[1].
@@ -361,7 +391,6 @@ String slast_starname;
     int star_nr = 0;
     String s  ; //, sp;
     int fline = 0;
-    int line = 0;
     boolean isnomclat = false;
 
 
@@ -401,50 +430,32 @@ String slast_starname;
      * These can be accessed by giving their number instead of a name.
      * All other stars can be accessed by name.
      * Comment lines start with # and are ignored.
+     * The file is read once into the FixstarCatalogue.
      ******************************************************/
-    if (swissData.fixfp == null) {
-      try {
-        // May throw SwissephException:
-        swissData.fixfp = swi_fopen(SwephData.SEI_FILE_FIXSTAR, SweConst.SE_STARFILE, swissData.ephepath, serr);
-      } catch (SwissephException se) {
-        return null;
-//       retc = ERR;
-//       goto return_err;
-      }
-    }
-    swissData.fixfp.seek(0);
+    FixstarCatalogue catalogue;
     try {
-      while ((s=swissData.fixfp.readLine())!=null) {
-        fline++;
-        if (s.startsWith("#")) { continue; }
-        line++;
-        // The name can be a line number, counted without(!!!) comment lines:
-        if (star_nr > 0) {
-          if (star_nr == line) {
-            slast_stardata = s;
-            slast_starname = sstar;
-            return new String[] { ""+fline, s };
-          }
-          continue;
-        }
-
-        // The name can be before the first comma (case insensitive),
-        // or case sensitive after the comma (and including the comma):
-        if (!isnomclat && s.toLowerCase().startsWith(sstar)) {
-          slast_stardata = s;
-          slast_starname = sstar;
-          return new String[] { ""+fline, s };
-        } else if (isnomclat) {
-          String fstar=s.substring(s.indexOf(',')).trim();
-          if (fstar.startsWith(sstar)) {
-            slast_stardata = s;
-            slast_starname = sstar;
-            return new String[] { ""+fline, s };
-          }
-        }
-      }
-    } catch (java.io.IOException ioe) {
-    } catch (java.nio.BufferUnderflowException ioe) {
+      catalogue = getFixstarCatalogue(serr);
+    } catch (SwissephException se) {
+      return null;
+//     retc = ERR;
+//     goto return_err;
+    }
+    int idx;
+    // The name can be a line number, counted without(!!!) comment lines:
+    if (star_nr > 0) {
+      idx = catalogue.findByNumber(star_nr);
+    // The name can be before the first comma (case insensitive),
+    // or case sensitive after the comma (and including the comma):
+    } else if (isnomclat) {
+      idx = catalogue.findByNomenclature(sstar);
+    } else {
+      idx = catalogue.findByName(sstar);
+    }
+    if (idx >= 0) {
+      s = catalogue.getLine(idx);
+      slast_stardata = s;
+      slast_starname = sstar;
+      return new String[] { ""+catalogue.getFileLine(idx), s };
     }
     if (serr != null && star.length() < SwissData.AS_MAXCH - 20) {
       serr.setLength(0);
@@ -2663,7 +2674,7 @@ String slast_starname;
       if (serr != null) {
         serr.setLength(0);
       }
-      retc = swissData.fidat[ifno].read_const(ifno, serr, swissData);
+      retc = EphemerisFileRegistry.getInstance().read_const(ifno, serr, swissData);
       if (retc != SweConst.OK) {
         return(retc);
       }
@@ -5870,9 +5881,7 @@ int refepyOffs;
     int cmplen;
     String[] cpos = new String[20];
     String sstar;
-    String fstar;
-    String s="", sp;
-    int line = 0;
+    String s="";
     int fline = 0;
     int retc = SweConst.ERR;
     mag[0] = 0;
@@ -5885,11 +5894,8 @@ int refepyOffs;
      * All other stars can be accessed by name.
      * Comment lines start with # and are ignored.
      ******************************************************/
-    if (swissData.fixfp == null) {
-      // May throw SwissephException:
-      swissData.fixfp = swi_fopen(SwephData.SEI_FILE_FIXSTAR, SweConst.SE_STARFILE, swissData.ephepath, serr);
-    }
-    swissData.fixfp.seek(0);
+    // May throw SwissephException:
+    FixstarCatalogue catalogue = getFixstarCatalogue(serr);
     sstar=star.toString().substring(0,
                                 SMath.min(star.length(),SweConst.SE_MAX_STNAME));
     if (sstar.length()>0) {
@@ -5915,44 +5921,27 @@ int refepyOffs;
           "swe_fixstar_mag(): star name empty");
     }
 
-    try {
-      while ((s=swissData.fixfp.readLine())!=null) {
-        fline++;
-        if (s.startsWith("#")) { continue; }
-        line++;
-        if (star_nr == line)
-          break;
-        else if (star_nr > 0)
-          continue;
-        if (s.indexOf(',') < 0) {
-          throw new SwissephException(0./0.,
-              SwissephException.DAMAGED_FILE_ERROR,
-              retc,
-              "star file " + SweConst.SE_STARFILE + " damaged at line " + fline);
-        }
-        sp = s.substring(s.indexOf(','));
-        if (isnomclat) {
-          if (sp.substring(0, SMath.min(sp.length(), cmplen)).equals(sstar.substring(0, SMath.min(sstar.length(), cmplen))))
-            break;
-          else
-            continue;
-        }
-        fstar = s.substring(0, SMath.min(s.length(), SweConst.SE_MAX_STNAME)).trim();
-        i = fstar.length();
-        if (i < cmplen)
-          continue;
-        fstar = fstar.toLowerCase();
-        if (fstar.substring(0, SMath.min(fstar.length(), cmplen)).equals(sstar.substring(0, SMath.min(sstar.length(), cmplen))))
-          break;
-      }
-      if (s == null) {
-          throw new SwissephException(0./0.,
-              SwissephException.UNSUPPORTED_OBJECT,
-              retc,
-              "star "+star+" not found");
-      }
-    } catch (java.io.IOException ioe) {
-    } catch (java.nio.BufferUnderflowException ioe) {
+    int idx;
+    if (star_nr > 0) {
+      idx = catalogue.findByNumber(star_nr);
+    } else if (isnomclat) {
+      idx = catalogue.findByNomenclature(sstar);
+    } else {
+      idx = catalogue.findByName(sstar);
+    }
+    if (idx < 0) {
+        throw new SwissephException(0./0.,
+            SwissephException.UNSUPPORTED_OBJECT,
+            retc,
+            "star "+star+" not found");
+    }
+    s = catalogue.getLine(idx);
+    fline = catalogue.getFileLine(idx);
+    if (s.indexOf(',') < 0) {
+      throw new SwissephException(0./0.,
+          SwissephException.DAMAGED_FILE_ERROR,
+          retc,
+          "star file " + SweConst.SE_STARFILE + " damaged at line " + fline);
     }
     i = swissLib.swi_cutstr(s, ",", cpos, 20);
     cpos[0] = cpos[0].trim();